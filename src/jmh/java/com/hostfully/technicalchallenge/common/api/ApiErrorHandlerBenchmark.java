@@ -0,0 +1,59 @@
+package com.hostfully.technicalchallenge.common.api;
+
+import com.hostfully.technicalchallenge.common.api.response.ApiErrorResponse;
+import com.hostfully.technicalchallenge.common.exception.DatesConflictException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiErrorHandlerBenchmark {
+
+  @Param({"0", "7", "365"})
+  private int unavailableDatesCount;
+
+  private final ApiErrorHandler apiErrorHandler = new ApiErrorHandler();
+
+  private DatesConflictException exception;
+
+  @Setup
+  public void setUp() {
+    final List<LocalDate> unavailableDates = new ArrayList<>();
+
+    for (int i = 0; i < unavailableDatesCount; i++) {
+      unavailableDates.add(LocalDate.now().plusDays(i));
+    }
+
+    Collections.shuffle(unavailableDates, new Random(42L));
+
+    //The handler sorts a copy of the dates, so the same unsorted and unmodifiable dates are handled by every
+    //invocation, and sorting them in place would fail
+    exception = new DatesConflictException(
+        "The property is not available for the selected dates",
+        Collections.unmodifiableList(unavailableDates));
+  }
+
+  @Benchmark
+  public ApiErrorResponse handleDatesConflictException() {
+    return apiErrorHandler.handleDatesConflictException(exception);
+  }
+}
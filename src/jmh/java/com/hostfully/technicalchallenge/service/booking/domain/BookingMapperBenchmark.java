@@ -0,0 +1,79 @@
+package com.hostfully.technicalchallenge.service.booking.domain;
+
+import com.hostfully.technicalchallenge.service.booking.api.response.BookingResponse;
+import com.hostfully.technicalchallenge.service.booking.data.Booking;
+import com.hostfully.technicalchallenge.service.booking.data.BookingStatus;
+import com.hostfully.technicalchallenge.service.booking.data.guest.BookingGuest;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingMapperBenchmark {
+
+  @Param({"1", "4", "16"})
+  private int guestCount;
+
+  private final BookingMapper bookingMapper = new BookingMapperImpl();
+
+  private Booking booking;
+  private BookingDto bookingDto;
+
+  @Setup
+  public void setUp() {
+    final UUID bookingId = UUID.randomUUID();
+    final List<BookingGuest> guests = new ArrayList<>();
+
+    for (int i = 0; i < guestCount; i++) {
+      guests.add(new BookingGuest(UUID.randomUUID(), bookingId, "Guest " + i, LocalDate.of(1990, 1, 1)));
+    }
+
+    final LocalDate startDate = LocalDate.now();
+
+    booking = new Booking(
+        bookingId,
+        UUID.randomUUID(),
+        UUID.randomUUID(),
+        startDate,
+        startDate.plusDays(6L),
+        BookingStatus.BOOKED,
+        70000L,
+        0L,
+        guests);
+
+    bookingDto = bookingMapper.entityToDto(booking);
+  }
+
+  @Benchmark
+  public BookingDto entityToDto() {
+    return bookingMapper.entityToDto(booking);
+  }
+
+  @Benchmark
+  public Booking dtoToEntity() {
+    return bookingMapper.dtoToEntity(bookingDto);
+  }
+
+  @Benchmark
+  public BookingResponse dtoToResponse() {
+    return bookingMapper.dtoToResponse(bookingDto);
+  }
+}
@@ -0,0 +1,63 @@
+package com.hostfully.technicalchallenge.service.booking.domain;
+
+import com.hostfully.technicalchallenge.service.property.data.Property;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingServiceImplBenchmark {
+
+  @Param({"1", "7", "365"})
+  private int stayDays;
+
+  @Param({"1", "4", "16"})
+  private int guestCount;
+
+  private BookingServiceImpl bookingService;
+  private BookingDto bookingInfo;
+  private Property property;
+
+  @Setup
+  public void setUp() {
+    //calculateTotalPrice does not touch any collaborator
+    bookingService = new BookingServiceImpl(null, null, null, null, null, null, null, null, null, null);
+
+    final List<BookingGuestDto> guests = new ArrayList<>();
+
+    for (int i = 0; i < guestCount; i++) {
+      guests.add(new BookingGuestDto(UUID.randomUUID(), null, "Guest " + i, LocalDate.of(1990, 1, 1)));
+    }
+
+    final LocalDate startDate = LocalDate.now();
+
+    bookingInfo = new BookingDto(
+        null, UUID.randomUUID(), UUID.randomUUID(), startDate, startDate.plusDays(stayDays - 1L), null, null, guests, null);
+
+    property = new Property();
+    property.setPricePerGuest(10000L);
+  }
+
+  @Benchmark
+  public long calculateTotalPrice() {
+    return bookingService.calculateTotalPrice(bookingInfo, property);
+  }
+}
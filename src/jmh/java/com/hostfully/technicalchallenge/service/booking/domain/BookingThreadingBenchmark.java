@@ -0,0 +1,216 @@
+package com.hostfully.technicalchallenge.service.booking.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hostfully.technicalchallenge.service.TechnicalChallengeApplication;
+import com.hostfully.technicalchallenge.service.booking.api.BookingApi;
+import com.hostfully.technicalchallenge.service.booking.api.request.CreateBookingRequest;
+import com.hostfully.technicalchallenge.service.booking.api.request.UpsertBookingGuestRequest;
+import com.hostfully.technicalchallenge.service.property.domain.PropertyDto;
+import com.hostfully.technicalchallenge.service.property.domain.PropertyService;
+import com.hostfully.technicalchallenge.service.user.domain.UserDto;
+import com.hostfully.technicalchallenge.service.user.domain.UserService;
+import jakarta.servlet.Filter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * Compares how many booking requests the server keeps in flight at once, with Tomcat's default pool of 200 platform
+ * threads against one virtual thread per request, i.e. with {@code spring.threads.virtual.enabled} off and on. The
+ * bookings are created through HTTP by more concurrent clients than there are platform threads, and each request
+ * waits for a simulated downstream call (e.g. a payment provider) on its request thread before reaching the
+ * controller, which is where the platform threads run out. The heap and the thread stacks are fixed by the fork.
+ * The score is the time to serve all the requests of an iteration, so the throughput is {@code bookings} divided by
+ * it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms256m", "-Xmx256m", "-Xss512k"})
+public class BookingThreadingBenchmark {
+
+  //More than Tomcat's 200 platform threads, and less than its 8192 connections
+  private static final int CLIENTS = 1000;
+  private static final int PROPERTIES = 100;
+  private static final long DOWNSTREAM_LATENCY_MILLIS = 20L;
+
+  //Counted by the server, as the requests queued by Tomcat for a thread are not in flight yet
+  private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+  private static final AtomicInteger PEAK_IN_FLIGHT = new AtomicInteger();
+
+  @Param({"platform", "virtual"})
+  private String threads;
+
+  @Param({"1000", "10000"})
+  private int bookings;
+
+  private ConfigurableApplicationContext context;
+  private ObjectMapper objectMapper;
+  private HttpClient httpClient;
+  private URI bookingsUri;
+  private UserDto user;
+  private List<PropertyDto> properties;
+  private ExecutorService clients;
+  private LocalDate nextStartDate;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = new SpringApplicationBuilder(TechnicalChallengeApplication.class)
+        .web(WebApplicationType.SERVLET)
+        .properties("logging.level.root=WARN", "server.port=0")
+        .initializers(applicationContext -> ((GenericApplicationContext) applicationContext)
+            .registerBean("downstreamLatencyFilter", FilterRegistrationBean.class, this::downstreamLatencyFilter))
+        //An argument, as the default properties of the builder are overridden by the ones of application.yaml
+        .run("--spring.threads.virtual.enabled=" + "virtual".equals(threads));
+
+    objectMapper = context.getBean(ObjectMapper.class);
+
+    user = context.getBean(UserService.class)
+        .createUser(new UserDto(null, "Benchmark User", LocalDate.of(1990, 1, 1), "benchmark@hostfully.com", null));
+
+    final PropertyService propertyService = context.getBean(PropertyService.class);
+
+    properties = new ArrayList<>();
+
+    for (int i = 0; i < PROPERTIES; i++) {
+      properties.add(propertyService.createProperty(new PropertyDto(
+          null, "Property " + i, user.getId(), "Main St " + i, null, "Springfield", "IL", "US", "62701", 10000L, null)));
+    }
+
+    final int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+
+    bookingsUri = URI.create("http://localhost:" + port + BookingApi.BOOKING_API_PATH);
+    httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(30L))
+        .build();
+    //Virtual threads on the client side, so the clients are never the ones running out of threads
+    clients = Executors.newVirtualThreadPerTaskExecutor();
+
+    nextStartDate = LocalDate.now().plusDays(1L);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    clients.shutdownNow();
+    httpClient.close();
+    context.close();
+  }
+
+  @Benchmark
+  public int createBookings(final InFlight inFlight) throws Exception {
+    //Every invocation books days no previous invocation used, so none of the bookings conflicts
+    final LocalDate startDate = nextStartDate;
+    nextStartDate = startDate.plusDays(bookings / PROPERTIES + 1L);
+
+    final AtomicInteger nextBooking = new AtomicInteger();
+    final List<Future<?>> futures = new ArrayList<>(CLIENTS);
+
+    for (int i = 0; i < CLIENTS; i++) {
+      futures.add(clients.submit(() -> {
+        for (int booking = nextBooking.getAndIncrement(); booking < bookings; booking = nextBooking.getAndIncrement()) {
+          createBooking(properties.get(booking % PROPERTIES).getId(), startDate.plusDays(booking / PROPERTIES));
+        }
+        return null;
+      }));
+    }
+
+    for (final Future<?> future : futures) {
+      future.get(5L, TimeUnit.MINUTES);
+    }
+
+    return bookings;
+  }
+
+  private void createBooking(final UUID propertyId, final LocalDate date) throws Exception {
+    final CreateBookingRequest body = new CreateBookingRequest(
+        propertyId, user.getId(), date, date, List.of(new UpsertBookingGuestRequest("Guest", LocalDate.of(1990, 1, 1))));
+
+    final HttpResponse<Void> response = httpClient.send(
+        HttpRequest.newBuilder(bookingsUri)
+            .timeout(Duration.ofMinutes(1L))
+            .header("Content-Type", "application/json")
+            .POST(BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+            .build(),
+        BodyHandlers.discarding());
+
+    if (response.statusCode() != 201) {
+      throw new IllegalStateException(String.format("Booking creation answered with %d", response.statusCode()));
+    }
+  }
+
+  private FilterRegistrationBean<Filter> downstreamLatencyFilter() {
+    final Filter filter = (request, response, chain) -> {
+      PEAK_IN_FLIGHT.accumulateAndGet(IN_FLIGHT.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(DOWNSTREAM_LATENCY_MILLIS);
+        chain.doFilter(request, response);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      } finally {
+        IN_FLIGHT.decrementAndGet();
+      }
+    };
+
+    final FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>(filter);
+    registration.addUrlPatterns(BookingApi.BOOKING_API_PATH);
+
+    return registration;
+  }
+
+  /**
+   * Reports the highest number of requests that were in flight in the server at the same time during an iteration.
+   * JMH sums the counter over the measurement iterations, the per-iteration values are printed as the benchmark
+   * runs.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class InFlight {
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      IN_FLIGHT.set(0);
+      PEAK_IN_FLIGHT.set(0);
+    }
+
+    public int peakInFlight() {
+      return PEAK_IN_FLIGHT.get();
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package com.hostfully.technicalchallenge.service.booking.domain;
+
+import com.hostfully.technicalchallenge.common.exception.DatesConflictException;
+import com.hostfully.technicalchallenge.service.TechnicalChallengeApplication;
+import com.hostfully.technicalchallenge.service.property.domain.PropertyDto;
+import com.hostfully.technicalchallenge.service.property.domain.PropertyService;
+import com.hostfully.technicalchallenge.service.user.domain.UserDto;
+import com.hostfully.technicalchallenge.service.user.domain.UserService;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * Updates random bookings from 16 threads, with the bookings of a property serialized by its own lock stripe and
+ * the concurrent updates of a booking resolved by its version, against the same updates serialized by a global
+ * lock. A few bookings per property keep several threads updating the same booking, so the updates that still
+ * fail after their retries are counted next to the applied ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class BookingUpdateContentionBenchmark {
+
+  private static final int PROPERTIES = 32;
+  private static final int BOOKINGS_PER_PROPERTY = 4;
+  //Days of its property each booking is moved within, apart from the days of the other bookings
+  private static final int DAYS_PER_BOOKING = 8;
+
+  @Param({"optimistic", "global"})
+  private String locking;
+
+  private final Lock globalLock = new ReentrantLock();
+
+  private ConfigurableApplicationContext context;
+  private BookingService bookingService;
+  private List<BookingDto> bookings;
+  private LocalDate startDate;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = new SpringApplicationBuilder(TechnicalChallengeApplication.class)
+        .web(WebApplicationType.NONE)
+        .properties("logging.level.root=WARN")
+        .run();
+
+    bookingService = context.getBean(BookingService.class);
+
+    final UserDto user = context.getBean(UserService.class)
+        .createUser(new UserDto(null, "Benchmark User", LocalDate.of(1990, 1, 1), "benchmark@hostfully.com", null));
+
+    final PropertyService propertyService = context.getBean(PropertyService.class);
+
+    startDate = LocalDate.now().plusDays(1L);
+    bookings = new ArrayList<>();
+
+    for (int i = 0; i < PROPERTIES; i++) {
+      final PropertyDto property = propertyService.createProperty(new PropertyDto(
+          null, "Property " + i, user.getId(), "Main St " + i, null, "Springfield", "IL", "US", "62701", 10000L, null));
+
+      for (int j = 0; j < BOOKINGS_PER_PROPERTY; j++) {
+        final LocalDate date = startDate.plusDays((long) j * DAYS_PER_BOOKING);
+
+        bookings.add(bookingService.createBooking(new BookingDto(
+            null, property.getId(), user.getId(), date, date, null, null, guests(), null)));
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public void updateBookings(final Outcomes outcomes) {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    final int booking = random.nextInt(bookings.size());
+    final UUID bookingId = bookings.get(booking).getId();
+    final LocalDate date = startDate.plusDays(
+        (long) (booking % BOOKINGS_PER_PROPERTY) * DAYS_PER_BOOKING + random.nextInt(DAYS_PER_BOOKING));
+
+    final boolean global = "global".equals(locking);
+
+    if (global) {
+      globalLock.lock();
+    }
+
+    try {
+      bookingService.updateBooking(bookingId, new BookingDto(null, null, null, date, date, null, null, guests(), null));
+      outcomes.updated++;
+    } catch (final DatesConflictException e) {
+      //The random day was the current day of the booking
+      outcomes.unavailable++;
+    } catch (final OptimisticLockingFailureException e) {
+      outcomes.conflicting++;
+    } finally {
+      if (global) {
+        globalLock.unlock();
+      }
+    }
+  }
+
+  private static List<BookingGuestDto> guests() {
+    return List.of(new BookingGuestDto(null, null, "Guest", LocalDate.of(1990, 1, 1)));
+  }
+
+  /**
+   * Counts the outcomes of the updates of each thread, JMH reports them as rates next to the throughput.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Outcomes {
+
+    public long updated;
+    public long unavailable;
+    public long conflicting;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      updated = 0L;
+      unavailable = 0L;
+      conflicting = 0L;
+    }
+  }
+}
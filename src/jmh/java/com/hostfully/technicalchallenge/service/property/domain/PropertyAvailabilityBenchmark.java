@@ -0,0 +1,112 @@
+package com.hostfully.technicalchallenge.service.property.domain;
+
+import com.hostfully.technicalchallenge.service.booking.data.BookingPeriod;
+import com.hostfully.technicalchallenge.service.booking.data.BookingRepository;
+import com.hostfully.technicalchallenge.service.property.data.PropertyRepository;
+import com.hostfully.technicalchallenge.service.property.data.block.PropertyBlockPeriod;
+import com.hostfully.technicalchallenge.service.property.data.block.PropertyBlockRepository;
+import com.hostfully.technicalchallenge.service.property.domain.availability.PropertyOccupancyCache;
+import com.hostfully.technicalchallenge.service.property.domain.availability.PropertyWriteLocks;
+import com.hostfully.technicalchallenge.service.user.data.UserRepository;
+import com.hostfully.technicalchallenge.util.RepositoryStubs;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyAvailabilityBenchmark {
+
+  private static final UUID PROPERTY_ID = UUID.randomUUID();
+
+  //Days covered by the bookings and blocks of the property, and by the queried period
+  @Param({"30", "365", "3650"})
+  private int calendarDays;
+
+  //Share of the calendar that is booked or blocked
+  @Param({"0.1", "0.5", "0.9"})
+  private double bookingDensity;
+
+  private PropertyServiceImpl propertyService;
+  private PropertyOccupancyCache occupancyCache;
+  private LocalDate startDate;
+  private LocalDate endDate;
+
+  @Setup
+  public void setUp() {
+    startDate = LocalDate.now();
+    endDate = startDate.plusDays(calendarDays - 1L);
+
+    final List<BookingPeriod> bookings = new ArrayList<>();
+    final List<PropertyBlockPeriod> blocks = new ArrayList<>();
+    final Random random = new Random(42L);
+
+    LocalDate date = startDate;
+
+    while (date.isBefore(endDate)) {
+      final LocalDate rangeEnd = date.plusDays(random.nextInt(7));
+
+      if (random.nextDouble() < bookingDensity) {
+        //One range in ten is a block, the rest are bookings
+        if (random.nextInt(10) == 0) {
+          blocks.add(new PropertyBlockPeriod(date, rangeEnd));
+        } else {
+          bookings.add(new BookingPeriod(date, rangeEnd));
+        }
+      }
+
+      date = rangeEnd.plusDays(1L);
+    }
+
+    final BookingRepository bookingRepository = RepositoryStubs.stub(
+        BookingRepository.class,
+        Map.of("findPeriodsByPropertyIdAndStatusNot", args -> bookings));
+
+    final PropertyBlockRepository propertyBlockRepository = RepositoryStubs.stub(
+        PropertyBlockRepository.class,
+        Map.of("findPeriodsByPropertyId", args -> blocks));
+
+    occupancyCache = new PropertyOccupancyCache(bookingRepository, propertyBlockRepository, 10_000L);
+
+    propertyService = new PropertyServiceImpl(
+        RepositoryStubs.stub(PropertyRepository.class, Map.of()),
+        RepositoryStubs.stub(UserRepository.class, Map.of()),
+        propertyBlockRepository,
+        occupancyCache,
+        new PropertyWriteLocks(1),
+        new PropertyMapperImpl(),
+        null,
+        null);
+  }
+
+  @Benchmark
+  public List<LocalDate> retrievePropertyUnavailableDatesForPeriod() {
+    return propertyService.retrievePropertyUnavailableDatesForPeriod(PROPERTY_ID, startDate, endDate);
+  }
+
+  @Benchmark
+  public List<LocalDate> retrievePropertyUnavailableDatesForPeriodWithColdCache() {
+    occupancyCache.evict(PROPERTY_ID);
+
+    return propertyService.retrievePropertyUnavailableDatesForPeriod(PROPERTY_ID, startDate, endDate);
+  }
+}
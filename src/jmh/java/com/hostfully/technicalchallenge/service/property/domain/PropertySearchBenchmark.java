@@ -0,0 +1,146 @@
+package com.hostfully.technicalchallenge.service.property.domain;
+
+import com.hostfully.technicalchallenge.service.TechnicalChallengeApplication;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Searches a page of available properties in the in-memory H2 database seeded with {@code propertyCount}
+ * properties, to check that the search cost does not grow with the number of properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertySearchBenchmark {
+
+  private static final int COUNTRIES = 10;
+  private static final int CITIES_PER_COUNTRY = 20;
+  private static final int PAGE_SIZE = 20;
+  private static final int INSERT_BATCH_SIZE = 1000;
+
+  @Param({"1000", "100000"})
+  private int propertyCount;
+
+  //Share of the properties with a booking overlapping the searched week
+  @Param({"0.1", "0.9"})
+  private double bookingDensity;
+
+  private ConfigurableApplicationContext context;
+  private PropertyService propertyService;
+  private PropertySearchCriteria criteria;
+  private PropertySearchCriteria cityCriteria;
+  private String middleCursor;
+
+  @Setup
+  public void setUp() {
+    context = new SpringApplicationBuilder(TechnicalChallengeApplication.class)
+        .web(WebApplicationType.NONE)
+        .run("--spring.datasource.url=jdbc:h2:mem:property-search-benchmark", "--logging.level.root=WARN");
+
+    propertyService = context.getBean(PropertyService.class);
+
+    final LocalDate startDate = LocalDate.now().plusDays(30L);
+    final LocalDate endDate = startDate.plusDays(6L);
+
+    final List<UUID> propertyIds = seed(context.getBean(JdbcTemplate.class), startDate);
+
+    criteria = new PropertySearchCriteria(startDate, endDate, 2, null, null, null);
+    cityCriteria = new PropertySearchCriteria(startDate, endDate, 2, "Country 0", "City 0", 2000000L);
+    middleCursor = PropertySearchCursor.encode(propertyIds.get(propertyIds.size() / 2));
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public PropertySearchPage searchFirstPage() {
+    return propertyService.searchAvailableProperties(criteria, null, PAGE_SIZE);
+  }
+
+  @Benchmark
+  public PropertySearchPage searchMiddlePage() {
+    return propertyService.searchAvailableProperties(criteria, middleCursor, PAGE_SIZE);
+  }
+
+  @Benchmark
+  public PropertySearchPage searchFirstPageInCityWithMaxPrice() {
+    return propertyService.searchAvailableProperties(cityCriteria, null, PAGE_SIZE);
+  }
+
+  //Inserted with plain JDBC batches, saving 100k entities through the services would dominate the setup
+  private List<UUID> seed(final JdbcTemplate jdbcTemplate, final LocalDate startDate) {
+    final Random random = new Random(42L);
+    final List<UUID> propertyIds = new ArrayList<>(propertyCount);
+    final List<Object[]> properties = new ArrayList<>(INSERT_BATCH_SIZE);
+    final List<Object[]> bookings = new ArrayList<>(INSERT_BATCH_SIZE);
+
+    for (int i = 0; i < propertyCount; i++) {
+      final UUID propertyId = UUID.randomUUID();
+      final int country = random.nextInt(COUNTRIES);
+
+      propertyIds.add(propertyId);
+      properties.add(new Object[] {
+          propertyId, UUID.randomUUID(), "Property " + i, "Address " + i, "Country " + country,
+          "City " + random.nextInt(CITIES_PER_COUNTRY), "State", "00000", 5000L + random.nextInt(20000)});
+
+      if (random.nextDouble() < bookingDensity) {
+        final LocalDate bookingStart = startDate.plusDays(random.nextInt(7));
+
+        bookings.add(new Object[] {
+            UUID.randomUUID(), propertyId, UUID.randomUUID(),
+            Date.valueOf(bookingStart), Date.valueOf(bookingStart.plusDays(2L)), 10000L});
+      }
+
+      if (properties.size() == INSERT_BATCH_SIZE || i == propertyCount - 1) {
+        jdbcTemplate.batchUpdate(
+            "insert into properties (id, owner_user_id, name, address_line1, country, city, state, postal_code, "
+                + "price_per_guest) values (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            properties);
+        jdbcTemplate.batchUpdate(
+            "insert into bookings (id, property_id, user_id, start_date, end_date, status, total_price) "
+                + "values (?, ?, ?, ?, ?, 'BOOKED', ?)",
+            bookings);
+
+        properties.clear();
+        bookings.clear();
+      }
+    }
+
+    //Keep the cursor in the database order, which compares the ids as unsigned bytes
+    propertyIds.sort((first, second) -> first.toString().compareTo(second.toString()));
+
+    //Bookings that end before the searched week, so each probe also has to skip past bookings
+    jdbcTemplate.update(
+        "insert into bookings (id, property_id, user_id, start_date, end_date, status, total_price) "
+            + "select random_uuid(), id, owner_user_id, ?, ?, 'BOOKED', 10000 from properties",
+        Date.valueOf(startDate.minusDays(10L)), Date.valueOf(startDate.minusDays(8L)));
+
+    return propertyIds;
+  }
+}
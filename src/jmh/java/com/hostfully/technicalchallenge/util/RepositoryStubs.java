@@ -0,0 +1,31 @@
+package com.hostfully.technicalchallenge.util;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for Spring Data repositories, so benchmarks can exercise the services without a database.
+ * Only the methods given by name are implemented, any other call fails.
+ */
+public class RepositoryStubs {
+
+  public static <R> R stub(final Class<R> repositoryType, final Map<String, Function<Object[], Object>> methods) {
+    final Object stub = Proxy.newProxyInstance(
+        repositoryType.getClassLoader(),
+        new Class<?>[] {repositoryType},
+        (proxy, method, args) -> {
+          final Function<Object[], Object> implementation = methods.get(method.getName());
+
+          if (Objects.isNull(implementation)) {
+            throw new UnsupportedOperationException(
+                String.format("%s.%s is not stubbed", repositoryType.getSimpleName(), method.getName()));
+          }
+
+          return implementation.apply(args);
+        });
+
+    return repositoryType.cast(stub);
+  }
+}
@@ -0,0 +1,123 @@
+package com.hostfully.technicalchallenge.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Thin JSON client over {@link HttpClient} that measures the latency of every request.
+ */
+public class LoadTestClient {
+
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30L);
+
+  private final String baseUrl;
+  private final HttpClient httpClient;
+  private final ObjectMapper objectMapper;
+
+  public LoadTestClient(final String baseUrl) {
+    this.baseUrl = baseUrl;
+    this.httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5L))
+        .build();
+    this.objectMapper = JsonMapper.builder()
+        .addModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+        .build();
+  }
+
+  public ObjectMapper getObjectMapper() {
+    return objectMapper;
+  }
+
+  public Response get(final String path) {
+    return send("GET", path, null);
+  }
+
+  public Response post(final String path, final Object body) {
+    return send("POST", path, body);
+  }
+
+  public Response put(final String path, final Object body) {
+    return send("PUT", path, body);
+  }
+
+  public <T> T read(final Response response, final Class<T> type) {
+    try {
+      return objectMapper.readValue(response.getBody(), type);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private Response send(final String method, final String path, final Object body) {
+    try {
+      final HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+          .timeout(REQUEST_TIMEOUT)
+          .header("Accept", "application/json");
+
+      if (Objects.isNull(body)) {
+        request.method(method, BodyPublishers.noBody());
+      } else {
+        request.header("Content-Type", "application/json")
+            .method(method, BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+      }
+
+      final long started = System.nanoTime();
+      final HttpResponse<String> response = httpClient.send(request.build(), BodyHandlers.ofString());
+      final long latency = System.nanoTime() - started;
+
+      return new Response(response.statusCode(), response.body(), latency);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for a response", e);
+    }
+  }
+
+  public static final class Response {
+    private final int status;
+    private final String body;
+    private final long latencyNanos;
+
+    private Response(final int status, final String body, final long latencyNanos) {
+      this.status = status;
+      this.body = body;
+      this.latencyNanos = latencyNanos;
+    }
+
+    public static Response failed(final long latencyNanos) {
+      return new Response(0, null, latencyNanos);
+    }
+
+    public int getStatus() {
+      return status;
+    }
+
+    public String getBody() {
+      return body;
+    }
+
+    public long getLatencyNanos() {
+      return latencyNanos;
+    }
+
+    public boolean isSuccessful() {
+      return status >= 200 && status < 300;
+    }
+  }
+}
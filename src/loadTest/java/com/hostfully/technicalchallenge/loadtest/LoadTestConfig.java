@@ -0,0 +1,94 @@
+package com.hostfully.technicalchallenge.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Settings of a load test run, read from {@code loadTest.*} system properties (see README).
+ */
+public class LoadTestConfig {
+
+  private final String baseUrl;
+  private final int users;
+  private final int properties;
+  private final int threads;
+  private final Duration warmup;
+  private final Duration duration;
+  private final int horizonDays;
+  private final long seed;
+  private final String resultsFile;
+
+  private LoadTestConfig(
+      final String baseUrl,
+      final int users,
+      final int properties,
+      final int threads,
+      final Duration warmup,
+      final Duration duration,
+      final int horizonDays,
+      final long seed,
+      final String resultsFile) {
+
+    if (users <= 0 || properties <= 0 || threads <= 0 || horizonDays <= 0) {
+      throw new IllegalArgumentException("`users`, `properties`, `threads` and `horizonDays` must be positive");
+    }
+
+    this.baseUrl = baseUrl;
+    this.users = users;
+    this.properties = properties;
+    this.threads = threads;
+    this.warmup = warmup;
+    this.duration = duration;
+    this.horizonDays = horizonDays;
+    this.seed = seed;
+    this.resultsFile = resultsFile;
+  }
+
+  public static LoadTestConfig fromSystemProperties() {
+    return new LoadTestConfig(
+        System.getProperty("loadTest.baseUrl", "http://localhost:8080"),
+        Integer.getInteger("loadTest.users", 50),
+        Integer.getInteger("loadTest.properties", 200),
+        Integer.getInteger("loadTest.threads", 16),
+        Duration.ofSeconds(Long.getLong("loadTest.warmupSeconds", 10L)),
+        Duration.ofSeconds(Long.getLong("loadTest.durationSeconds", 60L)),
+        Integer.getInteger("loadTest.horizonDays", 180),
+        Long.getLong("loadTest.seed", 42L),
+        System.getProperty("loadTest.resultsFile"));
+  }
+
+  public String getBaseUrl() {
+    return baseUrl;
+  }
+
+  public int getUsers() {
+    return users;
+  }
+
+  public int getProperties() {
+    return properties;
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  public Duration getWarmup() {
+    return warmup;
+  }
+
+  public Duration getDuration() {
+    return duration;
+  }
+
+  public int getHorizonDays() {
+    return horizonDays;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  public String getResultsFile() {
+    return resultsFile;
+  }
+}
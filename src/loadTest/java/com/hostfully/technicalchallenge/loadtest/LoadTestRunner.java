@@ -0,0 +1,204 @@
+package com.hostfully.technicalchallenge.loadtest;
+
+import com.hostfully.technicalchallenge.loadtest.LoadTestClient.Response;
+import com.hostfully.technicalchallenge.service.property.api.request.UpsertPropertyRequest;
+import com.hostfully.technicalchallenge.service.property.api.response.PropertyResponse;
+import com.hostfully.technicalchallenge.service.user.api.request.UpsertUserRequest;
+import com.hostfully.technicalchallenge.service.user.api.response.UserResponse;
+import java.io.File;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Seeds users and properties in a running instance of the API and replays a mix of booking and block requests
+ * against it, then reports throughput, latency percentiles and conflict rates.
+ */
+public class LoadTestRunner {
+
+  private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+  private static final String[] PERCENTILE_NAMES = {"p50Millis", "p99Millis", "p999Millis"};
+  private static final int CONFLICT_RATE_BUCKETS = 10;
+
+  public static void main(final String[] args) throws Exception {
+    final LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+    final LoadTestClient client = new LoadTestClient(config.getBaseUrl());
+    final Random random = new Random(config.getSeed());
+
+    System.out.printf("Seeding %d users and %d properties in %s%n",
+        config.getUsers(), config.getProperties(), config.getBaseUrl());
+
+    final List<UUID> userIds = seedUsers(client, config.getUsers());
+    final List<UUID> propertyIds = seedProperties(client, config.getProperties(), userIds, random);
+
+    System.out.printf("Running %d threads for %ds after a %ds warmup%n",
+        config.getThreads(), config.getDuration().toSeconds(), config.getWarmup().toSeconds());
+
+    final long measurementStart = System.nanoTime() + config.getWarmup().toNanos();
+    final long end = measurementStart + config.getDuration().toNanos();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(config.getThreads());
+    final List<Future<LoadTestWorker>> futures = new ArrayList<>();
+
+    for (int i = 0; i < config.getThreads(); i++) {
+      futures.add(executor.submit(new LoadTestWorker(
+          client, userIds, propertyIds, config.getHorizonDays(), config.getSeed() + i + 1, measurementStart, end)));
+    }
+
+    final List<LoadTestWorker> workers = new ArrayList<>();
+
+    for (final Future<LoadTestWorker> future : futures) {
+      workers.add(future.get());
+    }
+
+    executor.shutdown();
+
+    final Map<String, Object> report = buildReport(config, workers);
+
+    System.out.println(client.getObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(report));
+
+    if (Objects.nonNull(config.getResultsFile())) {
+      final File resultsFile = new File(config.getResultsFile());
+      resultsFile.getAbsoluteFile().getParentFile().mkdirs();
+      client.getObjectMapper().writerWithDefaultPrettyPrinter().writeValue(resultsFile, report);
+      System.out.printf("Results written to %s%n", resultsFile.getAbsolutePath());
+    }
+  }
+
+  private static List<UUID> seedUsers(final LoadTestClient client, final int count) {
+    final List<UUID> userIds = new ArrayList<>();
+
+    for (int i = 0; i < count; i++) {
+      final UpsertUserRequest request = new UpsertUserRequest(
+          "Load test user " + i,
+          LocalDate.of(1985, 1, 1),
+          String.format("load-test-%s@hostfully.com", UUID.randomUUID()));
+
+      userIds.add(client.read(checkCreated(client.post("/users", request)), UserResponse.class).getId());
+    }
+
+    return userIds;
+  }
+
+  private static List<UUID> seedProperties(
+      final LoadTestClient client,
+      final int count,
+      final List<UUID> userIds,
+      final Random random) {
+
+    final List<UUID> propertyIds = new ArrayList<>();
+
+    for (int i = 0; i < count; i++) {
+      final UpsertPropertyRequest request = new UpsertPropertyRequest(
+          "Load test property " + i,
+          userIds.get(random.nextInt(userIds.size())),
+          i + " Main Street",
+          null,
+          "Springfield",
+          "IL",
+          "US",
+          "62701",
+          5000L + random.nextInt(20000));
+
+      propertyIds.add(client.read(checkCreated(client.post("/properties", request)), PropertyResponse.class).getId());
+    }
+
+    return propertyIds;
+  }
+
+  private static Response checkCreated(final Response response) {
+    if (!response.isSuccessful()) {
+      throw new IllegalStateException(
+          String.format("Seeding failed with status %d: %s", response.getStatus(), response.getBody()));
+    }
+
+    return response;
+  }
+
+  private static Map<String, Object> buildReport(final LoadTestConfig config, final List<LoadTestWorker> workers) {
+    final double seconds = config.getDuration().toMillis() / 1000.0;
+
+    final Map<Operation, OperationStats> merged = new EnumMap<>(Operation.class);
+    final OperationStats overall = new OperationStats();
+    final int buckets = workers.get(0).getConflictsPerSecond().length;
+    final long[] conflictingAttemptsPerSecond = new long[buckets];
+    final long[] conflictsPerSecond = new long[buckets];
+
+    for (final LoadTestWorker worker : workers) {
+      worker.getStats().forEach((operation, stats) -> {
+        merged.computeIfAbsent(operation, key -> new OperationStats()).merge(stats);
+        overall.merge(stats);
+      });
+
+      for (int second = 0; second < buckets; second++) {
+        conflictingAttemptsPerSecond[second] += worker.getConflictingAttemptsPerSecond()[second];
+        conflictsPerSecond[second] += worker.getConflictsPerSecond()[second];
+      }
+    }
+
+    final Map<String, Object> report = new LinkedHashMap<>();
+    report.put("threads", config.getThreads());
+    report.put("users", config.getUsers());
+    report.put("properties", config.getProperties());
+    report.put("durationSeconds", seconds);
+    report.put("overall", summarize(overall, seconds));
+
+    final Map<String, Object> operations = new LinkedHashMap<>();
+    merged.forEach((operation, stats) -> operations.put(operation.name(), summarize(stats, seconds)));
+    report.put("operations", operations);
+
+    //Number of seconds of the run whose conflict rate fell in each 10% bucket
+    final Map<String, Long> conflictRateHistogram = new LinkedHashMap<>();
+
+    for (int bucket = 0; bucket < CONFLICT_RATE_BUCKETS; bucket++) {
+      conflictRateHistogram.put(String.format("%d-%d%%", bucket * 10, (bucket + 1) * 10), 0L);
+    }
+
+    for (int second = 0; second < buckets; second++) {
+      if (conflictingAttemptsPerSecond[second] == 0L) {
+        continue;
+      }
+
+      final double rate = (double) conflictsPerSecond[second] / conflictingAttemptsPerSecond[second];
+      final int bucket = Math.min((int) (rate * CONFLICT_RATE_BUCKETS), CONFLICT_RATE_BUCKETS - 1);
+
+      conflictRateHistogram.merge(String.format("%d-%d%%", bucket * 10, (bucket + 1) * 10), 1L, Long::sum);
+    }
+
+    report.put("conflictRateHistogram", conflictRateHistogram);
+
+    return report;
+  }
+
+  private static Map<String, Object> summarize(final OperationStats stats, final double seconds) {
+    final long[] latencies = stats.sortedLatencies();
+
+    final Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("requests", stats.getCount());
+    summary.put("throughputPerSecond", round(stats.getCount() / seconds));
+
+    for (int i = 0; i < PERCENTILES.length; i++) {
+      summary.put(PERCENTILE_NAMES[i], round(OperationStats.percentileMillis(latencies, PERCENTILES[i])));
+    }
+
+    summary.put("maxMillis", round(OperationStats.percentileMillis(latencies, 1.0)));
+    summary.put("conflicts", stats.getConflicts());
+    summary.put("conflictRate", stats.getCount() == 0 ? 0.0 : round((double) stats.getConflicts() / stats.getCount()));
+    summary.put("statuses", stats.getStatuses());
+
+    return summary;
+  }
+
+  private static double round(final double value) {
+    return Math.round(value * 1000.0) / 1000.0;
+  }
+}
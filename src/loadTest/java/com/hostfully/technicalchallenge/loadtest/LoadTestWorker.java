@@ -0,0 +1,230 @@
+package com.hostfully.technicalchallenge.loadtest;
+
+import com.hostfully.technicalchallenge.loadtest.LoadTestClient.Response;
+import com.hostfully.technicalchallenge.service.booking.api.request.CreateBookingRequest;
+import com.hostfully.technicalchallenge.service.booking.api.request.UpdateBookingRequest;
+import com.hostfully.technicalchallenge.service.booking.api.request.UpsertBookingGuestRequest;
+import com.hostfully.technicalchallenge.service.booking.api.response.BookingResponse;
+import com.hostfully.technicalchallenge.service.property.api.request.UpsertPropertyBlockRequest;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * Replays the booking workload from a single thread until the end of the run.
+ * Every worker keeps track of the bookings it created, so updates, cancellations and rebookings target them.
+ */
+public class LoadTestWorker implements Callable<LoadTestWorker> {
+
+  private final LoadTestClient client;
+  private final List<UUID> userIds;
+  private final List<UUID> propertyIds;
+  private final int horizonDays;
+  private final Random random;
+  private final long measurementStartNanos;
+  private final long endNanos;
+
+  private final List<BookingRef> bookings = new ArrayList<>();
+  private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+  private final long[] conflictingAttemptsPerSecond;
+  private final long[] conflictsPerSecond;
+
+  public LoadTestWorker(
+      final LoadTestClient client,
+      final List<UUID> userIds,
+      final List<UUID> propertyIds,
+      final int horizonDays,
+      final long seed,
+      final long measurementStartNanos,
+      final long endNanos) {
+
+    this.client = client;
+    this.userIds = userIds;
+    this.propertyIds = propertyIds;
+    this.horizonDays = horizonDays;
+    this.random = new Random(seed);
+    this.measurementStartNanos = measurementStartNanos;
+    this.endNanos = endNanos;
+
+    final int seconds = (int) Math.ceil((endNanos - measurementStartNanos) / 1_000_000_000.0);
+    this.conflictingAttemptsPerSecond = new long[Math.max(seconds, 1)];
+    this.conflictsPerSecond = new long[Math.max(seconds, 1)];
+
+    for (final Operation operation : Operation.values()) {
+      stats.put(operation, new OperationStats());
+    }
+  }
+
+  @Override
+  public LoadTestWorker call() {
+    while (System.nanoTime() < endNanos && !Thread.currentThread().isInterrupted()) {
+      final Operation operation = Operation.pick(random);
+      final long started = System.nanoTime();
+
+      try {
+        execute(operation);
+      } catch (final RuntimeException e) {
+        //Connection errors are recorded as status 0 so they show up in the report instead of stopping the run
+        record(operation, Response.failed(System.nanoTime() - started));
+      }
+    }
+
+    return this;
+  }
+
+  public Map<Operation, OperationStats> getStats() {
+    return stats;
+  }
+
+  public long[] getConflictingAttemptsPerSecond() {
+    return conflictingAttemptsPerSecond;
+  }
+
+  public long[] getConflictsPerSecond() {
+    return conflictsPerSecond;
+  }
+
+  private void execute(final Operation operation) {
+    switch (operation) {
+      case RETRIEVE_BOOKING -> withBooking(false, booking -> record(operation,
+          client.get("/bookings/" + booking.id)));
+      case UPDATE_BOOKING -> withBooking(false, this::updateBooking);
+      case CANCEL_BOOKING -> withBooking(false, booking -> {
+        final Response response = client.post("/bookings/" + booking.id + "/cancel", null);
+        record(operation, response);
+        booking.canceled = booking.canceled || response.isSuccessful();
+      });
+      case REBOOK_BOOKING -> withBooking(true, booking -> {
+        final Response response = client.post("/bookings/" + booking.id + "/rebook", null);
+        record(operation, response);
+        booking.canceled = !response.isSuccessful();
+      });
+      case BLOCK_DATES -> blockDates();
+      case RETRIEVE_BLOCKS -> {
+        final LocalDate startDate = randomStartDate();
+        record(operation, client.get(String.format(
+            "/properties/%s/blocks?startDate=%s&endDate=%s", randomProperty(), startDate, startDate.plusDays(30L))));
+      }
+      default -> createBooking();
+    }
+  }
+
+  private void createBooking() {
+    final UUID propertyId = randomProperty();
+    final LocalDate startDate = randomStartDate();
+
+    final CreateBookingRequest request = new CreateBookingRequest(
+        propertyId,
+        userIds.get(random.nextInt(userIds.size())),
+        startDate,
+        startDate.plusDays(random.nextInt(7)),
+        randomGuests());
+
+    final Response response = client.post("/bookings", request);
+    record(Operation.CREATE_BOOKING, response);
+
+    if (response.isSuccessful()) {
+      bookings.add(new BookingRef(client.read(response, BookingResponse.class).getId()));
+    }
+  }
+
+  private void updateBooking(final BookingRef booking) {
+    final LocalDate startDate = randomStartDate();
+
+    final UpdateBookingRequest request = new UpdateBookingRequest(
+        startDate,
+        startDate.plusDays(random.nextInt(7)),
+        randomGuests());
+
+    record(Operation.UPDATE_BOOKING, client.put("/bookings/" + booking.id, request));
+  }
+
+  private void blockDates() {
+    final LocalDate startDate = randomStartDate();
+    final Set<LocalDate> dates = new HashSet<>();
+
+    for (int i = random.nextInt(3); i >= 0; i--) {
+      dates.add(startDate.plusDays(i));
+    }
+
+    final UpsertPropertyBlockRequest request = new UpsertPropertyBlockRequest(dates, "Load test maintenance");
+
+    record(Operation.BLOCK_DATES, client.post("/properties/" + randomProperty() + "/block", request));
+  }
+
+  private void withBooking(final boolean canceled, final Consumer<BookingRef> action) {
+    final List<BookingRef> candidates = bookings.stream()
+        .filter(booking -> booking.canceled == canceled)
+        .toList();
+
+    //Nothing to act on yet, so the worker creates a booking instead
+    if (candidates.isEmpty()) {
+      createBooking();
+      return;
+    }
+
+    action.accept(candidates.get(random.nextInt(candidates.size())));
+  }
+
+  private void record(final Operation operation, final Response response) {
+    final long now = System.nanoTime();
+
+    if (now < measurementStartNanos) {
+      return;
+    }
+
+    //The workload only sends valid payloads, so a 422 on these operations means the dates were unavailable
+    final boolean conflict = operation.isConflicting() && response.getStatus() == 422;
+
+    stats.get(operation).record(response.getStatus(), response.getLatencyNanos(), conflict);
+
+    if (operation.isConflicting()) {
+      final int second = Math.min(
+          (int) ((now - measurementStartNanos) / 1_000_000_000L),
+          conflictsPerSecond.length - 1);
+
+      conflictingAttemptsPerSecond[second]++;
+
+      if (conflict) {
+        conflictsPerSecond[second]++;
+      }
+    }
+  }
+
+  //Popular properties get most of the traffic, like in a real catalog
+  private UUID randomProperty() {
+    final double skewed = random.nextDouble() * random.nextDouble();
+    return propertyIds.get((int) (skewed * propertyIds.size()));
+  }
+
+  private LocalDate randomStartDate() {
+    return LocalDate.now().plusDays(1L + random.nextInt(horizonDays));
+  }
+
+  private List<UpsertBookingGuestRequest> randomGuests() {
+    final List<UpsertBookingGuestRequest> guests = new ArrayList<>();
+
+    for (int i = random.nextInt(4); i >= 0; i--) {
+      guests.add(new UpsertBookingGuestRequest("Guest " + i, LocalDate.of(1980 + random.nextInt(30), 1, 1)));
+    }
+
+    return guests;
+  }
+
+  private static final class BookingRef {
+    private final UUID id;
+    private boolean canceled;
+
+    private BookingRef(final UUID id) {
+      this.id = id;
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.hostfully.technicalchallenge.loadtest;
+
+import java.util.Random;
+
+/**
+ * Requests replayed by the load test, with their share of the workload.
+ * Operations that can be rejected because of overlapping dates are flagged, so their conflict rate is reported.
+ */
+public enum Operation {
+  CREATE_BOOKING(30, true),
+  RETRIEVE_BOOKING(25, false),
+  UPDATE_BOOKING(10, true),
+  CANCEL_BOOKING(8, false),
+  REBOOK_BOOKING(7, true),
+  BLOCK_DATES(8, true),
+  RETRIEVE_BLOCKS(12, false);
+
+  private static final int TOTAL_WEIGHT = 100;
+
+  private final int weight;
+  private final boolean conflicting;
+
+  Operation(final int weight, final boolean conflicting) {
+    this.weight = weight;
+    this.conflicting = conflicting;
+  }
+
+  public boolean isConflicting() {
+    return conflicting;
+  }
+
+  public static Operation pick(final Random random) {
+    int roll = random.nextInt(TOTAL_WEIGHT);
+
+    for (final Operation operation : values()) {
+      roll -= operation.weight;
+
+      if (roll < 0) {
+        return operation;
+      }
+    }
+
+    return CREATE_BOOKING;
+  }
+}
@@ -0,0 +1,69 @@
+package com.hostfully.technicalchallenge.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and response statuses recorded for one operation. Each worker owns its instances, which are
+ * merged once the run is over, so recording does not need any synchronization.
+ */
+public class OperationStats {
+
+  private long[] latencies = new long[1024];
+  private int count;
+  private long conflicts;
+  private final Map<Integer, Long> statuses = new TreeMap<>();
+
+  public void record(final int status, final long latencyNanos, final boolean conflict) {
+    if (count == latencies.length) {
+      latencies = Arrays.copyOf(latencies, count * 2);
+    }
+
+    latencies[count++] = latencyNanos;
+    statuses.merge(status, 1L, Long::sum);
+
+    if (conflict) {
+      conflicts++;
+    }
+  }
+
+  public void merge(final OperationStats other) {
+    if (count + other.count > latencies.length) {
+      latencies = Arrays.copyOf(latencies, count + other.count);
+    }
+
+    System.arraycopy(other.latencies, 0, latencies, count, other.count);
+    count += other.count;
+    conflicts += other.conflicts;
+    other.statuses.forEach((status, total) -> statuses.merge(status, total, Long::sum));
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public long getConflicts() {
+    return conflicts;
+  }
+
+  public Map<Integer, Long> getStatuses() {
+    return statuses;
+  }
+
+  public long[] sortedLatencies() {
+    final long[] sorted = Arrays.copyOf(latencies, count);
+    Arrays.sort(sorted);
+    return sorted;
+  }
+
+  public static double percentileMillis(final long[] sortedLatencies, final double percentile) {
+    if (sortedLatencies.length == 0) {
+      return 0.0;
+    }
+
+    final int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+
+    return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+  }
+}
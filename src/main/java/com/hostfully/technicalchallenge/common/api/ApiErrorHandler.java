@@ -3,14 +3,16 @@ package com.hostfully.technicalchallenge.common.api;
 import com.hostfully.technicalchallenge.common.api.response.ApiErrorResponse;
 import com.hostfully.technicalchallenge.common.exception.DatesConflictException;
 import com.hostfully.technicalchallenge.common.exception.NotFoundException;
+import com.hostfully.technicalchallenge.common.exception.PreconditionFailedException;
 import jakarta.servlet.http.HttpServletResponse;
-import java.util.Collections;
 import java.util.Objects;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -29,6 +31,24 @@ public class ApiErrorHandler {
     );
   }
 
+  @ExceptionHandler(value = PreconditionFailedException.class)
+  @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+  public ApiErrorResponse handlePreconditionFailedException(final PreconditionFailedException e) {
+    return new ApiErrorResponse(
+        HttpStatus.PRECONDITION_FAILED.value(),
+        e.getMessage()
+    );
+  }
+
+  @ExceptionHandler(value = OptimisticLockingFailureException.class)
+  @ResponseStatus(HttpStatus.CONFLICT)
+  public ApiErrorResponse handleOptimisticLockingFailureException(final OptimisticLockingFailureException e) {
+    return new ApiErrorResponse(
+        HttpStatus.CONFLICT.value(),
+        "The resource was changed by concurrent requests while it was being updated, please try again"
+    );
+  }
+
   @ExceptionHandler(value = HttpMessageNotReadableException.class)
   @ResponseStatus(HttpStatus.BAD_REQUEST)
   public ApiErrorResponse handleHttpMessageNotReadableException(final HttpMessageNotReadableException e) {
@@ -71,6 +91,17 @@ public class ApiErrorHandler {
     );
   }
 
+  @ExceptionHandler(value = MissingServletRequestParameterException.class)
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
+  public ApiErrorResponse handleMissingServletRequestParameterException(
+      final MissingServletRequestParameterException e) {
+
+    return new ApiErrorResponse(
+        HttpStatus.BAD_REQUEST.value(),
+        String.format("The required parameter {%s} of type %s is missing", e.getParameterName(), e.getParameterType())
+    );
+  }
+
   @ExceptionHandler(value = NoResourceFoundException.class)
   @ResponseStatus(HttpStatus.NOT_FOUND)
   public ApiErrorResponse handleNoResourceFoundException(final NoResourceFoundException e) {
@@ -117,8 +148,8 @@ public class ApiErrorHandler {
     builder.append(e.getMessage());
 
     if (Objects.nonNull(e.getUnavailableDates()) && !e.getUnavailableDates().isEmpty()) {
-      Collections.sort(e.getUnavailableDates());
-      builder.append(String.format(". The unavailable dates are: %s", e.getUnavailableDates()));
+      builder.append(String.format(
+          ". The unavailable dates are: %s", e.getUnavailableDates().stream().sorted().toList()));
     }
 
     final String message = builder.toString();
@@ -129,6 +160,23 @@ public class ApiErrorHandler {
     );
   }
 
+  /**
+   * The body the handlers above respond with for the given domain exception, for the APIs that report
+   * the errors of several items in a single response.
+   */
+  public ApiErrorResponse toErrorResponse(final RuntimeException e) {
+    return switch (e) {
+      case NotFoundException notFound -> handleNotFoundException(notFound);
+      case PreconditionFailedException preconditionFailed -> handlePreconditionFailedException(preconditionFailed);
+      case OptimisticLockingFailureException optimisticLockingFailure ->
+          handleOptimisticLockingFailureException(optimisticLockingFailure);
+      case DatesConflictException datesConflict -> handleDatesConflictException(datesConflict);
+      case IllegalArgumentException illegalArgument -> handleIllegalArgumentException(illegalArgument);
+      case IllegalStateException illegalState -> handleIllegalStateException(illegalState);
+      default -> handleAllExceptions(e);
+    };
+  }
+
   @ExceptionHandler(value = Exception.class)
   @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
   public ApiErrorResponse handleAllExceptions(final Exception e) {
@@ -0,0 +1,45 @@
+package com.hostfully.technicalchallenge.common.api;
+
+import com.hostfully.technicalchallenge.common.exception.PreconditionFailedException;
+import java.util.Objects;
+
+/**
+ * Strong ETags of the API resources, derived from the version of the entity (or calendar) they represent,
+ * so they change with every committed change of it and never need the response body to be computed.
+ */
+public final class ETags {
+
+  private static final String ANY = "*";
+  private static final String WEAK_PREFIX = "W/";
+
+  private ETags() {
+  }
+
+  public static String of(final Object version) {
+    Objects.requireNonNull(version, "`version` cannot be null");
+    return "\"" + version + "\"";
+  }
+
+  /**
+   * The entity version an {@code If-Match} header requires, or null when any version is accepted (no header
+   * or {@code *}). Only a single strong ETag is accepted, since a weak one never matches in an {@code If-Match}.
+   */
+  public static Long expectedVersion(final String ifMatch) {
+    if (Objects.isNull(ifMatch) || ifMatch.isBlank() || ANY.equals(ifMatch.trim())) {
+      return null;
+    }
+
+    final String etag = ifMatch.trim();
+
+    if (etag.startsWith(WEAK_PREFIX) || etag.length() < 3 || !etag.startsWith("\"") || !etag.endsWith("\"")) {
+      throw new PreconditionFailedException(
+          String.format("The If-Match header must be * or a single strong ETag, got %s", ifMatch));
+    }
+
+    try {
+      return Long.parseLong(etag.substring(1, etag.length() - 1));
+    } catch (final NumberFormatException e) {
+      throw new PreconditionFailedException(String.format("The If-Match ETag %s is not a current ETag", ifMatch));
+    }
+  }
+}
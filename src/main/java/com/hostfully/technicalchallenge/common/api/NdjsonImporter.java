@@ -0,0 +1,255 @@
+package com.hostfully.technicalchallenge.common.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hostfully.technicalchallenge.common.api.response.ApiErrorResponse;
+import com.hostfully.technicalchallenge.common.api.response.BatchItemStatus;
+import com.hostfully.technicalchallenge.common.api.response.ImportLineResponse;
+import com.hostfully.technicalchallenge.common.domain.BatchItemResult;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Imports newline delimited JSON bodies. Lines are parsed and validated as they are read and handed to the import
+ * callback in windows of at most {@code batchSize} lines, and the result of every line is written back in order as
+ * soon as its window is imported. Only one window of lines is held here, whatever the size of the body: the
+ * callback persists each window in its own transaction and releases the entities it wrote.
+ */
+@Component
+public class NdjsonImporter {
+
+  static final int MAX_LINE_LENGTH = 64 * 1024;
+
+  private static final byte[] LINE_SEPARATOR = {'\n'};
+
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final ApiErrorHandler apiErrorHandler;
+  private final int batchSize;
+
+  public NdjsonImporter(
+      final ObjectMapper objectMapper,
+      final Validator validator,
+      final ApiErrorHandler apiErrorHandler,
+      @Value("${hostfully.import.batch-size:500}") final int batchSize) {
+
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("`batchSize` must be positive");
+    }
+
+    this.objectMapper = objectMapper;
+    this.validator = validator;
+    this.apiErrorHandler = apiErrorHandler;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Imports each line of the input as a {@code requestType}, writing an {@link ImportLineResponse} line to the
+   * output for every non-blank line. A window whose import throws is rolled back by its transaction, so all its
+   * lines are reported with that error and the import goes on with the next window.
+   */
+  public <R, T> void importLines(
+      final InputStream input,
+      final OutputStream output,
+      final Class<R> requestType,
+      final Function<List<R>, List<BatchItemResult<T>>> batchImport) throws IOException {
+
+    Objects.requireNonNull(input, "`input` cannot be null");
+    Objects.requireNonNull(output, "`output` cannot be null");
+
+    final LineReader reader = new LineReader(
+        new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+    final List<ParsedLine<R>> window = new ArrayList<>(batchSize);
+
+    long lineNumber = 0L;
+    String line;
+
+    while (Objects.nonNull(line = reader.next())) {
+      lineNumber++;
+
+      if (line.isBlank()) {
+        continue;
+      }
+
+      window.add(reader.wasTruncated() ? lineTooLong(lineNumber) : parse(lineNumber, line, requestType));
+
+      if (window.size() == batchSize) {
+        importWindow(window, output, batchImport);
+        window.clear();
+      }
+    }
+
+    if (!window.isEmpty()) {
+      importWindow(window, output, batchImport);
+    }
+  }
+
+  private <R> ParsedLine<R> parse(final long lineNumber, final String line, final Class<R> requestType) {
+    final R request;
+
+    try {
+      request = objectMapper.readValue(line, requestType);
+    } catch (final JsonProcessingException e) {
+      return ParsedLine.failed(lineNumber, new ApiErrorResponse(
+          HttpStatus.BAD_REQUEST.value(),
+          String.format("Error parsing the JSON object: %s", e.getOriginalMessage())));
+    }
+
+    if (Objects.isNull(request)) {
+      return ParsedLine.failed(lineNumber, new ApiErrorResponse(
+          HttpStatus.BAD_REQUEST.value(),
+          "Error parsing the JSON object: the line must hold a JSON object"));
+    }
+
+    final Set<ConstraintViolation<R>> violations = validator.validate(request);
+
+    if (!violations.isEmpty()) {
+      final ApiErrorResponse validationError = new ApiErrorResponse(
+          HttpStatus.UNPROCESSABLE_ENTITY.value(),
+          "One or more fields have an error");
+
+      violations.forEach(violation ->
+          validationError.addFieldValidationError(violation.getPropertyPath().toString(), violation.getMessage()));
+
+      return ParsedLine.failed(lineNumber, validationError);
+    }
+
+    return new ParsedLine<>(lineNumber, request, null);
+  }
+
+  private <R> ParsedLine<R> lineTooLong(final long lineNumber) {
+    return ParsedLine.failed(lineNumber, new ApiErrorResponse(
+        HttpStatus.PAYLOAD_TOO_LARGE.value(),
+        String.format("The line is longer than the maximum of %d characters", MAX_LINE_LENGTH)));
+  }
+
+  private <R, T> void importWindow(
+      final List<ParsedLine<R>> window,
+      final OutputStream output,
+      final Function<List<R>, List<BatchItemResult<T>>> batchImport) throws IOException {
+
+    final List<R> requests = window.stream()
+        .filter(ParsedLine::isValid)
+        .map(ParsedLine::getRequest)
+        .toList();
+
+    List<BatchItemResult<T>> results = List.of();
+    ApiErrorResponse windowError = null;
+
+    if (!requests.isEmpty()) {
+      try {
+        results = batchImport.apply(requests);
+      } catch (final RuntimeException e) {
+        windowError = apiErrorHandler.toErrorResponse(e);
+      }
+    }
+
+    int nextResult = 0;
+
+    for (final ParsedLine<R> parsed : window) {
+      final ImportLineResponse<T> response;
+
+      if (!parsed.isValid()) {
+        response = failed(parsed.getLineNumber(), parsed.getError());
+      } else if (Objects.nonNull(windowError)) {
+        response = failed(parsed.getLineNumber(), windowError);
+      } else {
+        final BatchItemResult<T> result = results.get(nextResult++);
+
+        response = result.isCreated()
+            ? new ImportLineResponse<>(parsed.getLineNumber(), BatchItemStatus.CREATED, result.getValue(), null)
+            : failed(parsed.getLineNumber(), apiErrorHandler.toErrorResponse(result.getError()));
+      }
+
+      //Written as bytes, as writing to the stream through the mapper would close it
+      output.write(objectMapper.writeValueAsBytes(response));
+      output.write(LINE_SEPARATOR);
+    }
+
+    output.flush();
+  }
+
+  private static <T> ImportLineResponse<T> failed(final long lineNumber, final ApiErrorResponse error) {
+    return new ImportLineResponse<>(lineNumber, BatchItemStatus.FAILED, null, error);
+  }
+
+  @Getter
+  @AllArgsConstructor
+  private static final class ParsedLine<R> {
+    private final long lineNumber;
+    private final R request;
+    private final ApiErrorResponse error;
+
+    static <R> ParsedLine<R> failed(final long lineNumber, final ApiErrorResponse error) {
+      return new ParsedLine<>(lineNumber, null, error);
+    }
+
+    boolean isValid() {
+      return Objects.isNull(error);
+    }
+  }
+
+  /**
+   * Reads the body line by line, keeping at most {@link #MAX_LINE_LENGTH} characters of a line in memory.
+   */
+  private static final class LineReader {
+    private final BufferedReader reader;
+    private boolean truncated;
+
+    private LineReader(final BufferedReader reader) {
+      this.reader = reader;
+    }
+
+    String next() throws IOException {
+      final StringBuilder line = new StringBuilder();
+      boolean read = false;
+      int c;
+
+      truncated = false;
+
+      while ((c = reader.read()) != -1) {
+        read = true;
+
+        if (c == '\n') {
+          break;
+        }
+
+        if (line.length() < MAX_LINE_LENGTH) {
+          line.append((char) c);
+        } else {
+          truncated = true;
+        }
+      }
+
+      if (!read) {
+        return null;
+      }
+
+      if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+        line.setLength(line.length() - 1);
+      }
+
+      return line.toString();
+    }
+
+    boolean wasTruncated() {
+      return truncated;
+    }
+  }
+}
@@ -0,0 +1,6 @@
+package com.hostfully.technicalchallenge.common.api.response;
+
+public enum BatchItemStatus {
+  CREATED,
+  FAILED
+}
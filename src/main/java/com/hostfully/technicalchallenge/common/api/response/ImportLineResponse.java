@@ -0,0 +1,20 @@
+package com.hostfully.technicalchallenge.common.api.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonFormat.Shape;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(Include.NON_NULL)
+public class ImportLineResponse<T> {
+  //Number of the line in the imported body, starting at 1
+  private long line;
+  @JsonFormat(shape = Shape.STRING)
+  private BatchItemStatus status;
+  private T item;
+  private ApiErrorResponse error;
+}
@@ -0,0 +1,51 @@
+package com.hostfully.technicalchallenge.common.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Sizes the connection pool from the number of cores when the {@code pool-tuned} profile is active, the rest of
+ * the pool settings are in {@code application-pool-tuned.yaml}.
+ */
+@Configuration
+@Profile("pool-tuned")
+public class ConnectionPoolConfig {
+
+  @Bean
+  static BeanPostProcessor connectionPoolSizer(
+      @Value("${hostfully.datasource.pool.connections-per-core:2}") final int connectionsPerCore) {
+
+    final int poolSize = poolSize(Runtime.getRuntime().availableProcessors(), connectionsPerCore);
+
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessBeforeInitialization(final Object bean, final String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+          //A fixed size pool, so there is no connection to open when a spike starts
+          dataSource.setMaximumPoolSize(poolSize);
+          dataSource.setMinimumIdle(poolSize);
+        }
+        return bean;
+      }
+    };
+  }
+
+  /**
+   * The usual {@code cores * 2 + effective spindles} sizing, with a single spindle since the database is local:
+   * more connections than that only add contention on the database while the extra requests wait on the pool.
+   */
+  static int poolSize(final int cores, final int connectionsPerCore) {
+    if (cores < 1) {
+      throw new IllegalArgumentException("`cores` must be positive");
+    }
+    if (connectionsPerCore < 1) {
+      throw new IllegalArgumentException("`connectionsPerCore` must be positive");
+    }
+
+    return cores * connectionsPerCore + 1;
+  }
+}
@@ -0,0 +1,44 @@
+package com.hostfully.technicalchallenge.common.config;
+
+import com.hostfully.technicalchallenge.common.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Adds a replica pool, configured under {@code hostfully.datasource.replica}, next to the primary one configured
+ * under {@code spring.datasource} when the {@code read-replica} profile is active. Read-only transactions are
+ * served by the replica, see {@link ReplicaRoutingDataSource}.
+ */
+@Configuration
+@Profile("read-replica")
+public class ReadReplicaConfig {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  HikariDataSource primaryDataSource(final DataSourceProperties primaryProperties) {
+    return primaryProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  @Bean
+  @ConfigurationProperties("hostfully.datasource.replica")
+  HikariDataSource replicaDataSource() {
+    return DataSourceBuilder.create().type(HikariDataSource.class).build();
+  }
+
+  @Bean
+  @Primary
+  DataSource dataSource(
+      @Qualifier("primaryDataSource") final DataSource primaryDataSource,
+      @Qualifier("replicaDataSource") final DataSource replicaDataSource) {
+
+    return ReplicaRoutingDataSource.lazy(primaryDataSource, replicaDataSource);
+  }
+}
@@ -0,0 +1,45 @@
+package com.hostfully.technicalchallenge.common.config;
+
+import com.hostfully.technicalchallenge.service.property.data.Property;
+import com.hostfully.technicalchallenge.service.user.data.User;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import java.net.URI;
+import java.util.List;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Provides the JCache manager backing Hibernate's second-level cache, with the size and expiration of each
+ * region set in {@code hibernate-cache.conf}, and exports the hits and misses of every region.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+  private static final String CACHING_PROVIDER = "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider";
+  private static final URI CACHE_CONFIG = URI.create("classpath:hibernate-cache.conf");
+
+  static final List<String> REGIONS = List.of(User.CACHE_REGION, Property.CACHE_REGION);
+
+  @Bean
+  CacheManager secondLevelCacheManager() {
+    return Caching.getCachingProvider(CACHING_PROVIDER)
+        .getCacheManager(CACHE_CONFIG, SecondLevelCacheConfig.class.getClassLoader());
+  }
+
+  @Bean
+  HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(final CacheManager secondLevelCacheManager) {
+    return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+  }
+
+  @Bean
+  MeterBinder secondLevelCacheMetrics(final CacheManager secondLevelCacheManager) {
+    //Tagged with the region as `cache`, e.g. cache_gets_total{cache="properties",result="hit"}
+    return registry -> REGIONS.forEach(
+        region -> JCacheMetrics.monitor(registry, secondLevelCacheManager.getCache(region)));
+  }
+}
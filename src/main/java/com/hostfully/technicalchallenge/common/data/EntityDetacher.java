@@ -0,0 +1,21 @@
+package com.hostfully.technicalchallenge.common.data;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Flushes the pending changes of the current persistence context and detaches all its entities, whatever their type,
+ * so the entities written by a window of a long running import can be garbage collected before the next one.
+ */
+@Component
+public class EntityDetacher {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  public void flushAndDetachAll() {
+    entityManager.flush();
+    entityManager.clear();
+  }
+}
@@ -0,0 +1,23 @@
+package com.hostfully.technicalchallenge.common.data;
+
+import java.util.Objects;
+import java.util.UUID;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks that a referenced entity exists without loading it into the persistence context, with a count query by id.
+ * The second-level cache is not consulted: a read-write region keeps the entry of a deleted entity, soft locked,
+ * until it expires, so it would report deleted entities as existing.
+ */
+@Component
+public class EntityExistence {
+
+  public <T> boolean exists(final Class<T> entityType, final UUID id, final CrudRepository<T, UUID> repository) {
+    Objects.requireNonNull(entityType, "`entityType` cannot be null");
+    Objects.requireNonNull(id, "`id` cannot be null");
+    Objects.requireNonNull(repository, "`repository` cannot be null");
+
+    return repository.existsById(id);
+  }
+}
@@ -0,0 +1,72 @@
+package com.hostfully.technicalchallenge.common.data;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs the methods annotated with {@link RetryOnOptimisticLockingFailure} again when their transaction fails on
+ * a stale version, up to {@code maxAttempts} times in total, after which the failure is thrown to the caller.
+ * It runs outside of the transaction, so every attempt is a new transaction reading the committed state, and
+ * inside of the {@link com.hostfully.technicalchallenge.common.metrics.ServiceMetricsAspect}, so a call is timed
+ * once with all its attempts.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class OptimisticLockingRetryAspect {
+
+  public static final String RETRIES_METRIC = "hostfully.optimistic.locking.retries";
+
+  private final int maxAttempts;
+  private final MeterRegistry meterRegistry;
+
+  public OptimisticLockingRetryAspect(
+      @Value("${hostfully.optimistic-locking.max-attempts:3}") final int maxAttempts,
+      final MeterRegistry meterRegistry) {
+
+    if (maxAttempts <= 0) {
+      throw new IllegalArgumentException("`maxAttempts` must be positive");
+    }
+
+    this.maxAttempts = maxAttempts;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Around("@annotation(com.hostfully.technicalchallenge.common.data.RetryOnOptimisticLockingFailure)")
+  public Object retryOnOptimisticLockingFailure(final ProceedingJoinPoint joinPoint) throws Throwable {
+    //Joining a transaction of the caller, which is rollback-only after the failure and would see the same state
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      return joinPoint.proceed();
+    }
+
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return joinPoint.proceed();
+      } catch (final OptimisticLockingFailureException e) {
+        if (attempt >= maxAttempts) {
+          throw e;
+        }
+
+        retries(joinPoint).increment();
+      }
+    }
+  }
+
+  private Counter retries(final ProceedingJoinPoint joinPoint) {
+    return Counter.builder(RETRIES_METRIC)
+        .description("Calls run again because of a concurrent change of an entity they loaded")
+        .tag("service", AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName())
+        .tag("method", joinPoint.getSignature().getName())
+        .register(meterRegistry);
+  }
+}
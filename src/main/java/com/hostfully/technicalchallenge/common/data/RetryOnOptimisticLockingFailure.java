@@ -0,0 +1,20 @@
+package com.hostfully.technicalchallenge.common.data;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a transactional service method that is run again, in a new transaction, when it fails because an entity it
+ * loaded was changed by a concurrent transaction. The method must be safe to run again from the start, e.g. by
+ * reloading what it changes, as each attempt sees the changes committed before it.
+ *
+ * @see OptimisticLockingRetryAspect
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnOptimisticLockingFailure {
+}
@@ -0,0 +1,75 @@
+package com.hostfully.technicalchallenge.common.datasource;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends the connections of read-only transactions to the replica and every other connection to the primary.
+ * It must be used through {@link #lazy(DataSource, DataSource)}: the transaction manager takes the connection
+ * when the transaction begins, before it is flagged as read-only, so the routing has to wait for the first
+ * statement to pick the target.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  enum Target { PRIMARY, REPLICA }
+
+  private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+  private ReplicaRoutingDataSource(final DataSource primary, final DataSource replica) {
+    setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+    setDefaultTargetDataSource(primary);
+    afterPropertiesSet();
+  }
+
+  public static DataSource lazy(final DataSource primary, final DataSource replica) {
+    Objects.requireNonNull(primary, "`primary` cannot be null");
+    Objects.requireNonNull(replica, "`replica` cannot be null");
+
+    return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica));
+  }
+
+  /**
+   * Runs the given reads on the primary even inside a read-only transaction, for reads that cannot be stale
+   * because they feed state that is later only updated with the changes made on the primary. It only has an
+   * effect if the transaction has not run any statement yet, as its connection is then already taken.
+   */
+  public static void readFromPrimary(final Runnable reads) {
+    Objects.requireNonNull(reads, "`reads` cannot be null");
+
+    readFromPrimary(() -> {
+      reads.run();
+      return null;
+    });
+  }
+
+  /**
+   * Same as {@link #readFromPrimary(Runnable)}, for reads that return a result.
+   */
+  public static <T> T readFromPrimary(final Supplier<T> reads) {
+    Objects.requireNonNull(reads, "`reads` cannot be null");
+
+    if (Objects.nonNull(PRIMARY_READS.get())) {
+      return reads.get();
+    }
+
+    PRIMARY_READS.set(Boolean.TRUE);
+
+    try {
+      return reads.get();
+    } finally {
+      PRIMARY_READS.remove();
+    }
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && Objects.isNull(PRIMARY_READS.get())
+        ? Target.REPLICA
+        : Target.PRIMARY;
+  }
+}
@@ -0,0 +1,36 @@
+package com.hostfully.technicalchallenge.common.domain;
+
+import java.util.Objects;
+import java.util.function.Function;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of one item of a batch creation: either the created value or the error that prevented its
+ * creation, which the single item creation would have thrown.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BatchItemResult<T> {
+  private final T value;
+  private final RuntimeException error;
+
+  public static <T> BatchItemResult<T> created(final T value) {
+    Objects.requireNonNull(value, "`value` cannot be null");
+    return new BatchItemResult<>(value, null);
+  }
+
+  public static <T> BatchItemResult<T> failed(final RuntimeException error) {
+    Objects.requireNonNull(error, "`error` cannot be null");
+    return new BatchItemResult<>(null, error);
+  }
+
+  public boolean isCreated() {
+    return Objects.nonNull(value);
+  }
+
+  public <R> BatchItemResult<R> map(final Function<T, R> mapper) {
+    return isCreated() ? created(mapper.apply(value)) : failed(error);
+  }
+}
@@ -0,0 +1,8 @@
+package com.hostfully.technicalchallenge.common.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+
+  public PreconditionFailedException(final String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,69 @@
+package com.hostfully.technicalchallenge.common.metrics;
+
+import com.hostfully.technicalchallenge.common.exception.DatesConflictException;
+import com.hostfully.technicalchallenge.common.exception.NotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the domain services, tagged by service, method and outcome.
+ * It runs outside of the transaction so the time spent committing is included.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+  public static final String SERVICE_CALLS_METRIC = "hostfully.service.calls";
+
+  private final MeterRegistry meterRegistry;
+
+  @Around("execution(public * com.hostfully.technicalchallenge.service..domain.*ServiceImpl.*(..))")
+  public Object timeServiceCall(final ProceedingJoinPoint joinPoint) throws Throwable {
+    final Timer.Sample sample = Timer.start(meterRegistry);
+    String outcome = "success";
+
+    try {
+      return joinPoint.proceed();
+    } catch (final Throwable e) {
+      outcome = outcomeOf(e);
+      throw e;
+    } finally {
+      sample.stop(Timer.builder(SERVICE_CALLS_METRIC)
+          .description("Calls to the domain services")
+          .tag("service", AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName())
+          .tag("method", joinPoint.getSignature().getName())
+          .tag("outcome", outcome)
+          .register(meterRegistry));
+    }
+  }
+
+  private static String outcomeOf(final Throwable e) {
+    if (e instanceof NotFoundException) {
+      return "not_found";
+    }
+    if (e instanceof DatesConflictException) {
+      return "dates_conflict";
+    }
+    if (e instanceof OptimisticLockingFailureException) {
+      return "optimistic_locking_failure";
+    }
+    if (e instanceof IllegalStateException) {
+      return "illegal_state";
+    }
+    if (e instanceof IllegalArgumentException) {
+      return "illegal_argument";
+    }
+    return "error";
+  }
+}
@@ -1,12 +1,16 @@
 package com.hostfully.technicalchallenge.service.booking.api;
 
+import com.hostfully.technicalchallenge.service.booking.api.request.CreateBookingBatchRequest;
 import com.hostfully.technicalchallenge.service.booking.api.request.CreateBookingRequest;
 import com.hostfully.technicalchallenge.service.booking.api.request.UpdateBookingRequest;
+import com.hostfully.technicalchallenge.service.booking.api.response.BookingBatchResponse;
 import com.hostfully.technicalchallenge.service.booking.api.response.BookingResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import java.util.UUID;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
@@ -16,22 +20,28 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.WebRequest;
 
 @Tag(name = "Booking API")
 @RequestMapping(value = BookingApi.BOOKING_API_PATH, produces = MediaType.APPLICATION_JSON_VALUE)
 public interface BookingApi {
   String BOOKING_API_PATH = "/bookings";
 
-  @Operation(summary = "Retrieves a booking by its ID")
+  @Operation(
+      summary = "Retrieves a booking by its ID",
+      description = "The response has a strong ETag of the booking version, and a request whose If-None-Match "
+          + "header holds it is answered with 304 and no body"
+  )
   @ApiResponse(
       responseCode = "200",
       description = "The retrieved booking",
       useReturnTypeSchema = true
   )
   @GetMapping(value = "/{id}")
-  BookingResponse retrieveBooking(@PathVariable("id") final UUID bookingId);
+  BookingResponse retrieveBooking(@PathVariable("id") final UUID bookingId, final WebRequest request);
 
   @Operation(summary = "Creates a new booking")
   @ApiResponse(
@@ -43,7 +53,26 @@ public interface BookingApi {
   @ResponseStatus(HttpStatus.CREATED)
   BookingResponse createBooking(@RequestBody @Validated final CreateBookingRequest bookingInfo);
 
-  @Operation(summary = "Updates an existing booking")
+  @Operation(
+      summary = "Creates several bookings at once",
+      description = "Each item is created unless it fails the same checks as a single booking creation, "
+          + "including conflicts with the items before it in the batch. The result of each item is reported "
+          + "in the request order"
+  )
+  @ApiResponse(
+      responseCode = "200",
+      description = "The created bookings and the errors of the items that could not be created",
+      useReturnTypeSchema = true
+  )
+  @PostMapping(value = "/batch")
+  BookingBatchResponse createBookings(@RequestBody @Validated final CreateBookingBatchRequest bookingsInfo);
+
+  @Operation(
+      summary = "Updates an existing booking",
+      description = "When an If-Match header is given, the booking is only updated if it still has the version of "
+          + "that ETag, otherwise the request fails with 412. The response has the ETag of the updated booking. "
+          + "An update that keeps being interleaved with concurrent changes of the booking fails with 409"
+  )
   @ApiResponse(
       responseCode = "200",
       description = "The updated booking",
@@ -52,7 +81,9 @@ public interface BookingApi {
   @PutMapping(value = "/{id}")
   BookingResponse updateBooking(
       @PathVariable("id") final UUID bookingId,
-      @RequestBody @Validated final UpdateBookingRequest bookingInfo);
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch,
+      @RequestBody @Validated final UpdateBookingRequest bookingInfo,
+      final HttpServletResponse response);
 
   @Operation(summary = "Cancels an existing booking")
   @ApiResponse(
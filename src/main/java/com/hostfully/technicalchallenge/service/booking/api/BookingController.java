@@ -1,15 +1,27 @@
 package com.hostfully.technicalchallenge.service.booking.api;
 
 
+import com.hostfully.technicalchallenge.common.api.ApiErrorHandler;
+import com.hostfully.technicalchallenge.common.api.ETags;
+import com.hostfully.technicalchallenge.common.api.response.BatchItemStatus;
+import com.hostfully.technicalchallenge.common.domain.BatchItemResult;
+import com.hostfully.technicalchallenge.service.booking.api.request.CreateBookingBatchRequest;
 import com.hostfully.technicalchallenge.service.booking.api.request.CreateBookingRequest;
 import com.hostfully.technicalchallenge.service.booking.api.request.UpdateBookingRequest;
+import com.hostfully.technicalchallenge.service.booking.api.response.BookingBatchItemResponse;
+import com.hostfully.technicalchallenge.service.booking.api.response.BookingBatchResponse;
 import com.hostfully.technicalchallenge.service.booking.api.response.BookingResponse;
 import com.hostfully.technicalchallenge.service.booking.domain.BookingDto;
 import com.hostfully.technicalchallenge.service.booking.domain.BookingMapper;
 import com.hostfully.technicalchallenge.service.booking.domain.BookingService;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequiredArgsConstructor
@@ -17,10 +29,17 @@ public class BookingController implements BookingApi {
 
   private final BookingService bookingService;
   private final BookingMapper bookingMapper;
+  private final ApiErrorHandler apiErrorHandler;
 
   @Override
-  public BookingResponse retrieveBooking(final UUID bookingId) {
+  public BookingResponse retrieveBooking(final UUID bookingId, final WebRequest request) {
     final BookingDto retrieved = bookingService.retrieveBooking(bookingId);
+
+    //Answered with 304 and no body, so the mapping of the booking to a response is skipped
+    if (request.checkNotModified(ETags.of(retrieved.getVersion()))) {
+      return null;
+    }
+
     return bookingMapper.dtoToResponse(retrieved);
   }
 
@@ -31,13 +50,46 @@ public class BookingController implements BookingApi {
     return bookingMapper.dtoToResponse(saved);
   }
 
+  @Override
+  public BookingBatchResponse createBookings(final CreateBookingBatchRequest bookingsInfo) {
+    final List<BookingDto> toBeSaved = bookingsInfo.getBookings().stream()
+        .map(bookingMapper::createRequestToDto)
+        .toList();
+
+    final List<BatchItemResult<BookingDto>> results = bookingService.createBookings(toBeSaved);
+
+    final List<BookingBatchItemResponse> items = new ArrayList<>(results.size());
+    int createdCount = 0;
+
+    for (int i = 0; i < results.size(); i++) {
+      final BatchItemResult<BookingDto> result = results.get(i);
+
+      if (result.isCreated()) {
+        createdCount++;
+        items.add(new BookingBatchItemResponse(
+            i, BatchItemStatus.CREATED, bookingMapper.dtoToResponse(result.getValue()), null));
+      } else {
+        items.add(new BookingBatchItemResponse(
+            i, BatchItemStatus.FAILED, null, apiErrorHandler.toErrorResponse(result.getError())));
+      }
+    }
+
+    return new BookingBatchResponse(createdCount, results.size() - createdCount, items);
+  }
+
   @Override
   public BookingResponse updateBooking(
       final UUID bookingId,
-      final UpdateBookingRequest bookingInfo) {
+      final String ifMatch,
+      final UpdateBookingRequest bookingInfo,
+      final HttpServletResponse response) {
 
-    final BookingDto toBeUpdated = bookingMapper.updateRequestToDto(bookingInfo);
+    final BookingDto toBeUpdated = bookingMapper.updateRequestToDto(bookingInfo)
+        .withVersion(ETags.expectedVersion(ifMatch));
     final BookingDto updated = bookingService.updateBooking(bookingId, toBeUpdated);
+
+    response.setHeader(HttpHeaders.ETAG, ETags.of(updated.getVersion()));
+
     return bookingMapper.dtoToResponse(updated);
   }
 
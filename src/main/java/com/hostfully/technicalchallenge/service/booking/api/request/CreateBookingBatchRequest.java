@@ -0,0 +1,23 @@
+package com.hostfully.technicalchallenge.service.booking.api.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.With;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@With
+public class CreateBookingBatchRequest {
+  public static final int MAX_BOOKINGS = 500;
+
+  @NotNull
+  @Size(min = 1, max = MAX_BOOKINGS)
+  @Valid
+  private List<@NotNull CreateBookingRequest> bookings;
+}
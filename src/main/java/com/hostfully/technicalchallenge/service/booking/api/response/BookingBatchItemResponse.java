@@ -0,0 +1,22 @@
+package com.hostfully.technicalchallenge.service.booking.api.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonFormat.Shape;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.hostfully.technicalchallenge.common.api.response.ApiErrorResponse;
+import com.hostfully.technicalchallenge.common.api.response.BatchItemStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(Include.NON_NULL)
+public class BookingBatchItemResponse {
+  //Position of the item in the request
+  private int index;
+  @JsonFormat(shape = Shape.STRING)
+  private BatchItemStatus status;
+  private BookingResponse booking;
+  private ApiErrorResponse error;
+}
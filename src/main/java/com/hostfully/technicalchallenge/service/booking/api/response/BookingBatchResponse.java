@@ -0,0 +1,13 @@
+package com.hostfully.technicalchallenge.service.booking.api.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BookingBatchResponse {
+  private int createdCount;
+  private int failedCount;
+  private List<BookingBatchItemResponse> items;
+}
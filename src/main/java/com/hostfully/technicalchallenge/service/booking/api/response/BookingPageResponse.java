@@ -0,0 +1,10 @@
+package com.hostfully.technicalchallenge.service.booking.api.response;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class BookingPageResponse {
+  private List<BookingResponse> bookings;
+  private String nextCursor;
+}
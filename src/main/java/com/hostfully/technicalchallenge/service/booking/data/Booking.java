@@ -9,9 +9,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
@@ -20,9 +22,15 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.With;
+import org.hibernate.annotations.OptimisticLock;
 
 @Entity
-@Table(name = "bookings")
+@Table(
+    name = "bookings",
+    indexes = {
+        @Index(name = "idx_bookings_property_start_id", columnList = "property_id, start_date, id, end_date, status"),
+        @Index(name = "idx_bookings_user_start_id", columnList = "user_id, start_date, id, end_date, status")
+    })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -53,7 +61,13 @@ public class Booking {
   @Column(nullable = false)
   private Long totalPrice;
 
-  @OneToMany(fetch = FetchType.EAGER)
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
+  //The guests are written through their own repository, replacing the loaded collection does not change the booking
+  @OptimisticLock(excluded = true)
+  @OneToMany(fetch = FetchType.LAZY)
   @JoinColumn(name = "bookingId", updatable = false, insertable = false)
   private List<BookingGuest> guests;
 }
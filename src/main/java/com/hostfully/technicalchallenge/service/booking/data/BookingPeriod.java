@@ -0,0 +1,19 @@
+package com.hostfully.technicalchallenge.service.booking.data;
+
+import java.time.LocalDate;
+import lombok.Getter;
+
+/**
+ * Dates of a booking as a half-open range of epoch days, for the queries that only need to know which days
+ * are booked. Being a projection it never enters the persistence context.
+ */
+@Getter
+public class BookingPeriod {
+  private final long startEpochDay;
+  private final long endEpochDayExclusive;
+
+  public BookingPeriod(final LocalDate startDate, final LocalDate endDate) {
+    this.startEpochDay = startDate.toEpochDay();
+    this.endEpochDayExclusive = endDate.toEpochDay() + 1L;
+  }
+}
@@ -1,24 +1,75 @@
 package com.hostfully.technicalchallenge.service.booking.data;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, UUID> {
+public interface BookingRepository extends JpaRepository<Booking, UUID>, BookingVersionRepository {
 
+  @EntityGraph(attributePaths = "guests")
+  Optional<Booking> findWithGuestsById(final UUID id);
+
+  @Query("""
+    select new com.hostfully.technicalchallenge.service.booking.data.BookingPeriod(b.startDate, b.endDate)
+    from Booking b
+    where b.propertyId = :propertyId
+    and b.status != :status
+  """)
+  List<BookingPeriod> findPeriodsByPropertyIdAndStatusNot(
+      @Param("propertyId") final UUID propertyId,
+      @Param("status") final BookingStatus status);
+
+  //The pages are selected by seeking past the (startDate, id) of the last booking of the previous page, which the
+  //start date lower bound turns into an index range scan, so a deep page costs the same as the first one
   @Query("""
+    select b.id
     from Booking b
     where b.propertyId = :propertyId
-    and b.status != 'CANCELED'
-    and (b.startDate  <= :endDate and b.endDate >= :startDate)
+    and b.startDate >= :afterStartDate
+    and (b.startDate > :afterStartDate or b.id > :afterId)
+    and (:status is null or b.status = :status)
+    and (:startDate is null or b.endDate >= :startDate)
+    and (:endDate is null or b.startDate <= :endDate)
+    order by b.startDate, b.id
   """)
-  List<Booking> findNonCanceledBookingsOverlappingWithDates(
+  List<UUID> findPageIdsByPropertyId(
       @Param("propertyId") final UUID propertyId,
+      @Param("afterStartDate") final LocalDate afterStartDate,
+      @Param("afterId") final UUID afterId,
+      @Param("status") final BookingStatus status,
       @Param("startDate") final LocalDate startDate,
-      @Param("endDate") final LocalDate endDate);
+      @Param("endDate") final LocalDate endDate,
+      final Limit limit);
+
+  @Query("""
+    select b.id
+    from Booking b
+    where b.userId = :userId
+    and b.startDate >= :afterStartDate
+    and (b.startDate > :afterStartDate or b.id > :afterId)
+    and (:status is null or b.status = :status)
+    and (:startDate is null or b.endDate >= :startDate)
+    and (:endDate is null or b.startDate <= :endDate)
+    order by b.startDate, b.id
+  """)
+  List<UUID> findPageIdsByUserId(
+      @Param("userId") final UUID userId,
+      @Param("afterStartDate") final LocalDate afterStartDate,
+      @Param("afterId") final UUID afterId,
+      @Param("status") final BookingStatus status,
+      @Param("startDate") final LocalDate startDate,
+      @Param("endDate") final LocalDate endDate,
+      final Limit limit);
+
+  @EntityGraph(attributePaths = "guests")
+  List<Booking> findWithGuestsByIdIn(final Collection<UUID> ids);
 }
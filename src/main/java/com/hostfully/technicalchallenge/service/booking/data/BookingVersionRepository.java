@@ -0,0 +1,19 @@
+package com.hostfully.technicalchallenge.service.booking.data;
+
+public interface BookingVersionRepository {
+
+  /**
+   * Increments the version of the given managed booking right away, with an update checking the version it was
+   * loaded with, for the changes of a booking that are not written to its own row, e.g. the changes of its guests.
+   * The booking must not have other pending changes, which would increment its version again on flush.
+   */
+  void incrementVersion(Booking booking);
+
+  /**
+   * Checks that the given managed booking still has its committed version, for a booking loaded before the lock of
+   * its property was acquired, which a concurrent change could have committed in between.
+   *
+   * @throws org.springframework.orm.ObjectOptimisticLockingFailureException when the booking was changed or deleted
+   */
+  void checkVersionIsCurrent(Booking booking);
+}
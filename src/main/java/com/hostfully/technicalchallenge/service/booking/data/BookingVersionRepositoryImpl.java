@@ -0,0 +1,40 @@
+package com.hostfully.technicalchallenge.service.booking.data;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.FlushModeType;
+import jakarta.persistence.PersistenceContext;
+import java.util.Objects;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+class BookingVersionRepositoryImpl implements BookingVersionRepository {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public void incrementVersion(final Booking booking) {
+    Objects.requireNonNull(booking, "`booking` cannot be null");
+
+    //Written when locking, unlike OPTIMISTIC_FORCE_INCREMENT which is only written on commit, so the version of
+    //the booking is already the committed one when it is returned
+    entityManager.lock(booking, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+  }
+
+  @Override
+  public void checkVersionIsCurrent(final Booking booking) {
+    Objects.requireNonNull(booking, "`booking` cannot be null");
+
+    //A scalar query reads the committed row, whereas a refresh would also reload the guests of the booking
+    final boolean current = entityManager.createQuery(
+            "select count(b) from Booking b where b.id = :id and b.version = :version", Long.class)
+        .setParameter("id", booking.getId())
+        .setParameter("version", booking.getVersion())
+        .setFlushMode(FlushModeType.COMMIT)
+        .getSingleResult() > 0L;
+
+    if (!current) {
+      throw new ObjectOptimisticLockingFailureException(Booking.class, booking.getId());
+    }
+  }
+}
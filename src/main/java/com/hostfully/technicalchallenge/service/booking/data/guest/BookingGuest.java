@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.time.LocalDate;
 import java.util.UUID;
@@ -16,7 +17,9 @@ import lombok.Setter;
 import lombok.With;
 
 @Entity
-@Table(name = "booking_guests")
+@Table(
+    name = "booking_guests",
+    indexes = @Index(name = "idx_booking_guests_booking_id", columnList = "booking_id"))
 @Getter
 @Setter
 @NoArgsConstructor
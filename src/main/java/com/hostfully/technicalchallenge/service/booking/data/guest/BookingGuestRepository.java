@@ -2,9 +2,14 @@ package com.hostfully.technicalchallenge.service.booking.data.guest;
 
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface BookingGuestRepository extends JpaRepository<BookingGuest, UUID> {
-  void deleteByBookingId(final UUID bookingId);
+  @Modifying
+  @Query("delete from BookingGuest guest where guest.bookingId = :bookingId")
+  void deleteByBookingId(@Param("bookingId") final UUID bookingId);
 }
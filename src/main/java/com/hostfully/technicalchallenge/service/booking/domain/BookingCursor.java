@@ -0,0 +1,57 @@
+package com.hostfully.technicalchallenge.service.booking.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Position in a booking listing, the (startDate, id) of the last booking of a page. It is handed to the clients
+ * as an opaque string, so its format can change without breaking them.
+ */
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+final class BookingCursor {
+
+  //Before the start date of every booking, as bookings cannot be created in the past
+  static final BookingCursor FIRST_PAGE = new BookingCursor(LocalDate.of(1, 1, 1), new UUID(0L, 0L));
+
+  private static final char SEPARATOR = '_';
+
+  private final LocalDate startDate;
+  private final UUID id;
+
+  static BookingCursor after(final BookingDto booking) {
+    return new BookingCursor(booking.getStartDate(), booking.getId());
+  }
+
+  static BookingCursor decode(final String cursor) {
+    Objects.requireNonNull(cursor, "`cursor` cannot be null");
+
+    try {
+      final String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      final int separator = decoded.indexOf(SEPARATOR);
+
+      if (separator < 0) {
+        throw new IllegalArgumentException(String.format("Invalid cursor '%s'", cursor));
+      }
+
+      return new BookingCursor(
+          LocalDate.parse(decoded.substring(0, separator)),
+          UUID.fromString(decoded.substring(separator + 1)));
+    } catch (final IllegalArgumentException | DateTimeParseException e) {
+      throw new IllegalArgumentException(String.format("Invalid cursor '%s'", cursor), e);
+    }
+  }
+
+  String encode() {
+    final String cursor = startDate.toString() + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+  }
+}
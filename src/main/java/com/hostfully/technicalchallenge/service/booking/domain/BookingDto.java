@@ -20,4 +20,5 @@ public class BookingDto {
   private BookingStatus status;
   private Long totalPrice;
   private List<BookingGuestDto> guests;
+  private Long version;
 }
@@ -0,0 +1,23 @@
+package com.hostfully.technicalchallenge.service.booking.domain;
+
+import com.hostfully.technicalchallenge.service.booking.data.BookingStatus;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.With;
+
+/**
+ * Optional filters of a booking listing: the status of the bookings and the date range they must overlap.
+ */
+@Data
+@AllArgsConstructor
+@With
+public class BookingFilter {
+  private BookingStatus status;
+  private LocalDate startDate;
+  private LocalDate endDate;
+
+  public static BookingFilter none() {
+    return new BookingFilter(null, null, null);
+  }
+}
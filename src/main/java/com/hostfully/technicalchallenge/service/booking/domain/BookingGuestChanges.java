@@ -0,0 +1,105 @@
+package com.hostfully.technicalchallenge.service.booking.domain;
+
+import com.hostfully.technicalchallenge.service.booking.data.guest.BookingGuest;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Computes the rows to touch when the guests of a booking are replaced. Existing guests with the same name and
+ * date of birth as a requested guest are kept as they are, the remaining ones are rewritten in place with the
+ * remaining requested guests, and only the difference in size is inserted or deleted.
+ */
+@Getter
+@AllArgsConstructor
+final class BookingGuestChanges {
+
+  //Every guest of the booking once the changes are applied, in the requested order
+  private final List<BookingGuest> guests;
+  private final List<BookingGuest> toSave;
+  private final List<BookingGuest> toDelete;
+
+  static BookingGuestChanges of(
+      final UUID bookingId,
+      final List<BookingGuest> existingGuests,
+      final List<BookingGuestDto> requestedGuests) {
+
+    final List<BookingGuest> unmatched = new ArrayList<>(existingGuests);
+    final BookingGuest[] guests = new BookingGuest[requestedGuests.size()];
+
+    for (int i = 0; i < requestedGuests.size(); i++) {
+      final BookingGuestDto requested = requestedGuests.get(i);
+
+      Objects.requireNonNull(requested.getName(), "`guest.getName()` cannot be null");
+      Objects.requireNonNull(requested.getDateOfBirth(), "`guest.getDateOfBirth()` cannot be null");
+
+      final Iterator<BookingGuest> candidates = unmatched.iterator();
+
+      while (candidates.hasNext()) {
+        final BookingGuest candidate = candidates.next();
+
+        if (requested.getName().equals(candidate.getName())
+            && requested.getDateOfBirth().equals(candidate.getDateOfBirth())) {
+          guests[i] = candidate;
+          candidates.remove();
+          break;
+        }
+      }
+    }
+
+    final List<BookingGuest> toSave = new ArrayList<>();
+    final Iterator<BookingGuest> reusable = unmatched.iterator();
+
+    for (int i = 0; i < guests.length; i++) {
+      if (Objects.nonNull(guests[i])) {
+        continue;
+      }
+
+      final String name = requestedGuests.get(i).getName();
+      final LocalDate dateOfBirth = requestedGuests.get(i).getDateOfBirth();
+
+      if (reusable.hasNext()) {
+        final BookingGuest guest = reusable.next();
+        reusable.remove();
+
+        guest.setName(name);
+        guest.setDateOfBirth(dateOfBirth);
+        guests[i] = guest;
+      } else {
+        guests[i] = BookingGuest.builder()
+            .bookingId(bookingId)
+            .name(name)
+            .dateOfBirth(dateOfBirth)
+            .build();
+      }
+
+      toSave.add(guests[i]);
+    }
+
+    return new BookingGuestChanges(List.of(guests), toSave, unmatched);
+  }
+
+  /**
+   * The guests of the booking with the saved ones replaced by the instances returned when saving them,
+   * which are not the given ones when detached guests are merged.
+   */
+  List<BookingGuest> guestsAfterSave(final List<BookingGuest> savedGuests) {
+    final List<BookingGuest> result = new ArrayList<>(guests.size());
+    int savedIndex = 0;
+
+    for (final BookingGuest guest : guests) {
+      if (savedIndex < toSave.size() && toSave.get(savedIndex) == guest) {
+        result.add(savedGuests.get(savedIndex++));
+      } else {
+        result.add(guest);
+      }
+    }
+
+    return result;
+  }
+}
@@ -4,20 +4,25 @@ import com.hostfully.technicalchallenge.service.booking.api.request.CreateBookin
 import com.hostfully.technicalchallenge.service.booking.api.request.UpdateBookingRequest;
 import com.hostfully.technicalchallenge.service.booking.api.request.UpsertBookingGuestRequest;
 import com.hostfully.technicalchallenge.service.booking.api.response.BookingGuestResponse;
+import com.hostfully.technicalchallenge.service.booking.api.response.BookingPageResponse;
 import com.hostfully.technicalchallenge.service.booking.api.response.BookingResponse;
 import com.hostfully.technicalchallenge.service.booking.data.Booking;
 import com.hostfully.technicalchallenge.service.booking.data.guest.BookingGuest;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper
 public interface BookingMapper {
   BookingResponse dtoToResponse(final BookingDto dto);
+  BookingPageResponse pageToResponse(final BookingPage page);
   BookingDto createRequestToDto(final CreateBookingRequest createRequest);
 
   BookingDto updateRequestToDto(final UpdateBookingRequest updateRequest);
 
   BookingDto entityToDto(final Booking entity);
 
+  //The version is only ever set by Hibernate, a new entity with a version would not be persisted as new
+  @Mapping(target = "version", ignore = true)
   Booking dtoToEntity(final BookingDto dto);
 
   BookingGuestDto entityToDto(final BookingGuest entity);
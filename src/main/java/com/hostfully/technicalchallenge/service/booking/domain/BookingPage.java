@@ -0,0 +1,13 @@
+package com.hostfully.technicalchallenge.service.booking.domain;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BookingPage {
+  private List<BookingDto> bookings;
+  //Cursor to pass to retrieve the next page, null on the last page
+  private String nextCursor;
+}
@@ -1,12 +1,28 @@
 package com.hostfully.technicalchallenge.service.booking.domain;
 
+import com.hostfully.technicalchallenge.common.domain.BatchItemResult;
+import java.util.List;
 import java.util.UUID;
 
 public interface BookingService {
   BookingDto retrieveBooking(final UUID bookingId);
 
+  BookingPage retrievePropertyBookings(
+      final UUID propertyId,
+      final BookingFilter filter,
+      final String cursor,
+      final int limit);
+
+  BookingPage retrieveUserBookings(
+      final UUID userId,
+      final BookingFilter filter,
+      final String cursor,
+      final int limit);
+
   BookingDto createBooking(final BookingDto bookingInfo);
 
+  List<BatchItemResult<BookingDto>> createBookings(final List<BookingDto> bookingsInfo);
+
   BookingDto updateBooking(final UUID bookingId, final BookingDto bookingInfo);
 
   BookingDto cancelBooking(final UUID bookingId);
@@ -1,7 +1,11 @@
 package com.hostfully.technicalchallenge.service.booking.domain;
 
+import com.hostfully.technicalchallenge.common.data.EntityExistence;
+import com.hostfully.technicalchallenge.common.data.RetryOnOptimisticLockingFailure;
+import com.hostfully.technicalchallenge.common.domain.BatchItemResult;
 import com.hostfully.technicalchallenge.common.exception.DatesConflictException;
 import com.hostfully.technicalchallenge.common.exception.NotFoundException;
+import com.hostfully.technicalchallenge.common.exception.PreconditionFailedException;
 import com.hostfully.technicalchallenge.service.booking.data.Booking;
 import com.hostfully.technicalchallenge.service.booking.data.BookingRepository;
 import com.hostfully.technicalchallenge.service.booking.data.BookingStatus;
@@ -10,13 +14,28 @@ import com.hostfully.technicalchallenge.service.booking.data.guest.BookingGuestR
 import com.hostfully.technicalchallenge.service.property.data.Property;
 import com.hostfully.technicalchallenge.service.property.data.PropertyRepository;
 import com.hostfully.technicalchallenge.service.property.domain.PropertyService;
+import com.hostfully.technicalchallenge.service.property.domain.availability.AvailabilityMetrics;
+import com.hostfully.technicalchallenge.service.property.domain.availability.CalendarBounds;
+import com.hostfully.technicalchallenge.service.property.domain.availability.DateIntervalSet;
+import com.hostfully.technicalchallenge.service.property.domain.availability.PropertyOccupancyCache;
+import com.hostfully.technicalchallenge.service.property.domain.availability.PropertyOccupancyCalendar;
+import com.hostfully.technicalchallenge.service.property.domain.availability.PropertyWriteLocks;
+import com.hostfully.technicalchallenge.service.user.data.User;
 import com.hostfully.technicalchallenge.service.user.data.UserRepository;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,60 +44,207 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
+  static final int MAX_PAGE_SIZE = 100;
+
   private final PropertyService propertyService;
   private final UserRepository userRepository;
   private final BookingRepository bookingRepository;
   private final PropertyRepository propertyRepository;
   private final BookingGuestRepository bookingGuestRepository;
+  private final PropertyOccupancyCache occupancyCache;
+  private final PropertyWriteLocks propertyWriteLocks;
+  private final AvailabilityMetrics availabilityMetrics;
   private final BookingMapper bookingMapper;
+  private final EntityExistence entityExistence;
 
   @Override
+  @Transactional(readOnly = true)
   public BookingDto retrieveBooking(final UUID bookingId) {
     Objects.requireNonNull(bookingId, "`bookingId` cannot be null");
 
-    final Booking retrievedBooking = bookingRepository.findById(bookingId)
+    final Booking retrievedBooking = bookingRepository.findWithGuestsById(bookingId)
         .orElseThrow(() -> new NotFoundException(String.format("No booking found with id %s", bookingId)));
 
     return bookingMapper.entityToDto(retrievedBooking);
   }
 
   @Override
-  public BookingDto createBooking(final BookingDto bookingInfo) {
-    checkBookingInfoIsNotNullOnCreate(bookingInfo);
+  @Transactional(readOnly = true)
+  public BookingPage retrievePropertyBookings(
+      final UUID propertyId,
+      final BookingFilter filter,
+      final String cursor,
+      final int limit) {
 
-    if (bookingInfo.getGuests().isEmpty()) {
-      throw new IllegalArgumentException("Cannot create booking without guests information");
+    Objects.requireNonNull(propertyId, "`propertyId` cannot be null");
+
+    if (!entityExistence.exists(Property.class, propertyId, propertyRepository)) {
+      throw new NotFoundException(String.format("No property found with id %s", propertyId));
     }
 
-    if (bookingInfo.getStartDate().isBefore(LocalDate.now())) {
-      throw new IllegalArgumentException("Booking start date cannot be in the past");
+    return retrievePage(filter, cursor, limit, (after, pageLimit) -> bookingRepository.findPageIdsByPropertyId(
+        propertyId,
+        after.getStartDate(),
+        after.getId(),
+        filter.getStatus(),
+        filter.getStartDate(),
+        filter.getEndDate(),
+        pageLimit));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public BookingPage retrieveUserBookings(
+      final UUID userId,
+      final BookingFilter filter,
+      final String cursor,
+      final int limit) {
+
+    Objects.requireNonNull(userId, "`userId` cannot be null");
+
+    if (!entityExistence.exists(User.class, userId, userRepository)) {
+      throw new NotFoundException(String.format("No user found with id %s", userId));
     }
 
-    userRepository.findById(bookingInfo.getUserId())
-        .orElseThrow(() -> new NotFoundException(String.format("No user found with provided userId %s", bookingInfo.getUserId())));
+    return retrievePage(filter, cursor, limit, (after, pageLimit) -> bookingRepository.findPageIdsByUserId(
+        userId,
+        after.getStartDate(),
+        after.getId(),
+        filter.getStatus(),
+        filter.getStartDate(),
+        filter.getEndDate(),
+        pageLimit));
+  }
 
-    final Property property = propertyRepository.findById(bookingInfo.getPropertyId())
-        .orElseThrow(() -> new NotFoundException(String.format("No property found with provided propertyId %s", bookingInfo.getPropertyId())));
+  @Override
+  public BookingDto createBooking(final BookingDto bookingInfo) {
+    checkBookingInfoIsNotNullOnCreate(bookingInfo);
+    checkNewBookingIsValid(bookingInfo);
 
-    checkDatesAvailability(bookingInfo.getStartDate(), bookingInfo.getEndDate(), property.getId());
+    if (!entityExistence.exists(User.class, bookingInfo.getUserId(), userRepository)) {
+      throw userNotFound(bookingInfo.getUserId());
+    }
 
-    final long totalPrice = calculateTotalPrice(bookingInfo, property);
+    final Property property = propertyRepository.findById(bookingInfo.getPropertyId())
+        .orElseThrow(() -> propertyNotFound(bookingInfo.getPropertyId()));
 
-    final Booking toSave = bookingMapper.dtoToEntity(bookingInfo);
+    propertyWriteLocks.lockUntilTransactionCompletes(property.getId());
 
-    toSave.setStatus(BookingStatus.BOOKED);
-    toSave.setTotalPrice(totalPrice);
+    checkDatesAvailability(bookingInfo.getStartDate(), bookingInfo.getEndDate(), property.getId());
 
-    final Booking saved = bookingRepository.save(toSave);
+    final Booking saved = bookingRepository.save(newBooking(bookingInfo, property));
 
-    final List<BookingGuest> savedGuests = saveGuests(saved, bookingInfo.getGuests());
+    final List<BookingGuest> savedGuests = updateGuests(saved, Collections.emptyList(), bookingInfo.getGuests());
 
     saved.setGuests(savedGuests);
 
+    occupancyCache.markBooked(saved.getPropertyId(), saved.getStartDate(), saved.getEndDate());
+
     return bookingMapper.entityToDto(saved);
   }
 
   @Override
+  public List<BatchItemResult<BookingDto>> createBookings(final List<BookingDto> bookingsInfo) {
+    Objects.requireNonNull(bookingsInfo, "`bookingsInfo` cannot be null");
+    bookingsInfo.forEach(this::checkBookingInfoIsNotNullOnCreate);
+
+    final List<BatchItemResult<BookingDto>> results =
+        new ArrayList<>(Collections.nCopies(bookingsInfo.size(), null));
+
+    //Items passing the per-item checks, grouped by property in request order. Users and properties shared by
+    //several items are only looked up once
+    final Map<UUID, List<Integer>> itemsByProperty = new LinkedHashMap<>();
+    final Map<UUID, Boolean> existingUsers = new HashMap<>();
+    final Map<UUID, Optional<Property>> properties = new HashMap<>();
+
+    for (int item = 0; item < bookingsInfo.size(); item++) {
+      final BookingDto bookingInfo = bookingsInfo.get(item);
+
+      try {
+        checkNewBookingIsValid(bookingInfo);
+
+        if (!existingUsers.computeIfAbsent(bookingInfo.getUserId(),
+            userId -> entityExistence.exists(User.class, userId, userRepository))) {
+          throw userNotFound(bookingInfo.getUserId());
+        }
+
+        final Property property = properties.computeIfAbsent(bookingInfo.getPropertyId(), propertyRepository::findById)
+            .orElseThrow(() -> propertyNotFound(bookingInfo.getPropertyId()));
+
+        itemsByProperty.computeIfAbsent(property.getId(), propertyId -> new ArrayList<>()).add(item);
+      } catch (final IllegalArgumentException | NotFoundException e) {
+        results.set(item, BatchItemResult.failed(e));
+      }
+    }
+
+    propertyWriteLocks.lockUntilTransactionCompletes(itemsByProperty.keySet());
+
+    final List<Integer> createdItems = new ArrayList<>();
+    final List<Booking> toSave = new ArrayList<>();
+
+    for (final Map.Entry<UUID, List<Integer>> propertyItems : itemsByProperty.entrySet()) {
+      final Property property = properties.get(propertyItems.getKey()).orElseThrow();
+      final PropertyOccupancyCalendar batchCalendar =
+          retrieveBatchCalendar(property.getId(), bookingsInfo, propertyItems.getValue());
+
+      for (final int item : propertyItems.getValue()) {
+        final BookingDto bookingInfo = bookingsInfo.get(item);
+
+        final DateIntervalSet unavailableIntervals =
+            batchCalendar.unavailableIntervals(bookingInfo.getStartDate(), bookingInfo.getEndDate());
+
+        if (unavailableIntervals.overlaps(bookingInfo.getStartDate(), bookingInfo.getEndDate())) {
+          results.set(item, BatchItemResult.failed(new DatesConflictException(
+              "The booking dates contains unavailable dates for the selected property",
+              unavailableIntervals.datesWithin(bookingInfo.getStartDate(), bookingInfo.getEndDate()))));
+          continue;
+        }
+
+        //Later items of the batch cannot take the dates of this one
+        batchCalendar.markBooked(bookingInfo.getStartDate(), bookingInfo.getEndDate());
+
+        toSave.add(newBooking(bookingInfo, property));
+        createdItems.add(item);
+      }
+    }
+
+    final List<Booking> saved = bookingRepository.saveAll(toSave);
+
+    //The guests of every created booking are saved at once, so they are inserted in JDBC batches as the bookings
+    final List<BookingGuestChanges> guestChanges = new ArrayList<>(saved.size());
+    final List<BookingGuest> guestsToSave = new ArrayList<>();
+
+    for (int i = 0; i < saved.size(); i++) {
+      final BookingGuestChanges changes = BookingGuestChanges.of(
+          saved.get(i).getId(), Collections.emptyList(), bookingsInfo.get(createdItems.get(i)).getGuests());
+
+      guestChanges.add(changes);
+      guestsToSave.addAll(changes.getToSave());
+    }
+
+    final List<BookingGuest> savedGuests = bookingGuestRepository.saveAll(guestsToSave);
+
+    int savedGuestsOffset = 0;
+
+    for (int i = 0; i < saved.size(); i++) {
+      final Booking booking = saved.get(i);
+      final BookingGuestChanges changes = guestChanges.get(i);
+      final int guestCount = changes.getToSave().size();
+
+      booking.setGuests(changes.guestsAfterSave(
+          savedGuests.subList(savedGuestsOffset, savedGuestsOffset + guestCount)));
+      savedGuestsOffset += guestCount;
+
+      occupancyCache.markBooked(booking.getPropertyId(), booking.getStartDate(), booking.getEndDate());
+
+      results.set(createdItems.get(i), BatchItemResult.created(bookingMapper.entityToDto(booking)));
+    }
+
+    return results;
+  }
+
+  @Override
+  @RetryOnOptimisticLockingFailure
   public BookingDto updateBooking(final UUID bookingId, final BookingDto bookingInfo) {
     Objects.requireNonNull(bookingId, "`bookingId` cannot be null");
     checkBookingInfoIsNotNullOnUpdate(bookingInfo);
@@ -91,9 +257,18 @@ public class BookingServiceImpl implements BookingService {
       throw new IllegalArgumentException("Booking start date cannot be in the past");
     }
 
-    final Booking retrievedBooking = bookingRepository.findById(bookingId)
+    CalendarBounds.check(bookingInfo.getStartDate(), bookingInfo.getEndDate());
+
+    //Loaded before the property is locked, as the lock depends on it. A concurrent change committed in between is
+    //detected once the lock is held, and the whole update is retried on the committed booking
+    final Booking retrievedBooking = bookingRepository.findWithGuestsById(bookingId)
         .orElseThrow(() -> new NotFoundException(String.format("No booking found with id %s", bookingId)));
 
+    if (Objects.nonNull(bookingInfo.getVersion()) && !bookingInfo.getVersion().equals(retrievedBooking.getVersion())) {
+      throw new PreconditionFailedException(
+          String.format("The booking %s was changed since version %d", bookingId, bookingInfo.getVersion()));
+    }
+
     if (retrievedBooking.getStatus() == BookingStatus.CANCELED) {
       throw new IllegalStateException("Cannot update canceled booking");
     }
@@ -101,46 +276,80 @@ public class BookingServiceImpl implements BookingService {
     final Property property = propertyRepository.findById(retrievedBooking.getPropertyId())
         .orElseThrow(() -> new NotFoundException(String.format("No property found with provided propertyId %s", retrievedBooking.getPropertyId())));
 
-    checkDatesAvailability(bookingInfo.getStartDate(), bookingInfo.getEndDate(), property.getId());
+    propertyWriteLocks.lockUntilTransactionCompletes(property.getId());
+
+    //Checked before the availability, which excludes the current dates of the booking: its stale dates would report
+    //the dates of the concurrent change as conflicting, instead of retrying
+    bookingRepository.checkVersionIsCurrent(retrievedBooking);
+
+    checkDatesAvailability(bookingInfo.getStartDate(), bookingInfo.getEndDate(), property.getId(), retrievedBooking);
 
     final long totalPrice = calculateTotalPrice(bookingInfo, property);
 
+    final LocalDate previousStartDate = retrievedBooking.getStartDate();
+    final LocalDate previousEndDate = retrievedBooking.getEndDate();
+    final boolean bookingChanged = !previousStartDate.equals(bookingInfo.getStartDate())
+        || !previousEndDate.equals(bookingInfo.getEndDate())
+        || !Objects.equals(retrievedBooking.getTotalPrice(), totalPrice);
+    final List<BookingGuest> existingGuests = Objects.requireNonNullElse(
+        retrievedBooking.getGuests(), Collections.emptyList());
+
     retrievedBooking.setStartDate(bookingInfo.getStartDate());
     retrievedBooking.setEndDate(bookingInfo.getEndDate());
     retrievedBooking.setTotalPrice(totalPrice);
 
     final Booking saved = bookingRepository.save(retrievedBooking);
 
-    final List<BookingGuest> guests = saveGuests(saved, bookingInfo.getGuests());
+    final List<BookingGuest> guests = updateGuests(saved, existingGuests, bookingInfo.getGuests());
 
     saved.setGuests(guests);
 
+    //The guests are not written to the booking row, so when only they changed, or nothing did, the version is
+    //incremented explicitly: every update increments it once and fails when the booking was changed meanwhile
+    if (!bookingChanged) {
+      bookingRepository.incrementVersion(saved);
+    }
+
+    //Flushed so the returned version is the one that is committed
+    bookingRepository.flush();
+
+    occupancyCache.unmarkBooked(saved.getPropertyId(), previousStartDate, previousEndDate);
+    occupancyCache.markBooked(saved.getPropertyId(), saved.getStartDate(), saved.getEndDate());
+
     return bookingMapper.entityToDto(saved);
   }
 
   @Override
+  @RetryOnOptimisticLockingFailure
   public BookingDto cancelBooking(final UUID bookingId) {
     Objects.requireNonNull(bookingId, "`bookingId` cannot be null");
 
-    final Booking retrievedBooking = bookingRepository.findById(bookingId)
+    final Booking retrievedBooking = bookingRepository.findWithGuestsById(bookingId)
         .orElseThrow(() -> new NotFoundException(String.format("No booking found with id %s", bookingId)));
 
     if (retrievedBooking.getStatus() == BookingStatus.CANCELED) {
       throw new IllegalStateException("Cannot cancel an already canceled booking");
     }
 
+    //Locked so the calendar changes of the cancellation and of a concurrent update of the booking are applied in
+    //their commit order, otherwise the update could book again the dates the cancellation freed
+    propertyWriteLocks.lockUntilTransactionCompletes(retrievedBooking.getPropertyId());
+
     retrievedBooking.setStatus(BookingStatus.CANCELED);
 
-    final Booking saved = bookingRepository.save(retrievedBooking);
+    final Booking saved = bookingRepository.saveAndFlush(retrievedBooking);
+
+    occupancyCache.unmarkBooked(saved.getPropertyId(), saved.getStartDate(), saved.getEndDate());
 
     return bookingMapper.entityToDto(saved);
   }
 
   @Override
+  @RetryOnOptimisticLockingFailure
   public BookingDto rebookCanceledBooking(final UUID bookingId) {
     Objects.requireNonNull(bookingId, "`bookingId` cannot be null");
 
-    final Booking retrievedBooking = bookingRepository.findById(bookingId)
+    final Booking retrievedBooking = bookingRepository.findWithGuestsById(bookingId)
         .orElseThrow(() -> new NotFoundException(String.format("No booking found with id %s", bookingId)));
 
     if (retrievedBooking.getStatus() != BookingStatus.CANCELED) {
@@ -151,6 +360,8 @@ public class BookingServiceImpl implements BookingService {
       throw new IllegalArgumentException("Booking start date cannot be in the past");
     }
 
+    propertyWriteLocks.lockUntilTransactionCompletes(retrievedBooking.getPropertyId());
+
     checkDatesAvailability(
         retrievedBooking.getStartDate(),
         retrievedBooking.getEndDate(),
@@ -158,7 +369,9 @@ public class BookingServiceImpl implements BookingService {
 
     retrievedBooking.setStatus(BookingStatus.BOOKED);
 
-    final Booking saved = bookingRepository.save(retrievedBooking);
+    final Booking saved = bookingRepository.saveAndFlush(retrievedBooking);
+
+    occupancyCache.markBooked(saved.getPropertyId(), saved.getStartDate(), saved.getEndDate());
 
     return bookingMapper.entityToDto(saved);
   }
@@ -167,6 +380,11 @@ public class BookingServiceImpl implements BookingService {
   public void deleteBooking(final UUID bookingId) {
     Objects.requireNonNull(bookingId, "`bookingId` cannot be null");
 
+    bookingRepository.findById(bookingId)
+        .filter(booking -> booking.getStatus() != BookingStatus.CANCELED)
+        .ifPresent(booking ->
+            occupancyCache.unmarkBooked(booking.getPropertyId(), booking.getStartDate(), booking.getEndDate()));
+
     bookingGuestRepository.deleteByBookingId(bookingId);
     bookingRepository.deleteById(bookingId);
   }
@@ -180,26 +398,94 @@ public class BookingServiceImpl implements BookingService {
     Objects.requireNonNull(bookingInfo.getGuests(), "`bookingInfo.getGuests()` cannot be null");
   }
 
-  private List<BookingGuest> saveGuests(final Booking booking, final List<BookingGuestDto> guests) {
-    bookingGuestRepository.deleteByBookingId(booking.getId());
+  private BookingPage retrievePage(
+      final BookingFilter filter,
+      final String cursor,
+      final int limit,
+      final PageIdsQuery pageIdsQuery) {
+
+    Objects.requireNonNull(filter, "`filter` cannot be null");
+
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException(String.format("The page size must be between 1 and %d", MAX_PAGE_SIZE));
+    }
+
+    if (Objects.nonNull(filter.getStartDate()) && Objects.nonNull(filter.getEndDate())
+        && filter.getStartDate().isAfter(filter.getEndDate())) {
+      throw new IllegalArgumentException("startDate cannot be after endDate");
+    }
+
+    final BookingCursor after = Objects.isNull(cursor) ? BookingCursor.FIRST_PAGE : BookingCursor.decode(cursor);
 
-    final List<BookingGuest> guestsToSave = guests.stream()
-            .map(guest -> {
-              final String name =
-                  Objects.requireNonNull(guest.getName(), "`guest.getName()` cannot be null");
+    //One id more than the page size tells whether there is a next page
+    final List<UUID> ids = pageIdsQuery.find(after, Limit.of(limit + 1));
+    final List<UUID> pageIds = ids.subList(0, Math.min(limit, ids.size()));
 
-              final LocalDate dateOfBirth =
-                  Objects.requireNonNull(guest.getDateOfBirth(), "`guest.getDateOfBirth()` cannot be null");
+    if (pageIds.isEmpty()) {
+      return new BookingPage(Collections.emptyList(), null);
+    }
 
-              return BookingGuest.builder()
-                  .bookingId(booking.getId())
-                  .name(name)
-                  .dateOfBirth(dateOfBirth)
-                  .build();
-            })
-            .toList();
+    //The bookings and their guests are only loaded for the selected page, in a single statement
+    final Map<UUID, Booking> bookingsById = new HashMap<>();
+    bookingRepository.findWithGuestsByIdIn(pageIds).forEach(booking -> bookingsById.put(booking.getId(), booking));
 
-    return bookingGuestRepository.saveAll(guestsToSave);
+    final List<BookingDto> bookings = pageIds.stream()
+        .map(bookingsById::get)
+        .filter(Objects::nonNull)
+        .map(bookingMapper::entityToDto)
+        .toList();
+
+    final String nextCursor = ids.size() > limit && !bookings.isEmpty()
+        ? BookingCursor.after(bookings.get(bookings.size() - 1)).encode()
+        : null;
+
+    return new BookingPage(bookings, nextCursor);
+  }
+
+  private void checkNewBookingIsValid(final BookingDto bookingInfo) {
+    if (bookingInfo.getGuests().isEmpty()) {
+      throw new IllegalArgumentException("Cannot create booking without guests information");
+    }
+
+    if (bookingInfo.getStartDate().isBefore(LocalDate.now())) {
+      throw new IllegalArgumentException("Booking start date cannot be in the past");
+    }
+
+    CalendarBounds.check(bookingInfo.getStartDate(), bookingInfo.getEndDate());
+  }
+
+  private NotFoundException userNotFound(final UUID userId) {
+    return new NotFoundException(String.format("No user found with provided userId %s", userId));
+  }
+
+  private NotFoundException propertyNotFound(final UUID propertyId) {
+    return new NotFoundException(String.format("No property found with provided propertyId %s", propertyId));
+  }
+
+  private Booking newBooking(final BookingDto bookingInfo, final Property property) {
+    final Booking booking = bookingMapper.dtoToEntity(bookingInfo);
+
+    booking.setStatus(BookingStatus.BOOKED);
+    booking.setTotalPrice(calculateTotalPrice(bookingInfo, property));
+
+    return booking;
+  }
+
+  private List<BookingGuest> updateGuests(
+      final Booking booking,
+      final List<BookingGuest> existingGuests,
+      final List<BookingGuestDto> guests) {
+
+    final BookingGuestChanges changes = BookingGuestChanges.of(booking.getId(), existingGuests, guests);
+
+    if (!changes.getToDelete().isEmpty()) {
+      bookingGuestRepository.deleteAllByIdInBatch(changes.getToDelete().stream().map(BookingGuest::getId).toList());
+    }
+
+    //New guests are inserted and rewritten ones updated in JDBC batches, unchanged guests are not touched
+    final List<BookingGuest> savedGuests = bookingGuestRepository.saveAll(changes.getToSave());
+
+    return changes.guestsAfterSave(savedGuests);
   }
 
   private void checkBookingInfoIsNotNullOnUpdate(final BookingDto bookingInfo) {
@@ -210,18 +496,83 @@ public class BookingServiceImpl implements BookingService {
   }
 
   private void checkDatesAvailability(final LocalDate startDate, final LocalDate endDate, final UUID propertyId) {
-    final List<LocalDate> propertyUnavailableDates =
-        propertyService.retrievePropertyUnavailableDatesForPeriod(
+    checkDatesAvailability(startDate, endDate, propertyId, null);
+  }
+
+  //The current dates of an updated booking are unavailable because of the booking itself, so they are not conflicts
+  private void checkDatesAvailability(
+      final LocalDate startDate,
+      final LocalDate endDate,
+      final UUID propertyId,
+      final Booking updatedBooking) {
+
+    final DateIntervalSet propertyUnavailableIntervals =
+        propertyService.retrievePropertyUnavailableIntervalsForPeriod(
             propertyId,
             startDate,
             endDate);
 
-    if (!propertyUnavailableDates.isEmpty()) {
-      throw new DatesConflictException("The booking dates contains unavailable dates for the selected property", propertyUnavailableDates);
+    availabilityMetrics.recordCheck(
+        ChronoUnit.DAYS.between(startDate, endDate.plusDays(1L)),
+        propertyUnavailableIntervals.intervalCount());
+
+    if (propertyUnavailableIntervals.overlaps(startDate, endDate)) {
+      final List<LocalDate> propertyUnavailableDates = propertyUnavailableIntervals.datesWithin(startDate, endDate)
+          .stream()
+          .filter(date -> Objects.isNull(updatedBooking)
+              || date.isBefore(updatedBooking.getStartDate())
+              || date.isAfter(updatedBooking.getEndDate()))
+          .toList();
+
+      if (!propertyUnavailableDates.isEmpty()) {
+        throw new DatesConflictException("The booking dates contains unavailable dates for the selected property", propertyUnavailableDates);
+      }
+    }
+  }
+
+  /**
+   * Scratch calendar holding the unavailable dates of the property over the dates requested by the given batch
+   * items, read with a single availability check. The items accepted by the batch are marked on it as they are
+   * accepted, so the property's calendar is only changed once the batch is committed.
+   */
+  private PropertyOccupancyCalendar retrieveBatchCalendar(
+      final UUID propertyId,
+      final List<BookingDto> bookingsInfo,
+      final List<Integer> items) {
+
+    final LocalDate startDate = items.stream()
+        .map(item -> bookingsInfo.get(item).getStartDate())
+        .min(Comparator.naturalOrder())
+        .orElseThrow();
+    final LocalDate endDate = items.stream()
+        .map(item -> bookingsInfo.get(item).getEndDate())
+        .max(Comparator.naturalOrder())
+        .orElseThrow();
+
+    final DateIntervalSet propertyUnavailableIntervals =
+        propertyService.retrievePropertyUnavailableIntervalsForPeriod(propertyId, startDate, endDate);
+
+    availabilityMetrics.recordCheck(
+        ChronoUnit.DAYS.between(startDate, endDate.plusDays(1L)),
+        propertyUnavailableIntervals.intervalCount());
+
+    final PropertyOccupancyCalendar batchCalendar = new PropertyOccupancyCalendar();
+
+    for (int i = 0; i < propertyUnavailableIntervals.intervalCount(); i++) {
+      batchCalendar.markBlockedDays(
+          propertyUnavailableIntervals.startEpochDay(i),
+          propertyUnavailableIntervals.endEpochDayExclusive(i));
     }
+
+    return batchCalendar;
+  }
+
+  @FunctionalInterface
+  private interface PageIdsQuery {
+    List<UUID> find(BookingCursor after, Limit limit);
   }
 
-  private long calculateTotalPrice(final BookingDto bookingInfo, final Property property) {
+  long calculateTotalPrice(final BookingDto bookingInfo, final Property property) {
     final int guestCount = bookingInfo.getGuests().size();
 
     final long daysCount = ChronoUnit.DAYS.between(
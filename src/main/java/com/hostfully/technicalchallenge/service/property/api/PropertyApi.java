@@ -1,15 +1,23 @@
 package com.hostfully.technicalchallenge.service.property.api;
 
+import com.hostfully.technicalchallenge.service.booking.api.response.BookingPageResponse;
+import com.hostfully.technicalchallenge.service.booking.data.BookingStatus;
 import com.hostfully.technicalchallenge.service.property.api.request.UpsertPropertyBlockRequest;
 import com.hostfully.technicalchallenge.service.property.api.request.UpsertPropertyRequest;
 import com.hostfully.technicalchallenge.service.property.api.response.PropertyBlockResponse;
+import com.hostfully.technicalchallenge.service.property.api.response.PropertyCalendarResponse;
 import com.hostfully.technicalchallenge.service.property.api.response.PropertyResponse;
+import com.hostfully.technicalchallenge.service.property.api.response.PropertySearchResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
@@ -19,23 +27,51 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.WebRequest;
 
 @Tag(name = "Property API")
 @RequestMapping(value = PropertyApi.PROPERTY_API_PATH, produces = MediaType.APPLICATION_JSON_VALUE)
 public interface PropertyApi {
   String PROPERTY_API_PATH = "/properties";
 
-  @Operation(summary = "Retrieve a property by its ID")
+  @Operation(
+      summary = "Retrieve a property by its ID",
+      description = "The response has a strong ETag of the property version, and a request whose If-None-Match "
+          + "header holds it is answered with 304 and no body"
+  )
   @ApiResponse(
       responseCode = "200",
       description = "The retrieved property",
       useReturnTypeSchema = true
   )
   @GetMapping(value = "/{id}")
-  PropertyResponse retrieveProperty(@PathVariable("id") final UUID propertyId);
+  PropertyResponse retrieveProperty(@PathVariable("id") final UUID propertyId, final WebRequest request);
+
+  @Operation(
+      summary = "Searches the properties that are available for a whole period",
+      description = "The properties are ordered by id and can be filtered by country, city and by the maximum total "
+          + "price of the stay for the number of guests. The next page is retrieved by passing the `nextCursor` of "
+          + "the previous page as the `cursor`, with the same filters. The `nextCursor` is null on the last page"
+  )
+  @ApiResponse(
+      responseCode = "200",
+      description = "A page of the available properties, with the total price of the stay",
+      useReturnTypeSchema = true
+  )
+  @GetMapping(value = "/search")
+  PropertySearchResponse searchAvailableProperties(
+      @RequestParam("startDate") final LocalDate startDate,
+      @RequestParam("endDate") final LocalDate endDate,
+      @RequestParam(value = "guests", defaultValue = "1") final int guests,
+      @RequestParam(value = "country", required = false) final String country,
+      @RequestParam(value = "city", required = false) final String city,
+      @RequestParam(value = "maxTotalPrice", required = false) final Long maxTotalPrice,
+      @RequestParam(value = "cursor", required = false) final String cursor,
+      @RequestParam(value = "limit", defaultValue = "20") final int limit);
 
   @Operation(summary = "Creates a property")
   @ApiResponse(
@@ -47,7 +83,27 @@ public interface PropertyApi {
   @ResponseStatus(HttpStatus.CREATED)
   PropertyResponse createProperty(@RequestBody @Validated final UpsertPropertyRequest propertyInfo);
 
-  @Operation(summary = "Updates a property by its ID")
+  @Operation(
+      summary = "Imports properties from newline delimited JSON",
+      description = "Each line holds a property in the same format as the body of the property creation. The lines are "
+          + "imported in batches, each in its own transaction, and the result of every line is streamed back as "
+          + "newline delimited JSON as soon as its batch is imported"
+  )
+  @ApiResponse(
+      responseCode = "200",
+      description = "The result of each imported line, with the created property or the error of the line"
+  )
+  @PostMapping(
+      value = "/import",
+      consumes = MediaType.APPLICATION_NDJSON_VALUE,
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  void importProperties(final InputStream propertiesInfo, final HttpServletResponse response) throws IOException;
+
+  @Operation(
+      summary = "Updates a property by its ID",
+      description = "When an If-Match header is given, the property is only updated if it still has the version "
+          + "of that ETag, otherwise the request fails with 412. The response has the ETag of the updated property"
+  )
   @ApiResponse(
       responseCode = "200",
       description = "The updated property",
@@ -56,7 +112,9 @@ public interface PropertyApi {
   @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
   PropertyResponse updateProperty(
       @PathVariable("id") final UUID propertyId,
-      @RequestBody @Validated final UpsertPropertyRequest propertyInfo);
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch,
+      @RequestBody @Validated final UpsertPropertyRequest propertyInfo,
+      final HttpServletResponse response);
 
   @Operation(summary = "Deletes a property by its ID")
   @ApiResponse(
@@ -89,10 +147,31 @@ public interface PropertyApi {
       @PathVariable("id") final UUID propertyId,
       @RequestBody @Validated final UpsertPropertyBlockRequest propertyBlockInfo);
 
+  @Operation(
+      summary = "Retrieves the calendar of a property for a given date range",
+      description = "The range is split into consecutive segments of FREE, BOOKED and BLOCKED days, with inclusive "
+          + "`from` and `to` dates. Canceled bookings are not part of the calendar. The response has a strong "
+          + "ETag that changes with every booking or block change of the property, and a request whose "
+          + "If-None-Match header holds it is answered with 304 and no body"
+  )
+  @ApiResponse(
+      responseCode = "200",
+      description = "The calendar of the property",
+      useReturnTypeSchema = true
+  )
+  @GetMapping(value = "/{id}/calendar")
+  PropertyCalendarResponse retrievePropertyCalendar(
+      @PathVariable("id") final UUID propertyId,
+      @RequestParam("startDate") final LocalDate startDate,
+      @RequestParam("endDate") final LocalDate endDate,
+      final WebRequest request);
+
   @Operation(summary = "Retrieves the list of blocked dates of a property for a given date range")
   @ApiResponse(
       responseCode = "200",
-      description = "The blocked dates of a property",
+      description = "The blocked dates of a property, one entry per date. The blocked dates are stored as ranges, "
+          + "the id of an entry is derived from its range and its date: it is unique, and changes when blocking or "
+          + "unblocking dates merges or splits its range",
       useReturnTypeSchema = true
   )
   @GetMapping(value = "/{id}/blocks")
@@ -100,4 +179,23 @@ public interface PropertyApi {
       @PathVariable("id") final UUID propertyId,
       @RequestParam("startDate") final LocalDate startDate,
       @RequestParam("endDate") final LocalDate endDate);
+
+  @Operation(
+      summary = "Retrieves a page of the bookings of a property, ordered by start date",
+      description = "The next page is retrieved by passing the `nextCursor` of the previous page as the `cursor`. "
+          + "The filters must be the same for every page, and the `nextCursor` is null on the last page"
+  )
+  @ApiResponse(
+      responseCode = "200",
+      description = "A page of the bookings of the property",
+      useReturnTypeSchema = true
+  )
+  @GetMapping(value = "/{id}/bookings")
+  BookingPageResponse retrievePropertyBookings(
+      @PathVariable("id") final UUID propertyId,
+      @RequestParam(value = "status", required = false) final BookingStatus status,
+      @RequestParam(value = "startDate", required = false) final LocalDate startDate,
+      @RequestParam(value = "endDate", required = false) final LocalDate endDate,
+      @RequestParam(value = "cursor", required = false) final String cursor,
+      @RequestParam(value = "limit", defaultValue = "20") final int limit);
 }
@@ -1,19 +1,40 @@
 package com.hostfully.technicalchallenge.service.property.api;
 
 
+import com.hostfully.technicalchallenge.common.api.ETags;
+import com.hostfully.technicalchallenge.common.api.NdjsonImporter;
+import com.hostfully.technicalchallenge.service.booking.api.response.BookingPageResponse;
+import com.hostfully.technicalchallenge.service.booking.data.BookingStatus;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingFilter;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingMapper;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingPage;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingService;
 import com.hostfully.technicalchallenge.service.property.api.request.UpsertPropertyBlockRequest;
 import com.hostfully.technicalchallenge.service.property.api.request.UpsertPropertyRequest;
 import com.hostfully.technicalchallenge.service.property.api.response.PropertyBlockResponse;
+import com.hostfully.technicalchallenge.service.property.api.response.PropertyCalendarResponse;
 import com.hostfully.technicalchallenge.service.property.api.response.PropertyResponse;
+import com.hostfully.technicalchallenge.service.property.api.response.PropertySearchResponse;
 import com.hostfully.technicalchallenge.service.property.domain.PropertyBlockDto;
+import com.hostfully.technicalchallenge.service.property.domain.PropertyCalendarDto;
 import com.hostfully.technicalchallenge.service.property.domain.PropertyDto;
 import com.hostfully.technicalchallenge.service.property.domain.PropertyMapper;
+import com.hostfully.technicalchallenge.service.property.domain.PropertySearchCriteria;
+import com.hostfully.technicalchallenge.service.property.domain.PropertySearchPage;
 import com.hostfully.technicalchallenge.service.property.domain.PropertyService;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequiredArgsConstructor
@@ -21,13 +42,38 @@ public class PropertyController implements PropertyApi {
 
   private final PropertyService propertyService;
   private final PropertyMapper propertyMapper;
+  private final NdjsonImporter ndjsonImporter;
+  private final BookingService bookingService;
+  private final BookingMapper bookingMapper;
 
   @Override
-  public PropertyResponse retrieveProperty(final UUID propertyId) {
+  public PropertyResponse retrieveProperty(final UUID propertyId, final WebRequest request) {
     final PropertyDto retrieved = propertyService.retrieveProperty(propertyId);
+
+    if (request.checkNotModified(ETags.of(retrieved.getVersion()))) {
+      return null;
+    }
+
     return propertyMapper.dtoToResponse(retrieved);
   }
 
+  @Override
+  public PropertySearchResponse searchAvailableProperties(
+      final LocalDate startDate,
+      final LocalDate endDate,
+      final int guests,
+      final String country,
+      final String city,
+      final Long maxTotalPrice,
+      final String cursor,
+      final int limit) {
+
+    final PropertySearchCriteria criteria =
+        new PropertySearchCriteria(startDate, endDate, guests, country, city, maxTotalPrice);
+    final PropertySearchPage page = propertyService.searchAvailableProperties(criteria, cursor, limit);
+    return propertyMapper.pageToResponse(page);
+  }
+
   @Override
   public PropertyResponse createProperty(final UpsertPropertyRequest propertyInfo) {
     final PropertyDto toBeSaved = propertyMapper.upsertRequestToDto(propertyInfo);
@@ -36,9 +82,35 @@ public class PropertyController implements PropertyApi {
   }
 
   @Override
-  public PropertyResponse updateProperty(final UUID propertyId, final UpsertPropertyRequest propertyInfo) {
-    final PropertyDto toBeUpdated = propertyMapper.upsertRequestToDto(propertyInfo);
+  public void importProperties(final InputStream propertiesInfo, final HttpServletResponse response)
+      throws IOException {
+
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+
+    ndjsonImporter.importLines(propertiesInfo, response.getOutputStream(), UpsertPropertyRequest.class, requests -> {
+      final List<PropertyDto> toBeSaved = requests.stream()
+          .map(propertyMapper::upsertRequestToDto)
+          .toList();
+
+      return propertyService.createProperties(toBeSaved).stream()
+          .map(result -> result.map(propertyMapper::dtoToResponse))
+          .toList();
+    });
+  }
+
+  @Override
+  public PropertyResponse updateProperty(
+      final UUID propertyId,
+      final String ifMatch,
+      final UpsertPropertyRequest propertyInfo,
+      final HttpServletResponse response) {
+
+    final PropertyDto toBeUpdated = propertyMapper.upsertRequestToDto(propertyInfo)
+        .withVersion(ETags.expectedVersion(ifMatch));
     final PropertyDto updated = propertyService.updateProperty(propertyId, toBeUpdated);
+
+    response.setHeader(HttpHeaders.ETAG, ETags.of(updated.getVersion()));
+
     return propertyMapper.dtoToResponse(updated);
   }
 
@@ -66,6 +138,22 @@ public class PropertyController implements PropertyApi {
     propertyService.unblockPropertyDates(propertyId, propertyBlockInfo.getDates());
   }
 
+  @Override
+  public PropertyCalendarResponse retrievePropertyCalendar(
+      final UUID propertyId,
+      final LocalDate startDate,
+      final LocalDate endDate,
+      final WebRequest request) {
+
+    final PropertyCalendarDto calendar = propertyService.retrievePropertyCalendar(propertyId, startDate, endDate);
+
+    if (request.checkNotModified(ETags.of(calendar.getVersion()))) {
+      return null;
+    }
+
+    return propertyMapper.dtoToResponse(calendar);
+  }
+
   @Override
   public List<PropertyBlockResponse> retrievePropertyBlockedDates(
       final UUID propertyId,
@@ -76,7 +164,43 @@ public class PropertyController implements PropertyApi {
         propertyService.retrievePropertyBlockedDates(propertyId, startDate, endDate);
 
     return blocks.stream()
-        .map(propertyMapper::dtoToResponse)
+        .flatMap(block -> expandBlockedDates(block, startDate, endDate))
         .toList();
   }
+
+  @Override
+  public BookingPageResponse retrievePropertyBookings(
+      final UUID propertyId,
+      final BookingStatus status,
+      final LocalDate startDate,
+      final LocalDate endDate,
+      final String cursor,
+      final int limit) {
+
+    final BookingFilter filter = new BookingFilter(status, startDate, endDate);
+    final BookingPage page = bookingService.retrievePropertyBookings(propertyId, filter, cursor, limit);
+    return bookingMapper.pageToResponse(page);
+  }
+
+  //Blocks are stored as date ranges, but this endpoint keeps returning one entry per blocked date, each with its
+  //own id derived from the range and the date, so the ids are unique and stay the same while the range does
+  private Stream<PropertyBlockResponse> expandBlockedDates(
+      final PropertyBlockDto block,
+      final LocalDate startDate,
+      final LocalDate endDate) {
+
+    final LocalDate from = block.getStartDate().isAfter(startDate) ? block.getStartDate() : startDate;
+    final LocalDate to = block.getEndDate().isBefore(endDate) ? block.getEndDate() : endDate;
+
+    if (from.isAfter(to)) {
+      return Stream.empty();
+    }
+
+    return from.datesUntil(to.plusDays(1L))
+        .map(date -> propertyMapper.dtoToResponse(block.withId(blockedDateId(block.getId(), date)), date));
+  }
+
+  static UUID blockedDateId(final UUID blockId, final LocalDate date) {
+    return UUID.nameUUIDFromBytes((blockId + "/" + date).getBytes(StandardCharsets.UTF_8));
+  }
 }
@@ -0,0 +1,9 @@
+package com.hostfully.technicalchallenge.service.property.api.response;
+
+import lombok.Data;
+
+@Data
+public class AvailablePropertyResponse {
+  private PropertyResponse property;
+  private Long totalPrice;
+}
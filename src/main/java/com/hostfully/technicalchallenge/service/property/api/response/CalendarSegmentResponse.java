@@ -0,0 +1,15 @@
+package com.hostfully.technicalchallenge.service.property.api.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonFormat.Shape;
+import com.hostfully.technicalchallenge.service.property.domain.availability.OccupancyStatus;
+import java.time.LocalDate;
+import lombok.Data;
+
+@Data
+public class CalendarSegmentResponse {
+  @JsonFormat(shape = Shape.STRING)
+  private OccupancyStatus status;
+  private LocalDate from;
+  private LocalDate to;
+}
@@ -0,0 +1,14 @@
+package com.hostfully.technicalchallenge.service.property.api.response;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import lombok.Data;
+
+@Data
+public class PropertyCalendarResponse {
+  private UUID propertyId;
+  private LocalDate startDate;
+  private LocalDate endDate;
+  private List<CalendarSegmentResponse> segments;
+}
@@ -0,0 +1,10 @@
+package com.hostfully.technicalchallenge.service.property.api.response;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class PropertySearchResponse {
+  private List<AvailablePropertyResponse> properties;
+  private String nextCursor;
+}
@@ -1,11 +1,14 @@
 package com.hostfully.technicalchallenge.service.property.data;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.util.Objects;
 import java.util.UUID;
 import lombok.AllArgsConstructor;
@@ -13,10 +16,19 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.With;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.proxy.HibernateProxy;
 
 @Entity
-@Table(name = "properties")
+@Table(
+    name = "properties",
+    indexes = {
+        @Index(name = "idx_properties_country_city_id", columnList = "country, city, id"),
+        @Index(name = "idx_properties_country_id", columnList = "country, id")
+    })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Property.CACHE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,6 +36,8 @@ import org.hibernate.proxy.HibernateProxy;
 @With
 public class Property {
 
+  public static final String CACHE_REGION = "properties";
+
   @Id
   @GeneratedValue(strategy = GenerationType.UUID)
   private UUID id;
@@ -54,6 +68,10 @@ public class Property {
   @Column(nullable = false)
   private Long pricePerGuest;
 
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
   @Override
   public final boolean equals(final Object o) {
     if (this == o) {
@@ -0,0 +1,21 @@
+package com.hostfully.technicalchallenge.service.property.data;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface PropertySearchRepository {
+
+  /**
+   * Properties with no booking nor block overlapping the period, ordered by id and starting after {@code afterId}
+   * when it is given. The country, city and price filters are only applied when they are given.
+   */
+  List<Property> findAvailable(
+      LocalDate startDate,
+      LocalDate endDate,
+      String country,
+      String city,
+      Long maxPricePerGuest,
+      UUID afterId,
+      int limit);
+}
@@ -0,0 +1,87 @@
+package com.hostfully.technicalchallenge.service.property.data;
+
+import com.hostfully.technicalchallenge.service.booking.data.BookingStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+class PropertySearchRepositoryImpl implements PropertySearchRepository {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<Property> findAvailable(
+      final LocalDate startDate,
+      final LocalDate endDate,
+      final String country,
+      final String city,
+      final Long maxPricePerGuest,
+      final UUID afterId,
+      final int limit) {
+
+    final StringBuilder jpql = new StringBuilder("select p from Property p where 1 = 1");
+    final Map<String, Object> parameters = new HashMap<>();
+
+    //Only the given filters are part of the statement, as "(:country is null or p.country = :country)" would keep
+    //the database from seeking into the (country, city, id) index
+    appendFilter(jpql, parameters, "p.id > :afterId", "afterId", afterId);
+    appendFilter(jpql, parameters, "p.country = :country", "country", country);
+    appendFilter(jpql, parameters, "p.city = :city", "city", city);
+    appendFilter(jpql, parameters, "p.pricePerGuest <= :maxPricePerGuest", "maxPricePerGuest", maxPricePerGuest);
+
+    //Anti-joins probing the (property_id, start_date, ...) indexes of the bookings and blocks of each candidate,
+    //so the statement stops reading properties as soon as the page is filled
+    jpql.append("""
+         and not exists (
+          select 1 from Booking b
+          where b.propertyId = p.id
+            and b.status <> :canceled
+            and b.startDate <= :endDate
+            and b.endDate >= :startDate)
+        and not exists (
+          select 1 from PropertyBlock k
+          where k.propertyId = p.id
+            and k.startDate <= :endDate
+            and k.endDate >= :startDate)""");
+
+    //With the equality filters this is the same order as p.id, but spelled as the index columns it lets the
+    //database read the index in order and stop at the limit instead of sorting every property of the country
+    if (Objects.nonNull(country) && Objects.nonNull(city)) {
+      jpql.append(" order by p.country, p.city, p.id");
+    } else if (Objects.nonNull(country)) {
+      jpql.append(" order by p.country, p.id");
+    } else {
+      jpql.append(" order by p.id");
+    }
+
+    final TypedQuery<Property> query = entityManager.createQuery(jpql.toString(), Property.class)
+        .setParameter("canceled", BookingStatus.CANCELED)
+        .setParameter("startDate", startDate)
+        .setParameter("endDate", endDate)
+        .setMaxResults(limit);
+
+    parameters.forEach(query::setParameter);
+
+    return query.getResultList();
+  }
+
+  private static void appendFilter(
+      final StringBuilder jpql,
+      final Map<String, Object> parameters,
+      final String predicate,
+      final String parameter,
+      final Object value) {
+
+    if (Objects.nonNull(value)) {
+      jpql.append(" and ").append(predicate);
+      parameters.put(parameter, value);
+    }
+  }
+}
@@ -5,7 +5,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import java.time.LocalDate;
 import java.util.Objects;
 import java.util.UUID;
@@ -18,7 +20,14 @@ import lombok.With;
 import org.hibernate.proxy.HibernateProxy;
 
 @Entity
-@Table(name = "property_blocks")
+@Table(
+    name = "property_blocks",
+    indexes = @Index(
+        name = "idx_property_blocks_property_dates",
+        columnList = "property_id, start_date, end_date"),
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_property_blocks_property_start",
+        columnNames = {"property_id", "start_date"}))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -34,7 +43,10 @@ public class PropertyBlock {
   private UUID propertyId;
 
   @Column(nullable = false)
-  private LocalDate date;
+  private LocalDate startDate;
+
+  @Column(nullable = false)
+  private LocalDate endDate;
 
   private String reason;
 
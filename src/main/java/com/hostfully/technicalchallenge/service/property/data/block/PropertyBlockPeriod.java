@@ -0,0 +1,19 @@
+package com.hostfully.technicalchallenge.service.property.data.block;
+
+import java.time.LocalDate;
+import lombok.Getter;
+
+/**
+ * Dates of a property block as a half-open range of epoch days, for the queries that only need to know which
+ * days are blocked. Being a projection it never enters the persistence context.
+ */
+@Getter
+public class PropertyBlockPeriod {
+  private final long startEpochDay;
+  private final long endEpochDayExclusive;
+
+  public PropertyBlockPeriod(final LocalDate startDate, final LocalDate endDate) {
+    this.startEpochDay = startDate.toEpochDay();
+    this.endEpochDayExclusive = endDate.toEpochDay() + 1L;
+  }
+}
@@ -2,20 +2,31 @@ package com.hostfully.technicalchallenge.service.property.data.block;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface PropertyBlockRepository extends JpaRepository<PropertyBlock, UUID> {
-  List<PropertyBlock> findByPropertyIdAndDateBetween(
-      final UUID propertyId,
-      final LocalDate startDate,
-      final LocalDate endDate);
-  Optional<PropertyBlock> findByPropertyIdAndDate(final UUID propertyId, final LocalDate date);
+  @Query("""
+      select block from PropertyBlock block
+      where block.propertyId = :propertyId
+        and block.startDate <= :endDate
+        and block.endDate >= :startDate
+      order by block.startDate""")
+  List<PropertyBlock> findOverlappingPeriod(
+      @Param("propertyId") final UUID propertyId,
+      @Param("startDate") final LocalDate startDate,
+      @Param("endDate") final LocalDate endDate);
 
-  void deleteByPropertyIdAndDateIn(final UUID propertyId, final List<LocalDate> dates);
+  @Query("""
+      select new com.hostfully.technicalchallenge.service.property.data.block.PropertyBlockPeriod(
+          block.startDate, block.endDate)
+      from PropertyBlock block
+      where block.propertyId = :propertyId""")
+  List<PropertyBlockPeriod> findPeriodsByPropertyId(@Param("propertyId") final UUID propertyId);
 
   void deleteByPropertyId(final UUID propertyId);
 }
@@ -0,0 +1,12 @@
+package com.hostfully.technicalchallenge.service.property.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class AvailablePropertyDto {
+  private PropertyDto property;
+  //Price of the searched stay for the searched number of guests
+  private long totalPrice;
+}
@@ -12,6 +12,7 @@ import lombok.With;
 public class PropertyBlockDto {
   private UUID id;
   private UUID propertyId;
-  private LocalDate date;
+  private LocalDate startDate;
+  private LocalDate endDate;
   private String reason;
 }
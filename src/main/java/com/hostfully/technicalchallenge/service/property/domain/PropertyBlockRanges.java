@@ -0,0 +1,156 @@
+package com.hostfully.technicalchallenge.service.property.domain;
+
+import com.hostfully.technicalchallenge.service.property.data.block.PropertyBlock;
+import com.hostfully.technicalchallenge.service.property.domain.availability.DateIntervalSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Computes how the block ranges of a property change when dates are blocked or unblocked.
+ * Adjacent ranges with the same reason are coalesced and partially unblocked ranges are split.
+ * Only the ranges touching the affected dates have to be provided.
+ */
+final class PropertyBlockRanges {
+
+  private PropertyBlockRanges() {
+  }
+
+  static Changes block(
+      final UUID propertyId,
+      final List<PropertyBlock> existingBlocks,
+      final DateIntervalSet datesToBlock,
+      final String reason) {
+
+    return rewrite(propertyId, existingBlocks, datesToBlock, true, reason);
+  }
+
+  static Changes unblock(
+      final UUID propertyId,
+      final List<PropertyBlock> existingBlocks,
+      final DateIntervalSet datesToUnblock) {
+
+    return rewrite(propertyId, existingBlocks, datesToUnblock, false, null);
+  }
+
+  private static Changes rewrite(
+      final UUID propertyId,
+      final List<PropertyBlock> existingBlocks,
+      final DateIntervalSet requestedDates,
+      final boolean block,
+      final String reason) {
+
+    final List<PropertyBlock> existing = existingBlocks.stream()
+        .sorted(Comparator.comparing(PropertyBlock::getStartDate))
+        .toList();
+
+    //Every range starts and ends on one of these days, so each segment between two of them is either fully
+    //requested or not, and is covered by at most one existing block
+    final TreeSet<Long> boundaries = new TreeSet<>();
+
+    for (final PropertyBlock existingBlock : existing) {
+      boundaries.add(existingBlock.getStartDate().toEpochDay());
+      boundaries.add(existingBlock.getEndDate().toEpochDay() + 1L);
+    }
+
+    for (int i = 0; i < requestedDates.intervalCount(); i++) {
+      boundaries.add(requestedDates.startEpochDay(i));
+      boundaries.add(requestedDates.endEpochDayExclusive(i));
+    }
+
+    final List<Range> ranges = new ArrayList<>();
+    final DateIntervalSet.Builder newlyBlocked = DateIntervalSet.builder();
+
+    int existingIndex = 0;
+    Long from = null;
+
+    for (final Long to : boundaries) {
+      if (Objects.nonNull(from)) {
+        while (existingIndex < existing.size() && existing.get(existingIndex).getEndDate().toEpochDay() < from) {
+          existingIndex++;
+        }
+
+        final PropertyBlock covering = existingIndex < existing.size()
+            && existing.get(existingIndex).getStartDate().toEpochDay() <= from
+            ? existing.get(existingIndex)
+            : null;
+
+        if (requestedDates.overlaps(from, to)) {
+          if (block) {
+            append(ranges, from, to, reason);
+
+            if (Objects.isNull(covering)) {
+              newlyBlocked.add(from, to);
+            }
+          }
+        } else if (Objects.nonNull(covering)) {
+          append(ranges, from, to, covering.getReason());
+        }
+      }
+
+      from = to;
+    }
+
+    final List<PropertyBlock> toDelete = new ArrayList<>();
+    final List<PropertyBlock> toInsert = new ArrayList<>();
+
+    for (final PropertyBlock existingBlock : existing) {
+      if (ranges.stream().noneMatch(range -> range.matches(existingBlock))) {
+        toDelete.add(existingBlock);
+      }
+    }
+
+    for (final Range range : ranges) {
+      if (existing.stream().noneMatch(range::matches)) {
+        toInsert.add(PropertyBlock.builder()
+            .propertyId(propertyId)
+            .startDate(LocalDate.ofEpochDay(range.from))
+            .endDate(LocalDate.ofEpochDay(range.to - 1L))
+            .reason(range.reason)
+            .build());
+      }
+    }
+
+    return new Changes(toDelete, toInsert, newlyBlocked.build());
+  }
+
+  private static void append(final List<Range> ranges, final long from, final long to, final String reason) {
+    if (!ranges.isEmpty()) {
+      final Range last = ranges.get(ranges.size() - 1);
+
+      if (last.to == from && Objects.equals(last.reason, reason)) {
+        last.to = to;
+        return;
+      }
+    }
+
+    ranges.add(new Range(from, to, reason));
+  }
+
+  @Getter
+  @AllArgsConstructor
+  static final class Changes {
+    private final List<PropertyBlock> toDelete;
+    private final List<PropertyBlock> toInsert;
+    private final DateIntervalSet newlyBlockedDates;
+  }
+
+  @AllArgsConstructor
+  private static final class Range {
+    private final long from;
+    private long to;
+    private final String reason;
+
+    private boolean matches(final PropertyBlock block) {
+      return block.getStartDate().toEpochDay() == from
+          && block.getEndDate().toEpochDay() == to - 1L
+          && Objects.equals(block.getReason(), reason);
+    }
+  }
+}
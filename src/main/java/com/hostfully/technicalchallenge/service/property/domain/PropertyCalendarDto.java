@@ -0,0 +1,18 @@
+package com.hostfully.technicalchallenge.service.property.domain;
+
+import com.hostfully.technicalchallenge.service.property.domain.availability.OccupancySegment;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PropertyCalendarDto {
+  private UUID propertyId;
+  private LocalDate startDate;
+  private LocalDate endDate;
+  private List<OccupancySegment> segments;
+  private String version;
+}
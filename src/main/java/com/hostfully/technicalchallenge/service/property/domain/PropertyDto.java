@@ -19,4 +19,5 @@ public class PropertyDto {
   private String country;
   private String postalCode;
   private Long pricePerGuest;
+  private Long version;
 }
@@ -1,21 +1,35 @@
 package com.hostfully.technicalchallenge.service.property.domain;
 
 import com.hostfully.technicalchallenge.service.property.api.request.UpsertPropertyRequest;
+import com.hostfully.technicalchallenge.service.property.api.response.CalendarSegmentResponse;
 import com.hostfully.technicalchallenge.service.property.api.response.PropertyBlockResponse;
+import com.hostfully.technicalchallenge.service.property.api.response.PropertyCalendarResponse;
 import com.hostfully.technicalchallenge.service.property.api.response.PropertyResponse;
+import com.hostfully.technicalchallenge.service.property.api.response.PropertySearchResponse;
 import com.hostfully.technicalchallenge.service.property.data.Property;
 import com.hostfully.technicalchallenge.service.property.data.block.PropertyBlock;
+import com.hostfully.technicalchallenge.service.property.domain.availability.OccupancySegment;
+import java.time.LocalDate;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper
 public interface PropertyMapper {
   PropertyResponse dtoToResponse(final PropertyDto dto);
+  PropertySearchResponse pageToResponse(final PropertySearchPage page);
   PropertyDto upsertRequestToDto(final UpsertPropertyRequest upsertRequest);
 
   PropertyDto entityToDto(final Property entity);
 
+  @Mapping(target = "version", ignore = true)
   Property dtoToEntity(final PropertyDto dto);
 
+  PropertyCalendarResponse dtoToResponse(final PropertyCalendarDto dto);
+  @Mapping(target = "from", source = "startDate")
+  @Mapping(target = "to", source = "endDate")
+  CalendarSegmentResponse segmentToResponse(final OccupancySegment segment);
+
   PropertyBlockDto entityToDto(final PropertyBlock entity);
-  PropertyBlockResponse dtoToResponse(final PropertyBlockDto dto);
+  @Mapping(target = "date", source = "date")
+  PropertyBlockResponse dtoToResponse(final PropertyBlockDto dto, final LocalDate date);
 }
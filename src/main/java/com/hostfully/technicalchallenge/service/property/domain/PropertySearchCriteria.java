@@ -0,0 +1,19 @@
+package com.hostfully.technicalchallenge.service.property.domain;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.With;
+
+@Data
+@AllArgsConstructor
+@With
+public class PropertySearchCriteria {
+  private LocalDate startDate;
+  private LocalDate endDate;
+  private int guests;
+  //Optional filters, ignored when null
+  private String country;
+  private String city;
+  private Long maxTotalPrice;
+}
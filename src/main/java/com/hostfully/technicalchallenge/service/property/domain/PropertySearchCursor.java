@@ -0,0 +1,45 @@
+package com.hostfully.technicalchallenge.service.property.domain;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Position in a property search, the id of the last property of a page. It is handed to the clients as an
+ * opaque string, so its format can change without breaking them.
+ */
+final class PropertySearchCursor {
+
+  private static final int UUID_BYTES = 16;
+
+  private PropertySearchCursor() {
+  }
+
+  static String encode(final UUID lastPropertyId) {
+    final ByteBuffer bytes = ByteBuffer.allocate(UUID_BYTES)
+        .putLong(lastPropertyId.getMostSignificantBits())
+        .putLong(lastPropertyId.getLeastSignificantBits());
+
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.array());
+  }
+
+  static UUID decode(final String cursor) {
+    Objects.requireNonNull(cursor, "`cursor` cannot be null");
+
+    final byte[] bytes;
+
+    try {
+      bytes = Base64.getUrlDecoder().decode(cursor);
+    } catch (final IllegalArgumentException e) {
+      throw new IllegalArgumentException(String.format("Invalid cursor '%s'", cursor), e);
+    }
+
+    if (bytes.length != UUID_BYTES) {
+      throw new IllegalArgumentException(String.format("Invalid cursor '%s'", cursor));
+    }
+
+    final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    return new UUID(buffer.getLong(), buffer.getLong());
+  }
+}
@@ -0,0 +1,13 @@
+package com.hostfully.technicalchallenge.service.property.domain;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PropertySearchPage {
+  private List<AvailablePropertyDto> properties;
+  //Null on the last page
+  private String nextCursor;
+}
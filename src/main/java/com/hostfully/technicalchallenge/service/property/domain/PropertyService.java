@@ -1,5 +1,7 @@
 package com.hostfully.technicalchallenge.service.property.domain;
 
+import com.hostfully.technicalchallenge.common.domain.BatchItemResult;
+import com.hostfully.technicalchallenge.service.property.domain.availability.DateIntervalSet;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Set;
@@ -8,8 +10,15 @@ import java.util.UUID;
 public interface PropertyService {
   PropertyDto retrieveProperty(final UUID propertyId);
 
+  PropertySearchPage searchAvailableProperties(
+      final PropertySearchCriteria criteria,
+      final String cursor,
+      final int limit);
+
   PropertyDto createProperty(final PropertyDto propertyInfo);
 
+  List<BatchItemResult<PropertyDto>> createProperties(final List<PropertyDto> propertiesInfo);
+
   PropertyDto updateProperty(final UUID propertyId, final PropertyDto propertyInfo);
 
   void deleteProperty(final UUID propertyId);
@@ -30,4 +39,14 @@ public interface PropertyService {
       final UUID propertyId,
       final LocalDate startDate,
       final LocalDate endDate);
+
+  PropertyCalendarDto retrievePropertyCalendar(
+      final UUID propertyId,
+      final LocalDate startDate,
+      final LocalDate endDate);
+
+  DateIntervalSet retrievePropertyUnavailableIntervalsForPeriod(
+      final UUID propertyId,
+      final LocalDate startDate,
+      final LocalDate endDate);
 }
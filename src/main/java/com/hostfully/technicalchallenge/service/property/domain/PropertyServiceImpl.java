@@ -1,20 +1,32 @@
 package com.hostfully.technicalchallenge.service.property.domain;
 
+import com.hostfully.technicalchallenge.common.data.EntityDetacher;
+import com.hostfully.technicalchallenge.common.data.EntityExistence;
+import com.hostfully.technicalchallenge.common.datasource.ReplicaRoutingDataSource;
+import com.hostfully.technicalchallenge.common.domain.BatchItemResult;
 import com.hostfully.technicalchallenge.common.exception.DatesConflictException;
 import com.hostfully.technicalchallenge.common.exception.NotFoundException;
-import com.hostfully.technicalchallenge.service.booking.data.Booking;
-import com.hostfully.technicalchallenge.service.booking.data.BookingRepository;
+import com.hostfully.technicalchallenge.common.exception.PreconditionFailedException;
 import com.hostfully.technicalchallenge.service.property.data.Property;
 import com.hostfully.technicalchallenge.service.property.data.PropertyRepository;
 import com.hostfully.technicalchallenge.service.property.data.block.PropertyBlock;
 import com.hostfully.technicalchallenge.service.property.data.block.PropertyBlockRepository;
+import com.hostfully.technicalchallenge.service.property.domain.availability.CalendarBounds;
+import com.hostfully.technicalchallenge.service.property.domain.availability.DateIntervalSet;
+import com.hostfully.technicalchallenge.service.property.domain.availability.OccupancySegment;
+import com.hostfully.technicalchallenge.service.property.domain.availability.PropertyOccupancyCache;
+import com.hostfully.technicalchallenge.service.property.domain.availability.PropertyOccupancyCalendar;
+import com.hostfully.technicalchallenge.service.property.domain.availability.PropertyWriteLocks;
+import com.hostfully.technicalchallenge.service.user.data.User;
 import com.hostfully.technicalchallenge.service.user.data.UserRepository;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
@@ -26,13 +38,19 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class PropertyServiceImpl implements PropertyService {
 
+  static final int MAX_SEARCH_PAGE_SIZE = 100;
+
   private final PropertyRepository propertyRepository;
   private final UserRepository userRepository;
   private final PropertyBlockRepository propertyBlockRepository;
-  private final BookingRepository bookingRepository;
+  private final PropertyOccupancyCache occupancyCache;
+  private final PropertyWriteLocks propertyWriteLocks;
   private final PropertyMapper propertyMapper;
+  private final EntityExistence entityExistence;
+  private final EntityDetacher entityDetacher;
 
   @Override
+  @Transactional(readOnly = true)
   public PropertyDto retrieveProperty(final UUID propertyId) {
     Objects.requireNonNull(propertyId, "`propertyId` cannot be null");
 
@@ -42,16 +60,67 @@ public class PropertyServiceImpl implements PropertyService {
     return propertyMapper.entityToDto(retrieved);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public PropertySearchPage searchAvailableProperties(
+      final PropertySearchCriteria criteria,
+      final String cursor,
+      final int limit) {
+
+    Objects.requireNonNull(criteria, "`criteria` cannot be null");
+    Objects.requireNonNull(criteria.getStartDate(), "`startDate` cannot be null");
+    Objects.requireNonNull(criteria.getEndDate(), "`endDate` cannot be null");
+
+    if (criteria.getStartDate().isAfter(criteria.getEndDate())) {
+      throw new IllegalArgumentException("startDate cannot be after endDate");
+    }
+
+    if (criteria.getGuests() < 1) {
+      throw new IllegalArgumentException("The number of guests must be at least 1");
+    }
+
+    if (limit < 1 || limit > MAX_SEARCH_PAGE_SIZE) {
+      throw new IllegalArgumentException(
+          String.format("The page size must be between 1 and %d", MAX_SEARCH_PAGE_SIZE));
+    }
+
+    final long daysCount = ChronoUnit.DAYS.between(criteria.getStartDate(), criteria.getEndDate().plusDays(1L));
+    final long guestDays = daysCount * criteria.getGuests();
+
+    //The total price is pricePerGuest * days * guests, so the bound is checked on the price per guest column
+    final Long maxPricePerGuest = Objects.isNull(criteria.getMaxTotalPrice())
+        ? null
+        : Math.floorDiv(criteria.getMaxTotalPrice(), guestDays);
+
+    //One property more than the page size tells whether there is a next page
+    final List<Property> available = propertyRepository.findAvailable(
+        criteria.getStartDate(),
+        criteria.getEndDate(),
+        criteria.getCountry(),
+        criteria.getCity(),
+        maxPricePerGuest,
+        Objects.isNull(cursor) ? null : PropertySearchCursor.decode(cursor),
+        limit + 1);
+
+    final List<AvailablePropertyDto> properties = available.stream()
+        .limit(limit)
+        .map(property -> new AvailablePropertyDto(
+            propertyMapper.entityToDto(property),
+            property.getPricePerGuest() * guestDays))
+        .toList();
+
+    final String nextCursor = available.size() > limit
+        ? PropertySearchCursor.encode(properties.get(properties.size() - 1).getProperty().getId())
+        : null;
+
+    return new PropertySearchPage(properties, nextCursor);
+  }
+
   @Override
   public PropertyDto createProperty(final PropertyDto propertyInfo) {
     checkPropertyInfoIsNotNull(propertyInfo);
 
-    userRepository.findById(propertyInfo.getOwnerUserId())
-        .orElseThrow(() ->
-            new NotFoundException(
-                String.format(
-                    "No user found with provided ownerUserId of '%s'",
-                    propertyInfo.getOwnerUserId())));
+    checkOwnerExists(propertyInfo.getOwnerUserId());
 
     final Property toSave = propertyMapper.dtoToEntity(propertyInfo);
     final Property saved = propertyRepository.save(toSave);
@@ -59,6 +128,47 @@ public class PropertyServiceImpl implements PropertyService {
     return propertyMapper.entityToDto(saved);
   }
 
+  @Override
+  public List<BatchItemResult<PropertyDto>> createProperties(final List<PropertyDto> propertiesInfo) {
+    Objects.requireNonNull(propertiesInfo, "`propertiesInfo` cannot be null");
+    propertiesInfo.forEach(this::checkPropertyInfoIsNotNull);
+
+    final List<BatchItemResult<PropertyDto>> results =
+        new ArrayList<>(Collections.nCopies(propertiesInfo.size(), null));
+
+    //Owners shared by several properties are only checked once
+    final Map<UUID, Boolean> existingOwners = new HashMap<>();
+    final List<Integer> createdItems = new ArrayList<>();
+    final List<Property> toSave = new ArrayList<>();
+
+    for (int item = 0; item < propertiesInfo.size(); item++) {
+      final PropertyDto propertyInfo = propertiesInfo.get(item);
+
+      try {
+        if (!existingOwners.computeIfAbsent(propertyInfo.getOwnerUserId(), this::ownerExists)) {
+          throw ownerNotFound(propertyInfo.getOwnerUserId());
+        }
+
+        toSave.add(propertyMapper.dtoToEntity(propertyInfo));
+        createdItems.add(item);
+      } catch (final NotFoundException e) {
+        results.set(item, BatchItemResult.failed(e));
+      }
+    }
+
+    final List<Property> saved = propertyRepository.saveAll(toSave);
+
+    //Inserted in JDBC batches, and detached: an import creates every window of properties through the persistence
+    //context of its request, which open-in-view keeps open, so only one window of them is kept in memory
+    entityDetacher.flushAndDetachAll();
+
+    for (int i = 0; i < saved.size(); i++) {
+      results.set(createdItems.get(i), BatchItemResult.created(propertyMapper.entityToDto(saved.get(i))));
+    }
+
+    return results;
+  }
+
   @Override
   public PropertyDto updateProperty(final UUID propertyId, final PropertyDto propertyInfo) {
     Objects.requireNonNull(propertyId, "`propertyId` cannot be null");
@@ -67,13 +177,13 @@ public class PropertyServiceImpl implements PropertyService {
     final Property retrieved = propertyRepository.findById(propertyId)
         .orElseThrow(() -> new NotFoundException(String.format("No property found with id %s", propertyId)));
 
+    if (Objects.nonNull(propertyInfo.getVersion()) && !propertyInfo.getVersion().equals(retrieved.getVersion())) {
+      throw new PreconditionFailedException(
+          String.format("The property %s was changed since version %d", propertyId, propertyInfo.getVersion()));
+    }
+
     if (!propertyInfo.getOwnerUserId().equals(retrieved.getOwnerUserId())) {
-      userRepository.findById(propertyInfo.getOwnerUserId())
-          .orElseThrow(() ->
-              new NotFoundException(
-                String.format(
-                    "No user found with provided ownerUserId of '%s'",
-                    propertyInfo.getOwnerUserId())));
+      checkOwnerExists(propertyInfo.getOwnerUserId());
     }
 
     retrieved.setName(propertyInfo.getName());
@@ -86,7 +196,8 @@ public class PropertyServiceImpl implements PropertyService {
     retrieved.setPostalCode(propertyInfo.getPostalCode());
     retrieved.setPricePerGuest(propertyInfo.getPricePerGuest());
 
-    final Property saved = propertyRepository.save(retrieved);
+    //Flushed so the returned version is the one the update is committed with
+    final Property saved = propertyRepository.saveAndFlush(retrieved);
 
     return propertyMapper.entityToDto(saved);
   }
@@ -97,6 +208,8 @@ public class PropertyServiceImpl implements PropertyService {
 
     propertyBlockRepository.deleteByPropertyId(propertyId);
     propertyRepository.deleteById(propertyId);
+
+    occupancyCache.evict(propertyId);
   }
 
   @Override
@@ -111,10 +224,33 @@ public class PropertyServiceImpl implements PropertyService {
       return;
     }
 
-    propertyRepository.findById(propertyId)
-        .orElseThrow(() -> new NotFoundException(String.format("No property found with id %s", propertyId)));
+    CalendarBounds.check(Collections.min(datesToBlock), Collections.max(datesToBlock));
+
+    if (!entityExistence.exists(Property.class, propertyId, propertyRepository)) {
+      throw new NotFoundException(String.format("No property found with id %s", propertyId));
+    }
+
+    propertyWriteLocks.lockUntilTransactionCompletes(propertyId);
+
+    //Load the calendar before writing, so a cold load cannot observe this transaction's uncommitted blocks
+    final PropertyOccupancyCalendar calendar = occupancyCache.retrieveCalendar(propertyId);
 
-    datesToBlock.forEach(date -> createOrUpdatePropertyBlock(propertyId, date, reason));
+    final DateIntervalSet requestedDates = toIntervals(datesToBlock);
+
+    //Ranges touching the requested dates are loaded as well, so they can be coalesced with the new ones
+    final List<PropertyBlock> existingBlocks = propertyBlockRepository.findOverlappingPeriod(
+        propertyId,
+        Collections.min(datesToBlock).minusDays(1L),
+        Collections.max(datesToBlock).plusDays(1L));
+
+    final PropertyBlockRanges.Changes changes =
+        PropertyBlockRanges.block(propertyId, existingBlocks, requestedDates, reason);
+
+    checkIfDatesAreBooked(calendar, changes.getNewlyBlockedDates());
+
+    applyBlockChanges(changes);
+
+    occupancyCache.markBlocked(propertyId, requestedDates);
   }
 
   @Override
@@ -125,10 +261,22 @@ public class PropertyServiceImpl implements PropertyService {
       return;
     }
 
-    propertyBlockRepository.deleteByPropertyIdAndDateIn(propertyId, new ArrayList<>(datesToUnblock));
+    propertyWriteLocks.lockUntilTransactionCompletes(propertyId);
+
+    final DateIntervalSet requestedDates = toIntervals(datesToUnblock);
+
+    final List<PropertyBlock> existingBlocks = propertyBlockRepository.findOverlappingPeriod(
+        propertyId,
+        Collections.min(datesToUnblock),
+        Collections.max(datesToUnblock));
+
+    applyBlockChanges(PropertyBlockRanges.unblock(propertyId, existingBlocks, requestedDates));
+
+    occupancyCache.unmarkBlocked(propertyId, requestedDates);
   }
 
   @Override
+  @Transactional(readOnly = true)
   public List<PropertyBlockDto> retrievePropertyBlockedDates(
       final UUID propertyId,
       final LocalDate startDate,
@@ -143,7 +291,7 @@ public class PropertyServiceImpl implements PropertyService {
     }
 
     final List<PropertyBlock> blockedDates =
-        propertyBlockRepository.findByPropertyIdAndDateBetween(propertyId, startDate, endDate);
+        propertyBlockRepository.findOverlappingPeriod(propertyId, startDate, endDate);
 
     return blockedDates.stream()
         .map(propertyMapper::entityToDto)
@@ -151,21 +299,78 @@ public class PropertyServiceImpl implements PropertyService {
   }
 
   @Override
+  @Transactional(readOnly = true)
   public List<LocalDate> retrievePropertyUnavailableDatesForPeriod(
       final UUID propertyId,
       final LocalDate startDate,
       final LocalDate endDate) {
 
+    final DateIntervalSet unavailableIntervals =
+        retrievePropertyUnavailableIntervalsForPeriod(propertyId, startDate, endDate);
+
+    return unavailableIntervals.datesWithin(startDate, endDate);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public PropertyCalendarDto retrievePropertyCalendar(
+      final UUID propertyId,
+      final LocalDate startDate,
+      final LocalDate endDate) {
+
+    Objects.requireNonNull(propertyId, "`propertyId` cannot be null");
+    Objects.requireNonNull(startDate, "`startDate` cannot be null");
+    Objects.requireNonNull(endDate, "`endDate` cannot be null");
+
+    if (startDate.isAfter(endDate)) {
+      throw new IllegalArgumentException("startDate cannot be after endDate");
+    }
+
+    //The first statement picks the connection of the whole transaction: checked on the primary, otherwise a cold
+    //calendar would then be loaded from the replica the existence check was sent to, and miss the lagging writes
+    final boolean propertyExists = ReplicaRoutingDataSource.readFromPrimary(
+        () -> entityExistence.exists(Property.class, propertyId, propertyRepository));
+
+    if (!propertyExists) {
+      throw new NotFoundException(String.format("No property found with id %s", propertyId));
+    }
+
+    final PropertyOccupancyCalendar calendar = occupancyCache.retrieveCalendar(propertyId);
+
+    //Read before the segments, so a concurrent update can only make the version older than the segments, which
+    //costs a client a full response on its next conditional request instead of a stale 304
+    final String version = calendar.version();
+    final List<OccupancySegment> segments = calendar.segments(startDate, endDate);
+
+    return new PropertyCalendarDto(propertyId, startDate, endDate, segments, version);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public DateIntervalSet retrievePropertyUnavailableIntervalsForPeriod(
+      final UUID propertyId,
+      final LocalDate startDate,
+      final LocalDate endDate) {
+
     Objects.requireNonNull(propertyId, "`propertyId` cannot be null");
     Objects.requireNonNull(startDate, "`startDate` cannot be null");
     Objects.requireNonNull(endDate, "`endDate` cannot be null");
 
-    final Set<LocalDate> uniqueDates = new HashSet<>();
+    return occupancyCache.retrieveCalendar(propertyId).unavailableIntervals(startDate, endDate);
+  }
 
-    uniqueDates.addAll(retrievePropertyBlocksAsDates(propertyId, startDate, endDate));
-    uniqueDates.addAll(retrieveBookedDates(propertyId, startDate, endDate));
+  private void checkOwnerExists(final UUID ownerUserId) {
+    if (!ownerExists(ownerUserId)) {
+      throw ownerNotFound(ownerUserId);
+    }
+  }
+
+  private boolean ownerExists(final UUID ownerUserId) {
+    return entityExistence.exists(User.class, ownerUserId, userRepository);
+  }
 
-    return new ArrayList<>(uniqueDates);
+  private NotFoundException ownerNotFound(final UUID ownerUserId) {
+    return new NotFoundException(String.format("No user found with provided ownerUserId of '%s'", ownerUserId));
   }
 
   private void checkPropertyInfoIsNotNull(final PropertyDto propertyInfo) {
@@ -180,68 +385,33 @@ public class PropertyServiceImpl implements PropertyService {
     Objects.requireNonNull(propertyInfo.getPricePerGuest(), "`propertyInfo.getPricePerGuest()` cannot be null");
   }
 
-  private void createOrUpdatePropertyBlock(
-      final UUID propertyId,
-      final LocalDate date,
-      final String reason) {
-
-    final Optional<PropertyBlock> existing = propertyBlockRepository.findByPropertyIdAndDate(propertyId, date);
-
-    if (existing.isPresent()) {
-      //If date is already blocked for given property, update reason
-      final PropertyBlock toUpdate = existing.get();
-      toUpdate.setReason(reason);
-      propertyBlockRepository.save(toUpdate);
-
-      return;
-    }
-
-    checkIfDateIsBooked(propertyId, date);
-
-    final PropertyBlock toCreate = PropertyBlock.builder()
-        .propertyId(propertyId)
-        .date(date)
-        .reason(reason)
-        .build();
-
-    propertyBlockRepository.save(toCreate);
+  private DateIntervalSet toIntervals(final Set<LocalDate> dates) {
+    final DateIntervalSet.Builder builder = DateIntervalSet.builder();
+    dates.forEach(builder::add);
+    return builder.build();
   }
 
-  private void checkIfDateIsBooked(final UUID propertyId, final LocalDate date) {
-    final List<LocalDate> bookedDates = retrieveBookedDates(propertyId, date, date);
-
-    if (!bookedDates.isEmpty()) {
-      throw new DatesConflictException("Cannot block dates that overlaps with active bookings");
+  private void applyBlockChanges(final PropertyBlockRanges.Changes changes) {
+    //Deleted in a single statement, before the inserts are flushed
+    if (!changes.getToDelete().isEmpty()) {
+      propertyBlockRepository.deleteAllByIdInBatch(changes.getToDelete().stream()
+          .map(PropertyBlock::getId)
+          .toList());
     }
-  }
 
-  private List<LocalDate> retrievePropertyBlocksAsDates(
-      final UUID propertyId,
-      final LocalDate startDate,
-      final LocalDate endDate) {
-
-    final List<PropertyBlock> blockedDates =
-        propertyBlockRepository.findByPropertyIdAndDateBetween(propertyId, startDate, endDate);
-
-    return blockedDates.stream()
-        .map(PropertyBlock::getDate)
-        .toList();
+    if (!changes.getToInsert().isEmpty()) {
+      propertyBlockRepository.saveAll(changes.getToInsert());
+    }
   }
 
-  private List<LocalDate> retrieveBookedDates(
-      final UUID propertyId,
-      final LocalDate startDate,
-      final LocalDate endDate) {
+  private void checkIfDatesAreBooked(final PropertyOccupancyCalendar calendar, final DateIntervalSet dates) {
+    for (int i = 0; i < dates.intervalCount(); i++) {
+      final LocalDate startDate = LocalDate.ofEpochDay(dates.startEpochDay(i));
+      final LocalDate endDate = LocalDate.ofEpochDay(dates.endEpochDayExclusive(i) - 1L);
 
-    final List<Booking> overlappingBookings =
-        bookingRepository.findNonCanceledBookingsOverlappingWithDates(propertyId, startDate, endDate);
-
-    return overlappingBookings.stream()
-        .flatMap(booking ->
-            booking.getStartDate()
-                .datesUntil(booking.getEndDate().plusDays(1L)))
-        .filter(date -> date.isBefore(endDate) || date.isEqual(endDate))
-        .filter(date -> date.isAfter(startDate) || date.isEqual(startDate))
-        .toList();
+      if (calendar.isBooked(startDate, endDate)) {
+        throw new DatesConflictException("Cannot block dates that overlaps with active bookings");
+      }
+    }
   }
 }
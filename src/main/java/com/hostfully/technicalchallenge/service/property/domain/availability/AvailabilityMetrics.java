@@ -0,0 +1,32 @@
+package com.hostfully.technicalchallenge.service.property.domain.availability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Size of the availability checks made before admitting a booking: how many dates were checked and how many
+ * unavailable ranges (bookings and blocks) were found for them.
+ */
+@Component
+public class AvailabilityMetrics {
+
+  private final DistributionSummary datesChecked;
+  private final DistributionSummary unavailableRanges;
+
+  public AvailabilityMetrics(final MeterRegistry meterRegistry) {
+    this.datesChecked = DistributionSummary.builder("hostfully.availability.dates.checked")
+        .description("Dates checked per availability check")
+        .baseUnit("dates")
+        .register(meterRegistry);
+    this.unavailableRanges = DistributionSummary.builder("hostfully.availability.unavailable.ranges")
+        .description("Overlapping bookings and blocks found per availability check")
+        .baseUnit("ranges")
+        .register(meterRegistry);
+  }
+
+  public void recordCheck(final long datesCheckedCount, final int unavailableRangesCount) {
+    datesChecked.record(datesCheckedCount);
+    unavailableRanges.record(unavailableRangesCount);
+  }
+}
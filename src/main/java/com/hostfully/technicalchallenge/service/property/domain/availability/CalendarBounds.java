@@ -0,0 +1,30 @@
+package com.hostfully.technicalchallenge.service.property.domain.availability;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Bounds of the dates that can be booked or blocked. An occupancy calendar keeps a bit per day between the
+ * earliest and the latest day it marked, so a single date centuries away would make it allocate a bit for every
+ * day in between: the dates are checked against these bounds before they are written.
+ */
+public final class CalendarBounds {
+
+  public static final int MAX_YEARS_FROM_TODAY = 10;
+
+  private CalendarBounds() {
+  }
+
+  public static void check(final LocalDate startDate, final LocalDate endDate) {
+    Objects.requireNonNull(startDate, "`startDate` cannot be null");
+    Objects.requireNonNull(endDate, "`endDate` cannot be null");
+
+    final LocalDate today = LocalDate.now();
+
+    if (startDate.isBefore(today.minusYears(MAX_YEARS_FROM_TODAY))
+        || endDate.isAfter(today.plusYears(MAX_YEARS_FROM_TODAY))) {
+      throw new IllegalArgumentException(
+          String.format("The dates cannot be more than %d years away from today", MAX_YEARS_FROM_TODAY));
+    }
+  }
+}
@@ -0,0 +1,224 @@
+package com.hostfully.technicalchallenge.service.property.domain.availability;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable, sorted set of merged half-open intervals of epoch days ({@code [start, end)}).
+ * Public methods take inclusive {@link LocalDate} bounds, the same way bookings and blocks are stored.
+ */
+public final class DateIntervalSet {
+
+  private static final DateIntervalSet EMPTY = new DateIntervalSet(new long[0], new long[0]);
+
+  private final long[] starts;
+  private final long[] ends;
+
+  private DateIntervalSet(final long[] starts, final long[] ends) {
+    this.starts = starts;
+    this.ends = ends;
+  }
+
+  public static DateIntervalSet empty() {
+    return EMPTY;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public boolean isEmpty() {
+    return starts.length == 0;
+  }
+
+  public int intervalCount() {
+    return starts.length;
+  }
+
+  public boolean overlaps(final LocalDate startDate, final LocalDate endDate) {
+    Objects.requireNonNull(startDate, "`startDate` cannot be null");
+    Objects.requireNonNull(endDate, "`endDate` cannot be null");
+
+    return overlaps(startDate.toEpochDay(), endDate.toEpochDay() + 1L);
+  }
+
+  public boolean overlaps(final long fromEpochDay, final long toEpochDayExclusive) {
+    if (fromEpochDay >= toEpochDayExclusive) {
+      return false;
+    }
+
+    //Last interval starting before the end of the range is the only candidate, since intervals are disjoint
+    final int candidate = countStartsBefore(toEpochDayExclusive) - 1;
+
+    return candidate >= 0 && ends[candidate] > fromEpochDay;
+  }
+
+  public List<LocalDate> datesWithin(final LocalDate startDate, final LocalDate endDate) {
+    Objects.requireNonNull(startDate, "`startDate` cannot be null");
+    Objects.requireNonNull(endDate, "`endDate` cannot be null");
+
+    final long from = startDate.toEpochDay();
+    final long to = endDate.toEpochDay() + 1L;
+
+    if (!overlaps(from, to)) {
+      return Collections.emptyList();
+    }
+
+    final List<LocalDate> dates = new ArrayList<>();
+
+    for (int i = countEndsAtOrBefore(from); i < starts.length && starts[i] < to; i++) {
+      final long last = Math.min(ends[i], to);
+
+      for (long day = Math.max(starts[i], from); day < last; day++) {
+        dates.add(LocalDate.ofEpochDay(day));
+      }
+    }
+
+    return dates;
+  }
+
+  public long startEpochDay(final int index) {
+    return starts[index];
+  }
+
+  public long endEpochDayExclusive(final int index) {
+    return ends[index];
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof DateIntervalSet that)) {
+      return false;
+    }
+    return Arrays.equals(starts, that.starts) && Arrays.equals(ends, that.ends);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(starts) + Arrays.hashCode(ends);
+  }
+
+  private int countStartsBefore(final long epochDay) {
+    int low = 0;
+    int high = starts.length;
+
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+
+      if (starts[mid] < epochDay) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+
+    return low;
+  }
+
+  private int countEndsAtOrBefore(final long epochDay) {
+    int low = 0;
+    int high = ends.length;
+
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+
+      if (ends[mid] <= epochDay) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+
+    return low;
+  }
+
+  public static final class Builder {
+    private long[] starts = new long[16];
+    private long[] ends = new long[16];
+    private int size;
+
+    private Builder() {
+    }
+
+    public Builder add(final LocalDate startDate, final LocalDate endDate) {
+      Objects.requireNonNull(startDate, "`startDate` cannot be null");
+      Objects.requireNonNull(endDate, "`endDate` cannot be null");
+
+      return add(startDate.toEpochDay(), endDate.toEpochDay() + 1L);
+    }
+
+    public Builder add(final LocalDate date) {
+      return add(date, date);
+    }
+
+    public Builder add(final long fromEpochDay, final long toEpochDayExclusive) {
+      if (fromEpochDay >= toEpochDayExclusive) {
+        return this;
+      }
+
+      if (size == starts.length) {
+        starts = Arrays.copyOf(starts, size * 2);
+        ends = Arrays.copyOf(ends, size * 2);
+      }
+
+      starts[size] = fromEpochDay;
+      ends[size] = toEpochDayExclusive;
+      size++;
+
+      return this;
+    }
+
+    public DateIntervalSet build() {
+      if (size == 0) {
+        return EMPTY;
+      }
+
+      //Sorting starts and ends independently is enough to compute the union with a sweep line:
+      //the k-th smallest end is always greater than the k-th smallest start.
+      final long[] sortedStarts = Arrays.copyOf(starts, size);
+      final long[] sortedEnds = Arrays.copyOf(ends, size);
+      Arrays.sort(sortedStarts);
+      Arrays.sort(sortedEnds);
+
+      final long[] mergedStarts = new long[size];
+      final long[] mergedEnds = new long[size];
+
+      int merged = 0;
+      int depth = 0;
+      int endIndex = 0;
+      long open = 0L;
+
+      for (int startIndex = 0; startIndex < size; ) {
+        //Starts win ties so that touching intervals are coalesced
+        if (sortedStarts[startIndex] <= sortedEnds[endIndex]) {
+          if (depth++ == 0) {
+            open = sortedStarts[startIndex];
+          }
+          startIndex++;
+        } else {
+          if (--depth == 0) {
+            mergedStarts[merged] = open;
+            mergedEnds[merged] = sortedEnds[endIndex];
+            merged++;
+          }
+          endIndex++;
+        }
+      }
+
+      mergedStarts[merged] = open;
+      mergedEnds[merged] = sortedEnds[size - 1];
+      merged++;
+
+      return new DateIntervalSet(
+          Arrays.copyOf(mergedStarts, merged),
+          Arrays.copyOf(mergedEnds, merged));
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package com.hostfully.technicalchallenge.service.property.domain.availability;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Run of consecutive days of a property calendar with the same status, with inclusive bounds.
+ */
+@Data
+@AllArgsConstructor
+public class OccupancySegment {
+  private OccupancyStatus status;
+  private LocalDate startDate;
+  private LocalDate endDate;
+}
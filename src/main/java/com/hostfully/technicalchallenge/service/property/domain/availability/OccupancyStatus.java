@@ -0,0 +1,5 @@
+package com.hostfully.technicalchallenge.service.property.domain.availability;
+
+public enum OccupancyStatus {
+  FREE, BOOKED, BLOCKED
+}
@@ -0,0 +1,134 @@
+package com.hostfully.technicalchallenge.service.property.domain.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hostfully.technicalchallenge.common.datasource.ReplicaRoutingDataSource;
+import com.hostfully.technicalchallenge.service.booking.data.BookingRepository;
+import com.hostfully.technicalchallenge.service.booking.data.BookingStatus;
+import com.hostfully.technicalchallenge.service.property.data.block.PropertyBlockRepository;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory {@link PropertyOccupancyCalendar} per property. Calendars are loaded from the repositories on the
+ * first access and kept up to date by the booking and property services, which report their writes here.
+ * Writes are applied after the surrounding transaction commits so rolled back changes never reach the cache.
+ * At most {@code maximumSize} calendars are kept, the ones that are rarely used are evicted first and loaded
+ * again on their next access, like the calendars that were never loaded.
+ */
+@Component
+public class PropertyOccupancyCache {
+
+  private final BookingRepository bookingRepository;
+  private final PropertyBlockRepository propertyBlockRepository;
+  private final Cache<UUID, PropertyOccupancyCalendar> calendars;
+
+  public PropertyOccupancyCache(
+      final BookingRepository bookingRepository,
+      final PropertyBlockRepository propertyBlockRepository,
+      @Value("${hostfully.availability.cached-calendars:10000}") final long maximumSize) {
+
+    if (maximumSize <= 0L) {
+      throw new IllegalArgumentException("`maximumSize` must be positive");
+    }
+
+    this.bookingRepository = bookingRepository;
+    this.propertyBlockRepository = propertyBlockRepository;
+    //Evictions run on the calling thread instead of the common pool, they only unlink the evicted calendars
+    this.calendars = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .executor(Runnable::run)
+        .build();
+  }
+
+  public PropertyOccupancyCalendar retrieveCalendar(final UUID propertyId) {
+    Objects.requireNonNull(propertyId, "`propertyId` cannot be null");
+
+    final PropertyOccupancyCalendar calendar = calendars.get(propertyId, id -> new PropertyOccupancyCalendar());
+
+    //Loading queries the database, so it must not run inside the mapping function: that holds a monitor, which
+    //would pin a virtual thread to its carrier while it waits for a connection or for the query to finish.
+    //It reads from the primary even in read-only transactions, as a calendar loaded from a lagging replica
+    //would miss the writes made before the load forever
+    ReplicaRoutingDataSource.readFromPrimary(
+        () -> calendar.loadIfNeeded(loading -> loadCalendar(propertyId, loading)));
+
+    return calendar;
+  }
+
+  public void markBooked(final UUID propertyId, final LocalDate startDate, final LocalDate endDate) {
+    applyAfterCommit(propertyId, calendar -> calendar.markBooked(startDate, endDate));
+  }
+
+  public void unmarkBooked(final UUID propertyId, final LocalDate startDate, final LocalDate endDate) {
+    applyAfterCommit(propertyId, calendar -> calendar.unmarkBooked(startDate, endDate));
+  }
+
+  public void markBlocked(final UUID propertyId, final DateIntervalSet dates) {
+    applyAfterCommit(propertyId, calendar -> forEachInterval(dates, calendar::markBlockedDays));
+  }
+
+  public void unmarkBlocked(final UUID propertyId, final DateIntervalSet dates) {
+    applyAfterCommit(propertyId, calendar -> forEachInterval(dates, calendar::unmarkBlockedDays));
+  }
+
+  public void evict(final UUID propertyId) {
+    afterCommit(() -> calendars.invalidate(propertyId));
+  }
+
+  private void loadCalendar(final UUID propertyId, final PropertyOccupancyCalendar calendar) {
+    bookingRepository.findPeriodsByPropertyIdAndStatusNot(propertyId, BookingStatus.CANCELED)
+        .forEach(period -> calendar.markBookedDays(period.getStartEpochDay(), period.getEndEpochDayExclusive()));
+
+    propertyBlockRepository.findPeriodsByPropertyId(propertyId)
+        .forEach(period -> calendar.markBlockedDays(period.getStartEpochDay(), period.getEndEpochDayExclusive()));
+  }
+
+  private static void forEachInterval(final DateIntervalSet dates, final EpochDayRangeAction action) {
+    for (int i = 0; i < dates.intervalCount(); i++) {
+      action.accept(dates.startEpochDay(i), dates.endEpochDayExclusive(i));
+    }
+  }
+
+  private void applyAfterCommit(final UUID propertyId, final Consumer<PropertyOccupancyCalendar> change) {
+    Objects.requireNonNull(propertyId, "`propertyId` cannot be null");
+
+    //Calendars that are not cached, never loaded or evicted, will pick the change up from the database when they
+    //are accessed. A calendar that is being loaded applies the change only once the load holding its write lock
+    //completes, so the change cannot be overwritten by a load that read the database before the commit. The
+    //calendar is not changed inside a compute of the cache, as waiting for the load there would pin a virtual
+    //thread.
+    afterCommit(() -> {
+      final PropertyOccupancyCalendar calendar = calendars.getIfPresent(propertyId);
+
+      if (Objects.nonNull(calendar)) {
+        change.accept(calendar);
+      }
+    });
+  }
+
+  private void afterCommit(final Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  @FunctionalInterface
+  private interface EpochDayRangeAction {
+    void accept(long fromEpochDay, long toEpochDayExclusive);
+  }
+}
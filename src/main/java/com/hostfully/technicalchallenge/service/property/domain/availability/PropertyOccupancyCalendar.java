@@ -0,0 +1,332 @@
+package com.hostfully.technicalchallenge.service.property.domain.availability;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Occupancy of a single property kept as two bitsets indexed by epoch day, one for booked days and
+ * one for blocked days. Both bitsets share the same word offset so range checks are plain word masks.
+ */
+public class PropertyOccupancyCalendar {
+
+  private static final int WORD_SHIFT = 6;
+  //About 180 years, a calendar holding only dates within the calendar bounds stays far below it
+  static final int MAX_WORDS = 1 << 10;
+  private static final long[] NO_WORDS = new long[0];
+
+  //Seeded randomly, so the calendars loaded after a restart do not reuse the generations of the previous run
+  private static final AtomicLong GENERATIONS = new AtomicLong(ThreadLocalRandom.current().nextLong());
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final long generation = GENERATIONS.incrementAndGet();
+
+  private volatile boolean loaded;
+  private long baseWord;
+  private long[] booked = NO_WORDS;
+  private long[] blocked = NO_WORDS;
+  private long changes;
+
+  public boolean isAvailable(final LocalDate startDate, final LocalDate endDate) {
+    return !anyMatch(startDate.toEpochDay(), endDate.toEpochDay() + 1L, true, true);
+  }
+
+  public boolean isBooked(final LocalDate startDate, final LocalDate endDate) {
+    return anyMatch(startDate.toEpochDay(), endDate.toEpochDay() + 1L, true, false);
+  }
+
+  public boolean isBlocked(final LocalDate startDate, final LocalDate endDate) {
+    return anyMatch(startDate.toEpochDay(), endDate.toEpochDay() + 1L, false, true);
+  }
+
+  public DateIntervalSet unavailableIntervals(final LocalDate startDate, final LocalDate endDate) {
+    lock.readLock().lock();
+    try {
+      return intervals(startDate.toEpochDay(), endDate.toEpochDay() + 1L, true, true);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * The whole period as consecutive segments of free, booked and blocked days, with the free days in between
+   * the booked and blocked ones. A day that is both booked and blocked is reported as blocked.
+   */
+  public List<OccupancySegment> segments(final LocalDate startDate, final LocalDate endDate) {
+    final long from = startDate.toEpochDay();
+    final long to = endDate.toEpochDay() + 1L;
+
+    final DateIntervalSet bookedIntervals;
+    final DateIntervalSet blockedIntervals;
+
+    lock.readLock().lock();
+    try {
+      bookedIntervals = intervals(from, to, true, false);
+      blockedIntervals = intervals(from, to, false, true);
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    //Both sets are sorted and clipped to the period, so a single pass over them yields the segments in order
+    final List<OccupancySegment> segments = new ArrayList<>();
+    int nextBooked = 0;
+    int nextBlocked = 0;
+    long day = from;
+
+    while (day < to) {
+      while (nextBooked < bookedIntervals.intervalCount()
+          && bookedIntervals.endEpochDayExclusive(nextBooked) <= day) {
+        nextBooked++;
+      }
+
+      while (nextBlocked < blockedIntervals.intervalCount()
+          && blockedIntervals.endEpochDayExclusive(nextBlocked) <= day) {
+        nextBlocked++;
+      }
+
+      final long bookedStart = nextBooked < bookedIntervals.intervalCount()
+          ? bookedIntervals.startEpochDay(nextBooked)
+          : to;
+      final long blockedStart = nextBlocked < blockedIntervals.intervalCount()
+          ? blockedIntervals.startEpochDay(nextBlocked)
+          : to;
+
+      final OccupancyStatus status;
+      final long segmentEnd;
+
+      if (blockedStart <= day) {
+        status = OccupancyStatus.BLOCKED;
+        segmentEnd = blockedIntervals.endEpochDayExclusive(nextBlocked);
+      } else if (bookedStart <= day) {
+        status = OccupancyStatus.BOOKED;
+        segmentEnd = Math.min(bookedIntervals.endEpochDayExclusive(nextBooked), blockedStart);
+      } else {
+        status = OccupancyStatus.FREE;
+        segmentEnd = Math.min(bookedStart, blockedStart);
+      }
+
+      segments.add(new OccupancySegment(
+          status, LocalDate.ofEpochDay(day), LocalDate.ofEpochDay(Math.min(segmentEnd, to) - 1L)));
+
+      day = segmentEnd;
+    }
+
+    return segments;
+  }
+
+  public void markBooked(final LocalDate startDate, final LocalDate endDate) {
+    update(startDate.toEpochDay(), endDate.toEpochDay() + 1L, true, true);
+  }
+
+  public void unmarkBooked(final LocalDate startDate, final LocalDate endDate) {
+    update(startDate.toEpochDay(), endDate.toEpochDay() + 1L, true, false);
+  }
+
+  public void markBlocked(final LocalDate startDate, final LocalDate endDate) {
+    update(startDate.toEpochDay(), endDate.toEpochDay() + 1L, false, true);
+  }
+
+  public void unmarkBlocked(final LocalDate startDate, final LocalDate endDate) {
+    update(startDate.toEpochDay(), endDate.toEpochDay() + 1L, false, false);
+  }
+
+  public void markBookedDays(final long fromEpochDay, final long toEpochDayExclusive) {
+    update(fromEpochDay, toEpochDayExclusive, true, true);
+  }
+
+  public void markBlockedDays(final long fromEpochDay, final long toEpochDayExclusive) {
+    update(fromEpochDay, toEpochDayExclusive, false, true);
+  }
+
+  public void unmarkBlockedDays(final long fromEpochDay, final long toEpochDayExclusive) {
+    update(fromEpochDay, toEpochDayExclusive, false, false);
+  }
+
+  /**
+   * Changes with every update of the calendar. It is unique to this instance as well, so a calendar that is
+   * evicted and loaded again never reports the version of the previous instance for different contents.
+   */
+  public String version() {
+    lock.readLock().lock();
+    try {
+      return Long.toHexString(generation) + "-" + changes;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Runs the loader once, holding the write lock so readers and writers wait until the calendar is loaded.
+   * A loader that fails is run again by the next caller.
+   */
+  void loadIfNeeded(final Consumer<PropertyOccupancyCalendar> loader) {
+    if (loaded) {
+      return;
+    }
+
+    lock.writeLock().lock();
+    try {
+      if (!loaded) {
+        loader.accept(this);
+        loaded = true;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  //Callers must hold the read lock
+  private DateIntervalSet intervals(
+      final long from,
+      final long to,
+      final boolean checkBooked,
+      final boolean checkBlocked) {
+
+    final int firstWord = wordIndex(from);
+    final int lastWord = wordIndex(to - 1L);
+
+    if (from >= to || lastWord < 0 || firstWord >= booked.length) {
+      return DateIntervalSet.empty();
+    }
+
+    final DateIntervalSet.Builder builder = DateIntervalSet.builder();
+
+    for (int i = Math.max(firstWord, 0); i <= Math.min(lastWord, booked.length - 1); i++) {
+      long word = ((checkBooked ? booked[i] : 0L) | (checkBlocked ? blocked[i] : 0L))
+          & rangeMask(i, firstWord, lastWord, from, to);
+      final long wordFirstDay = (baseWord + i) << WORD_SHIFT;
+
+      while (word != 0L) {
+        final int runStart = Long.numberOfTrailingZeros(word);
+        final int runLength = Long.numberOfTrailingZeros(~(word >>> runStart));
+        final int runEnd = Math.min(runStart + runLength, Long.SIZE);
+
+        builder.add(wordFirstDay + runStart, wordFirstDay + runEnd);
+
+        word = runEnd == Long.SIZE ? 0L : word & (-1L << runEnd);
+      }
+    }
+
+    return builder.build();
+  }
+
+  private boolean anyMatch(final long from, final long to, final boolean checkBooked, final boolean checkBlocked) {
+    lock.readLock().lock();
+    try {
+      final int firstWord = wordIndex(from);
+      final int lastWord = wordIndex(to - 1L);
+
+      if (from >= to || lastWord < 0 || firstWord >= booked.length) {
+        return false;
+      }
+
+      for (int i = Math.max(firstWord, 0); i <= Math.min(lastWord, booked.length - 1); i++) {
+        final long word = (checkBooked ? booked[i] : 0L) | (checkBlocked ? blocked[i] : 0L);
+
+        if ((word & rangeMask(i, firstWord, lastWord, from, to)) != 0L) {
+          return true;
+        }
+      }
+
+      return false;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void update(final long from, final long to, final boolean bookedBits, final boolean set) {
+    if (from >= to) {
+      return;
+    }
+
+    lock.writeLock().lock();
+    try {
+      if (set) {
+        ensureCapacity(from >> WORD_SHIFT, (to - 1L) >> WORD_SHIFT);
+      }
+
+      changes++;
+
+      final long[] words = bookedBits ? booked : blocked;
+      final int firstWord = wordIndex(from);
+      final int lastWord = wordIndex(to - 1L);
+
+      for (int i = Math.max(firstWord, 0); i <= Math.min(lastWord, words.length - 1); i++) {
+        final long mask = rangeMask(i, firstWord, lastWord, from, to);
+        words[i] = set ? words[i] | mask : words[i] & ~mask;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void ensureCapacity(final long firstAbsoluteWord, final long lastAbsoluteWord) {
+    if (booked.length == 0) {
+      baseWord = firstAbsoluteWord;
+      booked = new long[checkedLength(firstAbsoluteWord, lastAbsoluteWord)];
+      blocked = new long[booked.length];
+      return;
+    }
+
+    final long newBaseWord = Math.min(baseWord, firstAbsoluteWord);
+    final long newLastWord = Math.max(baseWord + booked.length - 1L, lastAbsoluteWord);
+
+    if (newBaseWord == baseWord && newLastWord == baseWord + booked.length - 1L) {
+      return;
+    }
+
+    final int length = checkedLength(newBaseWord, newLastWord);
+    final int shift = (int) (baseWord - newBaseWord);
+
+    booked = grow(booked, length, shift);
+    blocked = grow(blocked, length, shift);
+    baseWord = newBaseWord;
+  }
+
+  //Rejected before anything is allocated, so the calendar stays as it was
+  private static int checkedLength(final long firstAbsoluteWord, final long lastAbsoluteWord) {
+    final long length = lastAbsoluteWord - firstAbsoluteWord + 1L;
+
+    if (length > MAX_WORDS) {
+      throw new IllegalArgumentException(String.format(
+          "An occupancy calendar cannot span more than %d days", (long) MAX_WORDS << WORD_SHIFT));
+    }
+
+    return (int) length;
+  }
+
+  private static long[] grow(final long[] words, final int length, final int shift) {
+    final long[] grown = new long[length];
+    System.arraycopy(words, 0, grown, shift, words.length);
+    return grown;
+  }
+
+  private int wordIndex(final long epochDay) {
+    final long index = (epochDay >> WORD_SHIFT) - baseWord;
+
+    if (index < 0L) {
+      return -1;
+    }
+
+    return index > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) index;
+  }
+
+  private static long rangeMask(
+      final int wordIndex,
+      final int firstWord,
+      final int lastWord,
+      final long from,
+      final long to) {
+
+    //Shift distances are taken modulo 64, which gives the bit offset of the day inside its word
+    final long firstMask = wordIndex == firstWord ? -1L << from : -1L;
+    final long lastMask = wordIndex == lastWord ? -1L >>> -to : -1L;
+
+    return firstMask & lastMask;
+  }
+}
@@ -0,0 +1,70 @@
+package com.hostfully.technicalchallenge.service.property.domain.availability;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Striped locks serializing the writes that change the availability of a property (bookings and blocks).
+ * A lock is held until the surrounding transaction completes, so the availability check and the write it
+ * guards are atomic for other requests on the same property, while other properties proceed in parallel.
+ */
+@Component
+public class PropertyWriteLocks {
+
+  private final ReentrantLock[] stripes;
+
+  public PropertyWriteLocks(@Value("${hostfully.availability.lock-stripes:1024}") final int stripeCount) {
+    if (stripeCount <= 0) {
+      throw new IllegalArgumentException("`stripeCount` must be positive");
+    }
+
+    this.stripes = new ReentrantLock[stripeCount];
+
+    for (int i = 0; i < stripeCount; i++) {
+      stripes[i] = new ReentrantLock();
+    }
+  }
+
+  public void lockUntilTransactionCompletes(final UUID propertyId) {
+    Objects.requireNonNull(propertyId, "`propertyId` cannot be null");
+
+    lockStripe(stripeFor(propertyId));
+  }
+
+  public void lockUntilTransactionCompletes(final Collection<UUID> propertyIds) {
+    Objects.requireNonNull(propertyIds, "`propertyIds` cannot be null");
+
+    //Stripes are always taken in ascending order so that two multi-property writers cannot deadlock
+    propertyIds.stream()
+        .map(this::stripeFor)
+        .distinct()
+        .sorted()
+        .forEach(this::lockStripe);
+  }
+
+  int stripeFor(final UUID propertyId) {
+    return Math.floorMod(propertyId.hashCode(), stripes.length);
+  }
+
+  private void lockStripe(final int stripe) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      throw new IllegalStateException("Property write locks can only be acquired inside a transaction");
+    }
+
+    final ReentrantLock lock = stripes[stripe];
+    lock.lock();
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(final int status) {
+        lock.unlock();
+      }
+    });
+  }
+}
@@ -1,11 +1,18 @@
 package com.hostfully.technicalchallenge.service.user.api;
 
+import com.hostfully.technicalchallenge.service.booking.api.response.BookingPageResponse;
+import com.hostfully.technicalchallenge.service.booking.data.BookingStatus;
 import com.hostfully.technicalchallenge.service.user.api.request.UpsertUserRequest;
 import com.hostfully.technicalchallenge.service.user.api.response.UserResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.UUID;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
@@ -15,22 +22,29 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.WebRequest;
 
 @Tag(name = "User API")
 @RequestMapping(value = UserApi.USER_API_PATH, produces = MediaType.APPLICATION_JSON_VALUE)
 public interface UserApi {
   String USER_API_PATH = "/users";
 
-  @Operation(summary = "Retrieve an user by its ID")
+  @Operation(
+      summary = "Retrieve an user by its ID",
+      description = "The response has a strong ETag of the user version, and a request whose If-None-Match "
+          + "header holds it is answered with 304 and no body"
+  )
   @ApiResponse(
       responseCode = "200",
       description = "The retrieved user",
       useReturnTypeSchema = true
   )
   @GetMapping(value = "/{id}")
-  UserResponse retrieveUser(@PathVariable("id") final UUID userId);
+  UserResponse retrieveUser(@PathVariable("id") final UUID userId, final WebRequest request);
 
   @Operation(summary = "Creates an user")
   @ApiResponse(
@@ -42,14 +56,38 @@ public interface UserApi {
   @ResponseStatus(HttpStatus.CREATED)
   UserResponse createUser(@RequestBody @Validated final UpsertUserRequest userInfo);
 
-  @Operation(summary = "Updates an user by its ID")
+  @Operation(
+      summary = "Imports users from newline delimited JSON",
+      description = "Each line holds an user in the same format as the body of the user creation. The lines are "
+          + "imported in batches, each in its own transaction, and the result of every line is streamed back as "
+          + "newline delimited JSON as soon as its batch is imported"
+  )
+  @ApiResponse(
+      responseCode = "200",
+      description = "The result of each imported line, with the created user or the error of the line"
+  )
+  @PostMapping(
+      value = "/import",
+      consumes = MediaType.APPLICATION_NDJSON_VALUE,
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  void importUsers(final InputStream usersInfo, final HttpServletResponse response) throws IOException;
+
+  @Operation(
+      summary = "Updates an user by its ID",
+      description = "When an If-Match header is given, the user is only updated if it still has the version of "
+          + "that ETag, otherwise the request fails with 412. The response has the ETag of the updated user"
+  )
   @ApiResponse(
       responseCode = "200",
       description = "The updated user",
       useReturnTypeSchema = true
   )
   @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
-  UserResponse updateUser(@PathVariable("id") final UUID userId, @RequestBody @Validated final UpsertUserRequest userInfo);
+  UserResponse updateUser(
+      @PathVariable("id") final UUID userId,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch,
+      @RequestBody @Validated final UpsertUserRequest userInfo,
+      final HttpServletResponse response);
 
   @Operation(summary = "Deletes an user by its ID")
   @ApiResponse(
@@ -59,4 +97,23 @@ public interface UserApi {
   @DeleteMapping(value = "/{id}")
   @ResponseStatus(HttpStatus.NO_CONTENT)
   void deleteUser(@PathVariable("id") final UUID userId);
+
+  @Operation(
+      summary = "Retrieves a page of the bookings of an user, ordered by start date",
+      description = "The next page is retrieved by passing the `nextCursor` of the previous page as the `cursor`. "
+          + "The filters must be the same for every page, and the `nextCursor` is null on the last page"
+  )
+  @ApiResponse(
+      responseCode = "200",
+      description = "A page of the bookings of the user",
+      useReturnTypeSchema = true
+  )
+  @GetMapping(value = "/{id}/bookings")
+  BookingPageResponse retrieveUserBookings(
+      @PathVariable("id") final UUID userId,
+      @RequestParam(value = "status", required = false) final BookingStatus status,
+      @RequestParam(value = "startDate", required = false) final LocalDate startDate,
+      @RequestParam(value = "endDate", required = false) final LocalDate endDate,
+      @RequestParam(value = "cursor", required = false) final String cursor,
+      @RequestParam(value = "limit", defaultValue = "20") final int limit);
 }
@@ -1,13 +1,30 @@
 package com.hostfully.technicalchallenge.service.user.api;
 
+import com.hostfully.technicalchallenge.common.api.ETags;
+import com.hostfully.technicalchallenge.common.api.NdjsonImporter;
+import com.hostfully.technicalchallenge.common.domain.BatchItemResult;
+import com.hostfully.technicalchallenge.service.booking.api.response.BookingPageResponse;
+import com.hostfully.technicalchallenge.service.booking.data.BookingStatus;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingFilter;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingMapper;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingPage;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingService;
 import com.hostfully.technicalchallenge.service.user.api.request.UpsertUserRequest;
 import com.hostfully.technicalchallenge.service.user.api.response.UserResponse;
 import com.hostfully.technicalchallenge.service.user.domain.UserDto;
 import com.hostfully.technicalchallenge.service.user.domain.UserMapper;
 import com.hostfully.technicalchallenge.service.user.domain.UserService;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequiredArgsConstructor
@@ -15,10 +32,18 @@ public class UserController implements UserApi {
 
   private final UserService userService;
   private final UserMapper userMapper;
+  private final NdjsonImporter ndjsonImporter;
+  private final BookingService bookingService;
+  private final BookingMapper bookingMapper;
 
   @Override
-  public UserResponse retrieveUser(final UUID userId) {
+  public UserResponse retrieveUser(final UUID userId, final WebRequest request) {
     final UserDto retrieved = userService.retrieveUser(userId);
+
+    if (request.checkNotModified(ETags.of(retrieved.getVersion()))) {
+      return null;
+    }
+
     return userMapper.dtoToResponse(retrieved);
   }
 
@@ -30,9 +55,32 @@ public class UserController implements UserApi {
   }
 
   @Override
-  public UserResponse updateUser(final UUID userId, final UpsertUserRequest userInfo) {
-    final UserDto toBeUpdated = userMapper.upsertRequestToDto(userInfo);
+  public void importUsers(final InputStream usersInfo, final HttpServletResponse response) throws IOException {
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+
+    ndjsonImporter.importLines(usersInfo, response.getOutputStream(), UpsertUserRequest.class, requests -> {
+      final List<UserDto> toBeSaved = requests.stream()
+          .map(userMapper::upsertRequestToDto)
+          .toList();
+
+      return userService.createUsers(toBeSaved).stream()
+          .map(saved -> BatchItemResult.created(userMapper.dtoToResponse(saved)))
+          .toList();
+    });
+  }
+
+  @Override
+  public UserResponse updateUser(
+      final UUID userId,
+      final String ifMatch,
+      final UpsertUserRequest userInfo,
+      final HttpServletResponse response) {
+
+    final UserDto toBeUpdated = userMapper.upsertRequestToDto(userInfo).withVersion(ETags.expectedVersion(ifMatch));
     final UserDto updated = userService.updateUser(userId, toBeUpdated);
+
+    response.setHeader(HttpHeaders.ETAG, ETags.of(updated.getVersion()));
+
     return userMapper.dtoToResponse(updated);
   }
 
@@ -40,4 +88,18 @@ public class UserController implements UserApi {
   public void deleteUser(final UUID userId) {
     userService.deleteUser(userId);
   }
+
+  @Override
+  public BookingPageResponse retrieveUserBookings(
+      final UUID userId,
+      final BookingStatus status,
+      final LocalDate startDate,
+      final LocalDate endDate,
+      final String cursor,
+      final int limit) {
+
+    final BookingFilter filter = new BookingFilter(status, startDate, endDate);
+    final BookingPage page = bookingService.retrieveUserBookings(userId, filter, cursor, limit);
+    return bookingMapper.pageToResponse(page);
+  }
 }
@@ -1,11 +1,13 @@
 package com.hostfully.technicalchallenge.service.user.data;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDate;
 import java.util.Objects;
 import java.util.UUID;
@@ -14,10 +16,14 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.With;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.proxy.HibernateProxy;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,6 +31,8 @@ import org.hibernate.proxy.HibernateProxy;
 @With
 public class User {
 
+  public static final String CACHE_REGION = "users";
+
   @Id
   @GeneratedValue(strategy = GenerationType.UUID)
   private UUID id;
@@ -38,6 +46,10 @@ public class User {
   @Column(nullable = false)
   private String email;
 
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
   @Override
   public final boolean equals(final Object o) {
     if (this == o) {
@@ -14,4 +14,5 @@ public class UserDto {
   private String name;
   private LocalDate dateOfBirth;
   private String email;
+  private Long version;
 }
@@ -4,6 +4,7 @@ import com.hostfully.technicalchallenge.service.user.api.request.UpsertUserReque
 import com.hostfully.technicalchallenge.service.user.api.response.UserResponse;
 import com.hostfully.technicalchallenge.service.user.data.User;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper
 public interface UserMapper {
@@ -13,5 +14,6 @@ public interface UserMapper {
 
   UserDto entityToDto(final User entity);
 
+  @Mapping(target = "version", ignore = true)
   User dtoToEntity(final UserDto dto);
 }
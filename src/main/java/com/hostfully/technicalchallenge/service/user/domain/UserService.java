@@ -1,10 +1,12 @@
 package com.hostfully.technicalchallenge.service.user.domain;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface UserService {
   UserDto retrieveUser(final UUID userId);
   UserDto createUser(final UserDto userInfo);
+  List<UserDto> createUsers(final List<UserDto> usersInfo);
   UserDto updateUser(final UUID userId, final UserDto userInfo);
   void deleteUser(final UUID userId);
 }
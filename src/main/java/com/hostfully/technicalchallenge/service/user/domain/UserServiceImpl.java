@@ -1,8 +1,11 @@
 package com.hostfully.technicalchallenge.service.user.domain;
 
+import com.hostfully.technicalchallenge.common.data.EntityDetacher;
 import com.hostfully.technicalchallenge.common.exception.NotFoundException;
+import com.hostfully.technicalchallenge.common.exception.PreconditionFailedException;
 import com.hostfully.technicalchallenge.service.user.data.User;
 import com.hostfully.technicalchallenge.service.user.data.UserRepository;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
@@ -16,8 +19,10 @@ public class UserServiceImpl implements UserService {
 
   private final UserRepository userRepository;
   private final UserMapper userMapper;
+  private final EntityDetacher entityDetacher;
 
   @Override
+  @Transactional(readOnly = true)
   public UserDto retrieveUser(final UUID userId) {
     Objects.requireNonNull(userId, "`userId` cannot be null");
 
@@ -36,6 +41,26 @@ public class UserServiceImpl implements UserService {
     return userMapper.entityToDto(saved);
   }
 
+  @Override
+  public List<UserDto> createUsers(final List<UserDto> usersInfo) {
+    Objects.requireNonNull(usersInfo, "`usersInfo` cannot be null");
+    usersInfo.forEach(this::checkUserInfoIsNotNull);
+
+    final List<User> toSave = usersInfo.stream()
+        .map(userMapper::dtoToEntity)
+        .toList();
+
+    final List<User> saved = userRepository.saveAll(toSave);
+
+    //Inserted in JDBC batches, and detached: an import creates every window of users through the persistence
+    //context of its request, which open-in-view keeps open, so only one window of them is kept in memory
+    entityDetacher.flushAndDetachAll();
+
+    return saved.stream()
+        .map(userMapper::entityToDto)
+        .toList();
+  }
+
   @Override
   public UserDto updateUser(final UUID userId, final UserDto userInfo) {
     Objects.requireNonNull(userId, "`userId` cannot be null");
@@ -44,11 +69,16 @@ public class UserServiceImpl implements UserService {
     final User retrieved = userRepository.findById(userId)
         .orElseThrow(() -> new NotFoundException(String.format("No user found with id %s", userId)));
 
+    if (Objects.nonNull(userInfo.getVersion()) && !userInfo.getVersion().equals(retrieved.getVersion())) {
+      throw new PreconditionFailedException(
+          String.format("The user %s was changed since version %d", userId, userInfo.getVersion()));
+    }
+
     retrieved.setName(userInfo.getName());
     retrieved.setEmail(userInfo.getEmail());
     retrieved.setDateOfBirth(userInfo.getDateOfBirth());
 
-    final User saved = userRepository.save(retrieved);
+    final User saved = userRepository.saveAndFlush(retrieved);
 
     return userMapper.entityToDto(saved);
   }
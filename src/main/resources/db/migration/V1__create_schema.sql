@@ -0,0 +1,57 @@
+create table users (
+    id uuid not null,
+    name varchar(255) not null,
+    email varchar(255) not null,
+    date_of_birth date not null,
+    primary key (id)
+);
+
+create table properties (
+    id uuid not null,
+    owner_user_id uuid not null,
+    name varchar(255) not null,
+    address_line1 varchar(255) not null,
+    address_line2 varchar(255),
+    city varchar(255) not null,
+    state varchar(255) not null,
+    postal_code varchar(255) not null,
+    country varchar(255) not null,
+    price_per_guest bigint not null,
+    primary key (id)
+);
+
+create table property_blocks (
+    id uuid not null,
+    property_id uuid not null,
+    start_date date not null,
+    end_date date not null,
+    reason varchar(255),
+    primary key (id),
+    constraint uk_property_blocks_property_start unique (property_id, start_date)
+);
+
+create index idx_property_blocks_property_dates on property_blocks (property_id, start_date, end_date);
+
+create table bookings (
+    id uuid not null,
+    property_id uuid not null,
+    user_id uuid not null,
+    start_date date not null,
+    end_date date not null,
+    status varchar(255) not null check (status in ('BOOKED', 'CANCELED')),
+    total_price bigint not null,
+    primary key (id)
+);
+
+create index idx_bookings_property_dates_status on bookings (property_id, start_date, end_date, status);
+
+create table booking_guests (
+    id uuid not null,
+    booking_id uuid not null,
+    name varchar(255) not null,
+    date_of_birth date not null,
+    primary key (id),
+    constraint fk_booking_guests_booking foreign key (booking_id) references bookings (id)
+);
+
+create index idx_booking_guests_booking_id on booking_guests (booking_id);
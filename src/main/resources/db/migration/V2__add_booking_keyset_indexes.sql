@@ -0,0 +1,8 @@
+--The bookings of a property or a user are listed in (start_date, id) order, seeking past the last booking of the
+--previous page. The filtered columns are in the indexes as well, so the page is selected from the index alone.
+--The property index also serves the availability queries, which only need its first columns.
+drop index idx_bookings_property_dates_status;
+
+create index idx_bookings_property_start_id on bookings (property_id, start_date, id, end_date, status);
+
+create index idx_bookings_user_start_id on bookings (user_id, start_date, id, end_date, status);
@@ -0,0 +1,2 @@
+create index idx_properties_country_city_id on properties (country, city, id);
+create index idx_properties_country_id on properties (country, id);
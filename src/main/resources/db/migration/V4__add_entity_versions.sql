@@ -0,0 +1,6 @@
+--Optimistic locking versions, also used as the ETags of the users, properties and bookings
+alter table users add column version bigint default 0 not null;
+
+alter table properties add column version bigint default 0 not null;
+
+alter table bookings add column version bigint default 0 not null;
@@ -0,0 +1,160 @@
+package com.hostfully.technicalchallenge.common.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.hostfully.technicalchallenge.common.domain.BatchItemResult;
+import com.hostfully.technicalchallenge.common.exception.NotFoundException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.NotBlank;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+class NdjsonImporterTest {
+
+  private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+  private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+  private final ApiErrorHandler apiErrorHandler = new ApiErrorHandler();
+
+  @Test
+  void shouldThrowIllegalArgumentExceptionIfBatchSizeIsNotPositive() {
+    assertThatThrownBy(() -> importer(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldWriteTheResultOfEachLineInOrder() {
+    final String body = String.join("\n",
+        "{\"name\":\"first\"}",
+        "not json",
+        "",
+        "{\"name\":\"\"}",
+        "null",
+        "{\"name\":\"missing\"}",
+        "{\"name\":\"last\"}\r");
+
+    final List<JsonNode> results = importLines(importer(10), body, names -> names.stream()
+        .map(name -> name.equals("missing")
+            ? BatchItemResult.<String>failed(new NotFoundException("No item named missing"))
+            : BatchItemResult.created(name.toUpperCase()))
+        .toList());
+
+    assertThat(results).extracting(result -> result.get("line").asLong()).containsExactly(1L, 2L, 4L, 5L, 6L, 7L);
+    assertThat(results).extracting(result -> result.get("status").asText())
+        .containsExactly("CREATED", "FAILED", "FAILED", "FAILED", "FAILED", "CREATED");
+
+    assertThat(results.get(0).get("item").asText()).isEqualTo("FIRST");
+    assertThat(results.get(1).get("error").get("statusCode").asInt()).isEqualTo(400);
+    assertThat(results.get(2).get("error").get("statusCode").asInt()).isEqualTo(422);
+    assertThat(results.get(2).get("error").get("fieldValidationErrors").has("name")).isTrue();
+    assertThat(results.get(3).get("error").get("statusCode").asInt()).isEqualTo(400);
+    assertThat(results.get(4).get("error").get("statusCode").asInt()).isEqualTo(404);
+    assertThat(results.get(5).get("item").asText()).isEqualTo("LAST");
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldImportAndWriteBackEachWindowBeforeReadingTheNextOne() {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final List<Integer> windowSizes = new ArrayList<>();
+    final List<Integer> linesWrittenBeforeWindow = new ArrayList<>();
+
+    importer(2).importLines(
+        input("{\"name\":\"a\"}\n{\"name\":\"b\"}\n{\"name\":\"c\"}\n{\"name\":\"d\"}\n{\"name\":\"e\"}\n"),
+        output,
+        NamedRequest.class,
+        requests -> {
+          windowSizes.add(requests.size());
+          linesWrittenBeforeWindow.add(output.toString(StandardCharsets.UTF_8).split("\n", -1).length - 1);
+
+          return requests.stream()
+              .map(request -> BatchItemResult.created(request.getName()))
+              .toList();
+        });
+
+    assertThat(windowSizes).containsExactly(2, 2, 1);
+    assertThat(linesWrittenBeforeWindow).containsExactly(0, 2, 4);
+  }
+
+  @Test
+  void shouldFailEveryLineOfAWindowWhoseImportThrowsAndGoOn() {
+    final List<JsonNode> results = importLines(
+        importer(2),
+        "{\"name\":\"a\"}\n{\"name\":\"b\"}\n{\"name\":\"c\"}",
+        names -> {
+          if (names.contains("a")) {
+            throw new IllegalStateException("Constraint violated");
+          }
+
+          return names.stream().map(BatchItemResult::created).toList();
+        });
+
+    assertThat(results).extracting(result -> result.get("status").asText())
+        .containsExactly("FAILED", "FAILED", "CREATED");
+    assertThat(results.get(0).get("error").get("message").asText()).isEqualTo("Constraint violated");
+    assertThat(results.get(1).get("error").get("statusCode").asInt()).isEqualTo(422);
+  }
+
+  @Test
+  void shouldFailLinesLongerThanTheMaximumLength() {
+    final String longName = "a".repeat(NdjsonImporter.MAX_LINE_LENGTH);
+
+    final List<JsonNode> results = importLines(
+        importer(10),
+        "{\"name\":\"" + longName + "\"}\n{\"name\":\"b\"}",
+        names -> names.stream().map(BatchItemResult::created).toList());
+
+    assertThat(results).extracting(result -> result.get("status").asText()).containsExactly("FAILED", "CREATED");
+    assertThat(results.get(0).get("error").get("statusCode").asInt()).isEqualTo(413);
+    assertThat(results.get(1).get("line").asLong()).isEqualTo(2L);
+  }
+
+  private NdjsonImporter importer(final int batchSize) {
+    return new NdjsonImporter(objectMapper, validator, apiErrorHandler, batchSize);
+  }
+
+  @SneakyThrows
+  private List<JsonNode> importLines(
+      final NdjsonImporter importer,
+      final String body,
+      final NameImport nameImport) {
+
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    importer.importLines(input(body), output, NamedRequest.class, requests ->
+        nameImport.apply(requests.stream().map(NamedRequest::getName).toList()));
+
+    final List<JsonNode> results = new ArrayList<>();
+
+    for (final String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+      results.add(objectMapper.readTree(line));
+    }
+
+    return results;
+  }
+
+  private static ByteArrayInputStream input(final String body) {
+    return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @FunctionalInterface
+  private interface NameImport {
+    List<BatchItemResult<String>> apply(List<String> names);
+  }
+
+  @Data
+  static class NamedRequest {
+    @NotBlank
+    private String name;
+  }
+}
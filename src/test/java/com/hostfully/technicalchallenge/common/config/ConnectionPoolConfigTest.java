@@ -0,0 +1,81 @@
+package com.hostfully.technicalchallenge.common.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.hostfully.technicalchallenge.service.TechnicalChallengeApplication;
+import com.hostfully.technicalchallenge.service.user.domain.UserDto;
+import com.hostfully.technicalchallenge.service.user.domain.UserService;
+import com.hostfully.technicalchallenge.util.RandomEntityGenerator;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(classes = TechnicalChallengeApplication.class)
+@ActiveProfiles("pool-tuned")
+class ConnectionPoolConfigTest {
+
+  @Autowired
+  private DataSource dataSource;
+  @Autowired
+  private UserService userService;
+  @Autowired
+  private MeterRegistry meterRegistry;
+  @Autowired
+  private ApplicationContext applicationContext;
+
+  @Test
+  void shouldSizePoolFromCores() throws SQLException {
+    final HikariDataSource hikariDataSource = dataSource.unwrap(HikariDataSource.class);
+    final int poolSize = ConnectionPoolConfig.poolSize(Runtime.getRuntime().availableProcessors(), 2);
+
+    assertThat(hikariDataSource.getMaximumPoolSize()).isEqualTo(poolSize);
+    assertThat(hikariDataSource.getMinimumIdle()).isEqualTo(poolSize);
+    assertThat(hikariDataSource.getLeakDetectionThreshold()).isEqualTo(2000L);
+    assertThat(hikariDataSource.isAutoCommit()).isFalse();
+  }
+
+  @Test
+  void shouldReleaseConnectionsBeforeResponseSerialization() {
+    assertThat(applicationContext.getBeansOfType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+  }
+
+  @Test
+  void shouldRecordConnectionAcquireAndUsageTimes() {
+    userService.createUser(RandomEntityGenerator.create(UserDto.class).withId(null));
+
+    assertThat(poolTimer("hikaricp.connections.acquire").count()).isPositive();
+    assertThat(poolTimer("hikaricp.connections.usage").count()).isPositive();
+  }
+
+  @Test
+  void shouldAddOneSpindleToConnectionsPerCore() {
+    assertThat(ConnectionPoolConfig.poolSize(1, 2)).isEqualTo(3);
+    assertThat(ConnectionPoolConfig.poolSize(8, 2)).isEqualTo(17);
+    assertThat(ConnectionPoolConfig.poolSize(8, 4)).isEqualTo(33);
+  }
+
+  @Test
+  void shouldThrowIllegalArgumentExceptionIfCoresIsNotPositive() {
+    assertThatThrownBy(() -> ConnectionPoolConfig.poolSize(0, 2))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldThrowIllegalArgumentExceptionIfConnectionsPerCoreIsNotPositive() {
+    assertThatThrownBy(() -> ConnectionPoolConfig.poolSize(8, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private Timer poolTimer(final String name) {
+    return meterRegistry.get(name).tag("pool", "hostfully-pool").timer();
+  }
+}
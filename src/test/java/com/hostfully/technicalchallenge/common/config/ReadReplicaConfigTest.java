@@ -0,0 +1,147 @@
+package com.hostfully.technicalchallenge.common.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.hostfully.technicalchallenge.common.exception.NotFoundException;
+import com.hostfully.technicalchallenge.service.TechnicalChallengeApplication;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingDto;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingGuestDto;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingService;
+import com.hostfully.technicalchallenge.service.property.data.Property;
+import com.hostfully.technicalchallenge.service.property.domain.PropertyCalendarDto;
+import com.hostfully.technicalchallenge.service.property.domain.PropertyDto;
+import com.hostfully.technicalchallenge.service.property.domain.PropertyService;
+import com.hostfully.technicalchallenge.service.property.domain.availability.OccupancySegment;
+import com.hostfully.technicalchallenge.service.property.domain.availability.OccupancyStatus;
+import com.hostfully.technicalchallenge.service.property.domain.availability.PropertyOccupancyCache;
+import com.hostfully.technicalchallenge.service.user.data.User;
+import com.hostfully.technicalchallenge.service.user.domain.UserDto;
+import com.hostfully.technicalchallenge.service.user.domain.UserService;
+import com.hostfully.technicalchallenge.util.RandomEntityGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.List;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * The replica is a separate in-memory H2 that is not replicated, so a read served by the replica does not see
+ * the writes made through the services until they are copied there.
+ */
+@SpringBootTest(classes = TechnicalChallengeApplication.class)
+@ActiveProfiles("read-replica")
+class ReadReplicaConfigTest {
+
+  @Autowired
+  @Qualifier("replicaDataSource")
+  private DataSource replicaDataSource;
+  @Autowired
+  private UserService userService;
+  @Autowired
+  private PropertyService propertyService;
+  @Autowired
+  private BookingService bookingService;
+  @Autowired
+  private PropertyOccupancyCache occupancyCache;
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private JdbcTemplate replicaJdbcTemplate;
+
+  @BeforeEach
+  void setUp() {
+    Flyway.configure().dataSource(replicaDataSource).load().migrate();
+    replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+  }
+
+  @Test
+  void shouldServeReadOnlyTransactionsFromReplica() {
+    final UserDto user = createUser();
+
+    //Otherwise served by the second-level cache, which is filled by the insert
+    entityManagerFactory.getCache().evict(User.class, user.getId());
+
+    assertThatThrownBy(() -> userService.retrieveUser(user.getId()))
+        .isInstanceOf(NotFoundException.class);
+
+    replicaJdbcTemplate.update(
+        "insert into users (id, name, email, date_of_birth) values (?, ?, ?, ?)",
+        user.getId(), user.getName(), user.getEmail(), user.getDateOfBirth());
+
+    assertThat(userService.retrieveUser(user.getId())).isEqualTo(user);
+  }
+
+  @Test
+  void shouldServeReadWriteTransactionsFromPrimary() {
+    final UserDto user = createUser();
+
+    final UserDto updated = userService.updateUser(user.getId(), user.withName("Updated"));
+
+    assertThat(updated.getName()).isEqualTo("Updated");
+  }
+
+  @Test
+  void shouldLoadOccupancyCalendarsFromPrimaryInReadOnlyTransactions() {
+    final UserDto user = createUser();
+    final PropertyDto property = propertyService.createProperty(RandomEntityGenerator.create(PropertyDto.class)
+        .withId(null)
+        .withOwnerUserId(user.getId())
+        .withPricePerGuest(10000L));
+
+    final LocalDate startDate = LocalDate.now().plusDays(10L);
+
+    bookingService.createBooking(new BookingDto(
+        null, property.getId(), user.getId(), startDate, startDate.plusDays(1L), null, null,
+        List.of(new BookingGuestDto(null, null, "Guest", LocalDate.of(1990, 1, 1))), null));
+
+    occupancyCache.evict(property.getId());
+
+    final List<LocalDate> unavailableDates = propertyService.retrievePropertyUnavailableDatesForPeriod(
+        property.getId(), startDate, startDate.plusDays(1L));
+
+    assertThat(unavailableDates).containsExactly(startDate, startDate.plusDays(1L));
+  }
+
+  @Test
+  void shouldLoadOccupancyCalendarsFromPrimaryWhenPropertyIsNotInSecondLevelCache() {
+    final UserDto user = createUser();
+    final PropertyDto property = propertyService.createProperty(RandomEntityGenerator.create(PropertyDto.class)
+        .withId(null)
+        .withOwnerUserId(user.getId())
+        .withPricePerGuest(10000L));
+
+    final LocalDate startDate = LocalDate.now().plusDays(10L);
+
+    bookingService.createBooking(new BookingDto(
+        null, property.getId(), user.getId(), startDate, startDate.plusDays(1L), null, null,
+        List.of(new BookingGuestDto(null, null, "Guest", LocalDate.of(1990, 1, 1))), null));
+
+    //The property was replicated but the booking was not yet, and the existence check has to query the database
+    replicaJdbcTemplate.update(
+        "insert into properties (id, owner_user_id, name, address_line1, country, city, state, postal_code, "
+            + "price_per_guest) values (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+        property.getId(), user.getId(), property.getName(), property.getAddressLine1(), property.getCountry(),
+        property.getCity(), property.getState(), property.getPostalCode(), property.getPricePerGuest());
+    entityManagerFactory.getCache().evict(Property.class, property.getId());
+    occupancyCache.evict(property.getId());
+
+    final PropertyCalendarDto calendar = propertyService.retrievePropertyCalendar(
+        property.getId(), startDate, startDate.plusDays(1L));
+
+    assertThat(calendar.getSegments())
+        .extracting(OccupancySegment::getStatus)
+        .containsExactly(OccupancyStatus.BOOKED);
+  }
+
+  private UserDto createUser() {
+    return userService.createUser(RandomEntityGenerator.create(UserDto.class).withId(null));
+  }
+}
@@ -0,0 +1,121 @@
+package com.hostfully.technicalchallenge.common.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.hostfully.technicalchallenge.common.data.EntityExistence;
+import com.hostfully.technicalchallenge.common.exception.NotFoundException;
+import com.hostfully.technicalchallenge.service.TechnicalChallengeApplication;
+import com.hostfully.technicalchallenge.service.property.data.Property;
+import com.hostfully.technicalchallenge.service.property.data.PropertyRepository;
+import com.hostfully.technicalchallenge.service.property.domain.PropertyDto;
+import com.hostfully.technicalchallenge.service.property.domain.PropertyService;
+import com.hostfully.technicalchallenge.service.user.data.User;
+import com.hostfully.technicalchallenge.service.user.data.UserRepository;
+import com.hostfully.technicalchallenge.service.user.domain.UserDto;
+import com.hostfully.technicalchallenge.service.user.domain.UserService;
+import com.hostfully.technicalchallenge.util.RandomEntityGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(classes = TechnicalChallengeApplication.class)
+class SecondLevelCacheConfigTest {
+
+  @Autowired
+  private UserService userService;
+  @Autowired
+  private PropertyService propertyService;
+  @Autowired
+  private UserRepository userRepository;
+  @Autowired
+  private PropertyRepository propertyRepository;
+  @Autowired
+  private EntityExistence entityExistence;
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  private UserDto user;
+  private PropertyDto property;
+
+  @BeforeEach
+  void setUp() {
+    user = userService.createUser(RandomEntityGenerator.create(UserDto.class).withId(null));
+
+    property = propertyService.createProperty(RandomEntityGenerator.create(PropertyDto.class)
+        .withId(null)
+        .withOwnerUserId(user.getId())
+        .withPricePerGuest(10000L));
+  }
+
+  @Test
+  void shouldServeRepeatedLookupsFromCache() {
+    final double propertyHits = cacheGets(Property.CACHE_REGION, "hit");
+    final double userHits = cacheGets(User.CACHE_REGION, "hit");
+
+    propertyService.retrieveProperty(property.getId());
+    propertyService.retrieveProperty(property.getId());
+    userService.retrieveUser(user.getId());
+
+    assertThat(cacheGets(Property.CACHE_REGION, "hit")).isEqualTo(propertyHits + 2);
+    assertThat(cacheGets(User.CACHE_REGION, "hit")).isEqualTo(userHits + 1);
+  }
+
+  @Test
+  void shouldRetrieveUpdatedEntitiesAfterUpdate() {
+    propertyService.retrieveProperty(property.getId());
+    userService.retrieveUser(user.getId());
+
+    propertyService.updateProperty(property.getId(), property.withName("Updated").withPricePerGuest(20000L));
+    userService.updateUser(user.getId(), user.withName("Updated"));
+
+    final PropertyDto retrievedProperty = propertyService.retrieveProperty(property.getId());
+
+    assertThat(retrievedProperty.getName()).isEqualTo("Updated");
+    assertThat(retrievedProperty.getPricePerGuest()).isEqualTo(20000L);
+    assertThat(userService.retrieveUser(user.getId()).getName()).isEqualTo("Updated");
+  }
+
+  @Test
+  void shouldNotRetrieveDeletedEntities() {
+    propertyService.retrieveProperty(property.getId());
+    userService.retrieveUser(user.getId());
+
+    propertyService.deleteProperty(property.getId());
+    userService.deleteUser(user.getId());
+
+    assertThatThrownBy(() -> propertyService.retrieveProperty(property.getId()))
+        .isInstanceOf(NotFoundException.class);
+    assertThatThrownBy(() -> userService.retrieveUser(user.getId()))
+        .isInstanceOf(NotFoundException.class);
+  }
+
+  @Test
+  void shouldNotFindDeletedEntitiesToExist() {
+    propertyService.retrieveProperty(property.getId());
+    userService.retrieveUser(user.getId());
+
+    propertyService.deleteProperty(property.getId());
+    userService.deleteUser(user.getId());
+
+    //The cache regions keep an entry for a deleted entity until it expires, so it must not be taken as existing
+    assertThat(entityExistence.exists(Property.class, property.getId(), propertyRepository)).isFalse();
+    assertThat(entityExistence.exists(User.class, user.getId(), userRepository)).isFalse();
+  }
+
+  @Test
+  void shouldExportHitsAndMissesPerRegion() {
+    for (final String region : SecondLevelCacheConfig.REGIONS) {
+      assertThat(meterRegistry.find("cache.gets").tag("cache", region).tag("result", "hit").functionCounter())
+          .isNotNull();
+      assertThat(meterRegistry.find("cache.gets").tag("cache", region).tag("result", "miss").functionCounter())
+          .isNotNull();
+    }
+  }
+
+  private double cacheGets(final String region, final String result) {
+    return meterRegistry.get("cache.gets").tag("cache", region).tag("result", result).functionCounter().count();
+  }
+}
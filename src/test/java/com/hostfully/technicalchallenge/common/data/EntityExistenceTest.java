@@ -0,0 +1,48 @@
+package com.hostfully.technicalchallenge.common.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+
+import com.hostfully.technicalchallenge.service.user.data.User;
+import com.hostfully.technicalchallenge.service.user.data.UserRepository;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class EntityExistenceTest {
+
+  private static final UUID USER_ID = UUID.randomUUID();
+
+  @Mock
+  private UserRepository userRepository;
+  @InjectMocks
+  private EntityExistence entityExistence;
+
+  @Test
+  void shouldExistIfFound() {
+    doReturn(true).when(userRepository).existsById(USER_ID);
+
+    assertThat(entityExistence.exists(User.class, USER_ID, userRepository)).isTrue();
+
+    verify(userRepository).existsById(USER_ID);
+  }
+
+  @Test
+  void shouldNotExistIfNotFound() {
+    doReturn(false).when(userRepository).existsById(USER_ID);
+
+    assertThat(entityExistence.exists(User.class, USER_ID, userRepository)).isFalse();
+  }
+
+  @Test
+  void shouldThrowNullPointerExceptionIfIdIsNull() {
+    assertThatThrownBy(() -> entityExistence.exists(User.class, null, userRepository))
+        .isInstanceOf(NullPointerException.class);
+  }
+}
@@ -0,0 +1,120 @@
+package com.hostfully.technicalchallenge.common.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class OptimisticLockingRetryAspectTest {
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private ConflictingUpdates target;
+  private ConflictingUpdates proxy;
+
+  @BeforeEach
+  void setUp() {
+    target = new ConflictingUpdates();
+
+    final AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+    proxyFactory.setProxyTargetClass(true);
+    proxyFactory.addAspect(new OptimisticLockingRetryAspect(3, meterRegistry));
+    proxy = proxyFactory.getProxy();
+  }
+
+  @Test
+  void shouldRetryUntilTheUpdateSucceeds() {
+    target.conflicts = 2;
+
+    assertThat(proxy.update()).isEqualTo(3);
+    assertThat(retries("update").count()).isEqualTo(2.0);
+  }
+
+  @Test
+  void shouldThrowTheFailureOnceTheAttemptsAreExhausted() {
+    target.conflicts = 3;
+
+    assertThatThrownBy(() -> proxy.update())
+        .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+    assertThat(target.attempts).isEqualTo(3);
+    assertThat(retries("update").count()).isEqualTo(2.0);
+  }
+
+  @Test
+  void shouldNotRetryOtherFailures() {
+    target.conflicts = 1;
+
+    assertThatThrownBy(() -> proxy.updateWithoutRetry())
+        .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+    assertThatThrownBy(() -> proxy.failValidation())
+        .isInstanceOf(IllegalStateException.class);
+
+    assertThat(target.attempts).isEqualTo(2);
+  }
+
+  @Test
+  void shouldNotRetryInsideATransactionOfTheCaller() {
+    target.conflicts = 1;
+
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+
+    try {
+      assertThatThrownBy(() -> proxy.update())
+          .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    } finally {
+      TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    assertThat(target.attempts).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRejectNonPositiveMaxAttempts() {
+    assertThatThrownBy(() -> new OptimisticLockingRetryAspect(0, meterRegistry))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private Counter retries(final String method) {
+    return meterRegistry.get(OptimisticLockingRetryAspect.RETRIES_METRIC)
+        .tag("service", ConflictingUpdates.class.getSimpleName())
+        .tag("method", method)
+        .counter();
+  }
+
+  static class ConflictingUpdates {
+
+    private int conflicts;
+    private int attempts;
+
+    @RetryOnOptimisticLockingFailure
+    public int update() {
+      return updateWithoutRetry();
+    }
+
+    public int updateWithoutRetry() {
+      attempts++;
+
+      if (attempts <= conflicts) {
+        throw new ObjectOptimisticLockingFailureException("Booking", UUID.randomUUID());
+      }
+
+      return attempts;
+    }
+
+    @RetryOnOptimisticLockingFailure
+    public int failValidation() {
+      attempts++;
+      throw new IllegalStateException("Cannot update canceled booking");
+    }
+  }
+}
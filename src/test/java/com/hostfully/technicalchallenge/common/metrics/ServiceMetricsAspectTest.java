@@ -0,0 +1,87 @@
+package com.hostfully.technicalchallenge.common.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+
+import com.hostfully.technicalchallenge.common.exception.NotFoundException;
+import com.hostfully.technicalchallenge.service.user.data.User;
+import com.hostfully.technicalchallenge.service.user.data.UserRepository;
+import com.hostfully.technicalchallenge.service.user.domain.UserMapperImpl;
+import com.hostfully.technicalchallenge.service.user.domain.UserService;
+import com.hostfully.technicalchallenge.service.user.domain.UserServiceImpl;
+import com.hostfully.technicalchallenge.util.RandomEntityGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceMetricsAspectTest {
+
+  @Mock
+  private UserRepository userRepository;
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private UserService userService;
+
+  @BeforeEach
+  void setUp() {
+    final AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new UserServiceImpl(userRepository, new UserMapperImpl(), null));
+    proxyFactory.addAspect(new ServiceMetricsAspect(meterRegistry));
+    userService = proxyFactory.getProxy();
+  }
+
+  @Test
+  void shouldTimeSuccessfulCalls() {
+    doReturn(Optional.of(RandomEntityGenerator.create(User.class))).when(userRepository).findById(any(UUID.class));
+
+    userService.retrieveUser(UUID.randomUUID());
+    userService.retrieveUser(UUID.randomUUID());
+
+    assertThat(timer("retrieveUser", "success").count()).isEqualTo(2L);
+  }
+
+  @Test
+  void shouldTagFailedCallsWithTheirOutcome() {
+    doReturn(Optional.empty()).when(userRepository).findById(any(UUID.class));
+
+    assertThatThrownBy(() -> userService.retrieveUser(UUID.randomUUID()))
+        .isInstanceOf(NotFoundException.class);
+    assertThatThrownBy(() -> userService.retrieveUser(null))
+        .isInstanceOf(NullPointerException.class);
+
+    assertThat(timer("retrieveUser", "not_found").count()).isEqualTo(1L);
+    assertThat(timer("retrieveUser", "error").count()).isEqualTo(1L);
+    assertThat(meterRegistry.find(ServiceMetricsAspect.SERVICE_CALLS_METRIC).tag("outcome", "success").timer())
+        .isNull();
+  }
+
+  @Test
+  void shouldTagIllegalStateFailures() {
+    doThrow(new IllegalStateException("boom")).when(userRepository).findById(any(UUID.class));
+
+    assertThatThrownBy(() -> userService.retrieveUser(UUID.randomUUID()))
+        .isInstanceOf(IllegalStateException.class);
+
+    assertThat(timer("retrieveUser", "illegal_state").count()).isEqualTo(1L);
+  }
+
+  private Timer timer(final String method, final String outcome) {
+    return meterRegistry.get(ServiceMetricsAspect.SERVICE_CALLS_METRIC)
+        .tag("service", "UserServiceImpl")
+        .tag("method", method)
+        .tag("outcome", outcome)
+        .timer();
+  }
+}
@@ -0,0 +1,170 @@
+package com.hostfully.technicalchallenge.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hostfully.technicalchallenge.service.booking.data.BookingRepository;
+import com.hostfully.technicalchallenge.service.booking.data.BookingStatus;
+import com.hostfully.technicalchallenge.service.booking.data.guest.BookingGuestRepository;
+import com.hostfully.technicalchallenge.service.property.data.PropertyRepository;
+import com.hostfully.technicalchallenge.service.property.data.block.PropertyBlockRepository;
+import com.hostfully.technicalchallenge.service.user.data.UserRepository;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs H2's {@code EXPLAIN} on the statements issued by every repository query and fails if any of them reads a
+ * whole table, which would make it slower as the table grows.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+    + "com.hostfully.technicalchallenge.service.RepositoryQueryPlanTest$RecordingStatementInspector")
+class RepositoryQueryPlanTest {
+
+  private static final UUID ID = UUID.randomUUID();
+  private static final LocalDate TODAY = LocalDate.now();
+
+  @Autowired
+  private BookingRepository bookingRepository;
+  @Autowired
+  private BookingGuestRepository bookingGuestRepository;
+  @Autowired
+  private PropertyRepository propertyRepository;
+  @Autowired
+  private PropertyBlockRepository propertyBlockRepository;
+  @Autowired
+  private UserRepository userRepository;
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+  @Autowired
+  private DataSource dataSource;
+
+  @BeforeEach
+  void setUp() {
+    RecordingStatementInspector.STATEMENTS.clear();
+  }
+
+  @Test
+  void shouldNotScanWholeTablesInBookingQueries() throws SQLException {
+    assertNoTableScan(() -> {
+      bookingRepository.findById(ID);
+      bookingRepository.findWithGuestsById(ID);
+      bookingRepository.findPeriodsByPropertyIdAndStatusNot(ID, BookingStatus.CANCELED);
+      bookingRepository.findPageIdsByPropertyId(ID, TODAY, ID, BookingStatus.BOOKED, TODAY, TODAY, Limit.of(20));
+      bookingRepository.findPageIdsByUserId(ID, TODAY, ID, BookingStatus.BOOKED, TODAY, TODAY, Limit.of(20));
+      bookingRepository.findWithGuestsByIdIn(List.of(ID));
+      bookingGuestRepository.deleteByBookingId(ID);
+      bookingGuestRepository.deleteAllByIdInBatch(List.of(ID));
+    });
+  }
+
+  @Test
+  void shouldNotScanWholeTablesInPropertyBlockQueries() throws SQLException {
+    assertNoTableScan(() -> {
+      propertyBlockRepository.findOverlappingPeriod(ID, TODAY, TODAY.plusDays(30L));
+      propertyBlockRepository.findPeriodsByPropertyId(ID);
+      propertyBlockRepository.deleteByPropertyId(ID);
+      propertyBlockRepository.deleteAllByIdInBatch(List.of(ID));
+    });
+  }
+
+  @Test
+  void shouldNotScanWholeTablesInPropertyAndUserQueries() throws SQLException {
+    assertNoTableScan(() -> {
+      propertyRepository.findById(ID);
+      propertyRepository.existsById(ID);
+      propertyRepository.findAvailable(TODAY, TODAY.plusDays(7L), "Country", "City", 10000L, ID, 21);
+      propertyRepository.findAvailable(TODAY, TODAY.plusDays(7L), null, null, null, ID, 21);
+      userRepository.findById(ID);
+      userRepository.existsById(ID);
+    });
+  }
+
+  @Test
+  void shouldStopReadingPropertiesAtTheLimitWhenFindAvailable() throws SQLException {
+    //The properties are read in the order of an index, so the statement stops once the page is filled instead of
+    //sorting every candidate
+    assertPlans(() -> {
+      propertyRepository.findAvailable(TODAY, TODAY.plusDays(7L), "Country", "City", 10000L, ID, 21);
+      propertyRepository.findAvailable(TODAY, TODAY.plusDays(7L), "Country", null, null, null, 21);
+      propertyRepository.findAvailable(TODAY, TODAY.plusDays(7L), null, "City", null, null, 21);
+      propertyRepository.findAvailable(TODAY, TODAY.plusDays(7L), null, null, null, null, 21);
+    }, plan -> plan.contains("/* index sorted */"), "read in index order");
+  }
+
+  private void assertNoTableScan(final Runnable queries) throws SQLException {
+    assertPlans(queries, plan -> !plan.toLowerCase(Locale.ROOT).contains(".tablescan"), "free of table scans");
+  }
+
+  private void assertPlans(
+      final Runnable queries,
+      final Predicate<String> planCondition,
+      final String conditionDescription) throws SQLException {
+
+    transactionTemplate.executeWithoutResult(status -> {
+      queries.run();
+      status.setRollbackOnly();
+    });
+
+    final List<String> statements = RecordingStatementInspector.STATEMENTS.stream()
+        .filter(sql -> Stream.of("select", "update", "delete")
+            .anyMatch(sql.stripLeading().toLowerCase(Locale.ROOT)::startsWith))
+        .distinct()
+        .toList();
+
+    assertThat(statements).isNotEmpty();
+
+    try (Connection connection = dataSource.getConnection()) {
+      for (final String sql : statements) {
+        assertThat(explain(connection, sql))
+            .as("Query plan of %s", sql)
+            .matches(planCondition, conditionDescription);
+      }
+    }
+  }
+
+  private static String explain(final Connection connection, final String sql) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+      for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+        statement.setNull(i, Types.NULL);
+      }
+
+      try (ResultSet plan = statement.executeQuery()) {
+        final StringBuilder builder = new StringBuilder();
+
+        while (plan.next()) {
+          builder.append(plan.getString(1)).append('\n');
+        }
+
+        return builder.toString();
+      }
+    }
+  }
+
+  public static class RecordingStatementInspector implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(final String sql) {
+      STATEMENTS.add(sql);
+      return sql;
+    }
+  }
+}
@@ -0,0 +1,195 @@
+package com.hostfully.technicalchallenge.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import com.hostfully.technicalchallenge.service.booking.data.BookingRepository;
+import com.hostfully.technicalchallenge.service.booking.data.BookingStatus;
+import com.hostfully.technicalchallenge.service.property.data.block.PropertyBlockRepository;
+import com.hostfully.technicalchallenge.service.property.domain.availability.PropertyOccupancyCache;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+
+/**
+ * Virtual threads that block while holding a monitor stay pinned to their carrier thread, so the application
+ * code must not use {@code synchronized} around JDBC calls (or any other blocking call).
+ */
+class VirtualThreadPinningTest {
+
+  private static final String APPLICATION_PACKAGE = "com.hostfully.technicalchallenge";
+  private static final int THREADS = 16;
+
+  @TempDir
+  private Path recordingDirectory;
+
+  @Test
+  void shouldNotUseMonitorsInApplicationClasses() throws IOException {
+    final Path classesDirectory = Path.of(TechnicalChallengeApplication.class.getProtectionDomain()
+        .getCodeSource().getLocation().getPath());
+
+    final List<String> synchronizedMethods = new ArrayList<>();
+
+    try (Stream<Path> classFiles = Files.walk(classesDirectory)) {
+      for (final Path classFile : classFiles.filter(path -> path.toString().endsWith(".class")).toList()) {
+        try (InputStream input = Files.newInputStream(classFile)) {
+          new ClassReader(input).accept(new MonitorCollector(synchronizedMethods), ClassReader.SKIP_DEBUG);
+        }
+      }
+    }
+
+    assertThat(synchronizedMethods).isEmpty();
+  }
+
+  @Test
+  void shouldNotPinVirtualThreadsWhenLoadingAndChangingOccupancyCalendars() throws Exception {
+    final BookingRepository bookingRepository = mock(BookingRepository.class);
+    final PropertyBlockRepository propertyBlockRepository = mock(PropertyBlockRepository.class);
+
+    //Queries against a real database park the calling thread while waiting for the response
+    doAnswer(invocation -> {
+      Thread.sleep(50L);
+      return Collections.emptyList();
+    }).when(bookingRepository).findPeriodsByPropertyIdAndStatusNot(any(UUID.class), any(BookingStatus.class));
+    doReturn(Collections.emptyList()).when(propertyBlockRepository).findPeriodsByPropertyId(any(UUID.class));
+
+    final PropertyOccupancyCache occupancyCache =
+        new PropertyOccupancyCache(bookingRepository, propertyBlockRepository, 10_000L);
+    final UUID propertyId = UUID.randomUUID();
+
+    final List<String> pinnedStacks = recordPinnedStacks(() -> {
+      final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+      try {
+        final List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+          futures.add(executor.submit(() -> occupancyCache.retrieveCalendar(propertyId)));
+        }
+
+        //Let the load start, so the changes below have to wait for it to complete
+        Thread.sleep(10L);
+
+        for (int i = 0; i < THREADS; i++) {
+          final LocalDate date = LocalDate.now().plusDays(i);
+          futures.add(executor.submit(() -> occupancyCache.markBooked(propertyId, date, date)));
+        }
+
+        //Pinned threads can starve the carriers the other threads need to make progress, so waiting for
+        //them is bounded instead of closing the executor
+        for (final Future<?> future : futures) {
+          future.get(10L, TimeUnit.SECONDS);
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+    });
+
+    assertThat(pinnedStacks).isEmpty();
+  }
+
+  private List<String> recordPinnedStacks(final Workload workload) throws Exception {
+    final Path recordingFile = recordingDirectory.resolve("pinning.jfr");
+
+    try (Recording recording = new Recording()) {
+      recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+      recording.start();
+
+      workload.run();
+
+      recording.stop();
+      recording.dump(recordingFile);
+    }
+
+    return RecordingFile.readAllEvents(recordingFile).stream()
+        .map(RecordedEvent::getStackTrace)
+        .filter(stackTrace -> stackTrace != null && stackTrace.getFrames().stream()
+            .anyMatch(frame -> frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE)))
+        .map(stackTrace -> stackTrace.getFrames().stream()
+            .map(VirtualThreadPinningTest::describe)
+            .toList()
+            .toString())
+        .toList();
+  }
+
+  private static String describe(final RecordedFrame frame) {
+    return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+  }
+
+  @FunctionalInterface
+  private interface Workload {
+    void run() throws Exception;
+  }
+
+  private static final class MonitorCollector extends ClassVisitor {
+
+    private final List<String> synchronizedMethods;
+    private String className;
+
+    private MonitorCollector(final List<String> synchronizedMethods) {
+      super(Opcodes.ASM9);
+      this.synchronizedMethods = synchronizedMethods;
+    }
+
+    @Override
+    public void visit(
+        final int version,
+        final int access,
+        final String name,
+        final String signature,
+        final String superName,
+        final String[] interfaces) {
+
+      className = name.replace('/', '.');
+    }
+
+    @Override
+    public MethodVisitor visitMethod(
+        final int access,
+        final String name,
+        final String descriptor,
+        final String signature,
+        final String[] exceptions) {
+
+      final String method = className + "." + name + descriptor;
+
+      if ((access & Opcodes.ACC_SYNCHRONIZED) != 0) {
+        synchronizedMethods.add(method);
+      }
+
+      return new MethodVisitor(Opcodes.ASM9) {
+        @Override
+        public void visitInsn(final int opcode) {
+          if (opcode == Opcodes.MONITORENTER) {
+            synchronizedMethods.add(method);
+          }
+        }
+      };
+    }
+  }
+}
@@ -1,9 +1,13 @@
 package com.hostfully.technicalchallenge.service.booking.api;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -11,15 +15,21 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hostfully.technicalchallenge.common.domain.BatchItemResult;
 import com.hostfully.technicalchallenge.common.exception.DatesConflictException;
 import com.hostfully.technicalchallenge.common.exception.NotFoundException;
+import com.hostfully.technicalchallenge.common.exception.PreconditionFailedException;
+import com.hostfully.technicalchallenge.service.booking.api.request.CreateBookingBatchRequest;
 import com.hostfully.technicalchallenge.service.booking.api.request.CreateBookingRequest;
 import com.hostfully.technicalchallenge.service.booking.api.request.UpdateBookingRequest;
 import com.hostfully.technicalchallenge.service.booking.api.request.UpsertBookingGuestRequest;
 import com.hostfully.technicalchallenge.service.booking.api.response.BookingResponse;
+import com.hostfully.technicalchallenge.service.booking.data.Booking;
 import com.hostfully.technicalchallenge.service.booking.data.BookingStatus;
 import com.hostfully.technicalchallenge.service.booking.domain.BookingDto;
 import com.hostfully.technicalchallenge.service.booking.domain.BookingGuestDto;
@@ -29,6 +39,7 @@ import com.hostfully.technicalchallenge.service.booking.domain.BookingService;
 import com.hostfully.technicalchallenge.service.property.api.PropertyApi;
 import com.hostfully.technicalchallenge.service.property.api.request.UpsertPropertyRequest;
 import com.hostfully.technicalchallenge.util.RandomEntityGenerator;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -38,7 +49,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 
 @Import({BookingMapperImpl.class})
@@ -93,9 +106,30 @@ class BookingApiTest {
         .perform(get(BookingApi.BOOKING_API_PATH + "/{id}", bookingId))
         .andDo(print())
         .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"" + retrievedBooking.getVersion() + "\""))
         .andExpect(content().json(objectMapper.writeValueAsString(expectedResponse)));
   }
 
+  @Test
+  @SneakyThrows
+  void shouldReturn304WithoutBodyIfETagMatchesWhenGetBookingById() {
+    final UUID bookingId = UUID.randomUUID();
+
+    final BookingDto retrievedBooking = RandomEntityGenerator.create(BookingDto.class)
+        .withId(bookingId)
+        .withVersion(3L);
+
+    doReturn(retrievedBooking).when(bookingService).retrieveBooking(any(UUID.class));
+
+    mockMvc
+        .perform(get(BookingApi.BOOKING_API_PATH + "/{id}", bookingId)
+            .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+        .andDo(print())
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+        .andExpect(content().string(""));
+  }
+
   @Test
   @SneakyThrows
   void shouldReturn400IfInvalidJsonWhenCreateBooking() {
@@ -282,6 +316,80 @@ class BookingApiTest {
         .andExpect(content().json(objectMapper.writeValueAsString(expectedResponse)));
   }
 
+  @Test
+  @SneakyThrows
+  void shouldReturn422IfBookingsIsEmptyWhenCreateBookings() {
+    final CreateBookingBatchRequest request = new CreateBookingBatchRequest(Collections.emptyList());
+
+    mockMvc
+        .perform(
+            post(BookingApi.BOOKING_API_PATH + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andDo(print())
+        .andExpect(status().isUnprocessableEntity());
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturn422WithItemFieldIfAnItemIsInvalidWhenCreateBookings() {
+    final CreateBookingBatchRequest request = new CreateBookingBatchRequest(List.of(
+        RandomEntityGenerator.create(CreateBookingRequest.class),
+        RandomEntityGenerator.create(CreateBookingRequest.class).withPropertyId(null)));
+
+    mockMvc
+        .perform(
+            post(BookingApi.BOOKING_API_PATH + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andDo(print())
+        .andExpect(status().isUnprocessableEntity())
+        .andExpect(jsonPath("$.fieldValidationErrors['bookings[1].propertyId']").exists());
+
+    verify(bookingService, never()).createBookings(anyList());
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturn200WithResultOfEachItemWhenCreateBookings() {
+    final UUID bookingId = UUID.randomUUID();
+    final LocalDate unavailableDate = LocalDate.now();
+
+    final CreateBookingBatchRequest request = new CreateBookingBatchRequest(List.of(
+        RandomEntityGenerator.create(CreateBookingRequest.class),
+        RandomEntityGenerator.create(CreateBookingRequest.class),
+        RandomEntityGenerator.create(CreateBookingRequest.class)));
+
+    final BookingDto created = bookingMapper.createRequestToDto(request.getBookings().get(0)).withId(bookingId);
+
+    doReturn(List.of(
+        BatchItemResult.created(created),
+        BatchItemResult.failed(new DatesConflictException(
+            "The booking dates contains unavailable dates for the selected property", List.of(unavailableDate))),
+        BatchItemResult.failed(new NotFoundException("No property found"))))
+        .when(bookingService).createBookings(anyList());
+
+    mockMvc
+        .perform(
+            post(BookingApi.BOOKING_API_PATH + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.createdCount").value(1))
+        .andExpect(jsonPath("$.failedCount").value(2))
+        .andExpect(jsonPath("$.items[0].index").value(0))
+        .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+        .andExpect(jsonPath("$.items[0].booking.id").value(bookingId.toString()))
+        .andExpect(jsonPath("$.items[0].error").doesNotExist())
+        .andExpect(jsonPath("$.items[1].status").value("FAILED"))
+        .andExpect(jsonPath("$.items[1].error.statusCode").value(422))
+        .andExpect(jsonPath("$.items[1].error.message").value(
+            "The booking dates contains unavailable dates for the selected property. "
+                + "The unavailable dates are: [" + unavailableDate + "]"))
+        .andExpect(jsonPath("$.items[2].error.statusCode").value(404));
+  }
+
   @Test
   @SneakyThrows
   void shouldReturn400IfInvalidUuidIsProvidedWhenUpdateBooking() {
@@ -470,7 +578,8 @@ class BookingApiTest {
         .withId(bookingId)
         .withStartDate(request.getStartDate())
         .withEndDate(request.getEndDate())
-        .withGuests(List.of(bookingMapper.upsertRequestToDto(bookingGuestRequest)));
+        .withGuests(List.of(bookingMapper.upsertRequestToDto(bookingGuestRequest)))
+        .withVersion(4L);
 
     final BookingResponse expectedResponse = bookingMapper.dtoToResponse(persisted);
 
@@ -479,11 +588,57 @@ class BookingApiTest {
     mockMvc
         .perform(
             put(BookingApi.BOOKING_API_PATH + "/{id}", bookingId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
         .andDo(print())
         .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
         .andExpect(content().json(objectMapper.writeValueAsString(expectedResponse)));
+
+    verify(bookingService).updateBooking(eq(bookingId), argThat(booking -> Long.valueOf(3L).equals(booking.getVersion())));
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturn412IfVersionIsStaleWhenUpdateBooking() {
+    final UUID bookingId = UUID.randomUUID();
+
+    final UpdateBookingRequest request = RandomEntityGenerator.create(UpdateBookingRequest.class)
+        .withGuests(List.of(RandomEntityGenerator.create(UpsertBookingGuestRequest.class)));
+
+    doThrow(new PreconditionFailedException(String.format("The booking %s was changed since version 3", bookingId)))
+        .when(bookingService).updateBooking(any(UUID.class), any(BookingDto.class));
+
+    mockMvc
+        .perform(
+            put(BookingApi.BOOKING_API_PATH + "/{id}", bookingId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andDo(print())
+        .andExpect(status().isPreconditionFailed());
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturn409IfBookingKeepsChangingWhenUpdateBooking() {
+    final UUID bookingId = UUID.randomUUID();
+
+    final UpdateBookingRequest request = RandomEntityGenerator.create(UpdateBookingRequest.class)
+        .withGuests(List.of(RandomEntityGenerator.create(UpsertBookingGuestRequest.class)));
+
+    doThrow(new ObjectOptimisticLockingFailureException(Booking.class, bookingId))
+        .when(bookingService).updateBooking(any(UUID.class), any(BookingDto.class));
+
+    mockMvc
+        .perform(
+            put(BookingApi.BOOKING_API_PATH + "/{id}", bookingId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andDo(print())
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.statusCode").value(409));
   }
 
   @Test
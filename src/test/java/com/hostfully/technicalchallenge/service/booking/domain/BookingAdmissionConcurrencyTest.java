@@ -0,0 +1,192 @@
+package com.hostfully.technicalchallenge.service.booking.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hostfully.technicalchallenge.common.exception.DatesConflictException;
+import com.hostfully.technicalchallenge.service.booking.data.BookingRepository;
+import com.hostfully.technicalchallenge.service.booking.data.BookingStatus;
+import com.hostfully.technicalchallenge.service.property.domain.PropertyDto;
+import com.hostfully.technicalchallenge.service.property.domain.PropertyService;
+import com.hostfully.technicalchallenge.service.user.domain.UserDto;
+import com.hostfully.technicalchallenge.service.user.domain.UserService;
+import com.hostfully.technicalchallenge.util.RandomEntityGenerator;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.SneakyThrows;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+    "hostfully.availability.lock-stripes=" + BookingAdmissionConcurrencyTest.LOCK_STRIPES,
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.hostfully.technicalchallenge.service.booking.domain.BookingAdmissionConcurrencyTest$BookingInsertBarrier"
+})
+class BookingAdmissionConcurrencyTest {
+
+  static final int LOCK_STRIPES = 1024;
+
+  private static final int THREADS = 32;
+  private static final int ATTEMPTS = 2000;
+  private static final int PARALLEL_WRITERS = 4;
+
+  @Autowired
+  private BookingService bookingService;
+  @Autowired
+  private UserService userService;
+  @Autowired
+  private PropertyService propertyService;
+  @Autowired
+  private BookingRepository bookingRepository;
+
+  private ExecutorService executor;
+  private UserDto user;
+
+  @BeforeEach
+  void setUp() {
+    executor = Executors.newFixedThreadPool(THREADS);
+    user = userService.createUser(RandomEntityGenerator.create(UserDto.class).withId(null));
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+    BookingInsertBarrier.barrier = null;
+  }
+
+  @Test
+  void shouldAdmitExactlyOneOfManyConcurrentOverlappingBookings() throws Exception {
+    final PropertyDto property = createProperty();
+    final LocalDate startDate = LocalDate.now().plusDays(10L);
+    final LocalDate endDate = startDate.plusDays(2L);
+
+    final List<Throwable> failures = runConcurrently(ATTEMPTS, attempt -> createBooking(property.getId(), startDate, endDate));
+
+    assertThat(failures).hasSize(ATTEMPTS - 1);
+    assertThat(failures).allMatch(DatesConflictException.class::isInstance);
+
+    assertThat(bookingRepository.findPeriodsByPropertyIdAndStatusNot(property.getId(), BookingStatus.CANCELED))
+        .hasSize(1);
+  }
+
+  @Test
+  void shouldAdmitBookingsForPropertiesOnDifferentStripesInParallel() throws Exception {
+    final List<PropertyDto> properties = new ArrayList<>();
+    final Set<Integer> stripes = new HashSet<>();
+
+    while (properties.size() < PARALLEL_WRITERS) {
+      final PropertyDto property = createProperty();
+
+      //Same striping as PropertyWriteLocks, properties sharing a stripe are serialized by design
+      if (stripes.add(Math.floorMod(property.getId().hashCode(), LOCK_STRIPES))) {
+        properties.add(property);
+      }
+    }
+
+    final LocalDate date = LocalDate.now().plusDays(10L);
+
+    //The booking is inserted on commit, while its writer holds the lock of the property: every writer waits there
+    //until all of them arrived, which writers serialized by a shared lock never do, so they fail on the timeout
+    BookingInsertBarrier.barrier = new CyclicBarrier(PARALLEL_WRITERS);
+
+    final List<Throwable> failures = runConcurrently(
+        PARALLEL_WRITERS, attempt -> createBooking(properties.get(attempt).getId(), date, date));
+
+    assertThat(failures).isEmpty();
+
+    properties.forEach(property -> assertThat(
+        bookingRepository.findPeriodsByPropertyIdAndStatusNot(property.getId(), BookingStatus.CANCELED))
+        .hasSize(1));
+  }
+
+  private PropertyDto createProperty() {
+    return propertyService.createProperty(RandomEntityGenerator.create(PropertyDto.class)
+        .withId(null)
+        .withOwnerUserId(user.getId())
+        .withPricePerGuest(10000L));
+  }
+
+  private void createBooking(final UUID propertyId, final LocalDate startDate, final LocalDate endDate) {
+    final BookingDto bookingInfo = RandomEntityGenerator.create(BookingDto.class)
+        .withId(null)
+        .withPropertyId(propertyId)
+        .withUserId(user.getId())
+        .withStartDate(startDate)
+        .withEndDate(endDate);
+
+    bookingInfo.getGuests().replaceAll(guest -> guest.withId(null).withBookingId(null));
+
+    bookingService.createBooking(bookingInfo);
+  }
+
+  private List<Throwable> runConcurrently(final int attempts, final Attempt attempt) throws InterruptedException {
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Future<Void>> futures = new ArrayList<>();
+
+    for (int i = 0; i < attempts; i++) {
+      final int index = i;
+      final Callable<Void> task = () -> {
+        start.await();
+        attempt.run(index);
+        return null;
+      };
+      futures.add(executor.submit(task));
+    }
+
+    start.countDown();
+
+    final List<Throwable> failures = new ArrayList<>();
+
+    for (final Future<Void> future : futures) {
+      try {
+        future.get(60L, TimeUnit.SECONDS);
+      } catch (final ExecutionException e) {
+        failures.add(e.getCause());
+      } catch (final TimeoutException e) {
+        failures.add(e);
+      }
+    }
+
+    return failures;
+  }
+
+  @FunctionalInterface
+  private interface Attempt {
+    void run(int attempt);
+  }
+
+  /**
+   * Makes the inserts of bookings wait on {@code barrier}, set by the test that checks the writers overlap.
+   */
+  public static class BookingInsertBarrier implements StatementInspector {
+
+    private static volatile CyclicBarrier barrier;
+
+    @Override
+    @SneakyThrows
+    public String inspect(final String sql) {
+      final CyclicBarrier waiting = barrier;
+
+      if (waiting != null && sql.startsWith("insert into bookings ")) {
+        waiting.await(10L, TimeUnit.SECONDS);
+      }
+      return sql;
+    }
+  }
+}
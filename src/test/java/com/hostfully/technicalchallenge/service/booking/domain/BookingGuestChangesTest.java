@@ -0,0 +1,141 @@
+package com.hostfully.technicalchallenge.service.booking.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.hostfully.technicalchallenge.service.booking.data.guest.BookingGuest;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class BookingGuestChangesTest {
+
+  private static final UUID BOOKING_ID = UUID.randomUUID();
+  private static final LocalDate DATE_OF_BIRTH = LocalDate.of(1990, 1, 1);
+
+  @Test
+  void shouldInsertEveryGuestIfBookingHasNoGuests() {
+    final BookingGuestChanges changes = BookingGuestChanges.of(
+        BOOKING_ID,
+        Collections.emptyList(),
+        List.of(requested("Alice"), requested("Bob")));
+
+    assertThat(changes.getToDelete()).isEmpty();
+    assertThat(changes.getToSave())
+        .extracting(BookingGuest::getId, BookingGuest::getBookingId, BookingGuest::getName)
+        .containsExactly(tuple(null, BOOKING_ID, "Alice"), tuple(null, BOOKING_ID, "Bob"));
+    assertThat(changes.getGuests()).isEqualTo(changes.getToSave());
+  }
+
+  @Test
+  void shouldNotTouchUnchangedGuests() {
+    final BookingGuest alice = existing("Alice");
+    final BookingGuest bob = existing("Bob");
+
+    final BookingGuestChanges changes = BookingGuestChanges.of(
+        BOOKING_ID,
+        List.of(alice, bob),
+        List.of(requested("Bob"), requested("Alice")));
+
+    assertThat(changes.getToDelete()).isEmpty();
+    assertThat(changes.getToSave()).isEmpty();
+    assertThat(changes.getGuests()).containsExactly(bob, alice);
+  }
+
+  @Test
+  void shouldRewriteChangedGuestsInPlace() {
+    final BookingGuest alice = existing("Alice");
+    final BookingGuest bob = existing("Bob");
+
+    final BookingGuestChanges changes = BookingGuestChanges.of(
+        BOOKING_ID,
+        List.of(alice, bob),
+        List.of(requested("Alice"), requested("Carol")));
+
+    assertThat(changes.getToDelete()).isEmpty();
+    assertThat(changes.getToSave()).containsExactly(bob);
+    assertThat(bob.getName()).isEqualTo("Carol");
+    assertThat(changes.getGuests()).containsExactly(alice, bob);
+  }
+
+  @Test
+  void shouldDeleteOnlyRemovedGuests() {
+    final BookingGuest alice = existing("Alice");
+    final BookingGuest bob = existing("Bob");
+    final BookingGuest carol = existing("Carol");
+
+    final BookingGuestChanges changes = BookingGuestChanges.of(
+        BOOKING_ID,
+        List.of(alice, bob, carol),
+        List.of(requested("Carol")));
+
+    assertThat(changes.getToDelete()).containsExactly(alice, bob);
+    assertThat(changes.getToSave()).isEmpty();
+    assertThat(changes.getGuests()).containsExactly(carol);
+  }
+
+  @Test
+  void shouldInsertOnlyAddedGuests() {
+    final BookingGuest alice = existing("Alice");
+
+    final BookingGuestChanges changes = BookingGuestChanges.of(
+        BOOKING_ID,
+        List.of(alice),
+        List.of(requested("Alice"), requested("Bob")));
+
+    assertThat(changes.getToDelete()).isEmpty();
+    assertThat(changes.getToSave())
+        .extracting(BookingGuest::getId, BookingGuest::getName)
+        .containsExactly(tuple(null, "Bob"));
+    assertThat(changes.getGuests()).first().isSameAs(alice);
+  }
+
+  @Test
+  void shouldMatchDuplicatedGuestsOneToOne() {
+    final BookingGuest alice = existing("Alice");
+
+    final BookingGuestChanges changes = BookingGuestChanges.of(
+        BOOKING_ID,
+        List.of(alice),
+        List.of(requested("Alice"), requested("Alice")));
+
+    assertThat(changes.getToSave()).hasSize(1);
+    assertThat(changes.getGuests()).hasSize(2).first().isSameAs(alice);
+  }
+
+  @Test
+  void shouldReplaceSavedGuestsWithReturnedInstances() {
+    final BookingGuest alice = existing("Alice");
+
+    final BookingGuestChanges changes = BookingGuestChanges.of(
+        BOOKING_ID,
+        List.of(alice),
+        List.of(requested("Bob"), requested("Alice"), requested("Carol")));
+
+    final List<BookingGuest> savedGuests = changes.getToSave().stream()
+        .map(guest -> guest.withId(UUID.randomUUID()))
+        .toList();
+
+    assertThat(changes.guestsAfterSave(savedGuests)).containsExactly(savedGuests.get(0), alice, savedGuests.get(1));
+  }
+
+  @Test
+  void shouldThrowNullPointerExceptionIfGuestNameIsNull() {
+    assertThatThrownBy(() -> BookingGuestChanges.of(
+        BOOKING_ID,
+        Collections.emptyList(),
+        List.of(new BookingGuestDto(null, null, null, DATE_OF_BIRTH))))
+        .isInstanceOf(NullPointerException.class);
+  }
+
+  private static BookingGuest existing(final String name) {
+    return new BookingGuest(UUID.randomUUID(), BOOKING_ID, name, DATE_OF_BIRTH);
+  }
+
+  private static BookingGuestDto requested(final String name) {
+    return new BookingGuestDto(null, null, name, DATE_OF_BIRTH);
+  }
+}
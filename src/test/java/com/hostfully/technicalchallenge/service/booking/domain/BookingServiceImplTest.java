@@ -4,12 +4,20 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
+import com.hostfully.technicalchallenge.common.data.EntityExistence;
+import com.hostfully.technicalchallenge.common.domain.BatchItemResult;
 import com.hostfully.technicalchallenge.common.exception.DatesConflictException;
 import com.hostfully.technicalchallenge.common.exception.NotFoundException;
+import com.hostfully.technicalchallenge.common.exception.PreconditionFailedException;
 import com.hostfully.technicalchallenge.service.booking.data.Booking;
 import com.hostfully.technicalchallenge.service.booking.data.BookingRepository;
 import com.hostfully.technicalchallenge.service.booking.data.BookingStatus;
@@ -18,6 +26,10 @@ import com.hostfully.technicalchallenge.service.booking.data.guest.BookingGuestR
 import com.hostfully.technicalchallenge.service.property.data.Property;
 import com.hostfully.technicalchallenge.service.property.data.PropertyRepository;
 import com.hostfully.technicalchallenge.service.property.domain.PropertyService;
+import com.hostfully.technicalchallenge.service.property.domain.availability.AvailabilityMetrics;
+import com.hostfully.technicalchallenge.service.property.domain.availability.DateIntervalSet;
+import com.hostfully.technicalchallenge.service.property.domain.availability.PropertyOccupancyCache;
+import com.hostfully.technicalchallenge.service.property.domain.availability.PropertyWriteLocks;
 import com.hostfully.technicalchallenge.service.user.data.User;
 import com.hostfully.technicalchallenge.service.user.data.UserRepository;
 import com.hostfully.technicalchallenge.util.RandomEntityGenerator;
@@ -25,15 +37,19 @@ import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.AdditionalAnswers;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 @ExtendWith(MockitoExtension.class)
 class BookingServiceImplTest {
@@ -42,11 +58,19 @@ class BookingServiceImplTest {
   @Mock
   private UserRepository userRepository;
   @Mock
+  private EntityExistence entityExistence;
+  @Mock
   private BookingRepository bookingRepository;
   @Mock
   private PropertyRepository propertyRepository;
   @Mock
   private BookingGuestRepository bookingGuestRepository;
+  @Mock
+  private PropertyOccupancyCache occupancyCache;
+  @Mock
+  private PropertyWriteLocks propertyWriteLocks;
+  @Mock
+  private AvailabilityMetrics availabilityMetrics;
   @Spy
   private BookingMapper bookingMapper = new BookingMapperImpl();
   @InjectMocks
@@ -60,7 +84,7 @@ class BookingServiceImplTest {
 
   @Test
   void shouldThrowNotFoundExceptionIfBookingDoesntExistWhenRetrieveBooking() {
-    doReturn(Optional.empty()).when(bookingRepository).findById(any(UUID.class));
+    doReturn(Optional.empty()).when(bookingRepository).findWithGuestsById(any(UUID.class));
 
     assertThatThrownBy(() -> bookingService.retrieveBooking(UUID.randomUUID()))
         .isInstanceOf(NotFoundException.class);
@@ -73,7 +97,7 @@ class BookingServiceImplTest {
     final Booking booking = RandomEntityGenerator.create(Booking.class)
         .withId(bookingId);
 
-    doReturn(Optional.of(booking)).when(bookingRepository).findById(any(UUID.class));
+    doReturn(Optional.of(booking)).when(bookingRepository).findWithGuestsById(any(UUID.class));
 
     final BookingDto retrieved = bookingService.retrieveBooking(bookingId);
     final BookingDto expected = bookingMapper.entityToDto(booking);
@@ -81,6 +105,80 @@ class BookingServiceImplTest {
     assertThat(retrieved).isEqualTo(expected);
   }
 
+  @Test
+  void shouldThrowNotFoundExceptionIfPropertyDoesntExistWhenRetrievePropertyBookings() {
+    doReturn(false).when(entityExistence).exists(eq(Property.class), any(UUID.class), eq(propertyRepository));
+
+    assertThatThrownBy(() -> bookingService.retrievePropertyBookings(
+        UUID.randomUUID(), BookingFilter.none(), null, 20))
+        .isInstanceOf(NotFoundException.class);
+  }
+
+  @Test
+  void shouldThrowIllegalArgumentExceptionIfLimitIsOutOfRangeWhenRetrievePropertyBookings() {
+    doReturn(true).when(entityExistence).exists(eq(Property.class), any(UUID.class), eq(propertyRepository));
+
+    assertThatThrownBy(() -> bookingService.retrievePropertyBookings(
+        UUID.randomUUID(), BookingFilter.none(), null, BookingServiceImpl.MAX_PAGE_SIZE + 1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldThrowIllegalArgumentExceptionIfCursorIsInvalidWhenRetrievePropertyBookings() {
+    doReturn(true).when(entityExistence).exists(eq(Property.class), any(UUID.class), eq(propertyRepository));
+
+    assertThatThrownBy(() -> bookingService.retrievePropertyBookings(
+        UUID.randomUUID(), BookingFilter.none(), "invalid-cursor", 20))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldRetrievePropertyBookingsPageInIdOrderWithNextCursor() {
+    final UUID propertyId = UUID.randomUUID();
+    final LocalDate startDate = LocalDate.now();
+
+    final Booking first = RandomEntityGenerator.create(Booking.class).withStartDate(startDate);
+    final Booking second = RandomEntityGenerator.create(Booking.class).withStartDate(startDate.plusDays(1L));
+    final BookingFilter filter = BookingFilter.none().withStatus(BookingStatus.BOOKED);
+
+    doReturn(true).when(entityExistence).exists(eq(Property.class), eq(propertyId), eq(propertyRepository));
+    doReturn(List.of(first.getId(), second.getId(), UUID.randomUUID())).when(bookingRepository)
+        .findPageIdsByPropertyId(
+            propertyId,
+            BookingCursor.FIRST_PAGE.getStartDate(),
+            BookingCursor.FIRST_PAGE.getId(),
+            BookingStatus.BOOKED,
+            null,
+            null,
+            Limit.of(3));
+    doReturn(List.of(second, first)).when(bookingRepository)
+        .findWithGuestsByIdIn(List.of(first.getId(), second.getId()));
+
+    final BookingPage page = bookingService.retrievePropertyBookings(propertyId, filter, null, 2);
+
+    assertThat(page.getBookings())
+        .containsExactly(bookingMapper.entityToDto(first), bookingMapper.entityToDto(second));
+    assertThat(BookingCursor.decode(page.getNextCursor()))
+        .isEqualTo(new BookingCursor(second.getStartDate(), second.getId()));
+  }
+
+  @Test
+  void shouldRetrieveLastPageOfUserBookingsWithoutNextCursor() {
+    final UUID userId = UUID.randomUUID();
+    final BookingCursor after = new BookingCursor(LocalDate.now(), UUID.randomUUID());
+    final Booking last = RandomEntityGenerator.create(Booking.class);
+
+    doReturn(true).when(entityExistence).exists(eq(User.class), eq(userId), eq(userRepository));
+    doReturn(List.of(last.getId())).when(bookingRepository)
+        .findPageIdsByUserId(userId, after.getStartDate(), after.getId(), null, null, null, Limit.of(3));
+    doReturn(List.of(last)).when(bookingRepository).findWithGuestsByIdIn(List.of(last.getId()));
+
+    final BookingPage page = bookingService.retrieveUserBookings(userId, BookingFilter.none(), after.encode(), 2);
+
+    assertThat(page.getBookings()).containsExactly(bookingMapper.entityToDto(last));
+    assertThat(page.getNextCursor()).isNull();
+  }
+
   @Test
   void shouldThrowNullPointerExceptionIfBookingInfoIsNullWhenCreateBooking() {
     assertThatThrownBy(() -> bookingService.createBooking(null))
@@ -147,7 +245,7 @@ class BookingServiceImplTest {
         .withStartDate(LocalDate.now())
         .withEndDate(LocalDate.now().plusDays(1L));;
 
-    doReturn(Optional.empty()).when(userRepository).findById(any(UUID.class));
+    doReturn(false).when(entityExistence).exists(eq(User.class), any(UUID.class), eq(userRepository));
 
     assertThatThrownBy(() -> bookingService.createBooking(bookingInfo))
         .isInstanceOf(NotFoundException.class);
@@ -159,9 +257,7 @@ class BookingServiceImplTest {
         .withStartDate(LocalDate.now())
         .withEndDate(LocalDate.now().plusDays(1L));;
 
-    final User user = RandomEntityGenerator.create(User.class);
-
-    doReturn(Optional.of(user)).when(userRepository).findById(any(UUID.class));
+    doReturn(true).when(entityExistence).exists(eq(User.class), any(UUID.class), eq(userRepository));
     doReturn(Optional.empty()).when(propertyRepository).findById(any(UUID.class));
 
     assertThatThrownBy(() -> bookingService.createBooking(bookingInfo))
@@ -174,15 +270,14 @@ class BookingServiceImplTest {
         .withStartDate(LocalDate.now())
         .withEndDate(LocalDate.now().plusDays(1L));
 
-    final User user = RandomEntityGenerator.create(User.class);
     final Property property = RandomEntityGenerator.create(Property.class)
         .withPricePerGuest(10000L);
 
-    doReturn(Optional.of(user)).when(userRepository).findById(any(UUID.class));
+    doReturn(true).when(entityExistence).exists(eq(User.class), any(UUID.class), eq(userRepository));
     doReturn(Optional.of(property)).when(propertyRepository).findById(any(UUID.class));
 
-    doReturn(List.of(LocalDate.now())).when(propertyService)
-        .retrievePropertyUnavailableDatesForPeriod(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
+    doReturn(DateIntervalSet.builder().add(LocalDate.now()).build()).when(propertyService)
+        .retrievePropertyUnavailableIntervalsForPeriod(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
 
     assertThatThrownBy(() -> bookingService.createBooking(bookingInfo))
         .isInstanceOf(DatesConflictException.class);
@@ -197,6 +292,18 @@ class BookingServiceImplTest {
         .isInstanceOf(IllegalArgumentException.class);
   }
 
+  @Test
+  void shouldThrowIllegalArgumentExceptionIfEndDateIsTooFarWhenCreateBooking() {
+    final BookingDto bookingInfo = RandomEntityGenerator.create(BookingDto.class)
+        .withStartDate(LocalDate.now())
+        .withEndDate(LocalDate.of(999_999, 1, 1));
+
+    assertThatThrownBy(() -> bookingService.createBooking(bookingInfo))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    verifyNoInteractions(propertyRepository, occupancyCache);
+  }
+
   @Test
   void shouldCreateBookingAndGuests() {
     final UUID bookingId = UUID.randomUUID();
@@ -210,15 +317,14 @@ class BookingServiceImplTest {
 
     final UUID bookingGuestId = bookingGuest.getId();
 
-    final User user = RandomEntityGenerator.create(User.class);
     final Property property = RandomEntityGenerator.create(Property.class)
         .withPricePerGuest(10000L);
 
-    doReturn(Optional.of(user)).when(userRepository).findById(any(UUID.class));
+    doReturn(true).when(entityExistence).exists(eq(User.class), any(UUID.class), eq(userRepository));
     doReturn(Optional.of(property)).when(propertyRepository).findById(any(UUID.class));
 
-    doReturn(Collections.emptyList()).when(propertyService)
-        .retrievePropertyUnavailableDatesForPeriod(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
+    doReturn(DateIntervalSet.empty()).when(propertyService)
+        .retrievePropertyUnavailableIntervalsForPeriod(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
 
     doAnswer(invocation -> {
       final Booking bookingToBeSaved = invocation.getArgument(0, Booking.class);
@@ -235,11 +341,128 @@ class BookingServiceImplTest {
 
     final BookingDto saved = bookingService.createBooking(bookingInfo);
     final BookingDto expected = bookingInfo.withId(bookingId)
+        .withVersion(null)
         .withStatus(BookingStatus.BOOKED)
         .withTotalPrice(20000L)
         .withGuests(List.of(bookingGuest.withBookingId(bookingId)));
 
     assertThat(saved).isEqualTo(expected);
+
+    verify(occupancyCache).markBooked(bookingInfo.getPropertyId(), bookingInfo.getStartDate(), bookingInfo.getEndDate());
+    verify(availabilityMetrics).recordCheck(2L, 0);
+  }
+
+  @Test
+  void shouldThrowNullPointerExceptionIfBookingsInfoIsNullWhenCreateBookings() {
+    assertThatThrownBy(() -> bookingService.createBookings(null))
+        .isInstanceOf(NullPointerException.class);
+  }
+
+  @Test
+  void shouldReportTheErrorOfEachFailedItemWhenCreateBookings() {
+    final UUID missingUserId = UUID.randomUUID();
+    final UUID missingPropertyId = UUID.randomUUID();
+    final LocalDate today = LocalDate.now();
+
+    final Property property = RandomEntityGenerator.create(Property.class)
+        .withPricePerGuest(10000L);
+
+    final BookingDto bookingInfo = RandomEntityGenerator.create(BookingDto.class)
+        .withPropertyId(property.getId())
+        .withStartDate(today.plusDays(5L))
+        .withEndDate(today.plusDays(6L))
+        .withGuests(List.of(RandomEntityGenerator.create(BookingGuestDto.class)));
+
+    doReturn(false).when(entityExistence).exists(eq(User.class), eq(missingUserId), eq(userRepository));
+    doReturn(true).when(entityExistence).exists(eq(User.class), eq(bookingInfo.getUserId()), eq(userRepository));
+    doReturn(Optional.empty()).when(propertyRepository).findById(missingPropertyId);
+    doReturn(Optional.of(property)).when(propertyRepository).findById(property.getId());
+
+    doReturn(DateIntervalSet.builder().add(today.plusDays(6L)).build()).when(propertyService)
+        .retrievePropertyUnavailableIntervalsForPeriod(property.getId(), today.plusDays(5L), today.plusDays(6L));
+
+    final List<BatchItemResult<BookingDto>> results = bookingService.createBookings(List.of(
+        bookingInfo.withStartDate(today.minusDays(1L)),
+        bookingInfo.withUserId(missingUserId),
+        bookingInfo.withPropertyId(missingPropertyId),
+        bookingInfo));
+
+    assertThat(results).noneMatch(BatchItemResult::isCreated);
+    assertThat(results.get(0).getError()).isInstanceOf(IllegalArgumentException.class);
+    assertThat(results.get(1).getError()).isInstanceOf(NotFoundException.class);
+    assertThat(results.get(2).getError()).isInstanceOf(NotFoundException.class);
+    assertThat(results.get(3).getError())
+        .isInstanceOfSatisfying(DatesConflictException.class, e ->
+            assertThat(e.getUnavailableDates()).containsExactly(today.plusDays(6L)));
+
+    verify(occupancyCache, never()).markBooked(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
+  }
+
+  @Test
+  void shouldCreateBookingsCheckingEachPropertyOnceWhenCreateBookings() {
+    final LocalDate today = LocalDate.now();
+
+    final Property property = RandomEntityGenerator.create(Property.class)
+        .withPricePerGuest(10000L);
+    final Property otherProperty = RandomEntityGenerator.create(Property.class)
+        .withPricePerGuest(10000L);
+
+    final BookingDto bookingInfo = RandomEntityGenerator.create(BookingDto.class)
+        .withPropertyId(property.getId())
+        .withGuests(List.of(RandomEntityGenerator.create(BookingGuestDto.class).withId(null)));
+
+    doReturn(true).when(entityExistence).exists(eq(User.class), any(UUID.class), eq(userRepository));
+    doReturn(Optional.of(property)).when(propertyRepository).findById(property.getId());
+    doReturn(Optional.of(otherProperty)).when(propertyRepository).findById(otherProperty.getId());
+
+    doReturn(DateIntervalSet.empty()).when(propertyService)
+        .retrievePropertyUnavailableIntervalsForPeriod(property.getId(), today, today.plusDays(4L));
+    doReturn(DateIntervalSet.empty()).when(propertyService)
+        .retrievePropertyUnavailableIntervalsForPeriod(otherProperty.getId(), today.plusDays(2L), today.plusDays(3L));
+
+    doAnswer(invocation -> {
+      final List<Booking> bookingsToBeSaved = invocation.getArgument(0);
+
+      return bookingsToBeSaved.stream()
+          .map(booking -> booking.withId(UUID.randomUUID()))
+          .toList();
+    }).when(bookingRepository).saveAll(anyList());
+
+    doAnswer(invocation -> {
+      final List<BookingGuest> guestsToBeSaved = invocation.getArgument(0);
+
+      return guestsToBeSaved.stream()
+          .map(guest -> guest.withId(UUID.randomUUID()))
+          .toList();
+    }).when(bookingGuestRepository).saveAll(anyList());
+
+    final List<BatchItemResult<BookingDto>> results = bookingService.createBookings(List.of(
+        bookingInfo.withStartDate(today).withEndDate(today.plusDays(1L)),
+        bookingInfo.withPropertyId(otherProperty.getId()).withStartDate(today.plusDays(2L)).withEndDate(today.plusDays(3L)),
+        bookingInfo.withStartDate(today.plusDays(1L)).withEndDate(today.plusDays(2L)),
+        bookingInfo.withStartDate(today.plusDays(3L)).withEndDate(today.plusDays(4L))));
+
+    assertThat(results).extracting(BatchItemResult::isCreated).containsExactly(true, true, false, true);
+
+    //The third item overlaps the first one of the same batch
+    assertThat(results.get(2).getError())
+        .isInstanceOfSatisfying(DatesConflictException.class, e ->
+            assertThat(e.getUnavailableDates()).containsExactly(today.plusDays(1L)));
+
+    final BookingDto created = results.get(3).getValue();
+
+    assertThat(created.getStatus()).isEqualTo(BookingStatus.BOOKED);
+    assertThat(created.getTotalPrice()).isEqualTo(20000L);
+    assertThat(created.getGuests()).singleElement()
+        .satisfies(guest -> assertThat(guest.getBookingId()).isEqualTo(created.getId()));
+
+    verify(propertyWriteLocks).lockUntilTransactionCompletes(Set.of(property.getId(), otherProperty.getId()));
+    verify(availabilityMetrics).recordCheck(5L, 0);
+    verify(availabilityMetrics).recordCheck(2L, 0);
+    verify(bookingRepository, never()).save(any(Booking.class));
+    verify(occupancyCache).markBooked(property.getId(), today, today.plusDays(1L));
+    verify(occupancyCache).markBooked(otherProperty.getId(), today.plusDays(2L), today.plusDays(3L));
+    verify(occupancyCache).markBooked(property.getId(), today.plusDays(3L), today.plusDays(4L));
   }
 
   @Test
@@ -310,7 +533,7 @@ class BookingServiceImplTest {
         .withStartDate(LocalDate.now())
         .withEndDate(LocalDate.now().plusDays(1L));;
 
-    doReturn(Optional.empty()).when(bookingRepository).findById(any(UUID.class));
+    doReturn(Optional.empty()).when(bookingRepository).findWithGuestsById(any(UUID.class));
 
     assertThatThrownBy(() -> bookingService.updateBooking(bookingId, bookingInfo))
         .isInstanceOf(NotFoundException.class);
@@ -321,6 +544,7 @@ class BookingServiceImplTest {
     final UUID bookingId = UUID.randomUUID();
 
     final BookingDto bookingInfo = RandomEntityGenerator.create(BookingDto.class)
+        .withVersion(null)
         .withStartDate(LocalDate.now())
         .withEndDate(LocalDate.now().plusDays(1L));;
 
@@ -329,7 +553,7 @@ class BookingServiceImplTest {
         .withStartDate(LocalDate.now())
         .withEndDate(LocalDate.now().plusDays(1L));
 
-    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findById(any(UUID.class));
+    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findWithGuestsById(any(UUID.class));
 
     assertThatThrownBy(() -> bookingService.updateBooking(bookingId, bookingInfo))
         .isInstanceOf(IllegalStateException.class);
@@ -340,6 +564,7 @@ class BookingServiceImplTest {
     final UUID bookingId = UUID.randomUUID();
 
     final BookingDto bookingInfo = RandomEntityGenerator.create(BookingDto.class)
+        .withVersion(null)
         .withStartDate(LocalDate.now())
         .withEndDate(LocalDate.now().plusDays(1L));;
 
@@ -348,7 +573,7 @@ class BookingServiceImplTest {
         .withStartDate(LocalDate.now())
         .withEndDate(LocalDate.now().plusDays(1L));
 
-    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findById(any(UUID.class));
+    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findWithGuestsById(any(UUID.class));
     doReturn(Optional.empty()).when(propertyRepository).findById(any(UUID.class));
 
     assertThatThrownBy(() -> bookingService.updateBooking(bookingId, bookingInfo))
@@ -360,27 +585,59 @@ class BookingServiceImplTest {
     final UUID bookingId = UUID.randomUUID();
 
     final BookingDto bookingInfo = RandomEntityGenerator.create(BookingDto.class)
+        .withVersion(null)
         .withStartDate(LocalDate.now())
         .withEndDate(LocalDate.now().plusDays(1L));;
 
     final Booking retrievedBooking = RandomEntityGenerator.create(Booking.class)
         .withStatus(BookingStatus.BOOKED)
-        .withStartDate(LocalDate.now().minusDays(1L))
-        .withEndDate(LocalDate.now().plusDays(1L));
+        .withStartDate(LocalDate.now().plusDays(5L))
+        .withEndDate(LocalDate.now().plusDays(6L));
 
     final Property retrievedProperty = RandomEntityGenerator.create(Property.class)
         .withPricePerGuest(10000L);
 
-    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findById(any(UUID.class));
+    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findWithGuestsById(any(UUID.class));
     doReturn(Optional.of(retrievedProperty)).when(propertyRepository).findById(any(UUID.class));
 
-    doReturn(List.of(LocalDate.now())).when(propertyService)
-        .retrievePropertyUnavailableDatesForPeriod(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
+    doReturn(DateIntervalSet.builder().add(LocalDate.now()).build()).when(propertyService)
+        .retrievePropertyUnavailableIntervalsForPeriod(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
 
     assertThatThrownBy(() -> bookingService.updateBooking(bookingId, bookingInfo))
         .isInstanceOf(DatesConflictException.class);
   }
 
+  @Test
+  void shouldThrowOptimisticLockingFailureBeforeCheckingDatesIfBookingChangedBeforeLockWhenUpdateBooking() {
+    final UUID bookingId = UUID.randomUUID();
+
+    final BookingDto bookingInfo = RandomEntityGenerator.create(BookingDto.class)
+        .withVersion(null)
+        .withStartDate(LocalDate.now())
+        .withEndDate(LocalDate.now().plusDays(1L));
+
+    final Booking retrievedBooking = RandomEntityGenerator.create(Booking.class)
+        .withStatus(BookingStatus.BOOKED)
+        .withStartDate(LocalDate.now().plusDays(5L))
+        .withEndDate(LocalDate.now().plusDays(6L));
+
+    final Property retrievedProperty = RandomEntityGenerator.create(Property.class)
+        .withPricePerGuest(10000L);
+
+    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findWithGuestsById(any(UUID.class));
+    doReturn(Optional.of(retrievedProperty)).when(propertyRepository).findById(any(UUID.class));
+    doThrow(new ObjectOptimisticLockingFailureException(Booking.class, bookingId))
+        .when(bookingRepository).checkVersionIsCurrent(retrievedBooking);
+
+    //Retried by the aspect on the committed booking, rather than checked against the calendar with stale dates
+    assertThatThrownBy(() -> bookingService.updateBooking(bookingId, bookingInfo))
+        .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+    verify(propertyService, never())
+        .retrievePropertyUnavailableIntervalsForPeriod(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
+    verify(bookingRepository, never()).save(any(Booking.class));
+  }
+
   @Test
   void shouldThrowIllegalArgumentExceptionIfStartDateIsInThePastWhenUpdateBooking() {
     final UUID bookingId = UUID.randomUUID();
@@ -392,6 +649,20 @@ class BookingServiceImplTest {
         .isInstanceOf(IllegalArgumentException.class);
   }
 
+  @Test
+  void shouldThrowIllegalArgumentExceptionIfEndDateIsTooFarWhenUpdateBooking() {
+    final UUID bookingId = UUID.randomUUID();
+
+    final BookingDto bookingInfo = RandomEntityGenerator.create(BookingDto.class)
+        .withStartDate(LocalDate.now())
+        .withEndDate(LocalDate.now().plusYears(11L));
+
+    assertThatThrownBy(() -> bookingService.updateBooking(bookingId, bookingInfo))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    verify(bookingRepository, never()).findWithGuestsById(any(UUID.class));
+  }
+
   @Test
   void shouldUpdateBookingDatesAndGuests() {
     final UUID bookingId = UUID.randomUUID();
@@ -399,6 +670,7 @@ class BookingServiceImplTest {
     final BookingGuestDto bookingGuest = RandomEntityGenerator.create(BookingGuestDto.class);
 
     final BookingDto bookingInfo = RandomEntityGenerator.create(BookingDto.class)
+        .withVersion(null)
         .withStartDate(LocalDate.now())
         .withEndDate(LocalDate.now().plusDays(1L))
         .withGuests(List.of(bookingGuest));
@@ -409,11 +681,11 @@ class BookingServiceImplTest {
     final Property retrievedProperty = RandomEntityGenerator.create(Property.class)
         .withPricePerGuest(10000L);
 
-    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findById(any(UUID.class));
+    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findWithGuestsById(any(UUID.class));
     doReturn(Optional.of(retrievedProperty)).when(propertyRepository).findById(any(UUID.class));
 
-    doReturn(Collections.emptyList()).when(propertyService)
-        .retrievePropertyUnavailableDatesForPeriod(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
+    doReturn(DateIntervalSet.empty()).when(propertyService)
+        .retrievePropertyUnavailableIntervalsForPeriod(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
 
     doAnswer(AdditionalAnswers.returnsFirstArg()).when(bookingRepository).save(any(Booking.class));
     doAnswer(invocation -> {
@@ -431,6 +703,142 @@ class BookingServiceImplTest {
         .withEndDate(bookingInfo.getEndDate());
 
     assertThat(updated).isEqualTo(expected);
+
+    verify(bookingRepository, never()).incrementVersion(any(Booking.class));
+    verify(bookingRepository).flush();
+  }
+
+  @Test
+  void shouldNotConflictWithTheCurrentDatesOfTheBookingWhenUpdateBooking() {
+    final UUID bookingId = UUID.randomUUID();
+
+    final BookingDto bookingInfo = RandomEntityGenerator.create(BookingDto.class)
+        .withVersion(null)
+        .withStartDate(LocalDate.now().plusDays(1L))
+        .withEndDate(LocalDate.now().plusDays(3L));
+
+    final Booking retrievedBooking = RandomEntityGenerator.create(Booking.class)
+        .withStatus(BookingStatus.BOOKED)
+        .withStartDate(LocalDate.now())
+        .withEndDate(LocalDate.now().plusDays(2L));
+
+    final Property retrievedProperty = RandomEntityGenerator.create(Property.class)
+        .withPricePerGuest(10000L);
+
+    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findWithGuestsById(any(UUID.class));
+    doReturn(Optional.of(retrievedProperty)).when(propertyRepository).findById(any(UUID.class));
+
+    doReturn(DateIntervalSet.builder().add(LocalDate.now(), LocalDate.now().plusDays(2L)).build()).when(propertyService)
+        .retrievePropertyUnavailableIntervalsForPeriod(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
+
+    doAnswer(AdditionalAnswers.returnsFirstArg()).when(bookingRepository).save(any(Booking.class));
+    doAnswer(AdditionalAnswers.returnsFirstArg()).when(bookingGuestRepository).saveAll(anyList());
+
+    final BookingDto updated = bookingService.updateBooking(bookingId, bookingInfo);
+
+    assertThat(updated.getStartDate()).isEqualTo(bookingInfo.getStartDate());
+    assertThat(updated.getEndDate()).isEqualTo(bookingInfo.getEndDate());
+  }
+
+  @Test
+  void shouldIncrementTheVersionWhenOnlyGuestsChangeWhenUpdateBooking() {
+    final UUID bookingId = UUID.randomUUID();
+
+    final BookingGuest guest = RandomEntityGenerator.create(BookingGuest.class).withBookingId(bookingId);
+    final Property retrievedProperty = RandomEntityGenerator.create(Property.class)
+        .withPricePerGuest(10000L);
+
+    final BookingDto bookingInfo = RandomEntityGenerator.create(BookingDto.class)
+        .withVersion(null)
+        .withStartDate(LocalDate.now())
+        .withEndDate(LocalDate.now().plusDays(1L))
+        .withGuests(List.of(new BookingGuestDto(null, bookingId, "Renamed", guest.getDateOfBirth())));
+
+    final Booking retrievedBooking = RandomEntityGenerator.create(Booking.class)
+        .withId(bookingId)
+        .withStatus(BookingStatus.BOOKED)
+        .withStartDate(bookingInfo.getStartDate())
+        .withEndDate(bookingInfo.getEndDate())
+        .withTotalPrice(20000L)
+        .withGuests(List.of(guest));
+
+    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findWithGuestsById(any(UUID.class));
+    doReturn(Optional.of(retrievedProperty)).when(propertyRepository).findById(any(UUID.class));
+
+    doReturn(DateIntervalSet.builder().add(bookingInfo.getStartDate(), bookingInfo.getEndDate()).build())
+        .when(propertyService)
+        .retrievePropertyUnavailableIntervalsForPeriod(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
+
+    doAnswer(AdditionalAnswers.returnsFirstArg()).when(bookingRepository).save(any(Booking.class));
+    doAnswer(AdditionalAnswers.returnsFirstArg()).when(bookingGuestRepository).saveAll(anyList());
+
+    bookingService.updateBooking(bookingId, bookingInfo);
+
+    final InOrder inOrder = inOrder(bookingRepository);
+
+    inOrder.verify(bookingRepository).incrementVersion(retrievedBooking);
+    inOrder.verify(bookingRepository).flush();
+  }
+
+  @Test
+  void shouldOnlyWriteChangedGuestsWhenUpdateBooking() {
+    final UUID bookingId = UUID.randomUUID();
+
+    final BookingGuest unchangedGuest = RandomEntityGenerator.create(BookingGuest.class).withBookingId(bookingId);
+    final BookingGuest removedGuest = RandomEntityGenerator.create(BookingGuest.class).withBookingId(bookingId);
+
+    final BookingDto bookingInfo = RandomEntityGenerator.create(BookingDto.class)
+        .withVersion(null)
+        .withStartDate(LocalDate.now())
+        .withEndDate(LocalDate.now().plusDays(1L))
+        .withGuests(List.of(new BookingGuestDto(
+            unchangedGuest.getId(), bookingId, unchangedGuest.getName(), unchangedGuest.getDateOfBirth())));
+
+    final Booking retrievedBooking = RandomEntityGenerator.create(Booking.class)
+        .withId(bookingId)
+        .withStatus(BookingStatus.BOOKED)
+        .withGuests(List.of(unchangedGuest, removedGuest));
+
+    final Property retrievedProperty = RandomEntityGenerator.create(Property.class)
+        .withPricePerGuest(10000L);
+
+    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findWithGuestsById(any(UUID.class));
+    doReturn(Optional.of(retrievedProperty)).when(propertyRepository).findById(any(UUID.class));
+
+    doReturn(DateIntervalSet.empty()).when(propertyService)
+        .retrievePropertyUnavailableIntervalsForPeriod(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
+
+    doAnswer(AdditionalAnswers.returnsFirstArg()).when(bookingRepository).save(any(Booking.class));
+    doAnswer(AdditionalAnswers.returnsFirstArg()).when(bookingGuestRepository).saveAll(anyList());
+
+    final BookingDto updated = bookingService.updateBooking(bookingId, bookingInfo);
+
+    assertThat(updated.getGuests()).isEqualTo(bookingInfo.getGuests());
+
+    verify(bookingGuestRepository).deleteAllByIdInBatch(List.of(removedGuest.getId()));
+    verify(bookingGuestRepository).saveAll(Collections.emptyList());
+    verify(bookingGuestRepository, never()).deleteByBookingId(any(UUID.class));
+  }
+
+  @Test
+  void shouldThrowPreconditionFailedExceptionIfVersionIsStaleWhenUpdateBooking() {
+    final UUID bookingId = UUID.randomUUID();
+
+    final Booking retrievedBooking = RandomEntityGenerator.create(Booking.class)
+        .withStatus(BookingStatus.BOOKED)
+        .withVersion(2L);
+
+    final BookingDto bookingInfo = RandomEntityGenerator.create(BookingDto.class)
+        .withStartDate(LocalDate.now())
+        .withEndDate(LocalDate.now().plusDays(1L))
+        .withVersion(1L);
+
+    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findWithGuestsById(any(UUID.class));
+
+    assertThatThrownBy(() -> bookingService.updateBooking(bookingId, bookingInfo))
+        .isInstanceOf(PreconditionFailedException.class);
+
+    verify(bookingRepository, never()).save(any(Booking.class));
   }
 
   @Test
@@ -443,7 +851,7 @@ class BookingServiceImplTest {
   void shouldThrowNotFoundExceptionIfBookingDoesntExistWhenCancelBooking() {
     final UUID bookingId = UUID.randomUUID();
 
-    doReturn(Optional.empty()).when(bookingRepository).findById(any(UUID.class));
+    doReturn(Optional.empty()).when(bookingRepository).findWithGuestsById(any(UUID.class));
 
     assertThatThrownBy(() -> bookingService.cancelBooking(bookingId))
         .isInstanceOf(NotFoundException.class);
@@ -456,7 +864,7 @@ class BookingServiceImplTest {
     final Booking retrievedBooking = RandomEntityGenerator.create(Booking.class)
             .withStatus(BookingStatus.CANCELED);
 
-    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findById(any(UUID.class));
+    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findWithGuestsById(any(UUID.class));
 
     assertThatThrownBy(() -> bookingService.cancelBooking(bookingId))
         .isInstanceOf(IllegalStateException.class);
@@ -469,14 +877,20 @@ class BookingServiceImplTest {
     final Booking retrievedBooking = RandomEntityGenerator.create(Booking.class)
         .withStatus(BookingStatus.BOOKED);
 
-    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findById(any(UUID.class));
-    doAnswer(AdditionalAnswers.returnsFirstArg()).when(bookingRepository).save(any(Booking.class));
+    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findWithGuestsById(any(UUID.class));
+    doAnswer(AdditionalAnswers.returnsFirstArg()).when(bookingRepository).saveAndFlush(any(Booking.class));
 
     final BookingDto canceled = bookingService.cancelBooking(bookingId);
     final BookingDto expected = bookingMapper.entityToDto(retrievedBooking)
         .withStatus(BookingStatus.CANCELED);
 
     assertThat(canceled).isEqualTo(expected);
+
+    verify(propertyWriteLocks).lockUntilTransactionCompletes(retrievedBooking.getPropertyId());
+    verify(occupancyCache).unmarkBooked(
+        retrievedBooking.getPropertyId(),
+        retrievedBooking.getStartDate(),
+        retrievedBooking.getEndDate());
   }
 
   @Test
@@ -489,7 +903,7 @@ class BookingServiceImplTest {
   void shouldThrowNotFoundExceptionIfBookingDoesntExistWhenRebookCanceledBooking() {
     final UUID bookingId = UUID.randomUUID();
 
-    doReturn(Optional.empty()).when(bookingRepository).findById(any(UUID.class));
+    doReturn(Optional.empty()).when(bookingRepository).findWithGuestsById(any(UUID.class));
 
     assertThatThrownBy(() -> bookingService.rebookCanceledBooking(bookingId))
         .isInstanceOf(NotFoundException.class);
@@ -502,7 +916,7 @@ class BookingServiceImplTest {
     final Booking retrievedBooking = RandomEntityGenerator.create(Booking.class)
             .withStatus(BookingStatus.BOOKED);
 
-    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findById(any(UUID.class));
+    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findWithGuestsById(any(UUID.class));
 
     assertThatThrownBy(() -> bookingService.rebookCanceledBooking(bookingId))
         .isInstanceOf(IllegalStateException.class);
@@ -517,10 +931,10 @@ class BookingServiceImplTest {
         .withStartDate(LocalDate.now())
         .withEndDate(LocalDate.now().plusDays(1L));
 
-    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findById(any(UUID.class));
+    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findWithGuestsById(any(UUID.class));
 
-    doReturn(List.of(LocalDate.now())).when(propertyService)
-        .retrievePropertyUnavailableDatesForPeriod(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
+    doReturn(DateIntervalSet.builder().add(LocalDate.now()).build()).when(propertyService)
+        .retrievePropertyUnavailableIntervalsForPeriod(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
 
     assertThatThrownBy(() -> bookingService.rebookCanceledBooking(bookingId))
         .isInstanceOf(DatesConflictException.class);
@@ -534,7 +948,7 @@ class BookingServiceImplTest {
         .withStatus(BookingStatus.CANCELED)
         .withStartDate(LocalDate.now().minusDays(1L));
 
-    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findById(any(UUID.class));
+    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findWithGuestsById(any(UUID.class));
 
     assertThatThrownBy(() -> bookingService.rebookCanceledBooking(bookingId))
         .isInstanceOf(IllegalArgumentException.class);
@@ -549,12 +963,12 @@ class BookingServiceImplTest {
         .withStartDate(LocalDate.now())
         .withEndDate(LocalDate.now().plusDays(1L));;
 
-    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findById(any(UUID.class));
+    doReturn(Optional.of(retrievedBooking)).when(bookingRepository).findWithGuestsById(any(UUID.class));
 
-    doReturn(Collections.emptyList()).when(propertyService)
-        .retrievePropertyUnavailableDatesForPeriod(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
+    doReturn(DateIntervalSet.empty()).when(propertyService)
+        .retrievePropertyUnavailableIntervalsForPeriod(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
 
-    doAnswer(AdditionalAnswers.returnsFirstArg()).when(bookingRepository).save(any(Booking.class));
+    doAnswer(AdditionalAnswers.returnsFirstArg()).when(bookingRepository).saveAndFlush(any(Booking.class));
 
     final BookingDto rebooked = bookingService.rebookCanceledBooking(bookingId);
     final BookingDto expected = bookingMapper.entityToDto(retrievedBooking)
@@ -0,0 +1,208 @@
+package com.hostfully.technicalchallenge.service.booking.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hostfully.technicalchallenge.service.property.domain.PropertyDto;
+import com.hostfully.technicalchallenge.service.property.domain.PropertyService;
+import com.hostfully.technicalchallenge.service.property.domain.availability.PropertyOccupancyCache;
+import com.hostfully.technicalchallenge.service.user.data.User;
+import com.hostfully.technicalchallenge.service.user.domain.UserDto;
+import com.hostfully.technicalchallenge.service.user.domain.UserService;
+import com.hostfully.technicalchallenge.util.RandomEntityGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookingStatementCountTest {
+
+  private static final int GUESTS = 10;
+  private static final int BATCH_BOOKINGS = 20;
+  private static final int PAGE_SIZE = 6;
+
+  @Autowired
+  private BookingService bookingService;
+  @Autowired
+  private UserService userService;
+  @Autowired
+  private PropertyService propertyService;
+  @Autowired
+  private PropertyOccupancyCache occupancyCache;
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+  private PropertyDto property;
+  private BookingDto booking;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+    final UserDto user = userService.createUser(RandomEntityGenerator.create(UserDto.class).withId(null));
+
+    property = propertyService.createProperty(RandomEntityGenerator.create(PropertyDto.class)
+        .withId(null)
+        .withOwnerUserId(user.getId())
+        .withPricePerGuest(10000L));
+
+    final LocalDate startDate = LocalDate.now().plusDays(10L);
+
+    booking = bookingService.createBooking(new BookingDto(
+        null, property.getId(), user.getId(), startDate, startDate.plusDays(2L), null, null, guests("Guest"), null));
+
+    statistics.clear();
+  }
+
+  @Test
+  void shouldRetrieveBookingAndGuestsWithOneStatement() {
+    final BookingDto retrieved = bookingService.retrieveBooking(booking.getId());
+
+    assertThat(retrieved.getGuests()).hasSize(GUESTS);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1L);
+  }
+
+  @Test
+  void shouldLoadAvailabilityWithoutLoadingBookingsOrGuests() {
+    occupancyCache.evict(property.getId());
+
+    final List<LocalDate> unavailableDates = propertyService.retrievePropertyUnavailableDatesForPeriod(
+        property.getId(), booking.getStartDate(), booking.getEndDate());
+
+    assertThat(unavailableDates).hasSize(3);
+
+    //Booked periods and blocks, both read as projections so no entity is loaded, in a read-only transaction
+    //that is never flushed
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2L);
+    assertThat(statistics.getEntityLoadCount()).isZero();
+    assertThat(statistics.getCollectionLoadCount()).isZero();
+    assertThat(statistics.getFlushCount()).isZero();
+  }
+
+  @Test
+  void shouldCreateBookingWithBatchedGuestInserts() {
+    final LocalDate startDate = booking.getEndDate().plusDays(1L);
+
+    bookingService.createBooking(booking.withId(null).withStartDate(startDate).withEndDate(startDate));
+
+    //User existence count, property served by the second-level cache, one insert for the booking and one batch
+    //for all the guests
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(3L);
+    assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1L);
+    assertThat(statistics.getEntityInsertCount()).isEqualTo(1L + GUESTS);
+  }
+
+  @Test
+  void shouldCheckUserExistsWithoutLoadingItWhenCreateBookingOnColdCache() {
+    entityManagerFactory.getCache().evictAll();
+
+    final LocalDate startDate = booking.getEndDate().plusDays(1L);
+
+    bookingService.createBooking(booking.withId(null).withStartDate(startDate).withEndDate(startDate));
+
+    //User existence count, property lookup, one insert for the booking and one batch for all the guests
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(4L);
+    assertThat(statistics.getEntityLoadCount()).isEqualTo(1L);
+    assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isZero();
+  }
+
+  @Test
+  void shouldCreateBookingsWithBatchedInsertsWhenCreateBookings() {
+    final List<BookingDto> bookingsInfo = new ArrayList<>();
+
+    for (int i = 1; i <= BATCH_BOOKINGS; i++) {
+      final LocalDate startDate = booking.getEndDate().plusDays(i);
+
+      bookingsInfo.add(booking.withId(null).withStartDate(startDate).withEndDate(startDate));
+    }
+
+    bookingService.createBookings(bookingsInfo);
+
+    //User existence count, property served by the second-level cache, one batch for all the bookings and one
+    //for all their guests
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(3L);
+    assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1L);
+    assertThat(statistics.getEntityInsertCount()).isEqualTo(BATCH_BOOKINGS * (1L + GUESTS));
+  }
+
+  @Test
+  void shouldRetrieveEveryPageOfPropertyBookingsWithTheSameStatements() {
+    final List<BookingDto> bookingsInfo = new ArrayList<>();
+
+    for (int i = 1; i <= BATCH_BOOKINGS; i++) {
+      final LocalDate startDate = booking.getEndDate().plusDays(i);
+
+      bookingsInfo.add(booking.withId(null).withStartDate(startDate).withEndDate(startDate));
+    }
+
+    bookingService.createBookings(bookingsInfo);
+
+    final List<BookingDto> retrieved = new ArrayList<>();
+    String cursor = null;
+
+    do {
+      statistics.clear();
+
+      final BookingPage page = bookingService.retrievePropertyBookings(
+          property.getId(), BookingFilter.none(), cursor, PAGE_SIZE);
+
+      //Property existence count, one seek for the ids of the page and one statement for its bookings and guests,
+      //however deep the page is
+      assertThat(statistics.getPrepareStatementCount()).isEqualTo(3L);
+
+      retrieved.addAll(page.getBookings());
+      cursor = page.getNextCursor();
+    } while (cursor != null);
+
+    assertThat(retrieved)
+        .hasSize(1 + BATCH_BOOKINGS)
+        .isSortedAccordingTo(Comparator.comparing(BookingDto::getStartDate))
+        .allSatisfy(retrievedBooking -> assertThat(retrievedBooking.getGuests()).hasSize(GUESTS));
+  }
+
+  @Test
+  void shouldOnlyUpdateChangedGuestWhenUpdateBooking() {
+    final List<BookingGuestDto> guests = new ArrayList<>(booking.getGuests());
+    guests.set(0, guests.get(0).withName("Renamed"));
+
+    //The availability check of an update also sees the dates of the booking itself
+    final LocalDate startDate = booking.getEndDate().plusDays(1L);
+
+    bookingService.updateBooking(
+        booking.getId(),
+        booking.withStartDate(startDate).withEndDate(startDate).withGuests(guests));
+
+    //Booking with guests lookup, property from the second-level cache, version check once the property is locked,
+    //one update for the booking and one for the renamed guest
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(4L);
+    assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1L);
+    assertThat(statistics.getEntityUpdateCount()).isEqualTo(2L);
+    assertThat(statistics.getEntityInsertCount()).isZero();
+    assertThat(statistics.getEntityDeleteCount()).isZero();
+  }
+
+  @Test
+  void shouldCancelBookingWithTwoStatements() {
+    bookingService.cancelBooking(booking.getId());
+
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2L);
+  }
+
+  private static List<BookingGuestDto> guests(final String name) {
+    final List<BookingGuestDto> guests = new ArrayList<>();
+
+    for (int i = 0; i < GUESTS; i++) {
+      guests.add(new BookingGuestDto(null, null, name + " " + i, LocalDate.of(1990, 1, 1)));
+    }
+
+    return guests;
+  }
+}
@@ -0,0 +1,252 @@
+package com.hostfully.technicalchallenge.service.booking.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hostfully.technicalchallenge.service.booking.data.BookingStatus;
+import com.hostfully.technicalchallenge.service.property.domain.PropertyDto;
+import com.hostfully.technicalchallenge.service.property.domain.PropertyService;
+import com.hostfully.technicalchallenge.service.user.domain.UserDto;
+import com.hostfully.technicalchallenge.service.user.domain.UserService;
+import com.hostfully.technicalchallenge.util.RandomEntityGenerator;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+@Slf4j
+@SpringBootTest
+class BookingUpdateConcurrencyTest {
+
+  private static final int THREADS = 16;
+  private static final int BOOKINGS = 4;
+  private static final int UPDATES = 400;
+
+  @Autowired
+  private BookingService bookingService;
+  @Autowired
+  private UserService userService;
+  @Autowired
+  private PropertyService propertyService;
+
+  private ExecutorService executor;
+  private UserDto user;
+  private PropertyDto property;
+  private LocalDate startDate;
+
+  @BeforeEach
+  void setUp() {
+    executor = Executors.newFixedThreadPool(THREADS);
+    user = userService.createUser(RandomEntityGenerator.create(UserDto.class).withId(null));
+    property = propertyService.createProperty(RandomEntityGenerator.create(PropertyDto.class)
+        .withId(null)
+        .withOwnerUserId(user.getId())
+        .withPricePerGuest(10000L));
+    startDate = LocalDate.now().plusDays(10L);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void shouldApplyEachConcurrentUpdateOfABookingAsAWhole() throws Exception {
+    final List<BookingDto> bookings = IntStream.range(0, BOOKINGS)
+        .mapToObj(i -> createBooking(startDate.plusDays(i)))
+        .toList();
+
+    //Every update moves its booking to days no other update uses, so none of them conflicts on the dates
+    final List<Outcome> outcomes = runConcurrently(UPDATES, update -> bookingService.updateBooking(
+        bookings.get(update % BOOKINGS).getId(),
+        new BookingDto(null, null, null, updateDate(update), updateDate(update), null, null, guestsOf(update), null)));
+
+    final long exhausted = outcomes.stream().filter(outcome -> outcome.failure() != null).count();
+
+    log.info("{} of {} concurrent updates of {} bookings failed after all their attempts", exhausted, UPDATES, BOOKINGS);
+
+    assertThat(outcomes)
+        .filteredOn(outcome -> outcome.failure() != null)
+        .allMatch(outcome -> outcome.failure() instanceof OptimisticLockingFailureException);
+
+    for (int i = 0; i < BOOKINGS; i++) {
+      final int bookingIndex = i;
+      final List<Outcome> applied = outcomes.stream()
+          .filter(outcome -> outcome.attempt() % BOOKINGS == bookingIndex && outcome.result() != null)
+          .sorted(Comparator.comparing(outcome -> outcome.result().getVersion()))
+          .toList();
+
+      //Each applied update incremented the version once: none of them was silently overwritten by another
+      assertThat(applied).extracting(outcome -> outcome.result().getVersion())
+          .containsExactlyElementsOf(IntStream.rangeClosed(1, applied.size()).mapToObj(Long::valueOf).toList());
+
+      final int lastUpdate = applied.get(applied.size() - 1).attempt();
+      final BookingDto booking = bookingService.retrieveBooking(bookings.get(i).getId());
+
+      assertThat(booking.getVersion()).isEqualTo((long) applied.size());
+      assertThat(booking.getStartDate()).isEqualTo(updateDate(lastUpdate));
+      assertThat(booking.getGuests()).extracting(BookingGuestDto::getName)
+          .containsExactlyInAnyOrderElementsOf(guestsOf(lastUpdate).stream().map(BookingGuestDto::getName).toList());
+    }
+
+    //The occupancy calendar followed the committed updates only
+    assertThat(propertyService.retrievePropertyUnavailableDatesForPeriod(
+        property.getId(), startDate, updateDate(UPDATES)))
+        .containsExactlyInAnyOrderElementsOf(bookings.stream()
+            .map(booking -> bookingService.retrieveBooking(booking.getId()).getStartDate())
+            .toList());
+  }
+
+  @Test
+  void shouldNotRevertConcurrentCancellations() throws Exception {
+    final List<BookingDto> bookings = IntStream.range(0, UPDATES / 2)
+        .mapToObj(i -> createBooking(startDate.plusDays(i)))
+        .toList();
+
+    //Every booking is canceled and moved at the same time, a stale update would book it again
+    final List<Outcome> outcomes = runConcurrently(UPDATES, attempt -> {
+      final UUID bookingId = bookings.get(attempt / 2).getId();
+
+      return attempt % 2 == 0
+          ? bookingService.cancelBooking(bookingId)
+          : bookingService.updateBooking(bookingId, new BookingDto(
+              null, null, null, updateDate(attempt), updateDate(attempt), null, null, guestsOf(attempt), null));
+    });
+
+    for (int i = 0; i < bookings.size(); i++) {
+      final Outcome cancel = outcomes.get(2 * i);
+      final Outcome update = outcomes.get(2 * i + 1);
+      final BookingDto booking = bookingService.retrieveBooking(bookings.get(i).getId());
+
+      assertThat(cancel.failure()).isNull();
+      assertThat(booking.getStatus()).isEqualTo(BookingStatus.CANCELED);
+
+      //Either the update was applied before the cancellation, or it was rejected on the canceled booking
+      if (update.failure() == null) {
+        assertThat(booking.getVersion()).isEqualTo(2L);
+        assertThat(booking.getStartDate()).isEqualTo(updateDate(update.attempt()));
+      } else {
+        assertThat(update.failure()).isInstanceOf(IllegalStateException.class);
+        assertThat(booking.getVersion()).isEqualTo(1L);
+      }
+    }
+
+    assertThat(propertyService.retrievePropertyUnavailableDatesForPeriod(
+        property.getId(), startDate, updateDate(UPDATES)))
+        .isEmpty();
+  }
+
+  @Test
+  void shouldRetryUpdatesLoadedBeforeAConcurrentUpdateOfTheirBooking() throws Exception {
+    final int bookings = UPDATES / 2;
+    final List<BookingDto> created = IntStream.range(0, bookings)
+        .mapToObj(i -> createBooking(overlapStartDate(i), overlapStartDate(i).plusDays(2L)))
+        .toList();
+
+    //Every booking is extended by one update and moved past its current end by the other: the moved dates only
+    //overlap the extended dates of the same booking, so neither update conflicts, whatever order they commit in
+    final List<Outcome> outcomes = runConcurrently(UPDATES, attempt -> {
+      final LocalDate start = overlapStartDate(attempt / 2);
+
+      return attempt % 2 == 0
+          ? bookingService.updateBooking(created.get(attempt / 2).getId(), new BookingDto(
+              null, null, null, start, start.plusDays(4L), null, null, guestsOf(attempt), null))
+          : bookingService.updateBooking(created.get(attempt / 2).getId(), new BookingDto(
+              null, null, null, start.plusDays(3L), start.plusDays(5L), null, null, guestsOf(attempt), null));
+    });
+
+    assertThat(outcomes)
+        .filteredOn(outcome -> outcome.failure() != null)
+        .allMatch(outcome -> outcome.failure() instanceof OptimisticLockingFailureException);
+
+    for (int i = 0; i < bookings; i++) {
+      final Outcome extend = outcomes.get(2 * i);
+      final Outcome move = outcomes.get(2 * i + 1);
+      final BookingDto booking = bookingService.retrieveBooking(created.get(i).getId());
+
+      if (extend.failure() == null && move.failure() == null) {
+        final Outcome last = extend.result().getVersion() > move.result().getVersion() ? extend : move;
+
+        //Both applied on top of each other, the last one committed is the one kept
+        assertThat(booking.getVersion()).isEqualTo(2L);
+        assertThat(booking.getEndDate()).isEqualTo(last.result().getEndDate());
+      }
+    }
+  }
+
+  private LocalDate updateDate(final int update) {
+    return startDate.plusDays(UPDATES + update);
+  }
+
+  private static List<BookingGuestDto> guestsOf(final int update) {
+    return IntStream.rangeClosed(0, update % 3)
+        .mapToObj(guest -> new BookingGuestDto(null, null, "Guest " + update + "-" + guest, LocalDate.of(1990, 1, 1)))
+        .toList();
+  }
+
+  private LocalDate overlapStartDate(final int booking) {
+    return startDate.plusDays(6L * booking);
+  }
+
+  private BookingDto createBooking(final LocalDate date) {
+    return createBooking(date, date);
+  }
+
+  private BookingDto createBooking(final LocalDate start, final LocalDate end) {
+    return bookingService.createBooking(new BookingDto(
+        null, property.getId(), user.getId(), start, end, null, null, guestsOf(0), null));
+  }
+
+  private List<Outcome> runConcurrently(final int attempts, final Attempt attempt) throws InterruptedException {
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Future<BookingDto>> futures = new ArrayList<>();
+
+    for (int i = 0; i < attempts; i++) {
+      final int index = i;
+      final Callable<BookingDto> task = () -> {
+        start.await();
+        return attempt.run(index);
+      };
+      futures.add(executor.submit(task));
+    }
+
+    start.countDown();
+
+    final List<Outcome> outcomes = new ArrayList<>();
+
+    for (int i = 0; i < attempts; i++) {
+      try {
+        outcomes.add(new Outcome(i, futures.get(i).get(60L, TimeUnit.SECONDS), null));
+      } catch (final ExecutionException e) {
+        outcomes.add(new Outcome(i, null, e.getCause()));
+      } catch (final Exception e) {
+        outcomes.add(new Outcome(i, null, e));
+      }
+    }
+
+    return outcomes;
+  }
+
+  private record Outcome(int attempt, BookingDto result, Throwable failure) {
+  }
+
+  @FunctionalInterface
+  private interface Attempt {
+    BookingDto run(int attempt);
+  }
+}
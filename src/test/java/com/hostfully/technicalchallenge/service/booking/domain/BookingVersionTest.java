@@ -0,0 +1,159 @@
+package com.hostfully.technicalchallenge.service.booking.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.hostfully.technicalchallenge.common.exception.PreconditionFailedException;
+import com.hostfully.technicalchallenge.service.property.domain.PropertyDto;
+import com.hostfully.technicalchallenge.service.property.domain.PropertyService;
+import com.hostfully.technicalchallenge.service.user.domain.UserDto;
+import com.hostfully.technicalchallenge.service.user.domain.UserService;
+import com.hostfully.technicalchallenge.util.RandomEntityGenerator;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest
+class BookingVersionTest {
+
+  @Autowired
+  private BookingService bookingService;
+  @Autowired
+  private UserService userService;
+  @Autowired
+  private PropertyService propertyService;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private UserDto user;
+  private PropertyDto property;
+  private BookingDto booking;
+
+  @BeforeEach
+  void setUp() {
+    user = userService.createUser(RandomEntityGenerator.create(UserDto.class).withId(null));
+
+    property = propertyService.createProperty(RandomEntityGenerator.create(PropertyDto.class)
+        .withId(null)
+        .withOwnerUserId(user.getId())
+        .withPricePerGuest(10000L));
+
+    final LocalDate startDate = LocalDate.now().plusDays(10L);
+
+    booking = bookingService.createBooking(new BookingDto(
+        null, property.getId(), user.getId(), startDate, startDate.plusDays(2L), null, null,
+        List.of(new BookingGuestDto(null, null, "Guest", LocalDate.of(1990, 1, 1))), null));
+  }
+
+  @Test
+  void shouldCreateEntitiesWithTheFirstVersion() {
+    assertThat(user.getVersion()).isZero();
+    assertThat(property.getVersion()).isZero();
+    assertThat(booking.getVersion()).isZero();
+    assertThat(committedVersion("bookings", booking.getId())).isZero();
+  }
+
+  @Test
+  void shouldReturnTheCommittedVersionWhenUpdateBookingDates() {
+    final LocalDate startDate = booking.getEndDate().plusDays(1L);
+
+    final BookingDto updated = bookingService.updateBooking(
+        booking.getId(), booking.withStartDate(startDate).withEndDate(startDate));
+
+    assertThat(updated.getVersion()).isEqualTo(1L);
+    assertThat(committedVersion("bookings", booking.getId())).isEqualTo(1L);
+    assertThat(bookingService.retrieveBooking(booking.getId()).getVersion()).isEqualTo(1L);
+  }
+
+  @Test
+  void shouldIncrementTheVersionOnceWhenUpdateBookingDatesAndGuests() {
+    final LocalDate startDate = booking.getEndDate().plusDays(1L);
+    final List<BookingGuestDto> guests = new ArrayList<>(booking.getGuests());
+    guests.set(0, guests.get(0).withName("Renamed"));
+    guests.add(new BookingGuestDto(null, null, "Added", LocalDate.of(1990, 1, 1)));
+
+    final BookingDto updated = bookingService.updateBooking(
+        booking.getId(), booking.withStartDate(startDate).withEndDate(startDate).withGuests(guests));
+
+    assertThat(updated.getVersion()).isEqualTo(1L);
+    assertThat(committedVersion("bookings", booking.getId())).isEqualTo(1L);
+  }
+
+  @Test
+  void shouldIncrementTheVersionWhenUpdateOnlyBookingGuests() {
+    final List<BookingGuestDto> guests = List.of(booking.getGuests().get(0).withName("Renamed"));
+
+    final BookingDto updated = bookingService.updateBooking(booking.getId(), booking.withGuests(guests));
+
+    assertThat(updated.getVersion()).isEqualTo(1L);
+    assertThat(committedVersion("bookings", booking.getId())).isEqualTo(1L);
+
+    final BookingDto retrieved = bookingService.retrieveBooking(booking.getId());
+
+    assertThat(retrieved.getVersion()).isEqualTo(1L);
+    assertThat(retrieved.getStartDate()).isEqualTo(booking.getStartDate());
+    assertThat(retrieved.getGuests()).extracting(BookingGuestDto::getName).containsExactly("Renamed");
+
+    //The update of the guests made the version the guests were read with stale
+    assertThatThrownBy(() -> bookingService.updateBooking(booking.getId(), booking))
+        .isInstanceOf(PreconditionFailedException.class);
+  }
+
+  @Test
+  void shouldUpdateBookingToDatesOverlappingItsCurrentDates() {
+    final LocalDate startDate = booking.getStartDate().plusDays(1L);
+
+    final BookingDto updated = bookingService.updateBooking(
+        booking.getId(), booking.withStartDate(startDate).withEndDate(booking.getEndDate().plusDays(1L)));
+
+    assertThat(updated.getVersion()).isEqualTo(1L);
+    assertThat(propertyService.retrievePropertyUnavailableDatesForPeriod(
+        property.getId(), booking.getStartDate(), booking.getEndDate().plusDays(1L)))
+        .containsExactly(startDate, startDate.plusDays(1L), startDate.plusDays(2L));
+  }
+
+  @Test
+  void shouldReturnTheCommittedVersionWhenCancelAndRebookBooking() {
+    final BookingDto canceled = bookingService.cancelBooking(booking.getId());
+    final BookingDto rebooked = bookingService.rebookCanceledBooking(booking.getId());
+
+    assertThat(canceled.getVersion()).isEqualTo(1L);
+    assertThat(rebooked.getVersion()).isEqualTo(2L);
+    assertThat(committedVersion("bookings", booking.getId())).isEqualTo(2L);
+  }
+
+  @Test
+  void shouldNotUpdateBookingWhenTheExpectedVersionIsStale() {
+    final LocalDate startDate = booking.getEndDate().plusDays(1L);
+
+    bookingService.updateBooking(booking.getId(), booking.withStartDate(startDate).withEndDate(startDate));
+
+    assertThatThrownBy(() -> bookingService.updateBooking(
+        booking.getId(), booking.withStartDate(startDate.plusDays(5L)).withEndDate(startDate.plusDays(5L))))
+        .isInstanceOf(PreconditionFailedException.class);
+
+    assertThat(bookingService.retrieveBooking(booking.getId()).getStartDate()).isEqualTo(startDate);
+  }
+
+  @Test
+  void shouldReturnTheCommittedVersionWhenUpdateUserAndProperty() {
+    final UserDto updatedUser = userService.updateUser(user.getId(), user.withName("Renamed").withVersion(null));
+    final PropertyDto updatedProperty = propertyService.updateProperty(
+        property.getId(), property.withName("Renamed").withVersion(null));
+
+    assertThat(updatedUser.getVersion()).isEqualTo(1L);
+    assertThat(committedVersion("users", user.getId())).isEqualTo(1L);
+    assertThat(updatedProperty.getVersion()).isEqualTo(1L);
+    assertThat(committedVersion("properties", property.getId())).isEqualTo(1L);
+  }
+
+  private long committedVersion(final String table, final UUID id) {
+    return jdbcTemplate.queryForObject("select version from " + table + " where id = ?", Long.class, id);
+  }
+}
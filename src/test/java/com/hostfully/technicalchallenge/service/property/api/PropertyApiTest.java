@@ -1,7 +1,12 @@
 package com.hostfully.technicalchallenge.service.property.api;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
@@ -12,20 +17,37 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hostfully.technicalchallenge.common.api.NdjsonImporter;
+import com.hostfully.technicalchallenge.common.domain.BatchItemResult;
 import com.hostfully.technicalchallenge.common.exception.DatesConflictException;
 import com.hostfully.technicalchallenge.common.exception.NotFoundException;
+import com.hostfully.technicalchallenge.common.exception.PreconditionFailedException;
+import com.hostfully.technicalchallenge.service.booking.data.BookingStatus;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingDto;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingFilter;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingMapper;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingMapperImpl;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingPage;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingService;
 import com.hostfully.technicalchallenge.service.property.api.request.UpsertPropertyBlockRequest;
 import com.hostfully.technicalchallenge.service.property.api.request.UpsertPropertyRequest;
 import com.hostfully.technicalchallenge.service.property.api.response.PropertyBlockResponse;
 import com.hostfully.technicalchallenge.service.property.api.response.PropertyResponse;
+import com.hostfully.technicalchallenge.service.property.domain.AvailablePropertyDto;
 import com.hostfully.technicalchallenge.service.property.domain.PropertyBlockDto;
+import com.hostfully.technicalchallenge.service.property.domain.PropertyCalendarDto;
 import com.hostfully.technicalchallenge.service.property.domain.PropertyDto;
 import com.hostfully.technicalchallenge.service.property.domain.PropertyMapper;
 import com.hostfully.technicalchallenge.service.property.domain.PropertyMapperImpl;
+import com.hostfully.technicalchallenge.service.property.domain.PropertySearchCriteria;
+import com.hostfully.technicalchallenge.service.property.domain.PropertySearchPage;
 import com.hostfully.technicalchallenge.service.property.domain.PropertyService;
+import com.hostfully.technicalchallenge.service.property.domain.availability.OccupancySegment;
+import com.hostfully.technicalchallenge.service.property.domain.availability.OccupancyStatus;
 import com.hostfully.technicalchallenge.util.RandomEntityGenerator;
 import java.time.LocalDate;
 import java.util.Collections;
@@ -38,10 +60,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
-@Import({PropertyMapperImpl.class})
+@Import({PropertyMapperImpl.class, BookingMapperImpl.class, NdjsonImporter.class})
 @WebMvcTest(controllers = {PropertyController.class})
 class PropertyApiTest {
 
@@ -51,8 +74,12 @@ class PropertyApiTest {
   private ObjectMapper objectMapper;
   @Autowired
   private PropertyMapper propertyMapper;
+  @Autowired
+  private BookingMapper bookingMapper;
   @MockBean
   private PropertyService propertyService;
+  @MockBean
+  private BookingService bookingService;
 
   @Test
   @SneakyThrows
@@ -93,9 +120,30 @@ class PropertyApiTest {
         .perform(get(PropertyApi.PROPERTY_API_PATH + "/{id}", propertyId))
         .andDo(print())
         .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"" + retrievedProperty.getVersion() + "\""))
         .andExpect(content().json(objectMapper.writeValueAsString(expectedResponse)));
   }
 
+  @Test
+  @SneakyThrows
+  void shouldReturn304WithoutBodyIfETagMatchesWhenGetPropertyById() {
+    final UUID propertyId = UUID.randomUUID();
+
+    final PropertyDto retrievedProperty = RandomEntityGenerator.create(PropertyDto.class)
+        .withId(propertyId)
+        .withVersion(3L);
+
+    doReturn(retrievedProperty).when(propertyService).retrieveProperty(any(UUID.class));
+
+    mockMvc
+        .perform(get(PropertyApi.PROPERTY_API_PATH + "/{id}", propertyId)
+            .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+        .andDo(print())
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+        .andExpect(content().string(""));
+  }
+
   @Test
   @SneakyThrows
   void shouldReturn400IfInvalidJsonWhenCreateProperty() {
@@ -312,6 +360,42 @@ class PropertyApiTest {
         .andExpect(content().json(objectMapper.writeValueAsString(expectedResponse)));
   }
 
+  @Test
+  @SneakyThrows
+  void shouldStreamTheResultOfEachLineWhenImportProperties() {
+    final UUID propertyId = UUID.randomUUID();
+
+    final UpsertPropertyRequest request = RandomEntityGenerator.create(UpsertPropertyRequest.class)
+        .withPricePerGuest(10000L);
+
+    doAnswer(invocation -> {
+
+      final List<PropertyDto> propertiesInfo = invocation.getArgument(0);
+      return List.of(
+          BatchItemResult.created(propertiesInfo.get(0).withId(propertyId)),
+          BatchItemResult.failed(new NotFoundException("No user found with provided ownerUserId")));
+
+    }).when(propertyService).createProperties(anyList());
+
+    final String body = objectMapper.writeValueAsString(request) + "\n"
+        + objectMapper.writeValueAsString(request) + "\n";
+
+    final String[] results = mockMvc
+        .perform(
+            post(PropertyApi.PROPERTY_API_PATH + "/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+        .andReturn().getResponse().getContentAsString().split("\n");
+
+    assertThat(results).hasSize(2);
+    assertThat(objectMapper.readTree(results[0]).at("/item/id").asText()).isEqualTo(propertyId.toString());
+    assertThat(objectMapper.readTree(results[1]).at("/line").asLong()).isEqualTo(2L);
+    assertThat(objectMapper.readTree(results[1]).at("/error/statusCode").asInt()).isEqualTo(404);
+  }
+
   @Test
   @SneakyThrows
   void shouldReturn400IfInvalidUuidIsProvidedWhenUpdateProperty() {
@@ -567,7 +651,8 @@ class PropertyApiTest {
         .withPricePerGuest(10000L);
 
     final PropertyDto persisted = propertyMapper.upsertRequestToDto(request)
-        .withId(propertyId);
+        .withId(propertyId)
+        .withVersion(4L);
 
     final PropertyResponse expectedResponse = propertyMapper.dtoToResponse(persisted);
 
@@ -576,11 +661,37 @@ class PropertyApiTest {
     mockMvc
         .perform(
             put(PropertyApi.PROPERTY_API_PATH + "/{id}", propertyId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
         .andDo(print())
         .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
         .andExpect(content().json(objectMapper.writeValueAsString(expectedResponse)));
+
+    verify(propertyService).updateProperty(
+        eq(propertyId), argThat(property -> Long.valueOf(3L).equals(property.getVersion())));
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturn412IfVersionIsStaleWhenUpdateProperty() {
+    final UUID propertyId = UUID.randomUUID();
+
+    final UpsertPropertyRequest request = RandomEntityGenerator.create(UpsertPropertyRequest.class)
+        .withPricePerGuest(10000L);
+
+    doThrow(new PreconditionFailedException(String.format("The property %s was changed since version 3", propertyId)))
+        .when(propertyService).updateProperty(any(UUID.class), any(PropertyDto.class));
+
+    mockMvc
+        .perform(
+            put(PropertyApi.PROPERTY_API_PATH + "/{id}", propertyId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andDo(print())
+        .andExpect(status().isPreconditionFailed());
   }
 
   @Test
@@ -849,26 +960,275 @@ class PropertyApiTest {
   @SneakyThrows
   void shouldReturn200WithBlockedDatesWhenRetrievePropertyBlockedDates() {
     final UUID propertyId = UUID.randomUUID();
+    final LocalDate today = LocalDate.now();
+
+    final PropertyBlockDto firstBlock = RandomEntityGenerator.create(PropertyBlockDto.class)
+        .withPropertyId(propertyId)
+        .withStartDate(today.minusDays(3L))
+        .withEndDate(today);
 
-    final List<PropertyBlockDto> retrievedBlocks = RandomEntityGenerator.createList(PropertyBlockDto.class, 3)
-        .stream()
-        .map(block -> block.withPropertyId(propertyId))
-        .toList();
+    final PropertyBlockDto secondBlock = RandomEntityGenerator.create(PropertyBlockDto.class)
+        .withPropertyId(propertyId)
+        .withStartDate(today.plusDays(1L))
+        .withEndDate(today.plusDays(1L));
 
-    final List<PropertyBlockResponse> expectedResponse = retrievedBlocks.stream()
-        .map(propertyMapper::dtoToResponse)
-        .toList();
+    //Ranges are expanded to one entry per date, limited to the requested period
+    final List<PropertyBlockResponse> expectedResponse = List.of(
+        blockedDateResponse(firstBlock, today.minusDays(1L)),
+        blockedDateResponse(firstBlock, today),
+        blockedDateResponse(secondBlock, today.plusDays(1L)));
 
-    doReturn(retrievedBlocks).when(propertyService)
+    doReturn(List.of(firstBlock, secondBlock)).when(propertyService)
         .retrievePropertyBlockedDates(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
 
     mockMvc
         .perform(
             get(PropertyApi.PROPERTY_API_PATH + "/{id}/blocks", propertyId)
-                .queryParam("startDate", LocalDate.now().minusDays(1L).toString())
-                .queryParam("endDate", LocalDate.now().plusDays(1L).toString()))
+                .queryParam("startDate", today.minusDays(1L).toString())
+                .queryParam("endDate", today.plusDays(1L).toString()))
         .andDo(print())
         .andExpect(status().isOk())
-        .andExpect(content().json(objectMapper.writeValueAsString(expectedResponse)));
+        .andExpect(content().json(objectMapper.writeValueAsString(expectedResponse), true));
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturnADistinctIdForEachBlockedDateWhenRetrievePropertyBlockedDates() {
+    final LocalDate today = LocalDate.now();
+
+    final PropertyBlockDto block = RandomEntityGenerator.create(PropertyBlockDto.class)
+        .withStartDate(today)
+        .withEndDate(today.plusDays(4L));
+
+    doReturn(List.of(block)).when(propertyService)
+        .retrievePropertyBlockedDates(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
+
+    final String firstResponse = mockMvc
+        .perform(
+            get(PropertyApi.PROPERTY_API_PATH + "/{id}/blocks", block.getPropertyId())
+                .queryParam("startDate", today.toString())
+                .queryParam("endDate", today.plusDays(4L).toString()))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    final String secondResponse = mockMvc
+        .perform(
+            get(PropertyApi.PROPERTY_API_PATH + "/{id}/blocks", block.getPropertyId())
+                .queryParam("startDate", today.plusDays(2L).toString())
+                .queryParam("endDate", today.plusDays(4L).toString()))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    final List<PropertyBlockResponse> blockedDates =
+        List.of(objectMapper.readValue(firstResponse, PropertyBlockResponse[].class));
+
+    assertThat(blockedDates).hasSize(5);
+    assertThat(blockedDates).extracting(PropertyBlockResponse::getId)
+        .doesNotHaveDuplicates()
+        .doesNotContain(block.getId());
+
+    //The id of a date does not depend on the requested period
+    assertThat(List.of(objectMapper.readValue(secondResponse, PropertyBlockResponse[].class)))
+        .isEqualTo(blockedDates.subList(2, 5));
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturn400IfInvalidStatusIsProvidedWhenRetrievePropertyBookings() {
+    mockMvc
+        .perform(
+            get(PropertyApi.PROPERTY_API_PATH + "/{id}/bookings", UUID.randomUUID())
+                .queryParam("status", "INVALID"))
+        .andDo(print())
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturn404IfPropertyDoesntExistWhenRetrievePropertyBookings() {
+    final UUID propertyId = UUID.randomUUID();
+
+    doThrow(new NotFoundException(String.format("No property found with id %s", propertyId)))
+        .when(bookingService).retrievePropertyBookings(any(UUID.class), any(BookingFilter.class), any(), anyInt());
+
+    mockMvc
+        .perform(get(PropertyApi.PROPERTY_API_PATH + "/{id}/bookings", propertyId))
+        .andDo(print())
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturn200WithBookingsPageWhenRetrievePropertyBookings() {
+    final UUID propertyId = UUID.randomUUID();
+    final LocalDate today = LocalDate.now();
+    final BookingFilter filter = new BookingFilter(BookingStatus.BOOKED, today, today.plusDays(30L));
+
+    final BookingPage page = new BookingPage(
+        List.of(RandomEntityGenerator.create(BookingDto.class).withPropertyId(propertyId)),
+        "next-cursor");
+
+    doReturn(page).when(bookingService).retrievePropertyBookings(propertyId, filter, "cursor", 10);
+
+    mockMvc
+        .perform(
+            get(PropertyApi.PROPERTY_API_PATH + "/{id}/bookings", propertyId)
+                .queryParam("status", BookingStatus.BOOKED.name())
+                .queryParam("startDate", today.toString())
+                .queryParam("endDate", today.plusDays(30L).toString())
+                .queryParam("cursor", "cursor")
+                .queryParam("limit", "10"))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(content().json(objectMapper.writeValueAsString(bookingMapper.pageToResponse(page)), true));
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturn400IfStartDateIsMissingWhenSearchAvailableProperties() {
+    mockMvc
+        .perform(
+            get(PropertyApi.PROPERTY_API_PATH + "/search")
+                .queryParam("endDate", LocalDate.now().toString()))
+        .andDo(print())
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturn422IfStartDateIsAfterEndDateWhenSearchAvailableProperties() {
+    doThrow(new IllegalArgumentException("startDate cannot be after endDate"))
+        .when(propertyService).searchAvailableProperties(any(PropertySearchCriteria.class), any(), anyInt());
+
+    mockMvc
+        .perform(
+            get(PropertyApi.PROPERTY_API_PATH + "/search")
+                .queryParam("startDate", LocalDate.now().plusDays(1L).toString())
+                .queryParam("endDate", LocalDate.now().toString()))
+        .andDo(print())
+        .andExpect(status().isUnprocessableEntity());
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturn200WithAvailablePropertiesWhenSearchAvailableProperties() {
+    final LocalDate today = LocalDate.now();
+    final PropertySearchCriteria criteria =
+        new PropertySearchCriteria(today, today.plusDays(6L), 2, "Country", "City", 150000L);
+
+    final PropertySearchPage page = new PropertySearchPage(
+        List.of(new AvailablePropertyDto(RandomEntityGenerator.create(PropertyDto.class), 140000L)),
+        "next-cursor");
+
+    doReturn(page).when(propertyService).searchAvailableProperties(criteria, "cursor", 10);
+
+    mockMvc
+        .perform(
+            get(PropertyApi.PROPERTY_API_PATH + "/search")
+                .queryParam("startDate", today.toString())
+                .queryParam("endDate", today.plusDays(6L).toString())
+                .queryParam("guests", "2")
+                .queryParam("country", "Country")
+                .queryParam("city", "City")
+                .queryParam("maxTotalPrice", "150000")
+                .queryParam("cursor", "cursor")
+                .queryParam("limit", "10"))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(content().json(objectMapper.writeValueAsString(propertyMapper.pageToResponse(page)), true));
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturn400IfInvalidStartDateIsProvidedWhenRetrievePropertyCalendar() {
+    mockMvc
+        .perform(
+            get(PropertyApi.PROPERTY_API_PATH + "/{id}/calendar", UUID.randomUUID())
+                .queryParam("startDate", "invalid-date")
+                .queryParam("endDate", LocalDate.now().toString()))
+        .andDo(print())
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturn404IfPropertyDoesntExistWhenRetrievePropertyCalendar() {
+    final UUID propertyId = UUID.randomUUID();
+
+    doThrow(new NotFoundException(String.format("No property found with id %s", propertyId)))
+        .when(propertyService).retrievePropertyCalendar(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
+
+    mockMvc
+        .perform(
+            get(PropertyApi.PROPERTY_API_PATH + "/{id}/calendar", propertyId)
+                .queryParam("startDate", LocalDate.now().toString())
+                .queryParam("endDate", LocalDate.now().plusDays(364L).toString()))
+        .andDo(print())
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturn200WithSegmentsWhenRetrievePropertyCalendar() {
+    final UUID propertyId = UUID.randomUUID();
+    final LocalDate today = LocalDate.now();
+
+    final PropertyCalendarDto calendar = new PropertyCalendarDto(propertyId, today, today.plusDays(364L), List.of(
+        new OccupancySegment(OccupancyStatus.BOOKED, today, today.plusDays(6L)),
+        new OccupancySegment(OccupancyStatus.FREE, today.plusDays(7L), today.plusDays(364L))), "1f-2");
+
+    doReturn(calendar).when(propertyService).retrievePropertyCalendar(propertyId, today, today.plusDays(364L));
+
+    final String expectedResponse = String.format("""
+        {
+          "propertyId": "%s",
+          "startDate": "%s",
+          "endDate": "%s",
+          "segments": [
+            {"status": "BOOKED", "from": "%s", "to": "%s"},
+            {"status": "FREE", "from": "%s", "to": "%s"}
+          ]
+        }""",
+        propertyId, today, today.plusDays(364L),
+        today, today.plusDays(6L),
+        today.plusDays(7L), today.plusDays(364L));
+
+    mockMvc
+        .perform(
+            get(PropertyApi.PROPERTY_API_PATH + "/{id}/calendar", propertyId)
+                .queryParam("startDate", today.toString())
+                .queryParam("endDate", today.plusDays(364L).toString()))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"1f-2\""))
+        .andExpect(content().json(expectedResponse, true));
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturn304WithoutBodyIfETagMatchesWhenRetrievePropertyCalendar() {
+    final UUID propertyId = UUID.randomUUID();
+    final LocalDate today = LocalDate.now();
+
+    final PropertyCalendarDto calendar = new PropertyCalendarDto(propertyId, today, today.plusDays(6L), List.of(
+        new OccupancySegment(OccupancyStatus.FREE, today, today.plusDays(6L))), "1f-2");
+
+    doReturn(calendar).when(propertyService).retrievePropertyCalendar(propertyId, today, today.plusDays(6L));
+
+    mockMvc
+        .perform(
+            get(PropertyApi.PROPERTY_API_PATH + "/{id}/calendar", propertyId)
+                .queryParam("startDate", today.toString())
+                .queryParam("endDate", today.plusDays(6L).toString())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1f-1\", \"1f-2\""))
+        .andDo(print())
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+  }
+
+  private PropertyBlockResponse blockedDateResponse(final PropertyBlockDto block, final LocalDate date) {
+    final PropertyBlockResponse response = propertyMapper.dtoToResponse(block, date);
+    response.setId(PropertyController.blockedDateId(block.getId(), date));
+    return response;
   }
 }
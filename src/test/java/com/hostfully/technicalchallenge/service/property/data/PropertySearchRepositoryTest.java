@@ -0,0 +1,117 @@
+package com.hostfully.technicalchallenge.service.property.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hostfully.technicalchallenge.service.booking.data.Booking;
+import com.hostfully.technicalchallenge.service.booking.data.BookingRepository;
+import com.hostfully.technicalchallenge.service.booking.data.BookingStatus;
+import com.hostfully.technicalchallenge.service.property.data.block.PropertyBlock;
+import com.hostfully.technicalchallenge.service.property.data.block.PropertyBlockRepository;
+import com.hostfully.technicalchallenge.util.RandomEntityGenerator;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class PropertySearchRepositoryTest {
+
+  private static final LocalDate START_DATE = LocalDate.now().plusDays(30L);
+  private static final LocalDate END_DATE = START_DATE.plusDays(6L);
+
+  @Autowired
+  private PropertyRepository propertyRepository;
+  @Autowired
+  private BookingRepository bookingRepository;
+  @Autowired
+  private PropertyBlockRepository propertyBlockRepository;
+
+  //Every test searches its own country, so the properties saved by other tests are never found
+  private String country;
+
+  @BeforeEach
+  void setUp() {
+    country = UUID.randomUUID().toString();
+  }
+
+  @Test
+  void shouldOnlyFindPropertiesWithoutBookingsOrBlocksOverlappingThePeriod() {
+    final Property free = saveProperty("City", 10000L);
+    final Property booked = saveProperty("City", 10000L);
+    final Property canceled = saveProperty("City", 10000L);
+    final Property blocked = saveProperty("City", 10000L);
+    final Property bookedAround = saveProperty("City", 10000L);
+
+    saveBooking(booked, END_DATE, END_DATE.plusDays(2L), BookingStatus.BOOKED);
+    saveBooking(canceled, START_DATE, END_DATE, BookingStatus.CANCELED);
+    saveBooking(bookedAround, START_DATE.minusDays(3L), START_DATE.minusDays(1L), BookingStatus.BOOKED);
+    saveBooking(bookedAround, END_DATE.plusDays(1L), END_DATE.plusDays(3L), BookingStatus.BOOKED);
+
+    propertyBlockRepository.save(PropertyBlock.builder()
+        .propertyId(blocked.getId())
+        .startDate(START_DATE.minusDays(1L))
+        .endDate(START_DATE)
+        .build());
+
+    final List<Property> available =
+        propertyRepository.findAvailable(START_DATE, END_DATE, country, null, null, null, 10);
+
+    assertThat(available).containsExactlyElementsOf(sortedById(free, canceled, bookedAround));
+  }
+
+  @Test
+  void shouldApplyFiltersAndStartAfterTheGivenIdWhenFindAvailable() {
+    final List<Property> matching = sortedById(
+        saveProperty("City", 10000L),
+        saveProperty("City", 5000L),
+        saveProperty("City", 10000L));
+
+    saveProperty("City", 10001L);
+    saveProperty("Other city", 10000L);
+
+    final List<Property> firstPage =
+        propertyRepository.findAvailable(START_DATE, END_DATE, country, "City", 10000L, null, 2);
+    final List<Property> secondPage = propertyRepository.findAvailable(
+        START_DATE, END_DATE, country, "City", 10000L, firstPage.get(1).getId(), 2);
+
+    assertThat(firstPage).containsExactlyElementsOf(matching.subList(0, 2));
+    assertThat(secondPage).containsExactlyElementsOf(matching.subList(2, 3));
+  }
+
+  private Property saveProperty(final String city, final long pricePerGuest) {
+    return propertyRepository.save(RandomEntityGenerator.create(Property.class)
+        .withId(null)
+        .withCountry(country)
+        .withCity(city)
+        .withPricePerGuest(pricePerGuest));
+  }
+
+  private void saveBooking(
+      final Property property,
+      final LocalDate startDate,
+      final LocalDate endDate,
+      final BookingStatus status) {
+
+    bookingRepository.save(RandomEntityGenerator.create(Booking.class)
+        .withId(null)
+        .withPropertyId(property.getId())
+        .withStartDate(startDate)
+        .withEndDate(endDate)
+        .withStatus(status)
+        .withGuests(null));
+  }
+
+  //The database orders the ids as unsigned bytes, which is not the order of UUID.compareTo
+  private List<Property> sortedById(final Property... properties) {
+    return Stream.of(properties)
+        .sorted(Comparator.comparing(property -> property.getId().toString()))
+        .toList();
+  }
+}
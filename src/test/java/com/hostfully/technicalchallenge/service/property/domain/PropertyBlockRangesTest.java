@@ -0,0 +1,154 @@
+package com.hostfully.technicalchallenge.service.property.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.hostfully.technicalchallenge.service.property.data.block.PropertyBlock;
+import com.hostfully.technicalchallenge.service.property.domain.availability.DateIntervalSet;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class PropertyBlockRangesTest {
+
+  private static final UUID PROPERTY_ID = UUID.randomUUID();
+  private static final LocalDate TODAY = LocalDate.now();
+
+  @Test
+  void shouldInsertSingleRangeForConsecutiveDatesWhenBlock() {
+    final PropertyBlockRanges.Changes changes = PropertyBlockRanges.block(
+        PROPERTY_ID,
+        Collections.emptyList(),
+        dates(TODAY, TODAY.plusDays(1L), TODAY.plusDays(2L), TODAY.plusDays(5L)),
+        "maintenance");
+
+    assertThat(changes.getToDelete()).isEmpty();
+    assertThat(changes.getToInsert())
+        .extracting(PropertyBlock::getStartDate, PropertyBlock::getEndDate, PropertyBlock::getReason)
+        .containsExactly(
+            tuple(TODAY, TODAY.plusDays(2L), "maintenance"),
+            tuple(TODAY.plusDays(5L), TODAY.plusDays(5L), "maintenance"));
+    assertThat(changes.getNewlyBlockedDates())
+        .isEqualTo(dates(TODAY, TODAY.plusDays(1L), TODAY.plusDays(2L), TODAY.plusDays(5L)));
+  }
+
+  @Test
+  void shouldCoalesceWithAdjacentRangesWithSameReasonWhenBlock() {
+    final PropertyBlock before = block(TODAY.minusDays(3L), TODAY.minusDays(1L), "maintenance");
+    final PropertyBlock after = block(TODAY.plusDays(1L), TODAY.plusDays(4L), "maintenance");
+
+    final PropertyBlockRanges.Changes changes = PropertyBlockRanges.block(
+        PROPERTY_ID,
+        List.of(after, before),
+        dates(TODAY),
+        "maintenance");
+
+    assertThat(changes.getToDelete()).containsExactlyInAnyOrder(before, after);
+    assertThat(changes.getToInsert())
+        .extracting(PropertyBlock::getStartDate, PropertyBlock::getEndDate, PropertyBlock::getReason)
+        .containsExactly(tuple(TODAY.minusDays(3L), TODAY.plusDays(4L), "maintenance"));
+    assertThat(changes.getNewlyBlockedDates()).isEqualTo(dates(TODAY));
+  }
+
+  @Test
+  void shouldNotCoalesceAdjacentRangesWithDifferentReasonWhenBlock() {
+    final PropertyBlock adjacent = block(TODAY.plusDays(1L), TODAY.plusDays(4L), "owner stay");
+
+    final PropertyBlockRanges.Changes changes = PropertyBlockRanges.block(
+        PROPERTY_ID,
+        List.of(adjacent),
+        dates(TODAY),
+        "maintenance");
+
+    assertThat(changes.getToDelete()).isEmpty();
+    assertThat(changes.getToInsert())
+        .extracting(PropertyBlock::getStartDate, PropertyBlock::getEndDate, PropertyBlock::getReason)
+        .containsExactly(tuple(TODAY, TODAY, "maintenance"));
+  }
+
+  @Test
+  void shouldSplitRangeWhenReasonOfSomeDatesChanges() {
+    final PropertyBlock existing = block(TODAY, TODAY.plusDays(9L), "maintenance");
+
+    final PropertyBlockRanges.Changes changes = PropertyBlockRanges.block(
+        PROPERTY_ID,
+        List.of(existing),
+        dates(TODAY.plusDays(4L), TODAY.plusDays(5L)),
+        "owner stay");
+
+    assertThat(changes.getToDelete()).containsExactly(existing);
+    assertThat(changes.getToInsert())
+        .extracting(PropertyBlock::getStartDate, PropertyBlock::getEndDate, PropertyBlock::getReason)
+        .containsExactly(
+            tuple(TODAY, TODAY.plusDays(3L), "maintenance"),
+            tuple(TODAY.plusDays(4L), TODAY.plusDays(5L), "owner stay"),
+            tuple(TODAY.plusDays(6L), TODAY.plusDays(9L), "maintenance"));
+    assertThat(changes.getNewlyBlockedDates().isEmpty()).isTrue();
+  }
+
+  @Test
+  void shouldKeepRangeUntouchedIfNothingChangesWhenBlock() {
+    final PropertyBlock existing = block(TODAY, TODAY.plusDays(9L), "maintenance");
+
+    final PropertyBlockRanges.Changes changes = PropertyBlockRanges.block(
+        PROPERTY_ID,
+        List.of(existing),
+        dates(TODAY.plusDays(2L)),
+        "maintenance");
+
+    assertThat(changes.getToDelete()).isEmpty();
+    assertThat(changes.getToInsert()).isEmpty();
+  }
+
+  @Test
+  void shouldSplitRangeOnPartialUnblock() {
+    final PropertyBlock existing = block(TODAY, TODAY.plusDays(9L), null);
+
+    final PropertyBlockRanges.Changes changes = PropertyBlockRanges.unblock(
+        PROPERTY_ID,
+        List.of(existing),
+        dates(TODAY, TODAY.plusDays(4L), TODAY.plusDays(9L)));
+
+    assertThat(changes.getToDelete()).containsExactly(existing);
+    assertThat(changes.getToInsert())
+        .extracting(PropertyBlock::getStartDate, PropertyBlock::getEndDate, PropertyBlock::getReason)
+        .containsExactly(
+            tuple(TODAY.plusDays(1L), TODAY.plusDays(3L), null),
+            tuple(TODAY.plusDays(5L), TODAY.plusDays(8L), null));
+  }
+
+  @Test
+  void shouldDeleteRangeOnFullUnblock() {
+    final PropertyBlock existing = block(TODAY, TODAY.plusDays(1L), "maintenance");
+
+    final PropertyBlockRanges.Changes changes = PropertyBlockRanges.unblock(
+        PROPERTY_ID,
+        List.of(existing),
+        dates(TODAY.minusDays(1L), TODAY, TODAY.plusDays(1L), TODAY.plusDays(2L)));
+
+    assertThat(changes.getToDelete()).containsExactly(existing);
+    assertThat(changes.getToInsert()).isEmpty();
+  }
+
+  private static PropertyBlock block(final LocalDate startDate, final LocalDate endDate, final String reason) {
+    return PropertyBlock.builder()
+        .id(UUID.randomUUID())
+        .propertyId(PROPERTY_ID)
+        .startDate(startDate)
+        .endDate(endDate)
+        .reason(reason)
+        .build();
+  }
+
+  private static DateIntervalSet dates(final LocalDate... dates) {
+    final DateIntervalSet.Builder builder = DateIntervalSet.builder();
+
+    for (final LocalDate date : dates) {
+      builder.add(date);
+    }
+
+    return builder.build();
+  }
+}
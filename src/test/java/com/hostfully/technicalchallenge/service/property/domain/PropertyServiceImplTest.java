@@ -2,26 +2,36 @@ package com.hostfully.technicalchallenge.service.property.domain;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 
+import com.hostfully.technicalchallenge.common.data.EntityDetacher;
+import com.hostfully.technicalchallenge.common.data.EntityExistence;
+import com.hostfully.technicalchallenge.common.domain.BatchItemResult;
 import com.hostfully.technicalchallenge.common.exception.DatesConflictException;
 import com.hostfully.technicalchallenge.common.exception.NotFoundException;
-import com.hostfully.technicalchallenge.service.booking.data.Booking;
-import com.hostfully.technicalchallenge.service.booking.data.BookingRepository;
-import com.hostfully.technicalchallenge.service.booking.data.BookingStatus;
+import com.hostfully.technicalchallenge.common.exception.PreconditionFailedException;
 import com.hostfully.technicalchallenge.service.property.data.Property;
 import com.hostfully.technicalchallenge.service.property.data.PropertyRepository;
 import com.hostfully.technicalchallenge.service.property.data.block.PropertyBlock;
 import com.hostfully.technicalchallenge.service.property.data.block.PropertyBlockRepository;
+import com.hostfully.technicalchallenge.service.property.domain.availability.DateIntervalSet;
+import com.hostfully.technicalchallenge.service.property.domain.availability.OccupancySegment;
+import com.hostfully.technicalchallenge.service.property.domain.availability.OccupancyStatus;
+import com.hostfully.technicalchallenge.service.property.domain.availability.PropertyOccupancyCache;
+import com.hostfully.technicalchallenge.service.property.domain.availability.PropertyWriteLocks;
+import com.hostfully.technicalchallenge.service.property.domain.availability.PropertyOccupancyCalendar;
 import com.hostfully.technicalchallenge.service.user.data.User;
 import com.hostfully.technicalchallenge.service.user.data.UserRepository;
 import com.hostfully.technicalchallenge.util.RandomEntityGenerator;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -30,6 +40,7 @@ import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.AdditionalAnswers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
@@ -43,9 +54,15 @@ class PropertyServiceImplTest {
   @Mock
   private UserRepository userRepository;
   @Mock
+  private EntityExistence entityExistence;
+  @Mock
+  private EntityDetacher entityDetacher;
+  @Mock
   private PropertyBlockRepository propertyBlockRepository;
   @Mock
-  private BookingRepository bookingRepository;
+  private PropertyOccupancyCache occupancyCache;
+  @Mock
+  private PropertyWriteLocks propertyWriteLocks;
   @Spy
   private PropertyMapper propertyMapper = new PropertyMapperImpl();
   @InjectMocks
@@ -81,6 +98,75 @@ class PropertyServiceImplTest {
     assertThat(retrieved).isEqualTo(expected);
   }
 
+  @Test
+  void shouldThrowIllegalArgumentExceptionIfStartDateIsAfterEndDateWhenSearchAvailableProperties() {
+    final PropertySearchCriteria criteria =
+        new PropertySearchCriteria(LocalDate.now().plusDays(1L), LocalDate.now(), 1, null, null, null);
+
+    assertThatThrownBy(() -> propertyService.searchAvailableProperties(criteria, null, 20))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldThrowIllegalArgumentExceptionIfGuestsIsLessThanOneWhenSearchAvailableProperties() {
+    final PropertySearchCriteria criteria =
+        new PropertySearchCriteria(LocalDate.now(), LocalDate.now(), 0, null, null, null);
+
+    assertThatThrownBy(() -> propertyService.searchAvailableProperties(criteria, null, 20))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldThrowIllegalArgumentExceptionIfCursorIsInvalidWhenSearchAvailableProperties() {
+    final PropertySearchCriteria criteria =
+        new PropertySearchCriteria(LocalDate.now(), LocalDate.now(), 1, null, null, null);
+
+    assertThatThrownBy(() -> propertyService.searchAvailableProperties(criteria, "invalid-cursor", 20))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldSearchAvailablePropertiesWithTotalPriceAndNextCursor() {
+    final LocalDate startDate = LocalDate.now();
+    final UUID afterId = UUID.randomUUID();
+
+    //A 3 days stay for 2 guests: at most 60000 / 6 per guest
+    final PropertySearchCriteria criteria =
+        new PropertySearchCriteria(startDate, startDate.plusDays(2L), 2, "Country", "City", 60000L);
+
+    final Property first = RandomEntityGenerator.create(Property.class).withPricePerGuest(10000L);
+    final Property second = RandomEntityGenerator.create(Property.class).withPricePerGuest(5000L);
+    final Property third = RandomEntityGenerator.create(Property.class).withPricePerGuest(7000L);
+
+    doReturn(List.of(first, second, third)).when(propertyRepository).findAvailable(
+        startDate, startDate.plusDays(2L), "Country", "City", 10000L, afterId, 3);
+
+    final PropertySearchPage page =
+        propertyService.searchAvailableProperties(criteria, PropertySearchCursor.encode(afterId), 2);
+
+    assertThat(page.getProperties())
+        .containsExactly(
+            new AvailablePropertyDto(propertyMapper.entityToDto(first), 60000L),
+            new AvailablePropertyDto(propertyMapper.entityToDto(second), 30000L));
+    assertThat(PropertySearchCursor.decode(page.getNextCursor())).isEqualTo(second.getId());
+  }
+
+  @Test
+  void shouldSearchLastPageOfAvailablePropertiesWithoutNextCursor() {
+    final LocalDate startDate = LocalDate.now();
+    final PropertySearchCriteria criteria = new PropertySearchCriteria(startDate, startDate, 1, null, null, null);
+    final Property property = RandomEntityGenerator.create(Property.class).withPricePerGuest(10000L);
+
+    doReturn(List.of(property)).when(propertyRepository).findAvailable(
+        startDate, startDate, null, null, null, null, 21);
+
+    final PropertySearchPage page = propertyService.searchAvailableProperties(criteria, null, 20);
+
+    assertThat(page.getProperties())
+        .containsExactly(new AvailablePropertyDto(propertyMapper.entityToDto(property), 10000L));
+    assertThat(page.getNextCursor()).isNull();
+  }
+
   @Test
   void shouldThrowNullPointerExceptionIfPropertyInfoIsNullWhenCreateProperty() {
     assertThatThrownBy(() -> propertyService.createProperty(null))
@@ -171,7 +257,7 @@ class PropertyServiceImplTest {
     final PropertyDto propertyInfo = RandomEntityGenerator.create(PropertyDto.class)
         .withPricePerGuest(10000L);
 
-    doReturn(Optional.empty()).when(userRepository).findById(any(UUID.class));
+    doReturn(false).when(entityExistence).exists(eq(User.class), any(UUID.class), eq(userRepository));
 
     assertThatThrownBy(() -> propertyService.createProperty(propertyInfo))
         .isInstanceOf(NotFoundException.class);
@@ -182,11 +268,10 @@ class PropertyServiceImplTest {
     final UUID propertyId = UUID.randomUUID();
 
     final PropertyDto propertyInfo = RandomEntityGenerator.create(PropertyDto.class)
-        .withPricePerGuest(10000L);
+        .withPricePerGuest(10000L)
+        .withVersion(null);
 
-    final User user = RandomEntityGenerator.create(User.class);
-
-    doReturn(Optional.of(user)).when(userRepository).findById(any(UUID.class));
+    doReturn(true).when(entityExistence).exists(eq(User.class), any(UUID.class), eq(userRepository));
 
     doAnswer(invocation -> {
 
@@ -201,6 +286,45 @@ class PropertyServiceImplTest {
     assertThat(saved).isEqualTo(expected);
   }
 
+  @Test
+  void shouldThrowNullPointerExceptionIfPropertiesInfoIsNullWhenCreateProperties() {
+    assertThatThrownBy(() -> propertyService.createProperties(null))
+        .isInstanceOf(NullPointerException.class);
+  }
+
+  @Test
+  void shouldCreateOnlyPropertiesWhoseOwnerExistsWhenCreateProperties() {
+    final UUID missingOwnerId = UUID.randomUUID();
+
+    final PropertyDto propertyInfo = RandomEntityGenerator.create(PropertyDto.class)
+        .withId(null)
+        .withPricePerGuest(10000L);
+
+    doReturn(true).when(entityExistence).exists(eq(User.class), eq(propertyInfo.getOwnerUserId()), eq(userRepository));
+    doReturn(false).when(entityExistence).exists(eq(User.class), eq(missingOwnerId), eq(userRepository));
+
+    doAnswer(invocation -> {
+
+      final List<Property> propertiesToBeSaved = invocation.getArgument(0);
+      return propertiesToBeSaved.stream().map(property -> property.withId(UUID.randomUUID())).toList();
+
+    }).when(propertyRepository).saveAll(anyList());
+
+    final List<BatchItemResult<PropertyDto>> results = propertyService.createProperties(List.of(
+        propertyInfo,
+        propertyInfo.withOwnerUserId(missingOwnerId),
+        propertyInfo.withName("Second")));
+
+    assertThat(results).extracting(BatchItemResult::isCreated).containsExactly(true, false, true);
+    assertThat(results.get(1).getError()).isInstanceOf(NotFoundException.class);
+    assertThat(results.get(2).getValue().getName()).isEqualTo("Second");
+    assertThat(results.get(2).getValue().getId()).isNotNull();
+
+    //The owner shared by the created properties is only checked once
+    verify(entityExistence).exists(User.class, propertyInfo.getOwnerUserId(), userRepository);
+    verify(entityDetacher).flushAndDetachAll();
+  }
+
   @Test
   void shouldThrowNullPointerExceptionIfPropertyIdIsNullWhenUpdateProperty() {
     final PropertyDto propertyInfo = RandomEntityGenerator.create(PropertyDto.class)
@@ -331,13 +455,14 @@ class PropertyServiceImplTest {
     final UUID propertyId = UUID.randomUUID();
 
     final PropertyDto propertyInfo = RandomEntityGenerator.create(PropertyDto.class)
-        .withPricePerGuest(10000L);
+        .withPricePerGuest(10000L)
+        .withVersion(null);
 
     final Property property = RandomEntityGenerator.create(Property.class)
             .withId(propertyId);
 
     doReturn(Optional.of(property)).when(propertyRepository).findById(any(UUID.class));
-    doReturn(Optional.empty()).when(userRepository).findById(any(UUID.class));
+    doReturn(false).when(entityExistence).exists(eq(User.class), any(UUID.class), eq(userRepository));
 
     assertThatThrownBy(() -> propertyService.updateProperty(propertyId, propertyInfo))
         .isInstanceOf(NotFoundException.class);
@@ -347,18 +472,16 @@ class PropertyServiceImplTest {
   void shouldUpdateProperty() {
     final UUID propertyId = UUID.randomUUID();
 
-    final PropertyDto propertyInfo = RandomEntityGenerator.create(PropertyDto.class)
-        .withPricePerGuest(10000L);
-
     final Property retrievedProperty = RandomEntityGenerator.create(Property.class)
         .withId(propertyId);
 
-    final User user = RandomEntityGenerator.create(User.class)
-        .withId(propertyInfo.getOwnerUserId());
+    final PropertyDto propertyInfo = RandomEntityGenerator.create(PropertyDto.class)
+        .withPricePerGuest(10000L)
+        .withVersion(retrievedProperty.getVersion());
 
-    doReturn(Optional.of(user)).when(userRepository).findById(any(UUID.class));
+    doReturn(true).when(entityExistence).exists(eq(User.class), eq(propertyInfo.getOwnerUserId()), eq(userRepository));
     doReturn(Optional.of(retrievedProperty)).when(propertyRepository).findById(any(UUID.class));
-    doAnswer(AdditionalAnswers.returnsFirstArg()).when(propertyRepository).save(any(Property.class));
+    doAnswer(AdditionalAnswers.returnsFirstArg()).when(propertyRepository).saveAndFlush(any(Property.class));
 
     final PropertyDto updated = propertyService.updateProperty(propertyId, propertyInfo);
     final PropertyDto expected = propertyInfo.withId(propertyId);
@@ -366,6 +489,25 @@ class PropertyServiceImplTest {
     assertThat(updated).isEqualTo(expected);
   }
 
+  @Test
+  void shouldThrowPreconditionFailedExceptionIfVersionIsStaleWhenUpdateProperty() {
+    final UUID propertyId = UUID.randomUUID();
+
+    final Property retrievedProperty = RandomEntityGenerator.create(Property.class)
+        .withId(propertyId)
+        .withVersion(2L);
+
+    final PropertyDto propertyInfo = RandomEntityGenerator.create(PropertyDto.class)
+        .withVersion(1L);
+
+    doReturn(Optional.of(retrievedProperty)).when(propertyRepository).findById(any(UUID.class));
+
+    assertThatThrownBy(() -> propertyService.updateProperty(propertyId, propertyInfo))
+        .isInstanceOf(PreconditionFailedException.class);
+
+    verify(propertyRepository, never()).saveAndFlush(any(Property.class));
+  }
+
   @Test
   void shouldThrowNullPointerExceptionIfPropertyIdIsNullWhenDeleteProperty() {
     assertThatThrownBy(() -> propertyService.deleteProperty(null))
@@ -380,6 +522,7 @@ class PropertyServiceImplTest {
 
     verify(propertyBlockRepository).deleteByPropertyId(any(UUID.class));
     verify(propertyRepository).deleteById(any(UUID.class));
+    verify(occupancyCache).evict(propertyId);
   }
 
   @Test
@@ -410,68 +553,123 @@ class PropertyServiceImplTest {
   void shouldThrowNotFoundExceptionIfPropertyDoesntExistWhenBlockPropertyDates() {
     final UUID propertyId = UUID.randomUUID();
 
-    doReturn(Optional.empty()).when(propertyRepository).findById(any(UUID.class));
+    doReturn(false).when(entityExistence).exists(eq(Property.class), any(UUID.class), eq(propertyRepository));
 
     assertThatThrownBy(() -> propertyService.blockPropertyDates(propertyId, Set.of(LocalDate.now()), null))
         .isInstanceOf(NotFoundException.class);
   }
 
   @Test
-  void shouldUpdateExistingPropertyBlockIfDateIsAlreadyBlockedWhenBlockPropertyDates() {
+  void shouldThrowIllegalArgumentExceptionIfDatesAreTooFarWhenBlockPropertyDates() {
     final UUID propertyId = UUID.randomUUID();
 
-    final Property property = RandomEntityGenerator.create(Property.class)
-            .withId(propertyId);
+    assertThatThrownBy(() -> propertyService.blockPropertyDates(
+        propertyId, Set.of(LocalDate.now(), LocalDate.now().plusYears(11L)), null))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    assertThatThrownBy(() -> propertyService.blockPropertyDates(propertyId, Set.of(LocalDate.MIN), null))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    verifyNoInteractions(propertyRepository, propertyBlockRepository, occupancyCache);
+  }
+
+  @Test
+  void shouldUpdateExistingPropertyBlockIfDateIsAlreadyBlockedWhenBlockPropertyDates() {
+    final UUID propertyId = UUID.randomUUID();
 
     final PropertyBlock propertyBlock = RandomEntityGenerator.create(PropertyBlock.class)
         .withPropertyId(propertyId)
-        .withDate(LocalDate.now());
+        .withStartDate(LocalDate.now())
+        .withEndDate(LocalDate.now());
 
-    doReturn(Optional.of(property)).when(propertyRepository).findById(any(UUID.class));
+    final PropertyOccupancyCalendar calendar = new PropertyOccupancyCalendar();
+    calendar.markBooked(LocalDate.now(), LocalDate.now());
 
-    doReturn(Optional.of(propertyBlock)).when(propertyBlockRepository)
-        .findByPropertyIdAndDate(any(UUID.class), any(LocalDate.class));
+    doReturn(true).when(entityExistence).exists(eq(Property.class), eq(propertyId), eq(propertyRepository));
+    doReturn(calendar).when(occupancyCache).retrieveCalendar(any(UUID.class));
+    doReturn(List.of(propertyBlock)).when(propertyBlockRepository)
+        .findOverlappingPeriod(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
 
     propertyService.blockPropertyDates(propertyId, Set.of(LocalDate.now()), "new reason");
 
-    verify(propertyBlockRepository).save(propertyBlock.withReason("new reason"));
+    verify(propertyBlockRepository).deleteAllByIdInBatch(List.of(propertyBlock.getId()));
+
+    final ArgumentCaptor<List<PropertyBlock>> captor = ArgumentCaptor.forClass(List.class);
+    verify(propertyBlockRepository).saveAll(captor.capture());
+
+    assertThat(captor.getValue())
+        .singleElement()
+        .satisfies(block -> {
+          assertThat(block.getStartDate()).isEqualTo(LocalDate.now());
+          assertThat(block.getEndDate()).isEqualTo(LocalDate.now());
+          assertThat(block.getReason()).isEqualTo("new reason");
+        });
   }
 
   @Test
   void shouldThrowDatesConflictExceptionIfDateHasBookingsWhenBlockPropertyDates() {
     final UUID propertyId = UUID.randomUUID();
 
-    final Property property = RandomEntityGenerator.create(Property.class)
-        .withId(propertyId);
+    final PropertyOccupancyCalendar calendar = new PropertyOccupancyCalendar();
+    calendar.markBooked(LocalDate.now().minusDays(1L), LocalDate.now().plusDays(1L));
 
-    final Booking booking = RandomEntityGenerator.create(Booking.class)
-        .withPropertyId(propertyId)
-        .withStatus(BookingStatus.BOOKED)
-        .withStartDate(LocalDate.now().minusDays(1L))
-        .withEndDate(LocalDate.now().plusDays(1L));
-
-    doReturn(Optional.of(property)).when(propertyRepository).findById(any(UUID.class));
-    doReturn(Optional.empty()).when(propertyBlockRepository).findByPropertyIdAndDate(any(UUID.class), any(LocalDate.class));
-    doReturn(List.of(booking)).when(bookingRepository).findNonCanceledBookingsOverlappingWithDates(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
+    doReturn(true).when(entityExistence).exists(eq(Property.class), eq(propertyId), eq(propertyRepository));
+    doReturn(Collections.emptyList()).when(propertyBlockRepository)
+        .findOverlappingPeriod(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
+    doReturn(calendar).when(occupancyCache).retrieveCalendar(any(UUID.class));
 
     assertThatThrownBy(() -> propertyService.blockPropertyDates(propertyId, Set.of(LocalDate.now()), null))
         .isInstanceOf(DatesConflictException.class);
+
+    verify(propertyBlockRepository, never()).saveAll(anyList());
   }
 
   @Test
   void shouldBlockPropertyDate() {
     final UUID propertyId = UUID.randomUUID();
 
-    final Property property = RandomEntityGenerator.create(Property.class)
-        .withId(propertyId);
-
-    doReturn(Optional.of(property)).when(propertyRepository).findById(any(UUID.class));
-    doReturn(Optional.empty()).when(propertyBlockRepository).findByPropertyIdAndDate(any(UUID.class), any(LocalDate.class));
-    doReturn(Collections.emptyList()).when(bookingRepository).findNonCanceledBookingsOverlappingWithDates(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
+    doReturn(true).when(entityExistence).exists(eq(Property.class), eq(propertyId), eq(propertyRepository));
+    doReturn(Collections.emptyList()).when(propertyBlockRepository)
+        .findOverlappingPeriod(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
+    doReturn(new PropertyOccupancyCalendar()).when(occupancyCache).retrieveCalendar(any(UUID.class));
 
     propertyService.blockPropertyDates(propertyId, Set.of(LocalDate.now()), null);
 
-    verify(propertyBlockRepository).save(any(PropertyBlock.class));
+    verify(propertyBlockRepository).saveAll(anyList());
+    verify(occupancyCache).markBlocked(propertyId, DateIntervalSet.builder().add(LocalDate.now()).build());
+  }
+
+  @Test
+  void shouldCoalesceAdjacentBlocksWithSameReasonWhenBlockPropertyDates() {
+    final UUID propertyId = UUID.randomUUID();
+    final LocalDate today = LocalDate.now();
+
+    final PropertyBlock existingBlock = RandomEntityGenerator.create(PropertyBlock.class)
+        .withPropertyId(propertyId)
+        .withStartDate(today.plusDays(3L))
+        .withEndDate(today.plusDays(5L))
+        .withReason("maintenance");
+
+    doReturn(true).when(entityExistence).exists(eq(Property.class), eq(propertyId), eq(propertyRepository));
+    doReturn(List.of(existingBlock)).when(propertyBlockRepository)
+        .findOverlappingPeriod(propertyId, today.minusDays(1L), today.plusDays(3L));
+    doReturn(new PropertyOccupancyCalendar()).when(occupancyCache).retrieveCalendar(any(UUID.class));
+
+    propertyService.blockPropertyDates(propertyId, Set.of(today, today.plusDays(1L), today.plusDays(2L)), "maintenance");
+
+    verify(propertyBlockRepository).deleteAllByIdInBatch(List.of(existingBlock.getId()));
+
+    final ArgumentCaptor<List<PropertyBlock>> captor = ArgumentCaptor.forClass(List.class);
+    verify(propertyBlockRepository).saveAll(captor.capture());
+
+    assertThat(captor.getValue())
+        .singleElement()
+        .satisfies(block -> {
+          assertThat(block.getPropertyId()).isEqualTo(propertyId);
+          assertThat(block.getStartDate()).isEqualTo(today);
+          assertThat(block.getEndDate()).isEqualTo(today.plusDays(5L));
+          assertThat(block.getReason()).isEqualTo("maintenance");
+        });
   }
 
   @Test
@@ -502,9 +700,28 @@ class PropertyServiceImplTest {
   void shouldUnblockPropertyDates() {
     final UUID propertyId = UUID.randomUUID();
 
+    final PropertyBlock existingBlock = RandomEntityGenerator.create(PropertyBlock.class)
+        .withPropertyId(propertyId)
+        .withStartDate(LocalDate.now().minusDays(2L))
+        .withEndDate(LocalDate.now().plusDays(2L));
+
+    doReturn(List.of(existingBlock)).when(propertyBlockRepository)
+        .findOverlappingPeriod(propertyId, LocalDate.now(), LocalDate.now());
+
     propertyService.unblockPropertyDates(propertyId, Set.of(LocalDate.now()));
 
-    verify(propertyBlockRepository).deleteByPropertyIdAndDateIn(any(UUID.class), any(ArrayList.class));
+    verify(propertyBlockRepository).deleteAllByIdInBatch(List.of(existingBlock.getId()));
+
+    final ArgumentCaptor<List<PropertyBlock>> captor = ArgumentCaptor.forClass(List.class);
+    verify(propertyBlockRepository).saveAll(captor.capture());
+
+    assertThat(captor.getValue())
+        .extracting(PropertyBlock::getStartDate, PropertyBlock::getEndDate, PropertyBlock::getReason)
+        .containsExactly(
+            tuple(LocalDate.now().minusDays(2L), LocalDate.now().minusDays(1L), existingBlock.getReason()),
+            tuple(LocalDate.now().plusDays(1L), LocalDate.now().plusDays(2L), existingBlock.getReason()));
+
+    verify(occupancyCache).unmarkBlocked(propertyId, DateIntervalSet.builder().add(LocalDate.now()).build());
   }
 
   @Test
@@ -564,7 +781,7 @@ class PropertyServiceImplTest {
             .toList();
 
     doReturn(propertyBlocks).when(propertyBlockRepository)
-        .findByPropertyIdAndDateBetween(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
+        .findOverlappingPeriod(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
 
     final List<PropertyBlockDto> retrieved =
         propertyService.retrievePropertyBlockedDates(
@@ -617,21 +834,11 @@ class PropertyServiceImplTest {
   void shouldRetrievePropertyUnavailableDatesForPeriod() {
     final UUID propertyId = UUID.randomUUID();
 
-    final PropertyBlock propertyBlock = RandomEntityGenerator.create(PropertyBlock.class)
-        .withDate(LocalDate.now())
-        .withPropertyId(propertyId);
-
-    final Booking booking = RandomEntityGenerator.create(Booking.class)
-        .withPropertyId(propertyId)
-        .withStartDate(LocalDate.now().plusDays(1L))
-        .withEndDate(LocalDate.now().plusDays(1L))
-        .withStatus(BookingStatus.BOOKED);
-
-    doReturn(List.of(propertyBlock)).when(propertyBlockRepository)
-        .findByPropertyIdAndDateBetween(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
+    final PropertyOccupancyCalendar calendar = new PropertyOccupancyCalendar();
+    calendar.markBlocked(LocalDate.now(), LocalDate.now());
+    calendar.markBooked(LocalDate.now().plusDays(1L), LocalDate.now().plusDays(1L));
 
-    doReturn(List.of(booking)).when(bookingRepository)
-        .findNonCanceledBookingsOverlappingWithDates(any(UUID.class), any(LocalDate.class), any(LocalDate.class));
+    doReturn(calendar).when(occupancyCache).retrieveCalendar(any(UUID.class));
 
     final List<LocalDate> retrieved =
         propertyService.retrievePropertyUnavailableDatesForPeriod(
@@ -643,4 +850,51 @@ class PropertyServiceImplTest {
 
     assertThat(retrieved).hasSameElementsAs(expected);
   }
+
+  @Test
+  void shouldThrowIllegalArgumentExceptionIfStartDateIsAfterEndDateWhenRetrievePropertyCalendar() {
+    assertThatThrownBy(() -> propertyService.retrievePropertyCalendar(
+            UUID.randomUUID(),
+            LocalDate.now().plusDays(1L),
+            LocalDate.now()))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldThrowNotFoundExceptionIfPropertyDoesntExistWhenRetrievePropertyCalendar() {
+    doReturn(false).when(entityExistence).exists(eq(Property.class), any(UUID.class), eq(propertyRepository));
+
+    assertThatThrownBy(() -> propertyService.retrievePropertyCalendar(
+            UUID.randomUUID(),
+            LocalDate.now(),
+            LocalDate.now().plusDays(30L)))
+        .isInstanceOf(NotFoundException.class);
+
+    verifyNoInteractions(occupancyCache);
+  }
+
+  @Test
+  void shouldRetrievePropertyCalendar() {
+    final UUID propertyId = UUID.randomUUID();
+    final LocalDate today = LocalDate.now();
+
+    final PropertyOccupancyCalendar calendar = new PropertyOccupancyCalendar();
+    calendar.markBooked(today.plusDays(1L), today.plusDays(2L));
+    calendar.markBlocked(today.plusDays(3L), today.plusDays(3L));
+
+    doReturn(true).when(entityExistence).exists(Property.class, propertyId, propertyRepository);
+    doReturn(calendar).when(occupancyCache).retrieveCalendar(propertyId);
+
+    final PropertyCalendarDto retrieved =
+        propertyService.retrievePropertyCalendar(propertyId, today, today.plusDays(9L));
+
+    assertThat(retrieved.getSegments())
+        .extracting(OccupancySegment::getStatus, OccupancySegment::getStartDate, OccupancySegment::getEndDate)
+        .containsExactly(
+            tuple(OccupancyStatus.FREE, today, today),
+            tuple(OccupancyStatus.BOOKED, today.plusDays(1L), today.plusDays(2L)),
+            tuple(OccupancyStatus.BLOCKED, today.plusDays(3L), today.plusDays(3L)),
+            tuple(OccupancyStatus.FREE, today.plusDays(4L), today.plusDays(9L)));
+    assertThat(retrieved.getVersion()).isEqualTo(calendar.version());
+  }
 }
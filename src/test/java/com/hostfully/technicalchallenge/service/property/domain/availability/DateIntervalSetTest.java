@@ -0,0 +1,78 @@
+package com.hostfully.technicalchallenge.service.property.domain.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DateIntervalSetTest {
+
+  private static final LocalDate TODAY = LocalDate.now();
+
+  @Test
+  void shouldBeEmptyIfNoIntervalsWereAdded() {
+    final DateIntervalSet intervals = DateIntervalSet.builder().build();
+
+    assertThat(intervals.isEmpty()).isTrue();
+    assertThat(intervals.overlaps(TODAY, TODAY.plusDays(365L))).isFalse();
+    assertThat(intervals.datesWithin(TODAY, TODAY.plusDays(365L))).isEmpty();
+  }
+
+  @Test
+  void shouldMergeOverlappingAndAdjacentIntervals() {
+    final DateIntervalSet intervals = DateIntervalSet.builder()
+        .add(TODAY.plusDays(5L), TODAY.plusDays(8L))
+        .add(TODAY, TODAY.plusDays(2L))
+        .add(TODAY.plusDays(3L))
+        .add(TODAY.plusDays(1L), TODAY.plusDays(1L))
+        .add(TODAY.plusDays(20L), TODAY.plusDays(25L))
+        .add(TODAY.plusDays(21L), TODAY.plusDays(22L))
+        .build();
+
+    assertThat(intervals.intervalCount()).isEqualTo(3);
+
+    assertThat(intervals.startEpochDay(0)).isEqualTo(TODAY.toEpochDay());
+    assertThat(intervals.endEpochDayExclusive(0)).isEqualTo(TODAY.plusDays(4L).toEpochDay());
+
+    assertThat(intervals.startEpochDay(1)).isEqualTo(TODAY.plusDays(5L).toEpochDay());
+    assertThat(intervals.endEpochDayExclusive(1)).isEqualTo(TODAY.plusDays(9L).toEpochDay());
+
+    assertThat(intervals.startEpochDay(2)).isEqualTo(TODAY.plusDays(20L).toEpochDay());
+    assertThat(intervals.endEpochDayExclusive(2)).isEqualTo(TODAY.plusDays(26L).toEpochDay());
+  }
+
+  @Test
+  void shouldDetectOverlapsWithInclusiveBounds() {
+    final DateIntervalSet intervals = DateIntervalSet.builder()
+        .add(TODAY.plusDays(2L), TODAY.plusDays(4L))
+        .add(TODAY.plusDays(10L), TODAY.plusDays(10L))
+        .build();
+
+    assertThat(intervals.overlaps(TODAY, TODAY.plusDays(1L))).isFalse();
+    assertThat(intervals.overlaps(TODAY, TODAY.plusDays(2L))).isTrue();
+    assertThat(intervals.overlaps(TODAY.plusDays(4L), TODAY.plusDays(6L))).isTrue();
+    assertThat(intervals.overlaps(TODAY.plusDays(5L), TODAY.plusDays(9L))).isFalse();
+    assertThat(intervals.overlaps(TODAY.plusDays(9L), TODAY.plusDays(11L))).isTrue();
+    assertThat(intervals.overlaps(TODAY.plusDays(11L), TODAY.plusDays(30L))).isFalse();
+    assertThat(intervals.overlaps(TODAY.minusDays(30L), TODAY.plusDays(30L))).isTrue();
+  }
+
+  @Test
+  void shouldReturnOnlyDatesWithinTheRequestedPeriod() {
+    final DateIntervalSet intervals = DateIntervalSet.builder()
+        .add(TODAY.minusDays(3L), TODAY.plusDays(1L))
+        .add(TODAY.plusDays(4L))
+        .add(TODAY.plusDays(6L), TODAY.plusDays(20L))
+        .build();
+
+    final List<LocalDate> dates = intervals.datesWithin(TODAY, TODAY.plusDays(7L));
+
+    assertThat(dates).containsExactly(
+        TODAY,
+        TODAY.plusDays(1L),
+        TODAY.plusDays(4L),
+        TODAY.plusDays(6L),
+        TODAY.plusDays(7L));
+  }
+}
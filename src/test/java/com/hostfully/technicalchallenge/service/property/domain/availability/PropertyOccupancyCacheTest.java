@@ -0,0 +1,150 @@
+package com.hostfully.technicalchallenge.service.property.domain.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.hostfully.technicalchallenge.service.booking.data.BookingPeriod;
+import com.hostfully.technicalchallenge.service.booking.data.BookingRepository;
+import com.hostfully.technicalchallenge.service.booking.data.BookingStatus;
+import com.hostfully.technicalchallenge.service.property.data.block.PropertyBlockPeriod;
+import com.hostfully.technicalchallenge.service.property.data.block.PropertyBlockRepository;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PropertyOccupancyCacheTest {
+
+  private static final long MAXIMUM_SIZE = 4L;
+
+  @Mock
+  private BookingRepository bookingRepository;
+  @Mock
+  private PropertyBlockRepository propertyBlockRepository;
+
+  private PropertyOccupancyCache occupancyCache;
+
+  @BeforeEach
+  void setUp() {
+    occupancyCache = new PropertyOccupancyCache(bookingRepository, propertyBlockRepository, MAXIMUM_SIZE);
+  }
+
+  @Test
+  void shouldThrowNullPointerExceptionIfPropertyIdIsNullWhenRetrieveCalendar() {
+    assertThatThrownBy(() -> occupancyCache.retrieveCalendar(null))
+        .isInstanceOf(NullPointerException.class);
+  }
+
+  @Test
+  void shouldLoadCalendarFromRepositoriesOnlyOnce() {
+    final UUID propertyId = UUID.randomUUID();
+
+    final BookingPeriod booking = new BookingPeriod(LocalDate.now(), LocalDate.now().plusDays(2L));
+
+    final PropertyBlockPeriod block = new PropertyBlockPeriod(LocalDate.now().plusDays(5L), LocalDate.now().plusDays(6L));
+
+    doReturn(List.of(booking)).when(bookingRepository)
+        .findPeriodsByPropertyIdAndStatusNot(any(UUID.class), any(BookingStatus.class));
+    doReturn(List.of(block)).when(propertyBlockRepository).findPeriodsByPropertyId(any(UUID.class));
+
+    final PropertyOccupancyCalendar calendar = occupancyCache.retrieveCalendar(propertyId);
+
+    assertThat(occupancyCache.retrieveCalendar(propertyId)).isSameAs(calendar);
+    assertThat(calendar.isBooked(LocalDate.now().plusDays(2L), LocalDate.now().plusDays(2L))).isTrue();
+    assertThat(calendar.isBlocked(LocalDate.now().plusDays(5L), LocalDate.now().plusDays(5L))).isTrue();
+    assertThat(calendar.isBlocked(LocalDate.now().plusDays(6L), LocalDate.now().plusDays(6L))).isTrue();
+    assertThat(calendar.isAvailable(LocalDate.now().plusDays(3L), LocalDate.now().plusDays(4L))).isTrue();
+
+    verify(bookingRepository, times(1)).findPeriodsByPropertyIdAndStatusNot(propertyId, BookingStatus.CANCELED);
+    verify(propertyBlockRepository, times(1)).findPeriodsByPropertyId(propertyId);
+  }
+
+  @Test
+  void shouldApplyChangesToLoadedCalendar() {
+    final UUID propertyId = UUID.randomUUID();
+
+    doReturn(Collections.emptyList()).when(bookingRepository)
+        .findPeriodsByPropertyIdAndStatusNot(any(UUID.class), any(BookingStatus.class));
+    doReturn(Collections.emptyList()).when(propertyBlockRepository).findPeriodsByPropertyId(any(UUID.class));
+
+    final PropertyOccupancyCalendar calendar = occupancyCache.retrieveCalendar(propertyId);
+
+    occupancyCache.markBooked(propertyId, LocalDate.now(), LocalDate.now().plusDays(1L));
+    occupancyCache.markBlocked(propertyId, DateIntervalSet.builder().add(LocalDate.now().plusDays(3L)).build());
+
+    assertThat(calendar.isBooked(LocalDate.now(), LocalDate.now())).isTrue();
+    assertThat(calendar.isBlocked(LocalDate.now().plusDays(3L), LocalDate.now().plusDays(3L))).isTrue();
+
+    occupancyCache.unmarkBooked(propertyId, LocalDate.now(), LocalDate.now().plusDays(1L));
+    occupancyCache.unmarkBlocked(propertyId, DateIntervalSet.builder().add(LocalDate.now().plusDays(3L)).build());
+
+    assertThat(calendar.isAvailable(LocalDate.now(), LocalDate.now().plusDays(3L))).isTrue();
+  }
+
+  @Test
+  void shouldNotLoadCalendarWhenChangingPropertyThatIsNotCached() {
+    final UUID propertyId = UUID.randomUUID();
+
+    occupancyCache.markBooked(propertyId, LocalDate.now(), LocalDate.now().plusDays(1L));
+    occupancyCache.markBlocked(propertyId, DateIntervalSet.builder().add(LocalDate.now()).build());
+
+    verifyNoInteractions(bookingRepository, propertyBlockRepository);
+  }
+
+  @Test
+  void shouldReloadCalendarAfterEviction() {
+    final UUID propertyId = UUID.randomUUID();
+
+    doReturn(Collections.emptyList()).when(bookingRepository)
+        .findPeriodsByPropertyIdAndStatusNot(any(UUID.class), any(BookingStatus.class));
+    doReturn(Collections.emptyList()).when(propertyBlockRepository).findPeriodsByPropertyId(any(UUID.class));
+
+    final PropertyOccupancyCalendar calendar = occupancyCache.retrieveCalendar(propertyId);
+
+    occupancyCache.evict(propertyId);
+
+    assertThat(occupancyCache.retrieveCalendar(propertyId)).isNotSameAs(calendar);
+  }
+
+  @Test
+  void shouldKeepAtMostTheMaximumSizeOfCalendars() {
+    doReturn(Collections.emptyList()).when(bookingRepository)
+        .findPeriodsByPropertyIdAndStatusNot(any(UUID.class), any(BookingStatus.class));
+    doReturn(Collections.emptyList()).when(propertyBlockRepository).findPeriodsByPropertyId(any(UUID.class));
+
+    final List<UUID> propertyIds = IntStream.range(0, 100).mapToObj(i -> UUID.randomUUID()).toList();
+    final Map<UUID, PropertyOccupancyCalendar> calendars = new HashMap<>();
+
+    propertyIds.forEach(propertyId -> calendars.put(propertyId, occupancyCache.retrieveCalendar(propertyId)));
+
+    //The evicted calendars are loaded again, the ones still cached are returned as they are
+    final long cached = propertyIds.stream()
+        .filter(propertyId -> occupancyCache.retrieveCalendar(propertyId) == calendars.get(propertyId))
+        .count();
+
+    assertThat(cached).isLessThanOrEqualTo(MAXIMUM_SIZE);
+    verify(bookingRepository, times(200 - (int) cached))
+        .findPeriodsByPropertyIdAndStatusNot(any(UUID.class), any(BookingStatus.class));
+  }
+
+  @Test
+  void shouldRejectNonPositiveMaximumSize() {
+    assertThatThrownBy(() -> new PropertyOccupancyCache(bookingRepository, propertyBlockRepository, 0L))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
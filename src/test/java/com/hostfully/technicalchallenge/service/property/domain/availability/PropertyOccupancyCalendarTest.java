@@ -0,0 +1,203 @@
+package com.hostfully.technicalchallenge.service.property.domain.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+
+class PropertyOccupancyCalendarTest {
+
+  private static final LocalDate TODAY = LocalDate.now();
+
+  @Test
+  void shouldBeAvailableIfNothingIsMarked() {
+    final PropertyOccupancyCalendar calendar = new PropertyOccupancyCalendar();
+
+    assertThat(calendar.isAvailable(TODAY, TODAY.plusDays(365L))).isTrue();
+    assertThat(calendar.unavailableIntervals(TODAY, TODAY.plusDays(365L)).isEmpty()).isTrue();
+  }
+
+  @Test
+  void shouldKeepBookedAndBlockedDaysApart() {
+    final PropertyOccupancyCalendar calendar = new PropertyOccupancyCalendar();
+
+    calendar.markBooked(TODAY, TODAY.plusDays(2L));
+    calendar.markBlocked(TODAY.plusDays(5L), TODAY.plusDays(5L));
+
+    assertThat(calendar.isBooked(TODAY.plusDays(2L), TODAY.plusDays(10L))).isTrue();
+    assertThat(calendar.isBooked(TODAY.plusDays(3L), TODAY.plusDays(10L))).isFalse();
+    assertThat(calendar.isBlocked(TODAY, TODAY.plusDays(4L))).isFalse();
+    assertThat(calendar.isBlocked(TODAY, TODAY.plusDays(5L))).isTrue();
+    assertThat(calendar.isAvailable(TODAY.plusDays(3L), TODAY.plusDays(4L))).isTrue();
+    assertThat(calendar.isAvailable(TODAY.plusDays(3L), TODAY.plusDays(5L))).isFalse();
+  }
+
+  @Test
+  void shouldHandleRangesSpanningSeveralWordsInBothDirections() {
+    final PropertyOccupancyCalendar calendar = new PropertyOccupancyCalendar();
+
+    calendar.markBooked(TODAY.plusDays(300L), TODAY.plusDays(310L));
+    calendar.markBlocked(TODAY.minusDays(400L), TODAY.minusDays(200L));
+    calendar.markBooked(TODAY.plusDays(1000L), TODAY.plusDays(1000L));
+
+    assertThat(calendar.isAvailable(TODAY.minusDays(199L), TODAY.plusDays(299L))).isTrue();
+    assertThat(calendar.isAvailable(TODAY.minusDays(250L), TODAY.minusDays(250L))).isFalse();
+    assertThat(calendar.isAvailable(TODAY.plusDays(311L), TODAY.plusDays(999L))).isTrue();
+    assertThat(calendar.isBooked(TODAY.plusDays(1000L), TODAY.plusDays(5000L))).isTrue();
+
+    final DateIntervalSet unavailable = calendar.unavailableIntervals(TODAY.minusDays(1000L), TODAY.plusDays(1000L));
+
+    assertThat(unavailable.intervalCount()).isEqualTo(3);
+    assertThat(unavailable.startEpochDay(0)).isEqualTo(TODAY.minusDays(400L).toEpochDay());
+    assertThat(unavailable.endEpochDayExclusive(0)).isEqualTo(TODAY.minusDays(199L).toEpochDay());
+    assertThat(unavailable.startEpochDay(1)).isEqualTo(TODAY.plusDays(300L).toEpochDay());
+    assertThat(unavailable.endEpochDayExclusive(1)).isEqualTo(TODAY.plusDays(311L).toEpochDay());
+    assertThat(unavailable.startEpochDay(2)).isEqualTo(TODAY.plusDays(1000L).toEpochDay());
+    assertThat(unavailable.endEpochDayExclusive(2)).isEqualTo(TODAY.plusDays(1001L).toEpochDay());
+  }
+
+  @Test
+  void shouldClipUnavailableIntervalsToTheRequestedPeriod() {
+    final PropertyOccupancyCalendar calendar = new PropertyOccupancyCalendar();
+
+    calendar.markBooked(TODAY.minusDays(10L), TODAY.plusDays(1L));
+    calendar.markBlocked(TODAY.plusDays(2L), TODAY.plusDays(3L));
+
+    assertThat(calendar.unavailableIntervals(TODAY, TODAY.plusDays(10L)).datesWithin(TODAY, TODAY.plusDays(10L)))
+        .containsExactly(TODAY, TODAY.plusDays(1L), TODAY.plusDays(2L), TODAY.plusDays(3L));
+  }
+
+  @Test
+  void shouldFreeDaysWhenUnmarked() {
+    final PropertyOccupancyCalendar calendar = new PropertyOccupancyCalendar();
+
+    calendar.markBooked(TODAY, TODAY.plusDays(100L));
+    calendar.markBlocked(TODAY.plusDays(50L), TODAY.plusDays(50L));
+
+    calendar.unmarkBooked(TODAY, TODAY.plusDays(100L));
+
+    assertThat(calendar.isBooked(TODAY, TODAY.plusDays(100L))).isFalse();
+    assertThat(calendar.isBlocked(TODAY.plusDays(50L), TODAY.plusDays(50L))).isTrue();
+
+    calendar.unmarkBlocked(TODAY.plusDays(50L), TODAY.plusDays(50L));
+
+    assertThat(calendar.isAvailable(TODAY.minusDays(1000L), TODAY.plusDays(1000L))).isTrue();
+  }
+
+  @Test
+  void shouldMarkHalfOpenEpochDayRanges() {
+    final PropertyOccupancyCalendar calendar = new PropertyOccupancyCalendar();
+
+    calendar.markBookedDays(TODAY.toEpochDay(), TODAY.plusDays(2L).toEpochDay());
+    calendar.markBlockedDays(TODAY.plusDays(5L).toEpochDay(), TODAY.plusDays(7L).toEpochDay());
+
+    assertThat(calendar.isBooked(TODAY, TODAY.plusDays(1L))).isTrue();
+    assertThat(calendar.isAvailable(TODAY.plusDays(2L), TODAY.plusDays(4L))).isTrue();
+    assertThat(calendar.isBlocked(TODAY.plusDays(6L), TODAY.plusDays(6L))).isTrue();
+    assertThat(calendar.isAvailable(TODAY.plusDays(7L), TODAY.plusDays(7L))).isTrue();
+
+    calendar.unmarkBlockedDays(TODAY.plusDays(5L).toEpochDay(), TODAY.plusDays(6L).toEpochDay());
+
+    assertThat(calendar.isAvailable(TODAY.plusDays(5L), TODAY.plusDays(5L))).isTrue();
+    assertThat(calendar.isBlocked(TODAY.plusDays(6L), TODAY.plusDays(6L))).isTrue();
+  }
+
+  @Test
+  void shouldSplitThePeriodIntoClippedSegments() {
+    final PropertyOccupancyCalendar calendar = new PropertyOccupancyCalendar();
+
+    calendar.markBooked(TODAY.minusDays(10L), TODAY.plusDays(1L));
+    calendar.markBooked(TODAY.plusDays(2L), TODAY.plusDays(3L));
+    calendar.markBlocked(TODAY.plusDays(4L), TODAY.plusDays(100L));
+    calendar.markBooked(TODAY.plusDays(150L), TODAY.plusDays(400L));
+
+    assertThat(calendar.segments(TODAY, TODAY.plusDays(199L)))
+        .containsExactly(
+            new OccupancySegment(OccupancyStatus.BOOKED, TODAY, TODAY.plusDays(3L)),
+            new OccupancySegment(OccupancyStatus.BLOCKED, TODAY.plusDays(4L), TODAY.plusDays(100L)),
+            new OccupancySegment(OccupancyStatus.FREE, TODAY.plusDays(101L), TODAY.plusDays(149L)),
+            new OccupancySegment(OccupancyStatus.BOOKED, TODAY.plusDays(150L), TODAY.plusDays(199L)));
+  }
+
+  @Test
+  void shouldReportDaysThatAreBothBookedAndBlockedAsBlockedSegments() {
+    final PropertyOccupancyCalendar calendar = new PropertyOccupancyCalendar();
+
+    calendar.markBooked(TODAY, TODAY.plusDays(9L));
+    calendar.markBlocked(TODAY.plusDays(3L), TODAY.plusDays(4L));
+
+    assertThat(calendar.segments(TODAY.minusDays(2L), TODAY.plusDays(11L)))
+        .containsExactly(
+            new OccupancySegment(OccupancyStatus.FREE, TODAY.minusDays(2L), TODAY.minusDays(1L)),
+            new OccupancySegment(OccupancyStatus.BOOKED, TODAY, TODAY.plusDays(2L)),
+            new OccupancySegment(OccupancyStatus.BLOCKED, TODAY.plusDays(3L), TODAY.plusDays(4L)),
+            new OccupancySegment(OccupancyStatus.BOOKED, TODAY.plusDays(5L), TODAY.plusDays(9L)),
+            new OccupancySegment(OccupancyStatus.FREE, TODAY.plusDays(10L), TODAY.plusDays(11L)));
+  }
+
+  @Test
+  void shouldReturnASingleFreeSegmentIfNothingIsMarked() {
+    assertThat(new PropertyOccupancyCalendar().segments(TODAY, TODAY.plusDays(364L)))
+        .containsExactly(new OccupancySegment(OccupancyStatus.FREE, TODAY, TODAY.plusDays(364L)));
+  }
+
+  @Test
+  void shouldChangeTheVersionOnEveryChange() {
+    final PropertyOccupancyCalendar calendar = new PropertyOccupancyCalendar();
+    final String initial = calendar.version();
+
+    calendar.markBooked(TODAY, TODAY.plusDays(2L));
+    final String booked = calendar.version();
+
+    calendar.unmarkBooked(TODAY, TODAY.plusDays(2L));
+
+    assertThat(booked).isNotEqualTo(initial);
+    assertThat(calendar.version()).isNotEqualTo(initial).isNotEqualTo(booked);
+    assertThat(calendar.version()).isEqualTo(calendar.version());
+  }
+
+  @Test
+  void shouldNotShareVersionsBetweenCalendars() {
+    final PropertyOccupancyCalendar first = new PropertyOccupancyCalendar();
+    final PropertyOccupancyCalendar second = new PropertyOccupancyCalendar();
+
+    first.markBlocked(TODAY, TODAY);
+    second.markBlocked(TODAY, TODAY);
+
+    assertThat(first.version()).isNotEqualTo(second.version());
+  }
+
+  @Test
+  void shouldRejectChangesMakingTheCalendarSpanTooManyDays() {
+    final PropertyOccupancyCalendar calendar = new PropertyOccupancyCalendar();
+
+    calendar.markBooked(TODAY, TODAY.plusDays(2L));
+    final String version = calendar.version();
+
+    assertThatThrownBy(() -> calendar.markBlocked(LocalDate.of(999_999, 1, 1), LocalDate.of(999_999, 1, 1)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> calendar.markBooked(LocalDate.MIN, TODAY))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new PropertyOccupancyCalendar().markBooked(LocalDate.MIN, LocalDate.MAX))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    //The calendar is left as it was
+    assertThat(calendar.version()).isEqualTo(version);
+    assertThat(calendar.isBooked(TODAY, TODAY.plusDays(2L))).isTrue();
+    assertThat(calendar.isAvailable(TODAY.plusDays(3L), LocalDate.MAX)).isTrue();
+  }
+
+  @Test
+  void shouldSpanTheCalendarBoundsInBothDirections() {
+    final PropertyOccupancyCalendar calendar = new PropertyOccupancyCalendar();
+    final LocalDate earliest = TODAY.minusYears(CalendarBounds.MAX_YEARS_FROM_TODAY);
+    final LocalDate latest = TODAY.plusYears(CalendarBounds.MAX_YEARS_FROM_TODAY);
+
+    calendar.markBlocked(earliest, earliest);
+    calendar.markBooked(latest, latest);
+
+    assertThat(calendar.isBlocked(earliest, earliest)).isTrue();
+    assertThat(calendar.isBooked(latest, latest)).isTrue();
+  }
+}
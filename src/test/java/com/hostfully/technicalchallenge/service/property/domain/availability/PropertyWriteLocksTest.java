@@ -0,0 +1,111 @@
+package com.hostfully.technicalchallenge.service.property.domain.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class PropertyWriteLocksTest {
+
+  private final PropertyWriteLocks propertyWriteLocks = new PropertyWriteLocks(16);
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void shouldThrowIllegalStateExceptionIfNoTransactionIsActive() {
+    assertThatThrownBy(() -> propertyWriteLocks.lockUntilTransactionCompletes(UUID.randomUUID()))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void shouldThrowIllegalArgumentExceptionIfStripeCountIsNotPositive() {
+    assertThatThrownBy(() -> new PropertyWriteLocks(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldHoldLockUntilTransactionCompletes() throws Exception {
+    final UUID propertyId = UUID.randomUUID();
+    final CountDownLatch locked = new CountDownLatch(1);
+    final CountDownLatch complete = new CountDownLatch(1);
+
+    final Future<?> holder = executor.submit(() -> runInTransaction(() -> {
+      propertyWriteLocks.lockUntilTransactionCompletes(propertyId);
+      locked.countDown();
+      await(complete);
+    }));
+
+    assertThat(locked.await(5L, TimeUnit.SECONDS)).isTrue();
+
+    final Future<?> contender = executor.submit(() -> runInTransaction(
+        () -> propertyWriteLocks.lockUntilTransactionCompletes(propertyId)));
+
+    assertThatThrownBy(() -> contender.get(200L, TimeUnit.MILLISECONDS))
+        .isInstanceOf(TimeoutException.class);
+
+    complete.countDown();
+    holder.get(5L, TimeUnit.SECONDS);
+    contender.get(5L, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void shouldNotBlockPropertiesOnDifferentStripes() throws Exception {
+    final UUID propertyId = UUID.randomUUID();
+    UUID otherPropertyId = UUID.randomUUID();
+
+    while (propertyWriteLocks.stripeFor(otherPropertyId) == propertyWriteLocks.stripeFor(propertyId)) {
+      otherPropertyId = UUID.randomUUID();
+    }
+
+    final UUID finalOtherPropertyId = otherPropertyId;
+    final CountDownLatch locked = new CountDownLatch(1);
+    final CountDownLatch complete = new CountDownLatch(1);
+
+    final Future<?> holder = executor.submit(() -> runInTransaction(() -> {
+      propertyWriteLocks.lockUntilTransactionCompletes(propertyId);
+      locked.countDown();
+      await(complete);
+    }));
+
+    assertThat(locked.await(5L, TimeUnit.SECONDS)).isTrue();
+
+    runInTransaction(() -> propertyWriteLocks.lockUntilTransactionCompletes(List.of(finalOtherPropertyId)));
+
+    complete.countDown();
+    holder.get(5L, TimeUnit.SECONDS);
+  }
+
+  private static void runInTransaction(final Runnable action) {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      action.run();
+    } finally {
+      final List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+      TransactionSynchronizationManager.clearSynchronization();
+      synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+  }
+
+  private static void await(final CountDownLatch latch) {
+    try {
+      latch.await(5L, TimeUnit.SECONDS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
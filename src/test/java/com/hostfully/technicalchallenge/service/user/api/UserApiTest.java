@@ -1,19 +1,36 @@
 package com.hostfully.technicalchallenge.service.user.api;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hostfully.technicalchallenge.common.api.NdjsonImporter;
 import com.hostfully.technicalchallenge.common.exception.NotFoundException;
+import com.hostfully.technicalchallenge.common.exception.PreconditionFailedException;
+import com.hostfully.technicalchallenge.service.booking.data.BookingStatus;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingDto;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingFilter;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingMapper;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingMapperImpl;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingPage;
+import com.hostfully.technicalchallenge.service.booking.domain.BookingService;
 import com.hostfully.technicalchallenge.service.user.api.request.UpsertUserRequest;
 import com.hostfully.technicalchallenge.service.user.api.response.UserResponse;
 import com.hostfully.technicalchallenge.service.user.domain.UserDto;
@@ -21,6 +38,9 @@ import com.hostfully.technicalchallenge.service.user.domain.UserMapper;
 import com.hostfully.technicalchallenge.service.user.domain.UserMapperImpl;
 import com.hostfully.technicalchallenge.service.user.domain.UserService;
 import com.hostfully.technicalchallenge.util.RandomEntityGenerator;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
@@ -28,11 +48,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 
-@Import({UserMapperImpl.class})
+@Import({UserMapperImpl.class, BookingMapperImpl.class, NdjsonImporter.class})
 @WebMvcTest(controllers = {UserController.class})
 class UserApiTest {
 
@@ -42,8 +63,12 @@ class UserApiTest {
   private ObjectMapper objectMapper;
   @Autowired
   private UserMapper userMapper;
+  @Autowired
+  private BookingMapper bookingMapper;
   @MockBean
   private UserService userService;
+  @MockBean
+  private BookingService bookingService;
 
   @Test
   @SneakyThrows
@@ -84,9 +109,30 @@ class UserApiTest {
         .perform(get(UserApi.USER_API_PATH + "/{id}", userId))
         .andDo(print())
         .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"" + retrievedUser.getVersion() + "\""))
         .andExpect(content().json(objectMapper.writeValueAsString(expectedResponse)));
   }
 
+  @Test
+  @SneakyThrows
+  void shouldReturn304WithoutBodyIfETagMatchesWhenGetUserById() {
+    final UUID userId = UUID.randomUUID();
+
+    final UserDto retrievedUser = RandomEntityGenerator.create(UserDto.class)
+            .withId(userId)
+            .withVersion(3L);
+
+    doReturn(retrievedUser).when(userService).retrieveUser(any(UUID.class));
+
+    mockMvc
+        .perform(get(UserApi.USER_API_PATH + "/{id}", userId)
+            .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+        .andDo(print())
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+        .andExpect(content().string(""));
+  }
+
   @Test
   @SneakyThrows
   void shouldReturn400IfInvalidJsonWhenCreateUser() {
@@ -176,8 +222,8 @@ class UserApiTest {
 
     }).when(userService).createUser(any(UserDto.class));
 
-    final UserDto expectedResponse = userMapper.upsertRequestToDto(request)
-            .withId(userId);
+    final UserResponse expectedResponse = userMapper.dtoToResponse(userMapper.upsertRequestToDto(request)
+            .withId(userId));
 
     mockMvc
         .perform(
@@ -189,6 +235,41 @@ class UserApiTest {
         .andExpect(content().json(objectMapper.writeValueAsString(expectedResponse)));
   }
 
+  @Test
+  @SneakyThrows
+  void shouldStreamTheResultOfEachLineWhenImportUsers() {
+    final UUID userId = UUID.randomUUID();
+
+    final UpsertUserRequest request = RandomEntityGenerator.create(UpsertUserRequest.class)
+        .withEmail("pedro.martins@example.com");
+
+    doAnswer(invocation -> {
+
+      final List<UserDto> usersInfo = invocation.getArgument(0);
+      return usersInfo.stream().map(userInfo -> userInfo.withId(userId)).toList();
+
+    }).when(userService).createUsers(anyList());
+
+    final String body = objectMapper.writeValueAsString(request) + "\n"
+        + objectMapper.writeValueAsString(request.withEmail("invalid-email")) + "\n";
+
+    final String[] results = mockMvc
+        .perform(
+            post(UserApi.USER_API_PATH + "/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+        .andReturn().getResponse().getContentAsString().split("\n");
+
+    assertThat(results).hasSize(2);
+    assertThat(objectMapper.readTree(results[0]).at("/item/id").asText()).isEqualTo(userId.toString());
+    assertThat(objectMapper.readTree(results[1]).at("/error/fieldValidationErrors/email").isMissingNode()).isFalse();
+
+    verify(userService).createUsers(List.of(userMapper.upsertRequestToDto(request)));
+  }
+
   @Test
   @SneakyThrows
   void shouldReturn400IfInvalidUuidIsProvidedWhenUpdateUser() {
@@ -317,7 +398,8 @@ class UserApiTest {
         .withEmail("pedro.martins@example.com");
 
     final UserDto persisted = userMapper.upsertRequestToDto(request)
-            .withId(userId);
+            .withId(userId)
+            .withVersion(4L);
 
     final UserResponse expectedResponse = userMapper.dtoToResponse(persisted);
 
@@ -330,7 +412,75 @@ class UserApiTest {
                 .content(objectMapper.writeValueAsString(request)))
         .andDo(print())
         .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
         .andExpect(content().json(objectMapper.writeValueAsString(expectedResponse)));
+
+    verify(userService).updateUser(eq(userId), argThat(user -> Objects.isNull(user.getVersion())));
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldExpectTheIfMatchVersionWhenUpdateUser() {
+    final UUID userId = UUID.randomUUID();
+
+    final UpsertUserRequest request = RandomEntityGenerator.create(UpsertUserRequest.class)
+        .withEmail("pedro.martins@example.com");
+
+    doAnswer(invocation -> invocation.getArgument(1, UserDto.class).withId(userId).withVersion(4L))
+        .when(userService).updateUser(any(UUID.class), any(UserDto.class));
+
+    mockMvc
+        .perform(
+            put(UserApi.USER_API_PATH + "/{id}", userId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+
+    verify(userService).updateUser(eq(userId), argThat(user -> Long.valueOf(3L).equals(user.getVersion())));
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturn412IfVersionIsStaleWhenUpdateUser() {
+    final UUID userId = UUID.randomUUID();
+
+    final UpsertUserRequest request = RandomEntityGenerator.create(UpsertUserRequest.class)
+        .withEmail("pedro.martins@example.com");
+
+    doThrow(new PreconditionFailedException(String.format("The user %s was changed since version 3", userId)))
+        .when(userService).updateUser(any(UUID.class), any(UserDto.class));
+
+    mockMvc
+        .perform(
+            put(UserApi.USER_API_PATH + "/{id}", userId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andDo(print())
+        .andExpect(status().isPreconditionFailed());
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturn412IfIfMatchIsWeakWhenUpdateUser() {
+    final UUID userId = UUID.randomUUID();
+
+    final UpsertUserRequest request = RandomEntityGenerator.create(UpsertUserRequest.class)
+        .withEmail("pedro.martins@example.com");
+
+    mockMvc
+        .perform(
+            put(UserApi.USER_API_PATH + "/{id}", userId)
+                .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andDo(print())
+        .andExpect(status().isPreconditionFailed());
+
+    verify(userService, never()).updateUser(any(UUID.class), any(UserDto.class));
   }
 
   @Test
@@ -352,4 +502,55 @@ class UserApiTest {
         .andDo(print())
         .andExpect(status().isNoContent());
   }
+
+  @Test
+  @SneakyThrows
+  void shouldReturn400IfInvalidStatusIsProvidedWhenRetrieveUserBookings() {
+    mockMvc
+        .perform(
+            get(UserApi.USER_API_PATH + "/{id}/bookings", UUID.randomUUID())
+                .queryParam("status", "INVALID"))
+        .andDo(print())
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturn404IfUserDoesntExistWhenRetrieveUserBookings() {
+    final UUID userId = UUID.randomUUID();
+
+    doThrow(new NotFoundException(String.format("No user found with id %s", userId)))
+        .when(bookingService).retrieveUserBookings(any(UUID.class), any(BookingFilter.class), any(), anyInt());
+
+    mockMvc
+        .perform(get(UserApi.USER_API_PATH + "/{id}/bookings", userId))
+        .andDo(print())
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @SneakyThrows
+  void shouldReturn200WithBookingsPageWhenRetrieveUserBookings() {
+    final UUID userId = UUID.randomUUID();
+    final LocalDate today = LocalDate.now();
+    final BookingFilter filter = new BookingFilter(BookingStatus.BOOKED, today, today.plusDays(30L));
+
+    final BookingPage page = new BookingPage(
+        List.of(RandomEntityGenerator.create(BookingDto.class).withUserId(userId)),
+        "next-cursor");
+
+    doReturn(page).when(bookingService).retrieveUserBookings(userId, filter, "cursor", 10);
+
+    mockMvc
+        .perform(
+            get(UserApi.USER_API_PATH + "/{id}/bookings", userId)
+                .queryParam("status", BookingStatus.BOOKED.name())
+                .queryParam("startDate", today.toString())
+                .queryParam("endDate", today.plusDays(30L).toString())
+                .queryParam("cursor", "cursor")
+                .queryParam("limit", "10"))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(content().json(objectMapper.writeValueAsString(bookingMapper.pageToResponse(page)), true));
+  }
 }
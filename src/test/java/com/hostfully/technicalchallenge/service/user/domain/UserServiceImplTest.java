@@ -3,14 +3,19 @@ package com.hostfully.technicalchallenge.service.user.domain;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
+import com.hostfully.technicalchallenge.common.data.EntityDetacher;
 import com.hostfully.technicalchallenge.common.exception.NotFoundException;
+import com.hostfully.technicalchallenge.common.exception.PreconditionFailedException;
 import com.hostfully.technicalchallenge.service.user.data.User;
 import com.hostfully.technicalchallenge.service.user.data.UserRepository;
 import com.hostfully.technicalchallenge.util.RandomEntityGenerator;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
@@ -25,6 +30,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 class UserServiceImplTest {
   @Mock
   private UserRepository userRepository;
+  @Mock
+  private EntityDetacher entityDetacher;
   @Spy
   private UserMapper userMapper = new UserMapperImpl();
 
@@ -98,7 +105,8 @@ class UserServiceImplTest {
   void shouldCreateUser() {
     final UUID userId = UUID.randomUUID();
     final UserDto userInfo = RandomEntityGenerator.create(UserDto.class)
-        .withId(null);
+        .withId(null)
+        .withVersion(null);
 
     doAnswer(invocation -> {
 
@@ -113,6 +121,34 @@ class UserServiceImplTest {
     assertThat(saved).isEqualTo(expected);
   }
 
+  @Test
+  void shouldThrowNullPointerExceptionIfUsersInfoIsNullWhenCreateUsers() {
+    assertThatThrownBy(() -> userService.createUsers(null))
+        .isInstanceOf(NullPointerException.class);
+  }
+
+  @Test
+  void shouldCreateUsersWithASingleSaveWhenCreateUsers() {
+    final UUID userId = UUID.randomUUID();
+    final UserDto userInfo = RandomEntityGenerator.create(UserDto.class)
+        .withId(null)
+        .withVersion(null);
+
+    doAnswer(invocation -> {
+
+      final List<User> usersToBeSaved = invocation.getArgument(0);
+      return usersToBeSaved.stream().map(user -> user.withId(userId)).toList();
+
+    }).when(userRepository).saveAll(anyList());
+
+    final List<UserDto> saved = userService.createUsers(List.of(userInfo, userInfo.withName("Second")));
+
+    assertThat(saved).containsExactly(userInfo.withId(userId), userInfo.withId(userId).withName("Second"));
+
+    //Each window of an import is flushed and detached, so the request does not keep every imported user
+    verify(entityDetacher).flushAndDetachAll();
+  }
+
   @Test
   void shouldThrowNullPointerExceptionIfUserIdIsNullWhenUpdateUser() {
     final UserDto userInfo = RandomEntityGenerator.create(UserDto.class)
@@ -183,13 +219,14 @@ class UserServiceImplTest {
   void shouldUpdateUser() {
     final UUID userId = UUID.randomUUID();
 
-    final UserDto userInfo = RandomEntityGenerator.create(UserDto.class)
-        .withId(null);
-
     final User retrievedUser = RandomEntityGenerator.create(User.class)
         .withId(userId);
 
-    doAnswer(AdditionalAnswers.returnsFirstArg()).when(userRepository).save(any(User.class));
+    final UserDto userInfo = RandomEntityGenerator.create(UserDto.class)
+        .withId(null)
+        .withVersion(retrievedUser.getVersion());
+
+    doAnswer(AdditionalAnswers.returnsFirstArg()).when(userRepository).saveAndFlush(any(User.class));
     doReturn(Optional.of(retrievedUser)).when(userRepository).findById(any(UUID.class));
 
     final UserDto updated = userService.updateUser(userId, userInfo);
@@ -198,6 +235,26 @@ class UserServiceImplTest {
     assertThat(updated).isEqualTo(expected);
   }
 
+  @Test
+  void shouldThrowPreconditionFailedExceptionIfVersionIsStaleWhenUpdateUser() {
+    final UUID userId = UUID.randomUUID();
+
+    final User retrievedUser = RandomEntityGenerator.create(User.class)
+        .withId(userId)
+        .withVersion(2L);
+
+    final UserDto userInfo = RandomEntityGenerator.create(UserDto.class)
+        .withId(null)
+        .withVersion(1L);
+
+    doReturn(Optional.of(retrievedUser)).when(userRepository).findById(any(UUID.class));
+
+    assertThatThrownBy(() -> userService.updateUser(userId, userInfo))
+        .isInstanceOf(PreconditionFailedException.class);
+
+    verify(userRepository, never()).saveAndFlush(any(User.class));
+  }
+
   @Test
   void shouldThrowNullPointerExceptionIfUserIdIsNullWhenDeleteUser() {
     assertThatThrownBy(() -> userService.deleteUser(null))